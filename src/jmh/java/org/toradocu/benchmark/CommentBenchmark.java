@@ -0,0 +1,55 @@
+package org.toradocu.benchmark;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.toradocu.extractor.Comment;
+import org.toradocu.output.util.JsonOutput;
+import org.toradocu.output.util.TagOutput;
+
+/** Measures the construction of a {@code Comment}, which cleans the text of a Javadoc comment. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class CommentBenchmark {
+
+  private List<String> texts;
+  private int next;
+
+  @Setup
+  public void setUp() throws IOException {
+    texts = new ArrayList<>();
+    for (JsonOutput output : Corpus.goalOutputs()) {
+      for (TagOutput tag : output.paramTags) {
+        texts.add(tag.getComment());
+      }
+      if (output.returnTag != null) {
+        texts.add(output.returnTag.getComment());
+      }
+      for (TagOutput tag : output.throwsTags) {
+        texts.add(tag.getComment());
+      }
+    }
+  }
+
+  @Benchmark
+  public Comment construct() {
+    final String text = texts.get(next);
+    next = (next + 1) % texts.size();
+    return new Comment(text);
+  }
+}
@@ -0,0 +1,54 @@
+package org.toradocu.benchmark;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.toradocu.benchmark.Corpus.Sample;
+import org.toradocu.extractor.BlockTag;
+import org.toradocu.util.ComplianceChecks;
+import randoop.condition.specification.Guard;
+
+/**
+ * Measures {@code ComplianceChecks.isSpecCompilable} on the goal translations of the @param and
+ * @throws comments of the corpus.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class ComplianceBenchmark {
+
+  private List<Sample> samples;
+  private int next;
+
+  @Setup
+  public void setUp() throws IOException {
+    samples = new ArrayList<>();
+    for (Sample sample : Corpus.samples()) {
+      if (sample.tag.getKind() != BlockTag.Kind.RETURN && !sample.goalCondition.isEmpty()) {
+        samples.add(sample);
+      }
+    }
+  }
+
+  @Benchmark
+  public boolean isSpecCompilable() {
+    final Sample sample = samples.get(next);
+    next = (next + 1) % samples.size();
+    final Guard guard = new Guard(sample.tag.getComment().getText(), sample.goalCondition);
+    return ComplianceChecks.isSpecCompilable(sample.method, guard);
+  }
+}
@@ -0,0 +1,187 @@
+package org.toradocu.benchmark;
+
+import com.beust.jcommander.JCommander;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.toradocu.conf.Configuration;
+import org.toradocu.extractor.BlockTag;
+import org.toradocu.extractor.DocumentedExecutable;
+import org.toradocu.extractor.JavadocExtractor;
+import org.toradocu.output.util.JsonOutput;
+import org.toradocu.output.util.TagOutput;
+import org.toradocu.util.JsonStreamReader;
+
+/**
+ * Inputs of the benchmarks: the Javadoc comments of the classes in the goal output of one of the
+ * projects used to measure Toradocu's accuracy (by default, Commons Collections 4.1). The project
+ * can be changed with the system properties {@value #SOURCE_DIR}, {@value #CLASS_DIR}, and {@value
+ * #GOAL_DIR}.
+ *
+ * <p>Benchmarks that need only the comments read them from the goal output files. Benchmarks that
+ * need the documented executable members also require the sources and the binaries of the project,
+ * which are downloaded by the Gradle tasks {@code extractSources} and {@code extractBinaries}.
+ */
+public final class Corpus {
+
+  /** System property with the source directory of the benchmarked project. */
+  public static final String SOURCE_DIR = "toradocu.benchmark.src";
+  /** System property with the binaries of the benchmarked project. */
+  public static final String CLASS_DIR = "toradocu.benchmark.bin";
+  /** System property with the directory containing the goal output of the benchmarked project. */
+  public static final String GOAL_DIR = "toradocu.benchmark.goal";
+
+  /** The project benchmarked by default. */
+  private static final String PROJECT = "commons-collections4-4.1";
+
+  private static final String GOAL_SUFFIX = "_goal.json";
+
+  /** Goal output of the benchmarked classes, loaded on first use. */
+  private static List<JsonOutput> goalOutputs;
+  /** Comments of the benchmarked classes, loaded on first use. */
+  private static List<Sample> samples;
+
+  private Corpus() {}
+
+  /**
+   * Returns the goal output of all the benchmarked classes.
+   *
+   * @return the goal output of the benchmarked classes
+   * @throws IOException if the goal output cannot be read
+   */
+  public static synchronized List<JsonOutput> goalOutputs() throws IOException {
+    if (goalOutputs == null) {
+      List<JsonOutput> outputs = new ArrayList<>();
+      for (Path goalFile : goalFiles()) {
+        outputs.addAll(JsonStreamReader.readAll(goalFile, JsonOutput.class));
+      }
+      goalOutputs = Collections.unmodifiableList(outputs);
+    }
+    return goalOutputs;
+  }
+
+  /**
+   * Returns the comments of all the benchmarked classes, extracted from their source code. The
+   * first invocation configures Toradocu to analyze the benchmarked project.
+   *
+   * @return the comments of the benchmarked classes
+   * @throws IOException if the goal output cannot be read
+   */
+  public static synchronized List<Sample> samples() throws IOException {
+    if (samples != null) {
+      return samples;
+    }
+    final String sourceDir =
+        System.getProperty(
+            SOURCE_DIR, "src/test/resources/src/" + PROJECT + "-src/src/main/java/");
+    final String classDir =
+        System.getProperty(CLASS_DIR, "src/test/resources/bin/" + PROJECT + ".jar");
+    final List<Path> goalFiles = goalFiles();
+    if (goalFiles.isEmpty()) {
+      throw new IllegalStateException("No goal output found");
+    }
+    JCommander.newBuilder()
+        .addObject(Configuration.INSTANCE)
+        .build()
+        .parse(
+            "--target-class",
+            className(goalFiles.get(0)),
+            "--source-dir",
+            sourceDir,
+            "--class-dir",
+            classDir);
+    Configuration.INSTANCE.initialize();
+
+    List<Sample> extracted = new ArrayList<>();
+    for (Path goalFile : goalFiles) {
+      final String className = className(goalFile);
+      final List<DocumentedExecutable> members;
+      try {
+        members = new JavadocExtractor().extract(className, sourceDir).getDocumentedExecutables();
+      } catch (Exception e) {
+        System.err.println("Benchmark corpus: skipping " + className + ": " + e);
+        continue;
+      }
+      Map<String, JsonOutput> goal = new HashMap<>();
+      for (JsonOutput output : JsonStreamReader.<JsonOutput>readAll(goalFile, JsonOutput.class)) {
+        goal.put(output.signature, output);
+      }
+      for (DocumentedExecutable member : members) {
+        final Map<String, String> conditions = goalConditions(goal.get(member.getSignature()));
+        List<BlockTag> tags = new ArrayList<>();
+        tags.addAll(member.paramTags());
+        if (member.returnTag() != null) {
+          tags.add(member.returnTag());
+        }
+        tags.addAll(member.throwsTags());
+        for (BlockTag tag : tags) {
+          final String condition = conditions.get(tag.getComment().getText());
+          extracted.add(new Sample(member, tag, condition == null ? "" : condition));
+        }
+      }
+    }
+    if (extracted.isEmpty()) {
+      throw new IllegalStateException(
+          "No comment extracted: check the sources (" + sourceDir + ") and binaries (" + classDir
+              + ") of the benchmarked project");
+    }
+    samples = Collections.unmodifiableList(extracted);
+    return samples;
+  }
+
+  private static Map<String, String> goalConditions(JsonOutput goal) {
+    Map<String, String> conditions = new HashMap<>();
+    if (goal != null) {
+      List<TagOutput> tags = new ArrayList<>();
+      tags.addAll(goal.paramTags);
+      tags.addAll(goal.throwsTags);
+      if (goal.returnTag != null) {
+        tags.add(goal.returnTag);
+      }
+      for (TagOutput tag : tags) {
+        conditions.put(tag.getComment(), tag.getCondition());
+      }
+    }
+    return conditions;
+  }
+
+  private static List<Path> goalFiles() throws IOException {
+    final Path goalDir =
+        Paths.get(System.getProperty(GOAL_DIR, "src/test/resources/goal-output/" + PROJECT));
+    try (Stream<Path> files = Files.list(goalDir)) {
+      return files
+          .filter(f -> f.getFileName().toString().endsWith(GOAL_SUFFIX))
+          .sorted()
+          .collect(Collectors.toList());
+    }
+  }
+
+  private static String className(Path goalFile) {
+    final String fileName = goalFile.getFileName().toString();
+    return fileName.substring(0, fileName.length() - GOAL_SUFFIX.length());
+  }
+
+  /** A Javadoc comment of an executable member, together with its goal translation. */
+  public static final class Sample {
+    /** The documented executable member. */
+    public final DocumentedExecutable method;
+    /** The tag containing the comment. */
+    public final BlockTag tag;
+    /** The goal translation of the comment (empty if the comment has no translation). */
+    public final String goalCondition;
+
+    Sample(DocumentedExecutable method, BlockTag tag, String goalCondition) {
+      this.method = method;
+      this.tag = tag;
+      this.goalCondition = goalCondition;
+    }
+  }
+}
@@ -0,0 +1,77 @@
+package org.toradocu.benchmark;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.toradocu.output.util.JsonOutput;
+import org.toradocu.output.util.Parameter;
+import org.toradocu.output.util.TagOutput;
+import org.toradocu.util.Distance;
+
+/**
+ * Measures {@code Distance.editDistance} between the identifiers of the methods and parameters of
+ * a class (as the matcher does with the identifiers of code elements) and the first words of the
+ * comments of that class (a stand-in for the subjects of the comments).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class DistanceBenchmark {
+
+  /** Maximum number of words of a subject. */
+  private static final int SUBJECT_WORDS = 3;
+
+  private List<String[]> pairs;
+  private int next;
+
+  @Setup
+  public void setUp() throws IOException {
+    pairs = new ArrayList<>();
+    for (JsonOutput output : Corpus.goalOutputs()) {
+      Set<String> identifiers = new LinkedHashSet<>();
+      identifiers.add(words(output.name));
+      for (Parameter parameter : output.parameters) {
+        identifiers.add(words(parameter.getName()));
+      }
+      List<TagOutput> tags = new ArrayList<>(output.paramTags);
+      tags.addAll(output.throwsTags);
+      for (TagOutput tag : tags) {
+        final List<String> words = Arrays.asList(tag.getComment().toLowerCase().split(" "));
+        final String subject =
+            String.join(" ", words.subList(0, Math.min(words.size(), SUBJECT_WORDS)));
+        for (String identifier : identifiers) {
+          pairs.add(new String[] {identifier, subject});
+        }
+      }
+    }
+  }
+
+  @Benchmark
+  public int editDistance() {
+    final String[] pair = pairs.get(next);
+    next = (next + 1) % pairs.size();
+    return Distance.editDistance(pair[0], pair[1]);
+  }
+
+  /** Splits a camel case identifier in lower case words, e.g., "isEmpty" in "is empty". */
+  private static String words(String identifier) {
+    return identifier.replaceAll("([a-z])([A-Z])", "$1 $2").toLowerCase();
+  }
+}
@@ -0,0 +1,51 @@
+package org.toradocu.translator;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.toradocu.benchmark.Corpus;
+import org.toradocu.benchmark.Corpus.Sample;
+
+/** The propositions of the comments of the benchmark corpus, identified with the parser. */
+final class CorpusPropositions {
+
+  /** The propositions of the corpus, computed on first use. */
+  private static List<Entry> propositions;
+
+  private CorpusPropositions() {}
+
+  /**
+   * Returns the propositions of the comments of the benchmark corpus.
+   *
+   * @return the propositions of the comments
+   * @throws IOException if the corpus cannot be read
+   */
+  static synchronized List<Entry> get() throws IOException {
+    if (propositions == null) {
+      List<Entry> entries = new ArrayList<>();
+      for (Sample sample : Corpus.samples()) {
+        for (PropositionSeries series : Parser.parse(sample.tag.getComment(), sample.method)) {
+          for (Proposition proposition : series.getPropositions()) {
+            entries.add(new Entry(sample, proposition));
+          }
+        }
+      }
+      propositions = Collections.unmodifiableList(entries);
+    }
+    return propositions;
+  }
+
+  /** A proposition of a comment. */
+  static final class Entry {
+    /** The comment containing the proposition. */
+    final Sample sample;
+    /** The proposition. */
+    final Proposition proposition;
+
+    Entry(Sample sample, Proposition proposition) {
+      this.sample = sample;
+      this.proposition = proposition;
+    }
+  }
+}
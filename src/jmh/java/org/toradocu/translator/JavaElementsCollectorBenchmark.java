@@ -0,0 +1,64 @@
+package org.toradocu.translator;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.toradocu.benchmark.Corpus;
+import org.toradocu.benchmark.Corpus.Sample;
+import org.toradocu.extractor.DocumentedExecutable;
+
+/**
+ * Measures {@code JavaElementsCollector.collect} on the documented members of the corpus, both when
+ * the code elements of the class are already in the {@code CodeElementCatalog} (as for all the
+ * members of a class but the first one) and when they must be collected with reflection.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class JavaElementsCollectorBenchmark {
+
+  private List<DocumentedExecutable> methods;
+  private int next;
+
+  @Setup
+  public void setUp() throws IOException {
+    Set<DocumentedExecutable> members = new LinkedHashSet<>();
+    for (Sample sample : Corpus.samples()) {
+      members.add(sample.method);
+    }
+    methods = new ArrayList<>(members);
+  }
+
+  @Benchmark
+  public Set<CodeElement<?>> collect() {
+    return JavaElementsCollector.collect(nextMethod());
+  }
+
+  @Benchmark
+  public Set<CodeElement<?>> collectUncached() {
+    CodeElementCatalog.clear();
+    return JavaElementsCollector.collect(nextMethod());
+  }
+
+  private DocumentedExecutable nextMethod() {
+    final DocumentedExecutable method = methods.get(next);
+    next = (next + 1) % methods.size();
+    return method;
+  }
+}
@@ -0,0 +1,45 @@
+package org.toradocu.translator;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.toradocu.conf.Configuration;
+
+/** Measures {@code Matcher.subjectMatch} on the subjects of the propositions of the corpus. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class MatcherBenchmark {
+
+  private List<CorpusPropositions.Entry> propositions;
+  private Matcher matcher;
+  private int next;
+
+  @Setup
+  public void setUp() throws IOException {
+    propositions = CorpusPropositions.get();
+    matcher = new Matcher(Configuration.INSTANCE.getDistanceThreshold());
+  }
+
+  @Benchmark
+  public Set<CodeElement<?>> subjectMatch() {
+    final CorpusPropositions.Entry entry = propositions.get(next);
+    next = (next + 1) % propositions.size();
+    return matcher.subjectMatch(
+        entry.proposition.getSubject().getSubject(), entry.sample.method);
+  }
+}
@@ -0,0 +1,46 @@
+package org.toradocu.translator;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.toradocu.benchmark.Corpus;
+import org.toradocu.benchmark.Corpus.Sample;
+
+/**
+ * Measures {@code Parser.parse} on the comments of the corpus. The in-memory cache of semantic
+ * graphs is cleared before each invocation, so that every comment is actually parsed.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class ParserBenchmark {
+
+  private List<Sample> samples;
+  private int next;
+
+  @Setup
+  public void setUp() throws IOException {
+    samples = Corpus.samples();
+  }
+
+  @Benchmark
+  public List<PropositionSeries> parse() {
+    final Sample sample = samples.get(next);
+    next = (next + 1) % samples.size();
+    Parser.clearCache();
+    return Parser.parse(sample.tag.getComment(), sample.method);
+  }
+}
@@ -0,0 +1,81 @@
+package org.toradocu.translator;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.toradocu.conf.Configuration;
+import org.toradocu.translator.semantic.SemanticMatcher;
+
+/**
+ * Measures {@code SemanticMatcher.runSemanticMatch} on the propositions of the corpus whose subject
+ * matches a code element, with all the code elements of the documented member as candidates. This
+ * benchmark requires the GloVe model (Gradle task {@code unzipGlove}).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class SemanticMatcherBenchmark {
+
+  private List<Input> inputs;
+  private int next;
+
+  @Setup
+  public void setUp() throws IOException {
+    SemanticMatcher.setEnabled(true);
+    final Matcher matcher = new Matcher(Configuration.INSTANCE.getDistanceThreshold());
+    inputs = new ArrayList<>();
+    for (CorpusPropositions.Entry entry : CorpusPropositions.get()) {
+      final Set<CodeElement<?>> subjects =
+          matcher.subjectMatch(entry.proposition.getSubject().getSubject(), entry.sample.method);
+      if (!subjects.isEmpty()) {
+        List<CodeElement<?>> candidates =
+            new ArrayList<>(JavaElementsCollector.collect(entry.sample.method));
+        Collections.sort(candidates, new JavaExpressionComparator());
+        inputs.add(new Input(entry, subjects.iterator().next(), candidates));
+      }
+    }
+  }
+
+  @Benchmark
+  public LinkedHashMap<CodeElement<?>, Double> runSemanticMatch() throws IOException {
+    final Input input = inputs.get(next);
+    next = (next + 1) % inputs.size();
+    return SemanticMatcher.of(input.entry.sample.method.getDeclaringClass())
+        .runSemanticMatch(
+            input.candidates,
+            input.entry.sample.method,
+            input.subject,
+            input.entry.proposition,
+            input.entry.sample.tag.getComment().getText());
+  }
+
+  /** Input of the semantic matcher. */
+  private static final class Input {
+    final CorpusPropositions.Entry entry;
+    final CodeElement<?> subject;
+    final List<CodeElement<?>> candidates;
+
+    Input(CorpusPropositions.Entry entry, CodeElement<?> subject, List<CodeElement<?>> candidates) {
+      this.entry = entry;
+      this.subject = subject;
+      this.candidates = candidates;
+    }
+  }
+}
@@ -0,0 +1,366 @@
+package org.toradocu;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.toradocu.IncrementalAnalysis.Fingerprint;
+import org.toradocu.IncrementalAnalysis.Output;
+import org.toradocu.conf.Configuration;
+import org.toradocu.extractor.DocumentedExecutable;
+import org.toradocu.extractor.DocumentedType;
+import org.toradocu.extractor.ExtractionPipeline;
+import org.toradocu.extractor.ExtractionPipeline.Extraction;
+import org.toradocu.extractor.JavadocExtractor;
+import org.toradocu.output.util.JsonOutput;
+import org.toradocu.translator.CommentTranslator;
+import org.toradocu.translator.semantic.SemanticMatcher;
+import org.toradocu.util.GsonInstance;
+import org.toradocu.util.JsonStreamWriter;
+import org.toradocu.util.TargetClasses;
+import randoop.condition.specification.OperationSpecification;
+
+/**
+ * Runs Toradocu on multiple classes in a single process, so that the initialization of the NLP
+ * models (Stanford parser, GloVe vectors) is paid only once. Classes to analyze are selected with
+ * the batch options of {@code Configuration}. An error while analyzing a class is logged and does
+ * not prevent the analysis of the remaining classes.
+ */
+class BatchRunner {
+
+	/** Logger of this class. */
+	private static final Logger log = LoggerFactory.getLogger(BatchRunner.class);
+
+	/** Suffix of the files containing the condition translator output of a class. */
+	private static final String TRANSLATOR_OUTPUT_SUFFIX = "_out.json";
+	/** Suffix of the files containing the Randoop specifications of a class. */
+	private static final String RANDOOP_SPECS_SUFFIX = "_specs.json";
+
+	/** Toradocu's configurations. */
+	private final Configuration configuration;
+	/** Writer of the condition translator output of all the classes (used when output is merged). */
+	private JsonStreamWriter mergedOutput;
+	/** Writer of the Randoop specifications of all the classes (used when output is merged). */
+	private JsonStreamWriter mergedRandoopSpecs;
+	/** Classes whose analysis failed, each one associated with the reason of the failure. */
+	private final Map<String, String> failures = new LinkedHashMap<>();
+	/** State of the incremental analysis, null if every class is analyzed from scratch. */
+	private IncrementalAnalysis incremental;
+	/** Fingerprints of the classes submitted for extraction and not yet analyzed. */
+	private final Map<String, Fingerprint> fingerprints = new HashMap<>();
+
+	/**
+	 * Creates a new batch runner using the given configuration.
+	 *
+	 * @param configuration Toradocu's configurations, must be in batch mode
+	 */
+	BatchRunner(Configuration configuration) {
+		this.configuration = configuration;
+	}
+
+	/** Analyzes all the classes selected with the batch options and exports the results. */
+	void run() {
+		final List<String> targetClasses;
+		try {
+			targetClasses = collectTargetClasses();
+		} catch (IOException e) {
+			log.error("Unable to collect the classes to analyze", e);
+			return;
+		}
+		log.info("Batch mode: {} classes to analyze", targetClasses.size());
+
+		SemanticMatcher.setEnabled(configuration.isSemanticMatcherEnabled());
+		if (configuration.getBatchOutputDir() != null) {
+			try {
+				Files.createDirectories(configuration.getBatchOutputDir().toPath());
+			} catch (IOException e) {
+				log.error("Unable to create the directory " + configuration.getBatchOutputDir(), e);
+				return;
+			}
+		}
+		if (configuration.getIncrementalDir() != null && generatorsEnabled()) {
+			// The generators need the specifications of every class, which are not rebuilt from a
+			// reused output.
+			log.warn("Incremental analysis disabled: it cannot be combined with the generation of oracles"
+					+ " or test cases");
+		} else if (configuration.getIncrementalDir() != null) {
+			try {
+				incremental = IncrementalAnalysis.open(configuration.getIncrementalDir(), configuration);
+			} catch (IOException e) {
+				log.error("Unable to create the directory " + configuration.getIncrementalDir(), e);
+				return;
+			}
+		}
+
+		int analyzed = 0;
+		try (ExtractionPipeline extractions = new ExtractionPipeline(targetClasses, configuration.sourceDir.toString(),
+				configuration.getExtractionThreads(), this::needsExtraction)) {
+			while (extractions.hasNext()) {
+				final Extraction extraction = extractions.next();
+				final String targetClass = extraction.getClassName();
+				log.info("Batch mode: analyzing {} ({}/{})", targetClass, ++analyzed, targetClasses.size());
+				try {
+					analyze(extraction);
+				} catch (Exception | AssertionError | LinkageError e) {
+					// Errors in a class must not abort the analysis of the other classes.
+					log.error("Error during the analysis of " + targetClass, e);
+					failures.put(targetClass, e.toString());
+					if (incremental != null) {
+						incremental.fail(targetClass);
+					}
+				}
+			}
+		}
+		if (incremental != null) {
+			incremental.save();
+		}
+
+		if (configuration.getBatchOutputDir() == null) {
+			closeMergedOutput();
+		}
+
+		log.info("Batch mode completed: {} classes analyzed, {} failures", targetClasses.size(), failures.size());
+		for (Map.Entry<String, String> failure : failures.entrySet()) {
+			log.info("Batch mode: analysis of {} failed: {}", failure.getKey(), failure.getValue());
+		}
+	}
+
+	/**
+	 * Tells whether any generator consuming the specifications of the analyzed classes is enabled.
+	 *
+	 * @return true if oracle, test, or validation test generation is enabled
+	 */
+	private boolean generatorsEnabled() {
+		return configuration.isOracleGenerationEnabled() || configuration.isTestGenerationEnabled()
+				|| configuration.isTestValidationEnabled();
+	}
+
+	/**
+	 * Returns the names of the classes selected with the batch options. Each class appears once,
+	 * even when selected by multiple options.
+	 *
+	 * @return the names of the classes to analyze
+	 * @throws IOException if the classes cannot be collected
+	 */
+	private List<String> collectTargetClasses() throws IOException {
+		Set<String> targetClasses = new LinkedHashSet<>();
+		if (configuration.getTargetClass() != null) {
+			targetClasses.add(configuration.getTargetClass());
+		}
+		if (configuration.getTargetPackage() != null) {
+			targetClasses.addAll(TargetClasses.fromPackage(configuration.sourceDir, configuration.getTargetPackage()));
+		}
+		if (configuration.isTargetSourceRoot()) {
+			targetClasses.addAll(TargetClasses.fromSourceRoot(configuration.sourceDir));
+		}
+		if (configuration.getTargetJar() != null) {
+			targetClasses.addAll(TargetClasses.fromJar(configuration.getTargetJar()));
+		}
+		if (configuration.getTargetClassList() != null) {
+			targetClasses.addAll(TargetClasses.fromClassList(configuration.getTargetClassList()));
+		}
+		if (configuration.isNestedClasses()) {
+			return TargetClasses.withNestedClasses(configuration.sourceDir, new ArrayList<>(targetClasses));
+		}
+		return new ArrayList<>(targetClasses);
+	}
+
+	/**
+	 * Checks whether the Javadoc comments of the given class have to be extracted. With the
+	 * incremental analysis, the comments of a class are not extracted if the output of a previous
+	 * run can be reused because neither the source file nor the class file of the class changed.
+	 * Invoked by the extraction pipeline right before the extraction of the class is submitted.
+	 *
+	 * @param targetClass the fully-qualified name of a class to analyze
+	 * @return true if the Javadoc comments of the class have to be extracted
+	 */
+	private boolean needsExtraction(String targetClass) {
+		if (incremental == null || !configuration.isConditionTranslationEnabled()) {
+			return true;
+		}
+		final Fingerprint fingerprint = IncrementalAnalysis.fingerprint(targetClass, configuration.sourceDir);
+		fingerprints.put(targetClass, fingerprint);
+		return !incremental.isUnchanged(targetClass, fingerprint);
+	}
+
+	/**
+	 * Translates the Javadoc comments of the given class, and exports (or collects, when the output
+	 * is merged) the resulting specifications. With the incremental analysis, the output of a
+	 * previous run is exported instead, if the class did not change since then.
+	 *
+	 * @param extraction the extraction of the Javadoc comments of the class to analyze
+	 * @throws Exception if the Javadoc comments of the class cannot be extracted
+	 */
+	private void analyze(Extraction extraction) throws Exception {
+		final String targetClass = extraction.getClassName();
+		// Components downstream of the translator (e.g., test generators) read the target class from
+		// the configuration.
+		configuration.setTargetClass(targetClass);
+
+		final boolean incrementalAnalysis = incremental != null && configuration.isConditionTranslationEnabled();
+		final Fingerprint fingerprint = incrementalAnalysis ? fingerprints.remove(targetClass) : null;
+		if (incrementalAnalysis && export(targetClass, incremental.reuse(targetClass, fingerprint))) {
+			return;
+		}
+
+		// A class not submitted for extraction is extracted here when the output of the previous run
+		// turns out to be unusable (e.g., it cannot be read).
+		final DocumentedType documentedType = extraction.isExtracted() ? extraction.get()
+				: new JavadocExtractor().extract(targetClass, configuration.sourceDir.toString());
+		final List<DocumentedExecutable> members = documentedType.getDocumentedExecutables();
+		if (!configuration.isConditionTranslationEnabled()) {
+			return;
+		}
+		if (incrementalAnalysis) {
+			IncrementalAnalysis.addJavadocFingerprint(fingerprint, members);
+			if (export(targetClass, incremental.reuse(targetClass, fingerprint))) {
+				return;
+			}
+		}
+
+		final Map<DocumentedExecutable, OperationSpecification> specifications = CommentTranslator
+				.createSpecifications(members);
+
+		List<JsonOutput> jsonOutputs = new ArrayList<>();
+		for (DocumentedExecutable member : members) {
+			jsonOutputs.add(new JsonOutput(member, specifications.get(member)));
+		}
+		final Gson gson = GsonInstance.gson();
+		JsonArray randoopSpecs = null;
+		if (!configuration.isSilent() && configuration.randoopSpecsFile() != null) {
+			randoopSpecs = gson.toJsonTree(Toradocu.toRandoopSpecs(specifications)).getAsJsonArray();
+		}
+		final Output output = new Output(gson.toJsonTree(jsonOutputs).getAsJsonArray(), randoopSpecs);
+		export(targetClass, output);
+		if (incrementalAnalysis) {
+			incremental.store(targetClass, fingerprint, output);
+		}
+
+		Toradocu.runGenerators(specifications);
+	}
+
+	/**
+	 * Exports (or appends to the merged output) the output of the given class.
+	 *
+	 * @param targetClass the fully-qualified name of the analyzed class
+	 * @param output the output of the analysis of the class, can be null
+	 * @return true if the output has been exported, false if {@code output} is null
+	 * @throws IOException if the merged output cannot be written
+	 */
+	private boolean export(String targetClass, Output output) throws IOException {
+		if (output == null) {
+			return false;
+		}
+		final File outputDir = configuration.getBatchOutputDir();
+		if (outputDir != null) {
+			if (!configuration.isSilent() || output.translatorOutput.size() != 0) {
+				write(new File(outputDir, targetClass + TRANSLATOR_OUTPUT_SUFFIX), output.translatorOutput,
+						configuration.getJsonLayout());
+			}
+			if (output.randoopSpecs != null) {
+				write(new File(outputDir, targetClass + RANDOOP_SPECS_SUFFIX), output.randoopSpecs,
+						configuration.getRandoopSpecsLayout());
+			}
+		} else {
+			for (JsonElement jsonOutput : output.translatorOutput) {
+				mergedOutput().write(jsonOutput);
+			}
+			if (output.randoopSpecs != null) {
+				for (JsonElement randoopSpec : output.randoopSpecs) {
+					mergedRandoopSpecs().write(randoopSpec);
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the writer of the merged condition translator output, opening it on first use.
+	 *
+	 * @return the writer of the merged condition translator output
+	 * @throws IOException if the output file cannot be opened
+	 */
+	private JsonStreamWriter mergedOutput() throws IOException {
+		if (mergedOutput == null) {
+			final File translatorOutput = configuration.getConditionTranslatorOutput();
+			if (translatorOutput != null) {
+				mergedOutput = JsonStreamWriter.open(translatorOutput.toPath(), configuration.getJsonLayout());
+			} else {
+				System.out.println("Condition translator output:");
+				mergedOutput = JsonStreamWriter.toStream(System.out, configuration.getJsonLayout());
+			}
+		}
+		return mergedOutput;
+	}
+
+	/**
+	 * Returns the writer of the merged Randoop specifications, opening it on first use.
+	 *
+	 * @return the writer of the merged Randoop specifications
+	 * @throws IOException if the output file cannot be opened
+	 */
+	private JsonStreamWriter mergedRandoopSpecs() throws IOException {
+		if (mergedRandoopSpecs == null) {
+			final File randoopSpecsFile = configuration.randoopSpecsFile();
+			Toradocu.generateRandoopSpecsFile(randoopSpecsFile);
+			mergedRandoopSpecs = JsonStreamWriter.open(randoopSpecsFile.toPath(),
+					configuration.getRandoopSpecsLayout());
+		}
+		return mergedRandoopSpecs;
+	}
+
+	/**
+	 * Completes the merged output of all the analyzed classes. Unless Toradocu is silent, the output
+	 * files are written even when no class produced any output.
+	 */
+	private void closeMergedOutput() {
+		try {
+			if (!configuration.isSilent()) {
+				mergedOutput();
+				if (configuration.randoopSpecsFile() != null) {
+					mergedRandoopSpecs();
+				}
+			}
+			if (mergedOutput != null) {
+				mergedOutput.close();
+				if (configuration.getConditionTranslatorOutput() == null) {
+					System.out.println();
+				}
+			}
+			if (mergedRandoopSpecs != null) {
+				mergedRandoopSpecs.close();
+			}
+		} catch (IOException e) {
+			log.error("Unable to write the merged output of the analyzed classes", e);
+		}
+	}
+
+	/**
+	 * Writes the given output (condition translator output or Randoop specifications) to
+	 * {@code file} in JSON format.
+	 *
+	 * @param file the output file
+	 * @param output the output to write
+	 * @param layout the layout of the JSON file
+	 */
+	private void write(File file, JsonArray output, JsonStreamWriter.Layout layout) {
+		try (JsonStreamWriter writer = JsonStreamWriter.open(file.toPath(), layout)) {
+			for (JsonElement element : output) {
+				writer.write(element);
+			}
+		} catch (IOException e) {
+			log.error("Unable to write the output on file " + file.getAbsolutePath(), e);
+		}
+	}
+}
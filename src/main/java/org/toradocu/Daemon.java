@@ -0,0 +1,452 @@
+package org.toradocu;
+
+import com.beust.jcommander.JCommander;
+import com.beust.jcommander.Parameter;
+import com.beust.jcommander.ParameterException;
+import com.beust.jcommander.converters.FileConverter;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.toradocu.conf.Configuration;
+import org.toradocu.extractor.Comment;
+import org.toradocu.extractor.DocumentedExecutable;
+import org.toradocu.extractor.JavadocExtractor;
+import org.toradocu.output.util.JsonOutput;
+import org.toradocu.translator.CommentTranslator;
+import org.toradocu.translator.Parser;
+import org.toradocu.translator.semantic.SemanticMatcher;
+import org.toradocu.util.GsonInstance;
+import org.toradocu.util.Reflection;
+import randoop.condition.specification.OperationSpecification;
+
+/**
+ * Long-lived Toradocu process that translates the comments of one class per request, so that the
+ * initialization of the JVM and of the NLP models is paid only once. The daemon is started with
+ * {@code java -jar toradocu.jar daemon [options]} and listens on a port of the loopback interface.
+ *
+ * <p>Clients send requests and receive responses as JSON objects, one per line. A translation
+ * request has the form:
+ *
+ * <pre>
+ * {"id": "1", "targetClass": "pkg.Cls", "sourceDir": "src", "classDirs": ["bin", "lib/dep.jar"],
+ *  "options": ["--disable-semantics", "true"]}
+ * </pre>
+ *
+ * where {@code options} are Toradocu's command-line options (batch options are not supported).
+ * The response contains the condition translator output ({@code output}) and the Randoop
+ * specifications ({@code randoopSpecs}) of the class, or an error message ({@code error}). The
+ * requests {@code {"command": "ping"}} and {@code {"command": "shutdown"}} check that the daemon is
+ * alive and stop it.
+ *
+ * <p>Each request is analyzed with the default options plus the ones in the request, and with a new
+ * class loader for its classpath, closed when the request completes: classes of different requests
+ * never mix, and recompiled classes are picked up by the next request. Since the configuration and
+ * the caches of Toradocu are process-wide, requests are analyzed one at a time (the comments of a
+ * class are still translated with {@code --translation-threads} threads); at most {@code
+ * --max-requests} requests are accepted at the same time, and further ones are rejected. On
+ * shutdown, the daemon stops accepting connections and completes the accepted requests.
+ */
+class Daemon implements Closeable {
+
+	/** Command that starts the daemon, given as the first command-line argument of Toradocu. */
+	static final String COMMAND = "daemon";
+
+	/** Logger of this class. */
+	private static final Logger log = LoggerFactory.getLogger(Daemon.class);
+	/** Gson instance used to write responses, one per line. */
+	private static final Gson compactGson = new GsonBuilder().disableHtmlEscaping().create();
+	/** Maximum time to wait for the accepted requests on shutdown. */
+	private static final long SHUTDOWN_TIMEOUT_MINUTES = 5;
+
+	/** Command-line options of the daemon. */
+	static class Options {
+		@Parameter(names = "--port", description = "Port of the loopback interface on which the daemon listens"
+				+ " (0 to use any free port)")
+		int port = 0;
+
+		@Parameter(names = "--port-file", description = "File where the daemon writes the port on which it listens",
+				converter = FileConverter.class)
+		File portFile;
+
+		@Parameter(names = "--max-requests", description = "Maximum number of requests accepted at the same time;"
+				+ " further requests are rejected")
+		int maxRequests = 8;
+
+		@Parameter(names = { "--help", "-h" }, description = "Print a list of available options", help = true)
+		boolean help;
+	}
+
+	/** A request of a client. */
+	static class Request {
+		/** Identifier of the request, copied in the response. */
+		String id;
+		/** Command of the request: {@code translate} (default), {@code ping}, or {@code shutdown}. */
+		String command;
+		/** Fully-qualified name of the class to analyze. */
+		String targetClass;
+		/** Path of the directory containing the source files of the class. */
+		String sourceDir;
+		/** JAR files and directories containing the binaries of the class and its dependencies. */
+		List<String> classDirs;
+		/** Other command-line options of Toradocu. */
+		List<String> options;
+	}
+
+	/** Socket on which the daemon accepts connections. */
+	private final ServerSocket server;
+	/** Threads serving the accepted connections. */
+	private final ExecutorService workers;
+	/** Maximum number of requests accepted at the same time. */
+	private final int maxRequests;
+	/** Permits to serve a connection, one for each request that can be accepted at the same time. */
+	private final Semaphore permits;
+	/** Open connections, each one associated with whether it is processing a request. */
+	private final Map<Socket, Boolean> connections = new ConcurrentHashMap<>();
+	/** Lock held while a request is analyzed. */
+	private final Object analysisLock = new Object();
+	/** Whether the daemon is shutting down. */
+	private volatile boolean stopping;
+
+	/**
+	 * Creates a daemon listening on the given port of the loopback interface.
+	 *
+	 * @param port the port on which to listen, 0 to use any free port
+	 * @param maxRequests the maximum number of requests accepted at the same time
+	 * @throws IOException if the daemon cannot listen on {@code port}
+	 */
+	Daemon(int port, int maxRequests) throws IOException {
+		if (maxRequests < 1) {
+			throw new IllegalArgumentException("The maximum number of requests must be positive");
+		}
+		this.server = new ServerSocket(port, 0, InetAddress.getLoopbackAddress());
+		this.maxRequests = maxRequests;
+		this.workers = Executors.newFixedThreadPool(maxRequests);
+		this.permits = new Semaphore(maxRequests);
+	}
+
+	/**
+	 * Starts a daemon with the given command-line options and serves requests until the daemon is
+	 * shut down.
+	 *
+	 * @param args command-line options of the daemon
+	 */
+	static void main(String[] args) {
+		final Options options = new Options();
+		final JCommander jCommander = JCommander.newBuilder().addObject(options)
+				.programName("java -jar toradocu.jar " + COMMAND).build();
+		try {
+			jCommander.parse(args);
+		} catch (ParameterException e) {
+			jCommander.usage();
+			System.out.println(e.getMessage());
+			System.exit(1);
+		}
+		if (options.help) {
+			jCommander.usage();
+			System.exit(1);
+		}
+
+		final Daemon daemon;
+		try {
+			daemon = new Daemon(options.port, options.maxRequests);
+		} catch (IOException | IllegalArgumentException e) {
+			log.error("Unable to start the daemon", e);
+			System.exit(1);
+			return;
+		}
+		Runtime.getRuntime().addShutdownHook(new Thread(daemon::close));
+		warmUp();
+		if (options.portFile != null) {
+			try {
+				Files.write(options.portFile.toPath(),
+						String.valueOf(daemon.getPort()).getBytes(StandardCharsets.UTF_8));
+			} catch (IOException e) {
+				log.error("Unable to write the port of the daemon to " + options.portFile, e);
+			}
+		}
+		System.out.println("Toradocu daemon listening on "
+				+ InetAddress.getLoopbackAddress().getHostAddress() + ":" + daemon.getPort());
+		daemon.serve();
+	}
+
+	/**
+	 * Returns the port on which this daemon listens.
+	 *
+	 * @return the port on which this daemon listens
+	 */
+	int getPort() {
+		return server.getLocalPort();
+	}
+
+	/**
+	 * Accepts connections and serves their requests until this daemon is shut down. When this method
+	 * returns, all the accepted requests have been completed.
+	 */
+	void serve() {
+		while (!stopping) {
+			final Socket socket;
+			try {
+				socket = server.accept();
+			} catch (IOException e) {
+				if (!stopping) {
+					log.error("Unable to accept connections", e);
+					stopping = true;
+				}
+				break;
+			}
+			if (!permits.tryAcquire()) {
+				reject(socket);
+				continue;
+			}
+			connections.put(socket, false);
+			try {
+				workers.execute(() -> {
+					try {
+						handle(socket);
+					} finally {
+						connections.remove(socket);
+						permits.release();
+					}
+				});
+			} catch (RuntimeException e) {
+				// The workers have been shut down concurrently.
+				connections.remove(socket);
+				permits.release();
+				reject(socket);
+			}
+		}
+		close();
+	}
+
+	/**
+	 * Shuts down this daemon: stops accepting connections, closes the idle connections, and waits for
+	 * the completion of the requests being processed.
+	 */
+	@Override
+	public void close() {
+		stopping = true;
+		closeServer();
+		for (Map.Entry<Socket, Boolean> connection : connections.entrySet()) {
+			if (!connection.getValue()) {
+				closeInput(connection.getKey());
+			}
+		}
+		workers.shutdown();
+		try {
+			if (!workers.awaitTermination(SHUTDOWN_TIMEOUT_MINUTES, TimeUnit.MINUTES)) {
+				log.warn("Daemon shut down with requests still in progress");
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Serves the requests sent on the given connection until the client closes it or the daemon is
+	 * shut down.
+	 *
+	 * @param socket the connection with the client
+	 */
+	private void handle(Socket socket) {
+		try (Socket connection = socket;
+				BufferedReader in = new BufferedReader(
+						new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8));
+				BufferedWriter out = new BufferedWriter(
+						new OutputStreamWriter(connection.getOutputStream(), StandardCharsets.UTF_8))) {
+			String line;
+			while (!stopping && (line = in.readLine()) != null) {
+				if (line.trim().isEmpty()) {
+					continue;
+				}
+				connections.put(connection, true);
+				final JsonObject response = process(line);
+				out.write(compactGson.toJson(response));
+				out.newLine();
+				out.flush();
+				connections.put(connection, false);
+			}
+		} catch (IOException e) {
+			if (!stopping) {
+				log.warn("Connection with a client closed unexpectedly", e);
+			}
+		}
+	}
+
+	/**
+	 * Processes the given request and returns the response.
+	 *
+	 * @param line the request, a JSON object
+	 * @return the response to the request
+	 */
+	JsonObject process(String line) {
+		final Request request;
+		try {
+			request = compactGson.fromJson(line, Request.class);
+		} catch (JsonParseException e) {
+			return error(null, "Malformed request: " + e.getMessage());
+		}
+		if (request == null) {
+			return error(null, "Malformed request: " + line);
+		}
+		final String command = request.command == null ? "translate" : request.command;
+		switch (command) {
+		case "ping":
+			return ok(request);
+		case "shutdown":
+			log.info("Daemon shutdown requested");
+			stopping = true;
+			// Stop accepting connections; the daemon completes the shutdown in serve().
+			closeServer();
+			return ok(request);
+		case "translate":
+			try {
+				return translate(request);
+			} catch (Exception | AssertionError | LinkageError e) {
+				log.error("Error during the analysis of " + request.targetClass, e);
+				return error(request, e.toString());
+			}
+		default:
+			return error(request, "Unknown command: " + command);
+		}
+	}
+
+	/**
+	 * Translates the comments of the class of the given request.
+	 *
+	 * @param request the translation request
+	 * @return the response containing the specifications of the class
+	 * @throws Exception if the Javadoc comments of the class cannot be extracted
+	 */
+	private JsonObject translate(Request request) throws Exception {
+		if (request.targetClass == null || request.sourceDir == null || request.classDirs == null
+				|| request.classDirs.isEmpty()) {
+			return error(request, "The request must specify targetClass, sourceDir, and classDirs");
+		}
+		List<String> args = new ArrayList<>();
+		if (request.options != null) {
+			args.addAll(request.options);
+		}
+		args.addAll(Arrays.asList("--target-class", request.targetClass, "--source-dir", request.sourceDir,
+				"--class-dir", String.join(File.pathSeparator, request.classDirs)));
+
+		synchronized (analysisLock) {
+			final Configuration configuration = Configuration.INSTANCE;
+			configuration.reset();
+			try {
+				JCommander.newBuilder().addObject(configuration).build().parse(args.toArray(new String[0]));
+				configuration.initialize();
+			} catch (ParameterException e) {
+				return error(request, e.getMessage());
+			}
+			if (configuration.isBatchMode()) {
+				return error(request, "Batch options are not supported by the daemon");
+			}
+			try {
+				SemanticMatcher.setEnabled(configuration.isSemanticMatcherEnabled());
+				final List<DocumentedExecutable> members = new JavadocExtractor()
+						.extract(request.targetClass, request.sourceDir).getDocumentedExecutables();
+				final Map<DocumentedExecutable, OperationSpecification> specifications = CommentTranslator
+						.createSpecifications(members);
+				List<JsonOutput> jsonOutputs = new ArrayList<>();
+				for (DocumentedExecutable member : members) {
+					jsonOutputs.add(new JsonOutput(member, specifications.get(member)));
+				}
+				final Gson gson = GsonInstance.gson();
+				final JsonObject response = ok(request);
+				response.add("output", gson.toJsonTree(jsonOutputs));
+				// Conversion to Randoop specifications modifies the specifications.
+				response.add("randoopSpecs", gson.toJsonTree(Toradocu.toRandoopSpecs(specifications)));
+				return response;
+			} finally {
+				// Release the classes of the request.
+				Parser.clearCache();
+				Reflection.close();
+			}
+		}
+	}
+
+	/** Loads the NLP models of the parser, so that the first request does not pay for it. */
+	private static void warmUp() {
+		try {
+			Parser.parse(new Comment("The given value is null."), null);
+		} catch (RuntimeException e) {
+			log.warn("Unable to load the NLP models in advance", e);
+		} finally {
+			Parser.clearCache();
+		}
+	}
+
+	private static JsonObject ok(Request request) {
+		JsonObject response = new JsonObject();
+		response.addProperty("id", request.id);
+		response.addProperty("status", "ok");
+		return response;
+	}
+
+	private static JsonObject error(Request request, String message) {
+		JsonObject response = new JsonObject();
+		response.addProperty("id", request == null ? null : request.id);
+		response.addProperty("status", "error");
+		response.addProperty("error", message);
+		return response;
+	}
+
+	/**
+	 * Tells the client on the given connection that the request cannot be accepted, and closes the
+	 * connection.
+	 *
+	 * @param socket the connection with the client
+	 */
+	private void reject(Socket socket) {
+		try (Socket connection = socket;
+				BufferedWriter out = new BufferedWriter(
+						new OutputStreamWriter(connection.getOutputStream(), StandardCharsets.UTF_8))) {
+			final String message = stopping ? "The daemon is shutting down"
+					: "Too many requests: the daemon accepts at most " + maxRequests + " requests at the same time";
+			out.write(compactGson.toJson(error(null, message)));
+			out.newLine();
+		} catch (IOException e) {
+			log.debug("Unable to reject a request", e);
+		}
+	}
+
+	private void closeServer() {
+		try {
+			server.close();
+		} catch (IOException e) {
+			log.warn("Unable to close the daemon socket", e);
+		}
+	}
+
+	private static void closeInput(Socket socket) {
+		try {
+			socket.shutdownInput();
+		} catch (IOException e) {
+			log.debug("Unable to close an idle connection", e);
+		}
+	}
+}
@@ -0,0 +1,430 @@
+package org.toradocu;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.toradocu.conf.Configuration;
+import org.toradocu.extractor.BlockTag;
+import org.toradocu.extractor.DocumentedExecutable;
+import org.toradocu.util.GsonInstance;
+import org.toradocu.util.Reflection;
+
+/**
+ * Keeps track of the classes analyzed in batch mode, so that a later run can reuse the output of
+ * the classes that did not change. The state is kept in the directory specified with
+ * {@code --incremental-dir}, which contains:
+ *
+ * <ul>
+ * <li>{@code manifest.json}: the fingerprints of the source file, the class file, and the Javadoc
+ * comments of each class, together with the configuration of the run that produced them;</li>
+ * <li>{@code classes/}: the condition translator output and the Randoop specifications of each
+ * class;</li>
+ * <li>{@code report.csv}: for each class of the last run, whether its output was reused or
+ * recomputed, and why.</li>
+ * </ul>
+ *
+ * A class is reused when its class file is unchanged and either its source file or its Javadoc
+ * comments are unchanged. Changes to other classes (e.g., to the types used in a comment) are not
+ * tracked. The incremental analysis is disabled when oracles or test cases are generated, since the
+ * generators need the specifications of every class.
+ */
+final class IncrementalAnalysis {
+
+	/** Logger of this class. */
+	private static final Logger log = LoggerFactory.getLogger(IncrementalAnalysis.class);
+
+	/** Version of the manifest format. Manifests with a different version are discarded. */
+	private static final int FORMAT_VERSION = 1;
+	/** Name of the manifest file. */
+	private static final String MANIFEST = "manifest.json";
+	/** Name of the report file. */
+	private static final String REPORT = "report.csv";
+	/** Name of the directory containing the output of each class. */
+	private static final String CLASSES_DIR = "classes";
+	/** Suffix of the files containing the condition translator output of a class. */
+	private static final String TRANSLATOR_OUTPUT_SUFFIX = "_out.json";
+	/** Suffix of the files containing the Randoop specifications of a class. */
+	private static final String RANDOOP_SPECS_SUFFIX = "_specs.json";
+
+	/** Directory containing the state of the incremental analysis. */
+	private final Path dir;
+	/** Options of the current run that affect the output of a class. */
+	private final String configuration;
+	/** Fingerprints recorded by the previous run (empty if the configuration changed). */
+	private final Map<String, Fingerprint> previous;
+	/** Whether the previous run used a different configuration. */
+	private final boolean configurationChanged;
+	/** Fingerprints of the classes analyzed in the current run. */
+	private final Map<String, Fingerprint> current = new LinkedHashMap<>();
+	/** Outcome of each class analyzed in the current run ("status;reason"). */
+	private final Map<String, String> outcomes = new LinkedHashMap<>();
+	/** Number of reused classes. */
+	private int reused;
+
+	/**
+	 * Loads the state of the incremental analysis from the given directory, creating the directory
+	 * if it does not exist.
+	 *
+	 * @param dir the directory containing the state of the incremental analysis
+	 * @param configuration Toradocu's configurations
+	 * @return the state of the incremental analysis
+	 * @throws IOException if the directory cannot be created
+	 */
+	static IncrementalAnalysis open(File dir, Configuration configuration) throws IOException {
+		final Path path = dir.toPath();
+		Files.createDirectories(path.resolve(CLASSES_DIR));
+		return new IncrementalAnalysis(path, configurationFingerprint(configuration), readManifest(path));
+	}
+
+	private IncrementalAnalysis(Path dir, String configuration, Manifest manifest) {
+		this.dir = dir;
+		this.configuration = configuration;
+		if (manifest == null || manifest.version != FORMAT_VERSION || manifest.classes == null) {
+			this.previous = new LinkedHashMap<>();
+			this.configurationChanged = false;
+		} else if (!configuration.equals(manifest.configuration)) {
+			this.previous = new LinkedHashMap<>();
+			this.configurationChanged = true;
+		} else {
+			this.previous = manifest.classes;
+			this.configurationChanged = false;
+		}
+	}
+
+	/**
+	 * Computes the fingerprints of the source file and of the class file of the given class.
+	 *
+	 * @param className the fully-qualified name of a class
+	 * @param sourceDir the directory containing the source files
+	 * @return the fingerprints of the class, without the fingerprint of its Javadoc comments
+	 */
+	static Fingerprint fingerprint(String className, Path sourceDir) {
+		final int nested = className.indexOf('$');
+		final String outerClass = nested == -1 ? className : className.substring(0, nested);
+		final Path sourceFile = sourceDir.resolve(outerClass.replace('.', File.separatorChar) + ".java");
+
+		Fingerprint fingerprint = new Fingerprint();
+		try {
+			if (Files.isRegularFile(sourceFile)) {
+				fingerprint.source = hash(Files.readAllBytes(sourceFile));
+			}
+			final URL classFile = Reflection.getClassFile(className);
+			if (classFile != null) {
+				try (InputStream in = classFile.openStream()) {
+					fingerprint.bytecode = hash(readAll(in));
+				}
+			}
+		} catch (IOException e) {
+			log.warn("Unable to compute the fingerprint of " + className, e);
+		}
+		return fingerprint;
+	}
+
+	/**
+	 * Computes the fingerprint of the Javadoc comments of the given executable members, and stores it
+	 * in {@code fingerprint}.
+	 *
+	 * @param fingerprint the fingerprint of a class
+	 * @param members the documented executable members of the class
+	 */
+	static void addJavadocFingerprint(Fingerprint fingerprint, List<DocumentedExecutable> members) {
+		StringBuilder javadoc = new StringBuilder();
+		for (DocumentedExecutable member : members) {
+			javadoc.append(member).append('\n');
+			for (BlockTag tag : member.paramTags()) {
+				appendTag(javadoc, tag);
+			}
+			if (member.returnTag() != null) {
+				appendTag(javadoc, member.returnTag());
+			}
+			for (BlockTag tag : member.throwsTags()) {
+				appendTag(javadoc, tag);
+			}
+		}
+		fingerprint.javadoc = hash(javadoc.toString().getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static void appendTag(StringBuilder javadoc, BlockTag tag) {
+		javadoc.append(tag).append(' ').append(tag.getComment().getWordsMarkedAsCode()).append('\n');
+	}
+
+	/**
+	 * Checks whether neither the source file nor the class file of the given class changed since the
+	 * previous run, i.e. whether the output of the previous run can be reused without extracting the
+	 * Javadoc comments of the class. This method does not modify the state of the analysis.
+	 *
+	 * @param className the fully-qualified name of a class
+	 * @param fingerprint the current fingerprint of the class
+	 * @return true if the source file and the class file of the class did not change
+	 */
+	boolean isUnchanged(String className, Fingerprint fingerprint) {
+		final Fingerprint old = previous.get(className);
+		return old != null && fingerprint.bytecode != null && fingerprint.bytecode.equals(old.bytecode)
+				&& fingerprint.source != null && fingerprint.source.equals(old.source);
+	}
+
+	/**
+	 * Returns the output of the given class computed by a previous run, if the class did not change
+	 * since then.
+	 *
+	 * @param className the fully-qualified name of a class
+	 * @param fingerprint the current fingerprint of the class
+	 * @return the output of the previous run, or null if the output must be recomputed
+	 */
+	Output reuse(String className, Fingerprint fingerprint) {
+		final Fingerprint old = previous.get(className);
+		if (old == null || fingerprint.bytecode == null || !fingerprint.bytecode.equals(old.bytecode)) {
+			return null;
+		}
+		final String reason;
+		if (fingerprint.source != null && fingerprint.source.equals(old.source)) {
+			reason = "unchanged";
+		} else if (fingerprint.javadoc != null && fingerprint.javadoc.equals(old.javadoc)) {
+			reason = "javadoc unchanged";
+		} else {
+			return null;
+		}
+
+		final Output output;
+		try {
+			output = readOutput(className, old.randoopSpecs);
+		} catch (IOException | JsonParseException | IllegalStateException e) {
+			log.warn("Unable to read the previous output of " + className, e);
+			return null;
+		}
+		// The Javadoc fingerprint is not computed when the source file is unchanged.
+		fingerprint.javadoc = fingerprint.javadoc == null ? old.javadoc : fingerprint.javadoc;
+		fingerprint.randoopSpecs = old.randoopSpecs;
+		current.put(className, fingerprint);
+		outcomes.put(className, "reused;" + reason);
+		reused++;
+		return output;
+	}
+
+	/**
+	 * Records the output of a class that has been analyzed, so that later runs can reuse it.
+	 *
+	 * @param className the fully-qualified name of the analyzed class
+	 * @param fingerprint the fingerprint of the class
+	 * @param output the output of the analysis
+	 */
+	void store(String className, Fingerprint fingerprint, Output output) {
+		outcomes.put(className, "recomputed;" + reason(previous.get(className), fingerprint));
+		try {
+			writeJson(classFile(className, TRANSLATOR_OUTPUT_SUFFIX), output.translatorOutput);
+			fingerprint.randoopSpecs = output.randoopSpecs != null;
+			if (output.randoopSpecs != null) {
+				writeJson(classFile(className, RANDOOP_SPECS_SUFFIX), output.randoopSpecs);
+			}
+			current.put(className, fingerprint);
+		} catch (IOException e) {
+			log.warn("Unable to store the output of " + className + " for incremental analysis", e);
+		}
+	}
+
+	/**
+	 * Records that the analysis of a class failed. The class is analyzed again by the next run.
+	 *
+	 * @param className the fully-qualified name of the class
+	 */
+	void fail(String className) {
+		current.remove(className);
+		outcomes.put(className, "failed;analysis error");
+	}
+
+	/**
+	 * Saves the manifest and the report of the current run. Classes not analyzed in the current run
+	 * keep the fingerprints recorded by the previous run.
+	 */
+	void save() {
+		Manifest manifest = new Manifest();
+		manifest.version = FORMAT_VERSION;
+		manifest.configuration = configuration;
+		manifest.classes = new LinkedHashMap<>(previous);
+		manifest.classes.keySet().removeAll(outcomes.keySet());
+		manifest.classes.putAll(current);
+		try {
+			final Path tmp = Files.createTempFile(dir, MANIFEST, ".tmp");
+			try {
+				Files.write(tmp, GsonInstance.gson().toJson(manifest).getBytes(StandardCharsets.UTF_8));
+				Files.move(tmp, dir.resolve(MANIFEST), StandardCopyOption.REPLACE_EXISTING,
+						StandardCopyOption.ATOMIC_MOVE);
+			} finally {
+				Files.deleteIfExists(tmp);
+			}
+		} catch (IOException e) {
+			log.error("Unable to save the manifest of the incremental analysis in " + dir, e);
+		}
+
+		try (BufferedWriter writer = Files.newBufferedWriter(dir.resolve(REPORT), StandardCharsets.UTF_8)) {
+			writer.write("class;status;reason");
+			writer.newLine();
+			for (Map.Entry<String, String> outcome : outcomes.entrySet()) {
+				writer.write(outcome.getKey() + ";" + outcome.getValue());
+				writer.newLine();
+			}
+		} catch (IOException e) {
+			log.error("Unable to write the report of the incremental analysis in " + dir, e);
+		}
+		log.info("Incremental analysis: {} classes reused, {} recomputed (report: {})", reused,
+				outcomes.size() - reused, dir.resolve(REPORT));
+	}
+
+	/**
+	 * Describes why the output of a class has been recomputed.
+	 *
+	 * @param old the fingerprint recorded by the previous run, or null
+	 * @param fingerprint the current fingerprint
+	 * @return the reason why the output of the class has been recomputed
+	 */
+	private String reason(Fingerprint old, Fingerprint fingerprint) {
+		if (old == null) {
+			return configurationChanged ? "configuration changed" : "new class";
+		}
+		if (!Objects.equals(old.bytecode, fingerprint.bytecode)) {
+			return "bytecode changed";
+		}
+		if (!Objects.equals(old.javadoc, fingerprint.javadoc)) {
+			return "javadoc changed";
+		}
+		return "previous output unavailable";
+	}
+
+	private Output readOutput(String className, boolean randoopSpecs) throws IOException {
+		final JsonArray translatorOutput = readJson(classFile(className, TRANSLATOR_OUTPUT_SUFFIX));
+		return new Output(translatorOutput,
+				randoopSpecs ? readJson(classFile(className, RANDOOP_SPECS_SUFFIX)) : null);
+	}
+
+	private Path classFile(String className, String suffix) {
+		return dir.resolve(CLASSES_DIR).resolve(className + suffix);
+	}
+
+	private static JsonArray readJson(Path file) throws IOException {
+		try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+			return new JsonParser().parse(reader).getAsJsonArray();
+		}
+	}
+
+	private static void writeJson(Path file, JsonArray content) throws IOException {
+		Files.write(file, GsonInstance.gson().toJson(content).getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Returns a description of the options that affect the output of a class. The output of a
+	 * previous run is reused only if it has been produced with the same options.
+	 *
+	 * @param configuration Toradocu's configurations
+	 * @return a description of the options that affect the output of a class
+	 */
+	private static String configurationFingerprint(Configuration configuration) {
+		return "semantics=" + configuration.isSemanticMatcherEnabled()
+				+ ";distance-threshold=" + configuration.getDistanceThreshold()
+				+ ";word-removal-cost=" + configuration.getWordRemovalCost()
+				+ ";tcomment=" + configuration.useTComment()
+				+ ";silent=" + configuration.isSilent()
+				+ ";randoop-specs=" + (configuration.randoopSpecsFile() != null)
+				+ ";oracle-generation=" + configuration.isOracleGenerationEnabled()
+				+ ";test-generation=" + configuration.isTestGenerationEnabled()
+				+ ";test-validation=" + configuration.isTestValidationEnabled()
+				+ ";classpath=" + configuration.classDirs;
+	}
+
+	private static Manifest readManifest(Path dir) {
+		final Path file = dir.resolve(MANIFEST);
+		if (!Files.exists(file)) {
+			return null;
+		}
+		try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+			return GsonInstance.gson().fromJson(reader, Manifest.class);
+		} catch (IOException | JsonParseException e) {
+			log.warn("Unable to read the manifest of the incremental analysis " + file + ". All the classes"
+					+ " will be analyzed again.", e);
+			return null;
+		}
+	}
+
+	private static String hash(byte[] content) {
+		try {
+			final byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+			StringBuilder hex = new StringBuilder(digest.length * 2);
+			for (byte b : digest) {
+				hex.append(String.format("%02x", b));
+			}
+			return hex.toString();
+		} catch (NoSuchAlgorithmException e) {
+			// Every Java platform is required to support SHA-256.
+			throw new AssertionError(e);
+		}
+	}
+
+	private static byte[] readAll(InputStream in) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		byte[] buffer = new byte[8192];
+		int read;
+		while ((read = in.read(buffer)) != -1) {
+			out.write(buffer, 0, read);
+		}
+		return out.toByteArray();
+	}
+
+	/** Fingerprints of a class, as SHA-256 hashes. */
+	static class Fingerprint {
+		/** Hash of the source file of the class (null if the source file is not found). */
+		String source;
+		/** Hash of the class file of the class (null if the class file is not found). */
+		String bytecode;
+		/** Hash of the Javadoc comments of the class (null if not computed). */
+		String javadoc;
+		/** Whether the output of the class includes the Randoop specifications. */
+		boolean randoopSpecs;
+	}
+
+	/** Output of the analysis of a class. */
+	static class Output {
+		/** The condition translator output. */
+		final JsonArray translatorOutput;
+		/** The Randoop specifications, or null if they are not exported. */
+		final JsonArray randoopSpecs;
+
+		/**
+		 * Creates the output of the analysis of a class.
+		 *
+		 * @param translatorOutput the condition translator output
+		 * @param randoopSpecs the Randoop specifications, or null if they are not exported
+		 */
+		Output(JsonArray translatorOutput, JsonArray randoopSpecs) {
+			this.translatorOutput = translatorOutput;
+			this.randoopSpecs = randoopSpecs;
+		}
+	}
+
+	/** Content of the manifest file. */
+	private static class Manifest {
+		/** Version of the manifest format. */
+		int version;
+		/** Options of the run that produced the manifest. */
+		String configuration;
+		/** Fingerprints of the analyzed classes, indexed by class name. */
+		Map<String, Fingerprint> classes;
+	}
+}
@@ -7,7 +7,6 @@ import com.beust.jcommander.ParameterException;
 import java.io.*;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
-import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -28,6 +27,9 @@ import org.toradocu.output.util.JsonOutput;
 import org.toradocu.translator.CommentTranslator;
 import org.toradocu.translator.semantic.SemanticMatcher;
 import org.toradocu.util.GsonInstance;
+import org.toradocu.util.JsonStreamWriter;
+import org.toradocu.util.Profiler;
+import org.toradocu.util.Reflection;
 import randoop.condition.specification.Guard;
 import randoop.condition.specification.OperationSpecification;
 import randoop.condition.specification.PostSpecification;
@@ -55,17 +57,23 @@ public class Toradocu {
 	 * @param args command-line arguments
 	 */
 	public static void main(String[] args) {
+		if (args.length > 0 && args[0].equals(Daemon.COMMAND)) {
+			System.setProperty(SimpleLogger.LOG_KEY_PREFIX + "edu.stanford", "error");
+			Daemon.main(Arrays.copyOfRange(args, 1, args.length));
+			return;
+		}
+
 		configuration = Configuration.INSTANCE;
 		final JCommander jCommander = JCommander.newBuilder().addObject(configuration).programName(TORADOCU_COMMAND)
 				.build();
 		try {
 			jCommander.parse(args);
+			configuration.initialize();
 		} catch (ParameterException e) {
-			e.getJCommander().usage();
+			jCommander.usage();
 			System.out.println(e.getMessage());
 			System.exit(1);
 		}
-		configuration.initialize();
 
 		if (configuration.help()) {
 			jCommander.usage();
@@ -82,6 +90,19 @@ public class Toradocu {
 		// standard error are still visible).
 		System.setProperty(SimpleLogger.LOG_KEY_PREFIX + "edu.stanford", "error");
 		log = LoggerFactory.getLogger(Toradocu.class);
+		Profiler.reset();
+
+		// === Batch Mode ===
+
+		if (configuration.isBatchMode()) {
+			try {
+				new BatchRunner(configuration).run();
+			} finally {
+				Reflection.close();
+				writeProfile();
+			}
+			return;
+		}
 
 		// === Javadoc Extractor ===
 
@@ -142,28 +163,29 @@ public class Toradocu {
 			}
 
 			// Output the result on a file or on the standard output, if silent mode is
-			// disabled.
-			List<JsonOutput> jsonOutputs = new ArrayList<>();
+			// disabled. The specifications are all translated first, as the generators need
+			// them; only their serialization is streamed, one JsonOutput at a time.
 			if (!configuration.isSilent() || !specifications.isEmpty()) {
 				if (configuration.getConditionTranslatorOutput() != null) {
-					try (BufferedWriter writer = Files.newBufferedWriter(
-							configuration.getConditionTranslatorOutput().toPath(), StandardCharsets.UTF_8)) {
-
+					try (JsonStreamWriter writer = JsonStreamWriter.open(
+							configuration.getConditionTranslatorOutput().toPath(), configuration.getJsonLayout())) {
 						for (DocumentedExecutable executable : specifications.keySet()) {
-							jsonOutputs.add(new JsonOutput(executable, specifications.get(executable)));
+							writer.write(new JsonOutput(executable, specifications.get(executable)));
 						}
-						String jsonOutput = GsonInstance.gson().toJson(jsonOutputs);
-						writer.write(jsonOutput);
 					} catch (Exception e) {
 						log.error("Unable to write the output on file "
 								+ configuration.getConditionTranslatorOutput().getAbsolutePath(), e);
 					}
 				} else {
-					for (DocumentedExecutable member : members) {
-						jsonOutputs.add(new JsonOutput(member, specifications.get(member)));
+					System.out.println("Condition translator output:");
+					try (JsonStreamWriter writer = JsonStreamWriter.toStream(System.out, configuration.getJsonLayout())) {
+						for (DocumentedExecutable member : members) {
+							writer.write(new JsonOutput(member, specifications.get(member)));
+						}
+					} catch (IOException e) {
+						log.error("Unable to write the output on the standard output", e);
 					}
-					String jsonOutput = GsonInstance.gson().toJson(jsonOutputs);
-					System.out.println("Condition translator output:\n" + jsonOutput);
+					System.out.println();
 				}
 			}
 
@@ -187,47 +209,74 @@ public class Toradocu {
 			// Export generated specifications as Randoop specifications if requested.
 			generateRandoopSpecs(specifications);
 
-			// === Test Generator ===
-			// Note that test generation is enabled only when translation is enabled.
-			if (configuration.isTestGenerationEnabled()) {
-				log.info("** Starting test generation...");
-				try {
-					TestGenerator.createTests(specifications);
-					log.info("** Test generation completed");
-				} catch (Throwable e) {
-					e.printStackTrace();
-					log.error("Error during test creation.", e);
-				}
-			} else {
-				log.info("Test generator disabled: test generation skipped.");
+			// Run test and oracle generators if requested.
+			runGenerators(specifications);
+		}
+
+		// Release the class loader of the system under analysis.
+		Reflection.close();
+		writeProfile();
+	}
+
+	/**
+	 * Writes the time, the invocations, and the allocations of each phase of this
+	 * run next to the statistics file.
+	 */
+	private static void writeProfile() {
+		try {
+			log.info("Profile of the run written to " + Profiler.writeReport(configuration.getStatsFile()));
+		} catch (IOException e) {
+			log.error("Unable to write the profile of the run next to " + configuration.getStatsFile(), e);
+		}
+	}
+
+	/**
+	 * Runs the test generators and the oracle generator (if enabled) on the given
+	 * specifications.
+	 *
+	 * @param specifications the specifications of the target class
+	 */
+	static void runGenerators(Map<DocumentedExecutable, OperationSpecification> specifications) {
+		// === Test Generator ===
+		// Note that test generation is enabled only when translation is enabled.
+		if (configuration.isTestGenerationEnabled()) {
+			log.info("** Starting test generation...");
+			try {
+				TestGenerator.createTests(specifications);
+				log.info("** Test generation completed");
+			} catch (Throwable e) {
+				e.printStackTrace();
+				log.error("Error during test creation.", e);
 			}
+		} else {
+			log.info("Test generator disabled: test generation skipped.");
+		}
 
-			// === Validation Test Generator ===
-			if (configuration.isTestValidationEnabled()) {
-				log.info("** Starting test generation for validation...");
-				try {
-					TestGeneratorValidation.createTests(specifications);
-					log.info("** Test generation for validation completed");
-				} catch (Throwable e) {
-					e.printStackTrace();
-					log.error("Error during validation test creation.", e);
-				}
-			} else {
-				log.info("Validation test generator disabled: validation test generation skipped.");
+		// === Validation Test Generator ===
+		if (configuration.isTestValidationEnabled()) {
+			log.info("** Starting test generation for validation...");
+			try {
+				TestGeneratorValidation.createTests(specifications);
+				log.info("** Test generation for validation completed");
+			} catch (Throwable e) {
+				e.printStackTrace();
+				log.error("Error during validation test creation.", e);
 			}
+		} else {
+			log.info("Validation test generator disabled: validation test generation skipped.");
+		}
 
-			// === Oracle Generator ===
-			// Note that aspect generation is enabled only when translation is enabled.
-			if (configuration.isOracleGenerationEnabled()) {
-				try {
-					OracleGenerator.createAspects(specifications);
-				} catch (IOException e) {
-					e.printStackTrace();
-					log.error("Error during aspects creation.", e);
-				}
-			} else {
-				log.info("Oracle generator disabled: aspect generation skipped.");
+		// === Oracle Generator ===
+		// Note that aspect generation is enabled only when translation is enabled.
+		if (configuration.isOracleGenerationEnabled()) {
+			try {
+				OracleGenerator.createAspects(specifications);
+			} catch (IOException e) {
+				e.printStackTrace();
+				log.error("Error during aspects creation.", e);
 			}
+		} else {
+			log.info("Oracle generator disabled: aspect generation skipped.");
 		}
 	}
 
@@ -242,36 +291,49 @@ public class Toradocu {
 		File randoopSpecsFile = configuration.randoopSpecsFile();
 		if (!configuration.isSilent() && randoopSpecsFile != null) {
 			generateRandoopSpecsFile(randoopSpecsFile);
-			Collection<OperationSpecification> randoopSpecs = new ArrayList<>();
-			for (DocumentedExecutable documentedExecutable : specsMap.keySet()) {
-				final OperationSpecification spec = specsMap.get(documentedExecutable);
-
-				// Get rid of empty specifications.
-				final List<PreSpecification> preSpecifications = spec.getPreSpecifications();
-				preSpecifications.removeIf(s -> s.getGuard().getConditionText().isEmpty());
-				final List<PostSpecification> postSpecifications = spec.getPostSpecifications();
-				postSpecifications.removeIf(s -> s.getGuard().getConditionText().isEmpty());
-				final List<ThrowsSpecification> throwsSpecifications = spec.getThrowsSpecifications();
-				throwsSpecifications.removeIf(s -> s.getGuard().getConditionText().isEmpty());
-				if (spec.isEmpty() || (preSpecifications.isEmpty() && postSpecifications.isEmpty()
-						&& throwsSpecifications.isEmpty())) {
-					continue;
-				}
+			writeRandoopSpecsFile(randoopSpecsFile, toRandoopSpecs(specsMap));
+		}
+	}
 
-				// Convert specifications to Randoop format: args -> actual param name.
-				final List<PreSpecification> randoopPreSpecs = convertPreSpecifications(documentedExecutable,
-						preSpecifications);
-				final List<PostSpecification> randoopPostSpecs = convertPostSpecifications(documentedExecutable,
-						postSpecifications);
-				final List<ThrowsSpecification> randoopThrowsSpecs = convertThrowsSpecifications(documentedExecutable,
-						throwsSpecifications);
-
-				final OperationSpecification newOperationSpec = new OperationSpecification(spec.getOperation(),
-						spec.getIdentifiers(), randoopThrowsSpecs, randoopPostSpecs, randoopPreSpecs);
-				randoopSpecs.add(newOperationSpec);
+	/**
+	 * Converts the specifications in {@code specsMap} to Randoop specifications,
+	 * discarding empty specifications.
+	 *
+	 * @param specsMap the documented methods containing the specifications to
+	 *                 convert
+	 * @return the Randoop specifications
+	 */
+	static Collection<OperationSpecification> toRandoopSpecs(
+			Map<DocumentedExecutable, OperationSpecification> specsMap) {
+		Collection<OperationSpecification> randoopSpecs = new ArrayList<>();
+		for (DocumentedExecutable documentedExecutable : specsMap.keySet()) {
+			final OperationSpecification spec = specsMap.get(documentedExecutable);
+
+			// Get rid of empty specifications.
+			final List<PreSpecification> preSpecifications = spec.getPreSpecifications();
+			preSpecifications.removeIf(s -> s.getGuard().getConditionText().isEmpty());
+			final List<PostSpecification> postSpecifications = spec.getPostSpecifications();
+			postSpecifications.removeIf(s -> s.getGuard().getConditionText().isEmpty());
+			final List<ThrowsSpecification> throwsSpecifications = spec.getThrowsSpecifications();
+			throwsSpecifications.removeIf(s -> s.getGuard().getConditionText().isEmpty());
+			if (spec.isEmpty() || (preSpecifications.isEmpty() && postSpecifications.isEmpty()
+					&& throwsSpecifications.isEmpty())) {
+				continue;
 			}
-			writeRandoopSpecsFile(randoopSpecsFile, randoopSpecs);
+
+			// Convert specifications to Randoop format: args -> actual param name.
+			final List<PreSpecification> randoopPreSpecs = convertPreSpecifications(documentedExecutable,
+					preSpecifications);
+			final List<PostSpecification> randoopPostSpecs = convertPostSpecifications(documentedExecutable,
+					postSpecifications);
+			final List<ThrowsSpecification> randoopThrowsSpecs = convertThrowsSpecifications(documentedExecutable,
+					throwsSpecifications);
+
+			final OperationSpecification newOperationSpec = new OperationSpecification(spec.getOperation(),
+					spec.getIdentifiers(), randoopThrowsSpecs, randoopPostSpecs, randoopPreSpecs);
+			randoopSpecs.add(newOperationSpec);
 		}
+		return randoopSpecs;
 	}
 
 	private static List<PreSpecification> convertPreSpecifications(DocumentedExecutable documentedExecutable,
@@ -317,17 +379,19 @@ public class Toradocu {
 		return newPostSpecifications;
 	}
 
-	private static void writeRandoopSpecsFile(File randoopSpecsFile, Collection<OperationSpecification> specs) {
-		try (BufferedWriter writer = Files.newBufferedWriter(randoopSpecsFile.toPath(), StandardOpenOption.WRITE,
-				StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.CREATE)) {
-			writer.write(GsonInstance.gson().toJson(specs));
+	static void writeRandoopSpecsFile(File randoopSpecsFile, Collection<OperationSpecification> specs) {
+		try (JsonStreamWriter writer = JsonStreamWriter.open(randoopSpecsFile.toPath(),
+				configuration.getRandoopSpecsLayout())) {
+			for (OperationSpecification spec : specs) {
+				writer.write(spec);
+			}
 		} catch (IOException e) {
 			log.error("Error occurred during the export of generated specifications to file "
 					+ randoopSpecsFile.getPath(), e);
 		}
 	}
 
-	private static void generateRandoopSpecsFile(File randoopSpecsFile) {
+	static void generateRandoopSpecsFile(File randoopSpecsFile) {
 		if (!randoopSpecsFile.exists()) {
 			try {
 				File parentDir = randoopSpecsFile.getParentFile();
@@ -1,14 +1,19 @@
 package org.toradocu.conf;
 
 import com.beust.jcommander.Parameter;
+import com.beust.jcommander.ParameterException;
 import com.beust.jcommander.converters.FileConverter;
 import com.beust.jcommander.converters.PathConverter;
 import java.io.File;
+import java.lang.reflect.Field;
 import java.net.URL;
 import java.nio.file.Path;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.toradocu.generator.TestGeneratorSummaryData;
+import org.toradocu.util.JsonStreamWriter;
 
 /**
  * Holds the configuration options (particularly command-line options) for
@@ -25,7 +30,8 @@ public enum Configuration {
 
 	// General options
 
-	@Parameter(names = "--target-class", description = "Fully-qualified name of the class that Toradocu should analyze", required = true)
+	@Parameter(names = "--target-class", description = "Fully-qualified name of the class that Toradocu should analyze"
+			+ " (required unless one of the batch options is used)")
 	private String targetClass;
 
 	@Parameter(names = "--source-dir", description = "Path of the directory containing source files of the target class", converter = PathConverter.class, required = true)
@@ -41,7 +47,7 @@ public enum Configuration {
 	@Parameter(names = { "--help", "-h" }, description = "Print a list of available options", help = true)
 	private boolean help;
 
-	@Parameter(names = "--stats-file", description = "File path to export Toradocu statistics in CSV format", converter = FileConverter.class)
+	@Parameter(names = "--stats-file", description = "File path to export Toradocu statistics in CSV format. The profile of each run (time, invocations, and allocations of each phase) is written next to it, in <stats-file>_profile.json and <stats-file>_profile.csv", converter = FileConverter.class)
 	private File statsFile;
 
 	@Parameter(names = "--silent", description = "Do not generate any output if no translation has been made", hidden = true)
@@ -50,6 +56,42 @@ public enum Configuration {
 	@Parameter(names = "--stop-on-error", description = "Toradocu stops when there is an error in the being-analyzed Javadoc")
 	public boolean stopOnError = false;
 
+	// Batch options
+
+	@Parameter(names = "--target-package", description = "Analyze, in a single run, all the classes of the given package"
+			+ " whose source files are in the source directory")
+	private String targetPackage;
+
+	@Parameter(names = "--target-source-root", description = "Analyze, in a single run, all the classes whose source files are"
+			+ " in the source directory")
+	private boolean targetSourceRoot = false;
+
+	@Parameter(names = "--target-jar", description = "Analyze, in a single run, all the classes contained in the given JAR file", converter = FileConverter.class)
+	private File targetJar;
+
+	@Parameter(names = "--target-class-list", description = "Analyze, in a single run, all the classes listed in the given file"
+			+ " (one fully-qualified class name per line)", converter = FileConverter.class)
+	private File targetClassList;
+
+	@Parameter(names = "--batch-output-dir", description = "Directory where to export condition translator output (and Randoop"
+			+ " specifications) of each class analyzed in batch mode. Without this option, the output of all the classes is"
+			+ " merged in the files specified with --condition-translator-output and --randoop-specs", converter = FileConverter.class)
+	private File batchOutputDir;
+
+	@Parameter(names = "--incremental-dir", description = "Directory where Toradocu keeps the fingerprints and the output of"
+			+ " the classes analyzed in batch mode, so that later runs reuse the output of the classes that did not change."
+			+ " Ignored when oracles or test cases are generated",
+			converter = FileConverter.class)
+	private File incrementalDir;
+
+	@Parameter(names = "--nested-classes", description = "Analyze in batch mode also the non-private static nested classes of the"
+			+ " classes selected from the source directory", arity = 1)
+	private boolean nestedClasses = false;
+
+	@Parameter(names = "--extraction-threads", description = "Number of threads extracting, in batch mode, the Javadoc"
+			+ " comments of the next classes while the comments of the current class are translated")
+	private int extractionThreads = Runtime.getRuntime().availableProcessors();
+
 	// Javadoc extractor options
 
 	@Parameter(names = "--javadoc-extractor-output", description = "File path to export Javadoc extractor output in JSON format", converter = FileConverter.class, hidden = true)
@@ -66,6 +108,11 @@ public enum Configuration {
 	@Parameter(names = "--condition-translator-output", description = "File path to export condition translator output in JSON format", converter = FileConverter.class)
 	private File conditionTranslatorOutput;
 
+	@Parameter(names = "--json-layout", description = "Layout of the JSON output files: PRETTY (indented array), COMPACT"
+			+ " (array without white spaces), or NDJSON (one object per line). Randoop specifications are written as a"
+			+ " COMPACT array when NDJSON is selected")
+	private JsonStreamWriter.Layout jsonLayout = JsonStreamWriter.Layout.PRETTY;
+
 	@Parameter(names = "--distance-threshold", description = "Distance threshold: only code elements with edit distance less than this threshold"
 			+ " will be considered candidates for translation", hidden = true)
 	private int distanceThreshold = 2;
@@ -90,6 +137,35 @@ public enum Configuration {
 	@Parameter(names = "--disable-semantics", description = "Disable semantic-based matcher for comments translation.", arity = 1)
 	private boolean disableSemantics = false;
 
+	@Parameter(names = "--translation-threads", description = "Number of threads used to translate the comments of the"
+			+ " methods of a class in parallel")
+	private int translationThreads = 1;
+
+	@Parameter(names = "--parse-cache-dir", description = "Directory where Toradocu persists the semantic graphs produced by the"
+			+ " Stanford parser, so that unchanged sentences are not parsed again in later runs", converter = FileConverter.class)
+	private File parseCacheDir;
+
+	@Parameter(names = "--parse-cache-size", description = "Maximum size (in MB) of the parse cache directory. Least recently used"
+			+ " entries are evicted when the cache exceeds this size")
+	private long parseCacheSize = 256;
+
+	@Parameter(names = "--spec-store-dir", description = "Directory where Toradocu persists the specifications of the analyzed"
+			+ " classes, so that the comments of a class whose class file and comments did not change are not translated again in"
+			+ " later runs", converter = FileConverter.class)
+	private File specStoreDir;
+
+	@Parameter(names = "--spec-store-size", description = "Maximum size (in MB) of the specification store directory. Least"
+			+ " recently used entries are evicted when the store exceeds this size")
+	private long specStoreSize = 256;
+
+	@Parameter(names = "--embeddings-cache-dir", description = "Directory where Toradocu stores the word embeddings used by the"
+			+ " semantic matcher, converted to a binary format that is memory-mapped instead of loaded on the heap", converter = FileConverter.class)
+	private File embeddingsCacheDir = new File(System.getProperty("user.home"), ".toradocu" + File.separator + "embeddings");
+
+	@Parameter(names = "--wmd-trace-file", description = "CSV file where Toradocu traces the Word Mover's Distances computed by"
+			+ " the semantic matcher", converter = FileConverter.class, hidden = true)
+	private File wmdTraceFile;
+
 	// Aspect creation options
 
 	@Parameter(names = "--test-generation", description = "Enable/disable the generation of the test cases", arity = 1)
@@ -107,9 +183,21 @@ public enum Configuration {
 	@Parameter(names = "--evosuite-jar", description = "Specifies the path to the jar of EvoSuite")
 	private String evosuiteJar = "evosuite-shaded-1.2.1-SNAPSHOT.jar";
 
+	@Parameter(names = "--type-index-dir", description = "Directory where Toradocu persists the index of the classes in the jar of"
+			+ " EvoSuite, used to resolve the symbols of the generated test cases", converter = FileConverter.class)
+	private File typeIndexDir = new File(System.getProperty("user.home"), ".toradocu" + File.separator + "type-index");
+
 	@Parameter(names = "--evosuite-budget", description = "Specifies the maximum time (in seconds) allowed to EvoSuite for test case generation")
 	private int evosuiteBudget = 180;
 
+	@Parameter(names = "--evosuite-cores", description = "Specifies the number of cores available to EvoSuite. Each core runs an"
+			+ " EvoSuite process, so that the evaluators of a class are processed concurrently")
+	private int evosuiteCores = 1;
+
+	@Parameter(names = "--evosuite-memory", description = "Specifies the memory (in MB) available to the concurrent EvoSuite processes;"
+			+ " 0 means no limit")
+	private int evosuiteMemory = 0;
+
 	// Aspect creation options
 
 	@Parameter(names = "--oracle-generation", description = "Enable/disable the generation of the aspects", arity = 1)
@@ -136,16 +224,58 @@ public enum Configuration {
 	/** Aspect to instrument JUnit test cases. */
 	private static final String JUNIT_TC_ASPECT = "TestCaseAspect.template";
 
+	/** Default values of the options, restored by {@link #reset()}. */
+	private static final Map<Field, Object> defaults = new HashMap<>();
+
+	static {
+		for (Field field : Configuration.class.getDeclaredFields()) {
+			if (field.isAnnotationPresent(Parameter.class)) {
+				try {
+					defaults.put(field, field.get(INSTANCE));
+				} catch (IllegalAccessException e) {
+					throw new IllegalStateException("Unable to read the default value of " + field.getName(), e);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Restores the default value of all the options, so that the configuration can
+	 * be initialized again with a different command line (e.g., for each request
+	 * of the daemon).
+	 */
+	public void reset() {
+		for (Map.Entry<Field, Object> option : defaults.entrySet()) {
+			try {
+				option.getKey().set(this, option.getValue());
+			} catch (IllegalAccessException e) {
+				throw new IllegalStateException("Unable to reset option " + option.getKey().getName(), e);
+			}
+		}
+	}
+
 	/**
 	 * Initializes the configuration based on the given command-line options. This
 	 * method must be called before Javadoc options or the temporary Javadoc output
 	 * directory are retrieved.
+	 *
+	 * @throws ParameterException if neither a target class nor a batch option is
+	 *                            specified
 	 */
 	public void initialize() {
 		if (help) {
 			return; // No initialization necessary.
 		}
 
+		if (targetClass == null && !isBatchMode()) {
+			throw new ParameterException("The following option is required: --target-class (or one of --target-package,"
+					+ " --target-source-root, --target-jar, --target-class-list)");
+		}
+
+		if (extractionThreads < 1) {
+			throw new ParameterException("The number of extraction threads must be at least 1: " + extractionThreads);
+		}
+
 		if (statsFile == null) {
 			statsFile = new File("stats.csv");
 		}
@@ -179,6 +309,108 @@ public enum Configuration {
 		return targetClass;
 	}
 
+	/**
+	 * Sets the fully-qualified name of the target class to analyze with Toradocu.
+	 * In batch mode, the target class changes for each analyzed class.
+	 *
+	 * @param targetClass the fully-qualified name of the class to analyze
+	 */
+	public void setTargetClass(String targetClass) {
+		this.targetClass = targetClass;
+	}
+
+	/**
+	 * Returns true if Toradocu has to analyze multiple classes in a single run,
+	 * i.e. if any of the options --target-package, --target-source-root,
+	 * --target-jar, or --target-class-list is specified.
+	 *
+	 * @return true if Toradocu runs in batch mode
+	 */
+	public boolean isBatchMode() {
+		return targetPackage != null || targetSourceRoot || targetJar != null || targetClassList != null;
+	}
+
+	/**
+	 * Returns the package whose classes have to be analyzed in batch mode, or null
+	 * if this option is not specified.
+	 *
+	 * @return the package whose classes have to be analyzed in batch mode
+	 */
+	public String getTargetPackage() {
+		return targetPackage;
+	}
+
+	/**
+	 * Returns true if all the classes in the source directory have to be analyzed
+	 * in batch mode.
+	 *
+	 * @return true if all the classes in the source directory have to be analyzed
+	 */
+	public boolean isTargetSourceRoot() {
+		return targetSourceRoot;
+	}
+
+	/**
+	 * Returns the JAR file whose classes have to be analyzed in batch mode, or null
+	 * if this option is not specified.
+	 *
+	 * @return the JAR file whose classes have to be analyzed in batch mode
+	 */
+	public File getTargetJar() {
+		return targetJar;
+	}
+
+	/**
+	 * Returns the file listing the classes to analyze in batch mode, or null if
+	 * this option is not specified.
+	 *
+	 * @return the file listing the classes to analyze in batch mode
+	 */
+	public File getTargetClassList() {
+		return targetClassList;
+	}
+
+	/**
+	 * Returns the directory where to export the output of each class analyzed in
+	 * batch mode, or null if the output of all the classes has to be merged.
+	 *
+	 * @return the directory where to export the output of each class analyzed in
+	 *         batch mode
+	 */
+	public File getBatchOutputDir() {
+		return batchOutputDir;
+	}
+
+	/**
+	 * Returns the directory containing the state of the incremental analysis, or
+	 * null if every class has to be analyzed from scratch.
+	 *
+	 * @return the directory containing the state of the incremental analysis
+	 */
+	public File getIncrementalDir() {
+		return incrementalDir;
+	}
+
+	/**
+	 * Returns true if the static nested classes of the classes selected from the
+	 * source directory have to be analyzed in batch mode.
+	 *
+	 * @return true if nested classes have to be analyzed in batch mode
+	 */
+	public boolean isNestedClasses() {
+		return nestedClasses;
+	}
+
+	/**
+	 * Returns the number of threads extracting the Javadoc comments of the classes
+	 * analyzed in batch mode.
+	 *
+	 * @return the number of extraction threads
+	 */
+	public int getExtractionThreads() {
+		return extractionThreads;
+	}
+
 	/**
 	 * Returns true if fine-grained logging should be enabled.
 	 *
@@ -230,6 +462,26 @@ public enum Configuration {
 		return conditionTranslatorOutput;
 	}
 
+	/**
+	 * Returns the layout of the JSON output files.
+	 *
+	 * @return the layout of the JSON output files
+	 */
+	public JsonStreamWriter.Layout getJsonLayout() {
+		return jsonLayout;
+	}
+
+	/**
+	 * Returns the layout of the files containing Randoop specifications. Randoop
+	 * reads a JSON array, thus newline-delimited JSON is replaced by a compact
+	 * array.
+	 *
+	 * @return the layout of the files containing Randoop specifications
+	 */
+	public JsonStreamWriter.Layout getRandoopSpecsLayout() {
+		return jsonLayout == JsonStreamWriter.Layout.NDJSON ? JsonStreamWriter.Layout.COMPACT : jsonLayout;
+	}
+
 	/**
 	 * Returns true if condition translation is enabled.
 	 *
@@ -345,6 +597,17 @@ public enum Configuration {
 		return evosuiteJar;
 	}
 
+	/**
+	 * Returns the directory where the index of the classes in the EvoSuite jar is
+	 * persisted.
+	 *
+	 * @return the directory of the persisted index, or null if the index is not
+	 *         persisted
+	 */
+	public File getTypeIndexDir() {
+		return typeIndexDir;
+	}
+
 	/**
 	 * Returns the time budget allowed for evosuite to generate test cases.
 	 *
@@ -354,6 +617,25 @@ public enum Configuration {
 		return evosuiteBudget;
 	}
 
+	/**
+	 * Returns the number of cores available to EvoSuite, i.e., the maximum number
+	 * of concurrent EvoSuite processes.
+	 *
+	 * @return the number of cores available to EvoSuite
+	 */
+	public int getEvoSuiteCores() {
+		return evosuiteCores;
+	}
+
+	/**
+	 * Returns the memory (in MB) available to the concurrent EvoSuite processes.
+	 *
+	 * @return the memory available to EvoSuite, or 0 if there is no limit
+	 */
+	public int getEvoSuiteMemory() {
+		return evosuiteMemory;
+	}
+
 	/**
 	 * Returns the distance threshold that has been set for code element matching.
 	 *
@@ -385,7 +667,8 @@ public enum Configuration {
 	}
 
 	/**
-	 * Returns the file in which to export Toradocu statistics in CSV format.
+	 * Returns the file in which to export Toradocu statistics in CSV format. The
+	 * profile of each run is written in the same folder.
 	 *
 	 * @return the file in which to export Toradocu statistics in CSV format
 	 */
@@ -424,6 +707,74 @@ public enum Configuration {
 		return !disableSemantics;
 	}
 
+	/**
+	 * Returns the number of threads used to translate the comments of the methods
+	 * of a class in parallel.
+	 *
+	 * @return the number of threads used for comment translation
+	 */
+	public int getTranslationThreads() {
+		return translationThreads;
+	}
+
+	/**
+	 * Returns the directory of the persistent parse cache.
+	 *
+	 * @return the directory of the persistent parse cache, or null if the cache is disabled
+	 */
+	public File getParseCacheDir() {
+		return parseCacheDir;
+	}
+
+	/**
+	 * Returns the maximum size of the persistent parse cache in bytes.
+	 *
+	 * @return the maximum size of the persistent parse cache in bytes
+	 */
+	public long getParseCacheSize() {
+		return parseCacheSize * 1024 * 1024;
+	}
+
+	/**
+	 * Returns the directory of the persistent specification store, or null if the
+	 * store is disabled.
+	 *
+	 * @return the directory of the persistent specification store, or null if the
+	 *         store is disabled
+	 */
+	public File getSpecStoreDir() {
+		return specStoreDir;
+	}
+
+	/**
+	 * Returns the maximum size of the persistent specification store in bytes.
+	 *
+	 * @return the maximum size of the persistent specification store in bytes
+	 */
+	public long getSpecStoreSize() {
+		return specStoreSize * 1024 * 1024;
+	}
+
+	/**
+	 * Returns the directory containing the binary word embeddings used by the
+	 * semantic matcher.
+	 *
+	 * @return the directory of the binary word embeddings
+	 */
+	public File getEmbeddingsCacheDir() {
+		return embeddingsCacheDir;
+	}
+
+	/**
+	 * Returns the file where the distances computed by the semantic matcher are
+	 * traced.
+	 *
+	 * @return the distance trace file, or null if distances are not traced
+	 */
+	public File getWmdTraceFile() {
+		return wmdTraceFile;
+	}
+
 	/**
 	 * Returns whether Toradocu generates or not output when it has not been able to
 	 * translate any comment.
@@ -11,6 +11,32 @@ import java.util.regex.Pattern;
  */
 public final class Comment {
 
+  /** Sequences of white spaces, replaced by a single space in comment text. */
+  private static final Pattern WHITE_SPACES = Pattern.compile("\\s+");
+  /** Words marked as code with {@literal <code></code>}. */
+  private static final Pattern CODE_HTML_TAG = Pattern.compile("<code>([A-Za-z0-9_]+)</code>");
+  /** Text marked as code with {@literal @code}. */
+  private static final Pattern CODE_TAG = Pattern.compile("\\{@code ([^}]+)\\}");
+  /** Inline {@literal @link} tags. */
+  private static final Pattern LINK_TAG = Pattern.compile("\\{@link #?([^}]+)\\}");
+  /** HTML tags, either with a content or self-closing. */
+  private static final Pattern HTML_TAG =
+      Pattern.compile("<([a-zA-Z][a-zA-Z0-9]*)\\b[^>]*>(.*?)</\\1>|(<(.*)/>)");
+  /** Separator of the sub-sentences in which words marked as code are looked for. */
+  private static final Pattern SUB_SENTENCE_SEPARATOR = Pattern.compile("\\. ");
+  /** A single word made of two operands and an operator, such as {@code i<0}. */
+  private static final Pattern SHORT_EXPRESSION = Pattern.compile(".[[<>=]=?|!=].");
+  /** Separators of the operands in a {@link #SHORT_EXPRESSION}. */
+  private static final Pattern OPERATORS = Pattern.compile("[<>=]=?|!=]");
+  /** Words that are not retained as words marked as code (numbers, expressions, ...). */
+  private static final Pattern NOT_A_CODE_WORD = Pattern.compile(".*[0-9+-/*(){}[<>=]=?|!=].*");
+  /** Words containing characters that must be escaped when looking for their occurrences. */
+  private static final Pattern SPECIAL_CHARACTERS = Pattern.compile(".*[\\[\\]\\(\\)].*");
+  /** HTML character entities decoded in comment text, with the corresponding characters. */
+  private static final String[][] HTML_ENTITIES = {
+    {"&ge;", ">="}, {"&le;", "<="}, {"&gt;", ">"}, {"&lt;", "<"}, {"&amp;", "&"}
+  };
+
   /**
    * Comment text. Does not include the tag (e.g., @return) and any additional information like the
    * commented parameter name in case of @param tags and the exception name in case of @throws tags.
@@ -36,18 +62,16 @@ public final class Comment {
    * @param text text of the comment.
    */
   public Comment(String text) {
-    this.text = text.replaceAll("\\s+", " ");
+    this.text = WHITE_SPACES.matcher(text).replaceAll(" ");
     this.wordsMarkedAsCode = new HashMap<>();
 
-    final String codePattern1 = "<code>([A-Za-z0-9_]+)</code>";
-    identifyCodeWords(codePattern1);
-    removeTags(codePattern1);
+    identifyCodeWords(CODE_HTML_TAG);
+    removeTags(CODE_HTML_TAG);
 
-    final String codePattern2 = "\\{@code ([^}]+)\\}";
-    identifyCodeWords(codePattern2);
-    removeTags(codePattern2);
+    identifyCodeWords(CODE_TAG);
+    removeTags(CODE_TAG);
 
-    removeTags("\\{@link #?([^}]+)\\}");
+    removeTags(LINK_TAG);
     removeHTMLTags();
     decodeHTML();
     this.text = this.text.trim();
@@ -55,13 +79,27 @@ public final class Comment {
 
   /** Decodes HTML character entities found in comment text with corresponding characters. */
   private void decodeHTML() {
-    this.text =
-        this.text
-            .replaceAll("&ge;", ">=")
-            .replaceAll("&le;", "<=")
-            .replaceAll("&gt;", ">")
-            .replaceAll("&lt;", "<")
-            .replaceAll("&amp;", "&");
+    int entity = text.indexOf('&');
+    if (entity == -1) {
+      return;
+    }
+    StringBuilder decoded = new StringBuilder(text.length());
+    int from = 0;
+    while (entity != -1) {
+      decoded.append(text, from, entity);
+      from = entity + 1;
+      String character = "&";
+      for (String[] htmlEntity : HTML_ENTITIES) {
+        if (text.startsWith(htmlEntity[0], entity)) {
+          character = htmlEntity[1];
+          from = entity + htmlEntity[0].length();
+          break;
+        }
+      }
+      decoded.append(character);
+      entity = text.indexOf('&', from);
+    }
+    this.text = decoded.append(text, from, text.length()).toString();
   }
 
   /**
@@ -100,22 +138,22 @@ public final class Comment {
    *
    * @param codePattern regular expression used to identify the words marked as code
    */
-  private void identifyCodeWords(String codePattern) {
-    String[] subSentences = text.split("\\. ");
+  private void identifyCodeWords(Pattern codePattern) {
+    String[] subSentences = SUB_SENTENCE_SEPARATOR.split(text);
     for (String subSentence : subSentences) {
-      Matcher codeMatcher = Pattern.compile(codePattern).matcher(subSentence);
+      Matcher codeMatcher = codePattern.matcher(subSentence);
 
       while (codeMatcher.find()) {
         String taggedSubstring = codeMatcher.group(1).trim();
         String[] words = null;
-        words = taggedSubstring.split("\\s+");
-        if (words.length == 1 && words[0].matches(".[[<>=]=?|!=].")) {
-          words = taggedSubstring.split("[<>=]=?|!=]");
+        words = WHITE_SPACES.split(taggedSubstring);
+        if (words.length == 1 && SHORT_EXPRESSION.matcher(words[0]).matches()) {
+          words = OPERATORS.split(taggedSubstring);
         }
 
         int indexOfMatch = codeMatcher.start();
         for (String word : words) {
-          if (!word.isEmpty() && !word.matches(".*[0-9+-/*(){}[<>=]=?|!=].*")) {
+          if (!word.isEmpty() && !NOT_A_CODE_WORD.matcher(word).matches()) {
             // search this word before this index in original text
             List<Integer> occurrences = new ArrayList<>();
             occurrences.add(countStringOccurrence(word, subSentence, indexOfMatch));
@@ -142,7 +180,7 @@ public final class Comment {
    * @return the computed occurrence
    */
   private int countStringOccurrence(String word, String subSentence, int limitIndex) {
-    if (word.matches(".*[\\[\\]\\(\\)].*")) {
+    if (SPECIAL_CHARACTERS.matcher(word).matches()) {
       // Escape special characters to prevent errors in subsequent pattern compiling
       word =
           word.replaceAll("\\]", "\\\\]")
@@ -179,8 +217,8 @@ public final class Comment {
    *
    * @param pattern a regular expression
    */
-  private void removeTags(String pattern) {
-    Matcher matcher = Pattern.compile(pattern).matcher(text);
+  private void removeTags(Pattern pattern) {
+    Matcher matcher = pattern.matcher(text);
     while (matcher.find()) {
       this.text = this.text.replace(matcher.group(0), matcher.group(1));
     }
@@ -188,8 +226,7 @@ public final class Comment {
 
   /** Removes HTML tags from the comment text. */
   private void removeHTMLTags() {
-    String htmlTagPattern = "<([a-zA-Z][a-zA-Z0-9]*)\\b[^>]*>(.*?)</\\1>|(<(.*)/>)";
-    Matcher matcher = Pattern.compile(htmlTagPattern).matcher(text);
+    Matcher matcher = HTML_TAG.matcher(text);
     while (matcher.find()) {
       if (matcher.group(1) != null) {
         this.text = this.text.replace(matcher.group(0), matcher.group(2));
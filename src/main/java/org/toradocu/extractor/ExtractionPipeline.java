@@ -0,0 +1,175 @@
+package org.toradocu.extractor;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import org.toradocu.util.Checks;
+
+/**
+ * Extracts the Javadoc comments of a sequence of classes on a pool of threads, while the caller
+ * consumes (e.g., translates) the comments of the classes extracted before. Extraction runs ahead
+ * of the consumer by a bounded number of classes, so that the extracted types waiting to be
+ * consumed do not exhaust the memory. Extracted types are returned in the order of the classes.
+ *
+ * <p>Instances of this class must be used by a single consumer thread.
+ */
+public final class ExtractionPipeline implements AutoCloseable {
+
+  /** Number of classes, per extraction thread, that can be extracted ahead of the consumer. */
+  private static final int QUEUED_CLASSES_PER_THREAD = 2;
+
+  /** The classes not yet submitted for extraction. */
+  private final Iterator<String> classNames;
+  /** The source directory of the classes. */
+  private final String sourcePath;
+  /** Selects the classes to extract; the other classes are returned without being extracted. */
+  private final Predicate<String> toExtract;
+  /** The extraction threads. */
+  private final ExecutorService executor;
+  /** Maximum number of submitted classes not yet returned to the consumer. */
+  private final int capacity;
+  /** Submitted classes not yet returned to the consumer, in order. */
+  private final Deque<Extraction> queue = new ArrayDeque<>();
+
+  /**
+   * Creates a new pipeline extracting the Javadoc comments of the given classes, and starts the
+   * extraction.
+   *
+   * @param classNames the fully-qualified names of the classes to extract
+   * @param sourcePath the source directory of the classes
+   * @param threads the number of extraction threads
+   * @param toExtract selects the classes to extract, evaluated by the consumer thread right before
+   *     a class is submitted for extraction
+   * @throws IllegalArgumentException if {@code threads} is less than 1
+   */
+  public ExtractionPipeline(
+      List<String> classNames, String sourcePath, int threads, Predicate<String> toExtract) {
+    Checks.nonNullParameter(classNames, "classNames");
+    Checks.nonNullParameter(sourcePath, "sourcePath");
+    Checks.nonNullParameter(toExtract, "toExtract");
+    if (threads < 1) {
+      throw new IllegalArgumentException("At least one extraction thread is needed: " + threads);
+    }
+    this.classNames = classNames.iterator();
+    this.sourcePath = sourcePath;
+    this.toExtract = toExtract;
+    this.capacity = threads * QUEUED_CLASSES_PER_THREAD;
+    final AtomicInteger threadCount = new AtomicInteger();
+    this.executor =
+        Executors.newFixedThreadPool(
+            threads,
+            task -> {
+              Thread thread = new Thread(task, "extractor-" + threadCount.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            });
+    submit();
+  }
+
+  /**
+   * Returns true if there are classes not yet returned by {@link #next()}.
+   *
+   * @return true if there are classes not yet returned
+   */
+  public boolean hasNext() {
+    return !queue.isEmpty();
+  }
+
+  /**
+   * Returns the extraction of the next class. The extraction may still be running: {@link
+   * Extraction#get()} waits for its completion.
+   *
+   * @return the extraction of the next class
+   * @throws NoSuchElementException if all the classes have been returned
+   */
+  public Extraction next() {
+    final Extraction next = queue.poll();
+    if (next == null) {
+      throw new NoSuchElementException();
+    }
+    submit();
+    return next;
+  }
+
+  /** Stops the extraction threads, discarding the classes not yet extracted. */
+  @Override
+  public void close() {
+    executor.shutdownNow();
+  }
+
+  /** Submits classes for extraction until the queue is full or no class is left. */
+  private void submit() {
+    while (queue.size() < capacity && classNames.hasNext()) {
+      final String className = classNames.next();
+      Future<DocumentedType> type = null;
+      if (toExtract.test(className)) {
+        type = executor.submit(() -> new JavadocExtractor().extract(className, sourcePath));
+      }
+      queue.add(new Extraction(className, type));
+    }
+  }
+
+  /** The (possibly running) extraction of the Javadoc comments of a class. */
+  public static final class Extraction {
+    /** The fully-qualified name of the class. */
+    private final String className;
+    /** The result of the extraction, null if the class is not extracted. */
+    private final Future<DocumentedType> type;
+
+    private Extraction(String className, Future<DocumentedType> type) {
+      this.className = className;
+      this.type = type;
+    }
+
+    /**
+     * Returns the fully-qualified name of the extracted class.
+     *
+     * @return the fully-qualified name of the class
+     */
+    public String getClassName() {
+      return className;
+    }
+
+    /**
+     * Returns true if the class has been selected for extraction.
+     *
+     * @return true if the class has been selected for extraction
+     */
+    public boolean isExtracted() {
+      return type != null;
+    }
+
+    /**
+     * Waits for the extraction to complete and returns the documented type of the class.
+     *
+     * @return the documented type of the class
+     * @throws IllegalStateException if the class has not been selected for extraction
+     * @throws Exception the exception thrown by {@link JavadocExtractor#extract(String, String)}
+     */
+    public DocumentedType get() throws Exception {
+      if (type == null) {
+        throw new IllegalStateException(className + " has not been selected for extraction");
+      }
+      try {
+        return type.get();
+      } catch (ExecutionException e) {
+        final Throwable cause = e.getCause();
+        if (cause instanceof Exception) {
+          throw (Exception) cause;
+        }
+        if (cause instanceof Error) {
+          throw (Error) cause;
+        }
+        throw e;
+      }
+    }
+  }
+}
@@ -3,7 +3,6 @@ package org.toradocu.extractor;
 import static java.util.stream.Collectors.toList;
 import static org.toradocu.extractor.DocumentedExecutable.BlockTags;
 
-import com.github.javaparser.StaticJavaParser;
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.ImportDeclaration;
 import com.github.javaparser.ast.Node;
@@ -37,6 +36,7 @@ import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.toradocu.conf.Configuration;
+import org.toradocu.util.Profiler;
 import org.toradocu.util.Reflection;
 
 /**
@@ -69,6 +69,13 @@ public final class JavadocExtractor {
 	 */
 	public DocumentedType extract(String className, String sourcePath)
 			throws ClassNotFoundException, FileNotFoundException, ParameterNotFoundException {
+		try (Profiler.Timer timer = Profiler.start(Profiler.Phase.EXTRACTION)) {
+			return extract_(className, sourcePath);
+		}
+	}
+
+	private DocumentedType extract_(String className, String sourcePath)
+			throws ClassNotFoundException, FileNotFoundException, ParameterNotFoundException {
 
 		log.trace("Extracting Javadoc information of {} (in source folder {})", className, sourcePath);
 
@@ -139,22 +146,13 @@ public final class JavadocExtractor {
 		// given package.
 		// TODO Replace string manipulation by using data structures
 		String packagePath = sourceFile.substring(0, sourceFile.lastIndexOf("/"));
-		File folder = new File(packagePath);
-		File[] listOfFiles = folder.listFiles();
 		List<String> classesInPackage = new ArrayList<>();
-		if (listOfFiles == null) {
-			return classesInPackage;
-		}
-
-		for (File file : listOfFiles) {
-			if (!file.getName().endsWith(".java")) {
-				continue;
-			}
+		for (String fileName : SourceModel.sourceFileNames(new File(packagePath))) {
 			// This loop examines the .java files in the same directory as the .java class
 			// being analysed
 			// in order to find eventual Exception classes located in the same package.
 			// "package-info" files are not useful for this purpose.
-			String name = getClassNameForSource(file.getName(), className);
+			String name = getClassNameForSource(fileName, className);
 			if (name != null && !name.equals(className) && !name.contains("package-info")) {
 				classesInPackage.add(name);
 			}
@@ -163,9 +161,9 @@ public final class JavadocExtractor {
 	}
 
 	/**
-	 * Given the simple file name of a source located in the same package of the
-	 * Class being analysed and the name of the Class itself, composes the qualified
-	 * class name corresponding to the source.
+	 * Given the name (without extension) of a source located in the same package of
+	 * the Class being analysed and the name of the Class itself, composes the
+	 * qualified class name corresponding to the source.
 	 *
 	 * @param sourceFileName    name of the source file found in package
 	 * @param analyzedClassName qualified class name of the class being analysed
@@ -178,7 +176,7 @@ public final class JavadocExtractor {
 		if (lastDot == -1) {
 			return null;
 		}
-		return analyzedClassName.substring(0, lastDot) + "." + sourceFileName.replace(".java", "");
+		return analyzedClassName.substring(0, lastDot) + "." + sourceFileName;
 	}
 
 	/**
@@ -456,7 +454,7 @@ public final class JavadocExtractor {
 	}
 
 	private TypeDeclaration<?> getTypeDefinition(String typeName, String sourcePath) throws FileNotFoundException {
-		final CompilationUnit cu = StaticJavaParser.parse(new File(sourcePath));
+		final CompilationUnit cu = SourceModel.compilationUnit(new File(sourcePath));
 
 		String nestedClassName = "";
 		int dollarsPosition = typeName.indexOf("$");
@@ -0,0 +1,145 @@
+package org.toradocu.extractor;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParseProblemException;
+import com.github.javaparser.ParseResult;
+import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.ast.CompilationUnit;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.toradocu.util.Profiler;
+
+/**
+ * Cache of the source code of the analyzed project, shared by the extractor, the compliance checks,
+ * and the test generators. The cache holds the compilation units of the most recently parsed source
+ * files and the names of the source files in each package directory. An entry is discarded as soon
+ * as the corresponding file or directory is modified, so a long-running process (e.g., the daemon)
+ * always sees the current sources.
+ *
+ * <p>The returned compilation units are shared: callers must not modify them. This class is
+ * thread-safe.
+ */
+public final class SourceModel {
+
+  /** Maximum number of compilation units kept in the cache. */
+  private static final int MAX_COMPILATION_UNITS = 256;
+
+  /** Parsed source files, least recently used first. */
+  private static final Map<File, Cached<CompilationUnit>> compilationUnits =
+      new LinkedHashMap<File, Cached<CompilationUnit>>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<File, Cached<CompilationUnit>> eldest) {
+          return size() > MAX_COMPILATION_UNITS;
+        }
+      };
+
+  /** Names of the source files contained in each package directory. */
+  private static final Map<File, Cached<List<String>>> packages = new LinkedHashMap<>();
+
+  /**
+   * Parser of each thread. Every parser has its own configuration, so that source files can be
+   * parsed concurrently (e.g., by the {@code ExtractionPipeline}).
+   */
+  private static final ThreadLocal<JavaParser> parsers =
+      ThreadLocal.withInitial(() -> new JavaParser(new ParserConfiguration()));
+
+  private SourceModel() {}
+
+  /**
+   * Returns the compilation unit of the given source file, parsing the file only if it was not
+   * parsed before or if it changed since it was last parsed.
+   *
+   * @param sourceFile the source file to parse
+   * @return the compilation unit of {@code sourceFile}, which must not be modified
+   * @throws FileNotFoundException if {@code sourceFile} does not exist
+   */
+  public static CompilationUnit compilationUnit(File sourceFile) throws FileNotFoundException {
+    final File key = sourceFile.getAbsoluteFile();
+    final long lastModified = key.lastModified();
+    final long length = key.length();
+    synchronized (compilationUnits) {
+      final Cached<CompilationUnit> entry = compilationUnits.get(key);
+      if (entry != null && entry.isCurrent(lastModified, length)) {
+        Profiler.cacheAccess(Profiler.Cache.SOURCE_FILES, true);
+        return entry.value;
+      }
+    }
+    Profiler.cacheAccess(Profiler.Cache.SOURCE_FILES, false);
+    // Parsing happens outside the lock: at worst, a file is parsed twice by concurrent callers.
+    final ParseResult<CompilationUnit> result = parsers.get().parse(key);
+    if (!result.isSuccessful() || !result.getResult().isPresent()) {
+      throw new ParseProblemException(result.getProblems());
+    }
+    final CompilationUnit cu = result.getResult().get();
+    synchronized (compilationUnits) {
+      compilationUnits.put(key, new Cached<>(cu, lastModified, length));
+    }
+    return cu;
+  }
+
+  /**
+   * Returns the names (without extension) of the Java source files contained in the given package
+   * directory, in the order in which the file system lists them.
+   *
+   * @param packageDir the directory of a package
+   * @return the names of the source files in {@code packageDir}, or an empty list if {@code
+   *     packageDir} cannot be listed
+   */
+  public static List<String> sourceFileNames(File packageDir) {
+    final File key = packageDir.getAbsoluteFile();
+    final long lastModified = key.lastModified();
+    synchronized (packages) {
+      final Cached<List<String>> entry = packages.get(key);
+      if (entry != null && entry.isCurrent(lastModified, 0)) {
+        return entry.value;
+      }
+    }
+    final File[] files = key.listFiles();
+    List<String> names = new ArrayList<>();
+    if (files != null) {
+      for (File file : files) {
+        final String name = file.getName();
+        if (name.endsWith(".java")) {
+          names.add(name.substring(0, name.length() - ".java".length()));
+        }
+      }
+    }
+    names = Collections.unmodifiableList(names);
+    synchronized (packages) {
+      packages.put(key, new Cached<>(names, lastModified, 0));
+    }
+    return names;
+  }
+
+  /** Discards all the cached compilation units and package listings. */
+  public static void clear() {
+    synchronized (compilationUnits) {
+      compilationUnits.clear();
+    }
+    synchronized (packages) {
+      packages.clear();
+    }
+  }
+
+  /** A cached value, together with the modification time and the size of the file it comes from. */
+  private static final class Cached<T> {
+    private final T value;
+    private final long lastModified;
+    private final long length;
+
+    Cached(T value, long lastModified, long length) {
+      this.value = value;
+      this.lastModified = lastModified;
+      this.length = length;
+    }
+
+    boolean isCurrent(long lastModified, long length) {
+      return this.lastModified == lastModified && this.length == length;
+    }
+  }
+}
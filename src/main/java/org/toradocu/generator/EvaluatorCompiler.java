@@ -0,0 +1,153 @@
+package org.toradocu.generator;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compiles the evaluators generated for a class with a single invocation of the
+ * Java compiler. Evaluators are added with {@link #add(Path, Path)} while they
+ * are generated, and compiled all together with {@link #compile()}. The
+ * compiler diagnostics of each evaluator are written to its own log file.
+ */
+class EvaluatorCompiler {
+
+	/** {@code Logger} for this class. */
+	private static final Logger log = LoggerFactory.getLogger(EvaluatorCompiler.class);
+
+	/** Classpath used to compile the evaluators. */
+	private final String classpath;
+	/** Directory where the class files of the evaluators are written. */
+	private final Path outputDir;
+	/** Log file of each evaluator source file, in the order of addition. */
+	private final Map<File, Path> evaluators = new LinkedHashMap<>();
+
+	/**
+	 * Creates a compiler for the evaluators of a class.
+	 *
+	 * @param classpath the classpath used to compile the evaluators
+	 * @param outputDir the directory where the class files are written
+	 */
+	EvaluatorCompiler(String classpath, Path outputDir) {
+		this.classpath = classpath;
+		this.outputDir = outputDir;
+	}
+
+	/**
+	 * Adds an evaluator to compile.
+	 *
+	 * @param evaluatorPath the source file of the evaluator
+	 * @param javacLogFilePath the file where the compiler diagnostics of the
+	 *                         evaluator are written
+	 */
+	void add(Path evaluatorPath, Path javacLogFilePath) {
+		evaluators.put(evaluatorPath.toAbsolutePath().toFile(), javacLogFilePath);
+	}
+
+	/**
+	 * Compiles all the added evaluators. Since the compiler does not generate any
+	 * class file when a source file has errors, the evaluators that do not compile
+	 * are excluded and the remaining ones are compiled again, so that a faulty
+	 * evaluator does not prevent the compilation of the others.
+	 */
+	void compile() {
+		if (evaluators.isEmpty()) {
+			return;
+		}
+		final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		final List<String> options = Arrays.asList("-cp", classpath, "-d", outputDir.toString());
+		final Map<File, StringBuilder> logs = new LinkedHashMap<>();
+		for (File source : evaluators.keySet()) {
+			logs.put(source, new StringBuilder());
+		}
+
+		try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, null)) {
+			List<File> toCompile = new ArrayList<>(evaluators.keySet());
+			while (!toCompile.isEmpty()) {
+				// Only the diagnostics of the last compilation of an evaluator are logged
+				for (File source : toCompile) {
+					logs.get(source).setLength(0);
+				}
+				final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+				final Iterable<? extends JavaFileObject> sources = fileManager.getJavaFileObjectsFromFiles(toCompile);
+				final boolean success = compiler.getTask(null, fileManager, diagnostics, options, null, sources).call();
+
+				List<File> failed = new ArrayList<>();
+				for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+					final File source = diagnostic.getSource() == null ? null
+							: new File(diagnostic.getSource().toUri()).getAbsoluteFile();
+					if (source == null || !logs.containsKey(source)) {
+						// Not related to a specific evaluator: report it in all the logs
+						for (File evaluator : toCompile) {
+							logs.get(evaluator).append(format(diagnostic));
+						}
+						continue;
+					}
+					logs.get(source).append(format(diagnostic));
+					if (diagnostic.getKind() == Diagnostic.Kind.ERROR && !failed.contains(source)) {
+						failed.add(source);
+					}
+				}
+				if (success || failed.isEmpty()) {
+					break;
+				}
+				toCompile.removeAll(failed);
+			}
+		} catch (IOException | RuntimeException e) {
+			log.error("[Test generator] Unexpected error while compiling the evaluators: " + e);
+			throw new RuntimeException(e);
+		}
+
+		for (Map.Entry<File, Path> evaluator : evaluators.entrySet()) {
+			writeLog(evaluator.getValue(), logs.get(evaluator.getKey()).toString());
+		}
+		evaluators.clear();
+	}
+
+	/**
+	 * Formats a diagnostic as the command line compiler does.
+	 *
+	 * @param diagnostic a compiler diagnostic
+	 * @return the formatted diagnostic, terminated by a line separator
+	 */
+	private static String format(Diagnostic<? extends JavaFileObject> diagnostic) {
+		final String kind = diagnostic.getKind().toString().toLowerCase(Locale.ROOT).replace('_', ' ');
+		String message = diagnostic.getMessage(Locale.getDefault());
+		if (diagnostic.getSource() != null && diagnostic.getLineNumber() != Diagnostic.NOPOS) {
+			message = new File(diagnostic.getSource().toUri()).getPath() + ":" + diagnostic.getLineNumber() + ": "
+					+ kind + ": " + message;
+		} else {
+			message = Character.toUpperCase(kind.charAt(0)) + kind.substring(1) + ": " + message;
+		}
+		return message + System.lineSeparator();
+	}
+
+	private static void writeLog(Path javacLogFilePath, String content) {
+		try (Writer w = Files.newBufferedWriter(javacLogFilePath, StandardCharsets.UTF_8)) {
+			w.write(content);
+		} catch (IOException e) {
+			log.error("[Test generator] Unexpected I/O error while creating evaluator compilation log file "
+					+ javacLogFilePath.toString() + ": " + e);
+			throw new RuntimeException(e);
+		}
+	}
+}
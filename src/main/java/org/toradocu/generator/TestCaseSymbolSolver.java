@@ -0,0 +1,345 @@
+package org.toradocu.generator;
+
+import static org.toradocu.Toradocu.configuration;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParseProblemException;
+import com.github.javaparser.ParseResult;
+import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.resolution.TypeSolver;
+import com.github.javaparser.resolution.declarations.ResolvedReferenceTypeDeclaration;
+import com.github.javaparser.resolution.model.SymbolReference;
+import com.github.javaparser.symbolsolver.JavaSymbolSolver;
+import com.github.javaparser.symbolsolver.javassistmodel.JavassistFactory;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.CombinedTypeSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.JavaParserTypeSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.ReflectionTypeSolver;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+import javassist.ClassPool;
+import javassist.LoaderClassPath;
+import javassist.NotFoundException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Resolves the symbols of the test cases generated by EvoSuite against the
+ * sources of the target library, the JDK, and the EvoSuite runtime. Each thread
+ * keeps its own symbol solver across the analyzed classes, so that the types
+ * resolved for a class are reused for the following ones, as long as the thread
+ * lives (see the enrichment threads of {@code TestGenerator}). Solvers are
+ * confined to threads because JavaParser caches the resolved types in
+ * structures that are not thread-safe. A solver is closed when it is replaced,
+ * and the solvers still open are closed when the JVM shuts down.
+ *
+ * <p>
+ * The index of the classes in the EvoSuite jar is shared by all the threads and
+ * persisted in the directory configured with {@code --type-index-dir}, so that
+ * the jar is scanned once, and not again in later runs until it changes. The
+ * classes of the jar are loaded lazily, when they are resolved.
+ */
+final class TestCaseSymbolSolver {
+
+	/** {@code Logger} for this class. */
+	private static final Logger log = LoggerFactory.getLogger(TestCaseSymbolSolver.class);
+
+	/** Version of the format of the persisted indexes. */
+	private static final int INDEX_FORMAT_VERSION = 1;
+
+	/** Extension of the persisted indexes. */
+	private static final String INDEX_EXTENSION = ".idx";
+
+	/** Extension of the class files. */
+	private static final String CLASS_EXTENSION = ".class";
+
+	/** The solver of each thread. */
+	private static final ThreadLocal<Solver> solvers = new ThreadLocal<>();
+
+	/** The solvers not closed yet, of all the threads. */
+	private static final Set<Solver> openSolvers = ConcurrentHashMap.newKeySet();
+
+	static {
+		Runtime.getRuntime().addShutdownHook(new Thread(() -> openSolvers.forEach(Solver::close)));
+	}
+
+	/**
+	 * Indexes of the jars, by name of the index: the canonical names of the classes
+	 * in a jar, mapped to their binary names.
+	 */
+	private static final ConcurrentMap<String, Map<String, String>> jarIndexes = new ConcurrentHashMap<>();
+
+	private TestCaseSymbolSolver() {}
+
+	/**
+	 * Parses the given test case, resolving its symbols with the solver of the
+	 * current thread.
+	 *
+	 * @param testCase the source file of the test case
+	 * @return the compilation unit of the test case
+	 * @throws FileNotFoundException if {@code testCase} does not exist
+	 * @throws ParseProblemException if {@code testCase} cannot be parsed
+	 */
+	static CompilationUnit parse(File testCase) throws FileNotFoundException {
+		ParseResult<CompilationUnit> parseResult = solver().parser.parse(testCase);
+		if (!parseResult.isSuccessful()) {
+			throw new ParseProblemException(parseResult.getProblems());
+		}
+		return parseResult.getResult().get();
+	}
+
+	/**
+	 * Returns the solver of the current thread, creating it if the thread has none
+	 * or if the source directory or the EvoSuite jar changed since its creation.
+	 *
+	 * @return the solver of the current thread
+	 */
+	private static Solver solver() {
+		final Path sourceDir = configuration.sourceDir;
+		final Path evosuiteJar = Paths.get(configuration.getEvoSuiteJar()).toAbsolutePath().normalize();
+		final String indexName = indexName(evosuiteJar);
+		Solver solver = solvers.get();
+		if (solver == null || !solver.sourceDir.equals(sourceDir) || !solver.indexName.equals(indexName)) {
+			if (solver != null) {
+				solver.close();
+			}
+			solver = new Solver(sourceDir, evosuiteJar, indexName);
+			solvers.set(solver);
+		}
+		return solver;
+	}
+
+	/**
+	 * Returns the name of the index of the given jar, which changes whenever the jar
+	 * is modified.
+	 *
+	 * @param jar the path of the jar
+	 * @return the name of the index of {@code jar}
+	 */
+	static String indexName(Path jar) {
+		final File jarFile = jar.toFile();
+		return jar.getFileName() + "-" + Long.toHexString(jarFile.length()) + "-"
+				+ Long.toHexString(jarFile.lastModified()) + ".v" + INDEX_FORMAT_VERSION + INDEX_EXTENSION;
+	}
+
+	/**
+	 * Returns the index of the given jar, reading it from the index directory if it
+	 * was persisted by a previous run, and scanning the jar otherwise.
+	 *
+	 * @param jar the path of the jar
+	 * @param indexName the name of the index of {@code jar}
+	 * @return the canonical names of the classes in {@code jar}, mapped to their
+	 *         binary names
+	 * @throws IOException if the jar cannot be read
+	 */
+	private static Map<String, String> index(Path jar, String indexName) throws IOException {
+		Map<String, String> index = jarIndexes.get(indexName);
+		if (index != null) {
+			return index;
+		}
+		synchronized (jarIndexes) {
+			index = jarIndexes.get(indexName);
+			if (index == null) {
+				index = loadIndex(jar, indexName);
+				jarIndexes.put(indexName, index);
+			}
+			return index;
+		}
+	}
+
+	private static Map<String, String> loadIndex(Path jar, String indexName) throws IOException {
+		final File indexDir = configuration.getTypeIndexDir();
+		final Path indexFile = indexDir == null ? null : indexDir.toPath().resolve(indexName);
+		if (indexFile != null && Files.isRegularFile(indexFile)) {
+			try {
+				return toIndex(Files.readAllLines(indexFile, StandardCharsets.UTF_8));
+			} catch (IOException e) {
+				log.warn("Unable to read the index of " + jar + " from " + indexFile + ", scanning the jar", e);
+			}
+		}
+
+		final List<String> binaryNames = new ArrayList<>();
+		try (JarFile jarFile = new JarFile(jar.toFile())) {
+			for (Enumeration<JarEntry> entries = jarFile.entries(); entries.hasMoreElements();) {
+				final JarEntry entry = entries.nextElement();
+				final String entryName = entry.getName();
+				if (!entry.isDirectory() && entryName.endsWith(CLASS_EXTENSION)) {
+					binaryNames.add(entryName.substring(0, entryName.length() - CLASS_EXTENSION.length())
+							.replace('/', '.'));
+				}
+			}
+		}
+		if (indexFile != null) {
+			storeIndex(jar, indexFile, binaryNames);
+		}
+		return toIndex(binaryNames);
+	}
+
+	/**
+	 * Persists the index of a jar, replacing the indexes of its previous versions.
+	 * The index is written to a temporary file and then moved, so that concurrent
+	 * runs either see the complete index or no index.
+	 *
+	 * @param jar the path of the jar
+	 * @param indexFile the file of the index
+	 * @param binaryNames the binary names of the classes in {@code jar}
+	 */
+	private static void storeIndex(Path jar, Path indexFile, List<String> binaryNames) {
+		final Path indexDir = indexFile.getParent();
+		try {
+			Files.createDirectories(indexDir);
+			try (DirectoryStream<Path> staleIndexes = Files.newDirectoryStream(indexDir,
+					jar.getFileName() + "-*" + INDEX_EXTENSION)) {
+				for (Path staleIndex : staleIndexes) {
+					Files.deleteIfExists(staleIndex);
+				}
+			}
+			final Path tmp = Files.createTempFile(indexDir, null, ".tmp");
+			try {
+				Files.write(tmp, binaryNames, StandardCharsets.UTF_8);
+				Files.move(tmp, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} finally {
+				Files.deleteIfExists(tmp);
+			}
+		} catch (IOException e) {
+			log.warn("Unable to persist the index of " + jar + " to " + indexFile, e);
+		}
+	}
+
+	private static Map<String, String> toIndex(List<String> binaryNames) {
+		final Map<String, String> index = new HashMap<>(binaryNames.size() * 2);
+		for (String binaryName : binaryNames) {
+			index.put(binaryName.replace('$', '.'), binaryName);
+		}
+		return Collections.unmodifiableMap(index);
+	}
+
+	/** The symbol solver of a thread. */
+	private static final class Solver implements Closeable {
+		/** The source directory of the target library. */
+		private final Path sourceDir;
+		/** The name of the index of the EvoSuite jar. */
+		private final String indexName;
+		/** The solver of the types of the EvoSuite jar (null if the jar is unusable). */
+		private final IndexedJarTypeSolver jarTypeSolver;
+		/** The parser resolving the symbols of the test cases. */
+		private final JavaParser parser;
+
+		Solver(Path sourceDir, Path evosuiteJar, String indexName) {
+			this.sourceDir = sourceDir;
+			this.indexName = indexName;
+			CombinedTypeSolver combinedTypeSolver = new CombinedTypeSolver();
+			combinedTypeSolver.add(new JavaParserTypeSolver(sourceDir));
+			combinedTypeSolver.add(new ReflectionTypeSolver());
+			IndexedJarTypeSolver jarTypeSolver = null;
+			try {
+				jarTypeSolver = new IndexedJarTypeSolver(evosuiteJar, index(evosuiteJar, indexName));
+				combinedTypeSolver.add(jarTypeSolver);
+			} catch (IOException e) {
+				log.error("Wrong path to Evosuite lib.", e);
+			}
+			this.jarTypeSolver = jarTypeSolver;
+			this.parser = new JavaParser(
+					new ParserConfiguration().setSymbolResolver(new JavaSymbolSolver(combinedTypeSolver)));
+			openSolvers.add(this);
+		}
+
+		/** Closes the EvoSuite jar. The solver cannot be used afterwards. */
+		@Override
+		public void close() {
+			if (openSolvers.remove(this) && jarTypeSolver != null) {
+				jarTypeSolver.close();
+			}
+		}
+	}
+
+	/**
+	 * Resolves the types of the classes in a jar, like JavaParser's
+	 * {@code JarTypeSolver}, but from an existing index of the jar. Classes are read
+	 * from the jar only when they are resolved.
+	 */
+	private static final class IndexedJarTypeSolver implements TypeSolver, Closeable {
+		/** The path of the jar. */
+		private final Path jar;
+		/** The canonical names of the classes in the jar, mapped to their binary names. */
+		private final Map<String, String> index;
+		/**
+		 * The loader of the class files. The class pool only keeps a weak reference to
+		 * it.
+		 */
+		private final URLClassLoader classFileLoader;
+		private final ClassPool classPool = new ClassPool(false);
+		private TypeSolver parent;
+
+		IndexedJarTypeSolver(Path jar, Map<String, String> index) throws IOException {
+			this.jar = jar;
+			this.index = index;
+			this.classFileLoader = new URLClassLoader(new URL[] { jar.toUri().toURL() }, null);
+			classPool.appendClassPath(new LoaderClassPath(classFileLoader));
+		}
+
+		@Override
+		public TypeSolver getParent() {
+			return parent;
+		}
+
+		@Override
+		public void setParent(TypeSolver parent) {
+			if (this.parent != null) {
+				throw new IllegalStateException("This TypeSolver already has a parent.");
+			}
+			if (parent == this) {
+				throw new IllegalStateException("The parent of this TypeSolver cannot be itself.");
+			}
+			this.parent = parent;
+		}
+
+		/** Closes the jar, which remains open while its classes are loaded. */
+		@Override
+		public void close() {
+			try {
+				classFileLoader.close();
+			} catch (IOException e) {
+				log.warn("Unable to close " + jar, e);
+			}
+		}
+
+		@Override
+		public SymbolReference<ResolvedReferenceTypeDeclaration> tryToSolveType(String name) {
+			final String binaryName = index.get(name);
+			if (binaryName == null) {
+				return SymbolReference.unsolved();
+			}
+			try {
+				return SymbolReference.solved(JavassistFactory.toTypeDeclaration(classPool.get(binaryName), getRoot()));
+			} catch (NotFoundException e) {
+				throw new IllegalStateException("Class " + binaryName + " is in the index of " + jar
+						+ " but cannot be loaded", e);
+			}
+		}
+	}
+}
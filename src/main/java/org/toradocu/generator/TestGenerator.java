@@ -20,36 +20,35 @@ import com.github.javaparser.ast.stmt.Statement;
 import com.github.javaparser.ast.stmt.TryStmt;
 import com.github.javaparser.ast.visitor.VoidVisitor;
 import com.github.javaparser.resolution.UnsolvedSymbolException;
-import com.github.javaparser.symbolsolver.JavaSymbolSolver;
-import com.github.javaparser.symbolsolver.resolution.typesolvers.CombinedTypeSolver;
-import com.github.javaparser.symbolsolver.resolution.typesolvers.JarTypeSolver;
-import com.github.javaparser.symbolsolver.resolution.typesolvers.JavaParserTypeSolver;
-import com.github.javaparser.symbolsolver.resolution.typesolvers.ReflectionTypeSolver;
 
 import edu.stanford.nlp.semgraph.SemanticGraph;
 
-import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
 import java.lang.reflect.Type;
 import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
-
-import javax.tools.JavaCompiler;
-import javax.tools.ToolProvider;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
 import org.apache.commons.io.FileUtils;
 import org.slf4j.Logger;
@@ -57,11 +56,13 @@ import org.slf4j.LoggerFactory;
 import org.toradocu.extractor.Comment;
 import org.toradocu.extractor.DocumentedExecutable;
 import org.toradocu.extractor.DocumentedParameter;
+import org.toradocu.extractor.SourceModel;
 import org.toradocu.translator.Parser;
 import org.toradocu.translator.PropositionSeries;
 import org.toradocu.translator.Matcher;
 import org.toradocu.translator.Matcher.WordType;
 import org.toradocu.util.Checks;
+import org.toradocu.util.Profiler;
 import randoop.condition.specification.OperationSpecification;
 import randoop.condition.specification.PostSpecification;
 import randoop.condition.specification.PreSpecification;
@@ -74,14 +75,31 @@ import randoop.condition.specification.ThrowsSpecification;
  */
 public class TestGenerator {
 	public static final int MAX_EVALUATORS_PER_EVOSUITE_CALL = 10;
+	/** Memory (in MB) assigned to each EvoSuite process. */
+	private static final int EVOSUITE_MEMORY = 4096;
 	public static final String EVALUATORS_FOLDER = "";
 	public static final String TESTCASES_FOLDER = "";
 	private static final String EVALUATOR_TEMPLATE_NAME = "EvoSuiteEvaluator_Template";
-	private static final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
 
 	/** {@code Logger} for this class. */
 	private static final Logger log = LoggerFactory.getLogger(TestGenerator.class);
 
+	/** Number of threads enriching the test cases of the EvoSuite runs. */
+	private static final AtomicInteger enrichmentThreads = new AtomicInteger();
+
+	/**
+	 * Threads enriching the generated test cases with oracles, up to the available
+	 * processors. The pool lasts for the whole run, so that the symbol solver of
+	 * each thread, and the types it resolved, are reused across the analyzed
+	 * classes (see {@code TestCaseSymbolSolver}).
+	 */
+	private static final ExecutorService enrichmentExecutor = Executors
+			.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), task -> {
+				Thread thread = new Thread(task, "enrichment-" + enrichmentThreads.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			});
+
 	/*
 	 * We generate a test case for a given contract (i.e., test case is related to a
 	 * "focal" contract). In turn the contract relates to a method, which thus is
@@ -192,7 +210,7 @@ public class TestGenerator {
 		File testedClax = new File(testedClaxDir);
 		CompilationUnit cu = null;
 		try {
-			cu = StaticJavaParser.parse(testedClax);
+			cu = SourceModel.compilationUnit(testedClax);
 		} catch (FileNotFoundException e) {
 			e.printStackTrace();
 		}
@@ -257,6 +275,7 @@ public class TestGenerator {
 		}
 		int evaluatorNumber = 0;
 		List<EvaluatorGroup> evaluatorGroups = new ArrayList<>();
+		EvaluatorCompiler evaluatorCompiler = new EvaluatorCompiler(classpathTarget, evaluatorsDir);
 
 		for (DocumentedExecutable method : specifications.keySet()) {
 			String packageName = method.getDeclaringClass().getPackage().getName();
@@ -341,7 +360,7 @@ public class TestGenerator {
 				evaluators.addItem(evaluatorQualifiedName, testName, method, spec, true);
 				// This evaluator aims to a test case that hit the contract, thus we do not use the "excludingGuards" here 
 				createEvaluator(method, guards.toArray(new String[0]), new String[0], new String[]{postCond}, 
-						spec instanceof ThrowsSpecification, false, evaluatorName, evaluatorsDir, classpathTarget);
+						spec instanceof ThrowsSpecification, false, evaluatorName, evaluatorsDir, evaluatorCompiler);
 				TestGeneratorSummaryData._I().incGeneratedPositiveEvaluators();
 
 				if (!unmodeled) {
@@ -354,7 +373,7 @@ public class TestGenerator {
 					evaluators.addItem(evaluatorForViolationQualifiedName, testForViolationName, method, spec, false);
 					// This evaluator aims to a test case that hit the contract, thus we DO USE the "excludingGuards" here 
 					createEvaluator(method, guards.toArray(new String[0]), excludingGuards.toArray(new String[0]), new String[]{postCond},
-							spec instanceof ThrowsSpecification, true, evaluatorForViolationName, evaluatorsDir, classpathTarget);
+							spec instanceof ThrowsSpecification, true, evaluatorForViolationName, evaluatorsDir, evaluatorCompiler);
 					TestGeneratorSummaryData._I().incGeneratedNegativeEvaluators();
 					/*
 					 * RATIONALE: if postCond != empty - guardUnmodeled: possibly we may violate the
@@ -372,6 +391,11 @@ public class TestGenerator {
 			}
 		}
 
+		// All the evaluators are compiled at once, with a single compiler invocation
+		try (Profiler.Timer timer = Profiler.start(Profiler.Phase.EVALUATOR_CREATION)) {
+			evaluatorCompiler.compile();
+		}
+
 		// Step 2/3: Generate test cases by launching EvoSuite with the evaluators as
 		// fitness function
 		if (evaluatorNumber > 0) {
@@ -381,63 +405,110 @@ public class TestGenerator {
 		}
 		GuidedGenerationReport reportGeneration = new GuidedGenerationReport();
 
+		// EvoSuite runs of different groups are independent: launch them concurrently,
+		// each with its own test and report directories.
+		final int parallelism = evosuiteParallelism(evaluatorGroups.size());
+		final ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+		final List<Future<?>> evosuiteRuns = new ArrayList<>();
+		final List<Path> runTestsDirs = new ArrayList<>();
+		if (parallelism > 1) {
+			log.info("Running " + evaluatorGroups.size() + " EvoSuite processes, up to " + parallelism
+					+ " at a time");
+		}
+
+		// Test cases of different groups are enriched concurrently, as soon as their
+		// EvoSuite run completes
+		final List<Future<Map<String, Boolean>>> enrichments = new ArrayList<>();
+
 		HashMap<String, Integer> evosuiteLaunches = new HashMap<String, Integer>();
-		for (int i = 0; i < evaluatorGroups.size(); ++i) {
+		try {
+			for (int i = 0; i < evaluatorGroups.size(); ++i) {
 
-			int evosuiteBudget = evaluatorGroups.get(i).numOfFocalContracts * configuration.getEvoSuiteBudget();
-			evosuiteBudget = evosuiteBudget < 60 ? 60 : evosuiteBudget;
+				int evosuiteBudget = evaluatorGroups.get(i).numOfFocalContracts * configuration.getEvoSuiteBudget();
+				evosuiteBudget = evosuiteBudget < 60 ? 60 : evosuiteBudget;
 
-			// Count Evosuite budget per single class and store it
-			if (evosuiteLaunches.containsKey(configuration.getTargetClass())) {
-				int tmpBudget = evosuiteLaunches.get(configuration.getTargetClass());
-				evosuiteLaunches.put(configuration.getTargetClass(), tmpBudget + evosuiteBudget);
-			} else {
-				evosuiteLaunches.put(configuration.getTargetClass(), evosuiteBudget);
-			}
+				// Count Evosuite budget per single class and store it
+				if (evosuiteLaunches.containsKey(configuration.getTargetClass())) {
+					int tmpBudget = evosuiteLaunches.get(configuration.getTargetClass());
+					evosuiteLaunches.put(configuration.getTargetClass(), tmpBudget + evosuiteBudget);
+				} else {
+					evosuiteLaunches.put(configuration.getTargetClass(), evosuiteBudget);
+				}
 
-			/*
-			 * // Count number of Evosuite launchs per single class and store it if
-			 * (evosuiteLaunches.containsKey(configuration.getTargetClass())) { int launches
-			 * = evosuiteLaunches.get(configuration.getTargetClass());
-			 * evosuiteLaunches.put(configuration.getTargetClass(), launches + 1); } else {
-			 * evosuiteLaunches.put(configuration.getTargetClass(), 1); }
-			 */
+				/*
+				 * // Count number of Evosuite launchs per single class and store it if
+				 * (evosuiteLaunches.containsKey(configuration.getTargetClass())) { int launches
+				 * = evosuiteLaunches.get(configuration.getTargetClass());
+				 * evosuiteLaunches.put(configuration.getTargetClass(), launches + 1); } else {
+				 * evosuiteLaunches.put(configuration.getTargetClass(), 1); }
+				 */
 
-			// Launch EvoSuite
-			List<String> evosuiteCommand = buildEvoSuiteCommand(evaluatorGroups.get(i).asEvosuiteParameter(),
-					evaluatorsDir, testsDir, evosuiteBudget);
-			final Path evosuiteLogFilePath = evaluatorsDir.resolve("evosuite-log-" + i + ".txt");
-			try {
-				Process processEvosuite = launchProcess(evosuiteCommand, evosuiteLogFilePath);
-				log.info("Launched EvoSuite process, command line: " + evosuiteCommand.stream().reduce("", (s1, s2) -> {
-					return s1 + " " + s2;
+				// Launch EvoSuite
+				final Path runDir = evaluatorsDir.resolve("evosuite-run-" + i);
+				final Path runTestsDir = runDir.resolve("tests");
+				FileUtils.deleteDirectory(runDir.toFile());
+				List<String> evosuiteCommand = buildEvoSuiteCommand(evaluatorGroups.get(i).asEvosuiteParameter(),
+						evaluatorsDir, runTestsDir, runDir.resolve("report"), evosuiteBudget);
+				final Path evosuiteLogFilePath = evaluatorsDir.resolve("evosuite-log-" + i + ".txt");
+				runTestsDirs.add(runTestsDir);
+				evosuiteRuns.add(executor.submit(() -> {
+					runEvoSuite(evosuiteCommand, evosuiteLogFilePath);
+					return null;
 				}));
+			}
+
+			for (int i = 0; i < evaluatorGroups.size(); ++i) {
+				// Wait for the EvoSuite runs in launch order, so that the results are merged
+				// deterministically
 				try {
-					processEvosuite.waitFor();
+					evosuiteRuns.get(i).get();
 				} catch (InterruptedException e) {
-					// the performer was shut down: kill the EvoSuite job
 					log.info("Unexpected InterruptedException while running EvoSuite: " + e);
-					processEvosuite.destroy();
+					Thread.currentThread().interrupt();
+					return;
+				} catch (ExecutionException e) {
+					log.error("Unexpected I/O error while running EvoSuite: " + e.getCause());
+					throw new RuntimeException(e.getCause());
 				}
-			} catch (IOException e) {
-				log.error("Unexpected I/O error while running EvoSuite: " + e);
-				throw new RuntimeException(e);
+				final Path runDir = runTestsDirs.get(i).getParent();
+				mergeTests(runTestsDirs.get(i), testsDir);
+				mergeReports(runDir.resolve("report"), evaluatorsDir);
+				FileUtils.deleteDirectory(runDir.toFile());
+
+				// Step 3/3: Enrich the generated test cases with assumptions and assertions
+				final ArrayList<TestCaseInfo> assertionsToAddInTestCases = evaluatorGroups.get(i).expectedTestCases;
+				enrichments.add(enrichmentExecutor
+						.submit(() -> enrichTestsWithOracles(testsDir, assertionsToAddInTestCases, specifications)));
 			}
 
-			// Step 3/3: Enrich the generated test cases with assumptions and assertions
-			ArrayList<TestCaseInfo> assertionsToAddInTestCases = evaluatorGroups.get(i).expectedTestCases;
-			for (TestCaseInfo testCaseInfo : assertionsToAddInTestCases) {
+			for (int i = 0; i < evaluatorGroups.size(); ++i) {
+				// The report is built in launch order, as the enrichments complete
+				final Map<String, Boolean> enrichedTestCases;
 				try {
-					enrichTestWithOracle(testsDir, testCaseInfo.testName, testCaseInfo.focalMethod,
-							testCaseInfo.focalContract, specifications);
-					reportGeneration.buildReport(testsDir, testCaseInfo.testName, configuration.getTargetClass(),
-							testCaseInfo.focalMethod.getSignature(), testCaseInfo.focalContract);
-				} catch (ParseProblemException e) {
-					log.error(
-							"Error during parsing. This probably means that a generated test case contains some compilation errors.",
-							e);
+					enrichedTestCases = enrichments.get(i).get();
+				} catch (InterruptedException e) {
+					log.info("Unexpected InterruptedException while enriching the test cases: " + e);
+					Thread.currentThread().interrupt();
+					return;
+				} catch (ExecutionException e) {
+					log.error("Unexpected error while enriching the test cases: " + e.getCause());
+					throw new RuntimeException(e.getCause());
+				}
+				for (TestCaseInfo testCaseInfo : evaluatorGroups.get(i).expectedTestCases) {
+					final Boolean generated = enrichedTestCases.get(testCaseInfo.testName);
+					if (generated != null) {
+						reportGeneration.buildReport(testCaseInfo.testName, generated, configuration.getTargetClass(),
+								testCaseInfo.focalMethod.getSignature(), testCaseInfo.focalContract);
+					}
 				}
 			}
+		} finally {
+			// Kills the EvoSuite processes still running, if any, and stops the pending
+			// enrichments
+			executor.shutdownNow();
+			for (Future<Map<String, Boolean>> enrichment : enrichments) {
+				enrichment.cancel(true);
+			}
 		}
 		// Store number of Evosuite launches in csv file
 		evosuiteBudgetsToCSV(evosuiteLaunches);
@@ -556,31 +627,80 @@ public class TestGenerator {
 		}
 	}
 
-	private static void enrichTestWithOracle(Path testsDir, String testName, DocumentedExecutable targetMethod,
-			Specification spec, Map<DocumentedExecutable, OperationSpecification> allSpecs) {
-		final Path testCaseAbsPath = testsDir.resolve(testName.replace('.', File.separatorChar) + ".java");
-		File currentTestCase = new File(testCaseAbsPath.toUri());
-		if (!currentTestCase.exists()) {
-			return; // nothing to do, since EvoSuite failed to generate this test case
+	/**
+	 * Enriches the test cases generated by an EvoSuite run with the oracles of
+	 * their focal contracts. Each test case file is parsed once, enriched in memory
+	 * with the oracles of all the focal contracts it relates to, and written once.
+	 *
+	 * @param testsDir       the test output directory
+	 * @param testCases      the test cases expected from the EvoSuite run
+	 * @param specifications the specifications of all the methods of the target
+	 *                       class
+	 * @return for each test case, whether EvoSuite generated it. Test cases that
+	 *         could not be parsed are not included.
+	 */
+	private static Map<String, Boolean> enrichTestsWithOracles(Path testsDir, List<TestCaseInfo> testCases,
+			Map<DocumentedExecutable, OperationSpecification> specifications) {
+		try (Profiler.Timer timer = Profiler.start(Profiler.Phase.ENRICHMENT)) {
+			return enrichTestsWithOracles_(testsDir, testCases, specifications);
 		}
+	}
 
-		CombinedTypeSolver combinedTypeSolver = new CombinedTypeSolver();
-		combinedTypeSolver.add(new JavaParserTypeSolver(configuration.sourceDir));
-		combinedTypeSolver.add(new ReflectionTypeSolver());
-		try {
-			combinedTypeSolver.add(new JarTypeSolver(configuration.getEvoSuiteJar()));
-		} catch (IOException e) {
-			log.error("Wrong path to Evosuite lib.", e);
+	private static Map<String, Boolean> enrichTestsWithOracles_(Path testsDir, List<TestCaseInfo> testCases,
+			Map<DocumentedExecutable, OperationSpecification> specifications) {
+		final Map<String, List<TestCaseInfo>> testCasesByName = new LinkedHashMap<>();
+		for (TestCaseInfo testCaseInfo : testCases) {
+			testCasesByName.computeIfAbsent(testCaseInfo.testName, n -> new ArrayList<>()).add(testCaseInfo);
 		}
-		JavaSymbolSolver symbolSolver = new JavaSymbolSolver(combinedTypeSolver);
-		StaticJavaParser.getConfiguration().setSymbolResolver(symbolSolver);
-		CompilationUnit cu = null;
-		try {
-			cu = StaticJavaParser.parse(currentTestCase);
-		} catch (FileNotFoundException e) {
-			log.error("Test case not found while trying to parse it.", e);
+
+		final Map<String, Boolean> enrichedTestCases = new HashMap<>();
+		for (Entry<String, List<TestCaseInfo>> testCase : testCasesByName.entrySet()) {
+			final String testName = testCase.getKey();
+			final Path testCaseAbsPath = testsDir.resolve(testName.replace('.', File.separatorChar) + ".java");
+			File currentTestCase = new File(testCaseAbsPath.toUri());
+			if (!currentTestCase.exists()) {
+				// nothing to do, since EvoSuite failed to generate this test case
+				enrichedTestCases.put(testName, false);
+				continue;
+			}
+
+			try {
+				CompilationUnit cu = TestCaseSymbolSolver.parse(currentTestCase);
+				for (TestCaseInfo testCaseInfo : testCase.getValue()) {
+					enrichTestWithOracle(cu, testName, testCaseInfo.focalMethod, testCaseInfo.focalContract,
+							specifications);
+				}
+				enrichedTestCases.put(testName, true);
+
+				// write out the enriched test case
+				try (FileOutputStream output = new FileOutputStream(currentTestCase)) {
+					output.write(cu.toString().getBytes());
+				} catch (IOException e) {
+					log.error("Error while writing the enriched test case to file: " + currentTestCase, e);
+				}
+			} catch (FileNotFoundException e) {
+				log.error("Test case not found while trying to parse it.", e);
+			} catch (ParseProblemException e) {
+				log.error(
+						"Error during parsing. This probably means that a generated test case contains some compilation errors.",
+						e);
+			}
 		}
+		return enrichedTestCases;
+	}
 
+	/**
+	 * Adds to the given test case the oracle of its focal contract.
+	 *
+	 * @param cu           the test case, parsed by {@code TestCaseSymbolSolver}
+	 * @param testName     the name of the test case
+	 * @param targetMethod the focal method of the test case
+	 * @param spec         the focal contract of the test case
+	 * @param allSpecs     the specifications of all the methods of the target
+	 *                     class
+	 */
+	private static void enrichTestWithOracle(CompilationUnit cu, String testName, DocumentedExecutable targetMethod,
+			Specification spec, Map<DocumentedExecutable, OperationSpecification> allSpecs) {
 		// Create test case without oracle instrumentation
 		/*
 		String tcPath = currentTestCase.toString();
@@ -734,14 +854,6 @@ public class TestGenerator {
 						"Spec of unexpected type " + spec.getClass().getName() + ": " + spec.getDescription());
 			}
 		}
-				
-		// write out the enriched test case
-		try (FileOutputStream output = new FileOutputStream(currentTestCase)) {
-			output.write(cu.toString().getBytes());
-		} catch (IOException e) {
-			log.error("Error while writing the enriched test case to file: " + currentTestCase, e);
-		}
-
 	}
 
 	private static String extractTextForTestName(String description, DocumentedExecutable method) {
@@ -924,6 +1036,102 @@ public class TestGenerator {
 		return ret;
 	}
 
+	/**
+	 * Returns the number of EvoSuite processes that can run concurrently, given the
+	 * cores and the memory available to EvoSuite.
+	 *
+	 * @param groups the number of evaluator groups to process
+	 * @return the number of concurrent EvoSuite processes, at least 1
+	 */
+	private static int evosuiteParallelism(int groups) {
+		int parallelism = Math.min(groups, configuration.getEvoSuiteCores());
+		if (configuration.getEvoSuiteMemory() > 0) {
+			parallelism = Math.min(parallelism, configuration.getEvoSuiteMemory() / EVOSUITE_MEMORY);
+		}
+		return Math.max(parallelism, 1);
+	}
+
+	/**
+	 * Runs EvoSuite with the given command line and waits for its termination. If
+	 * the current thread is interrupted, the EvoSuite process is killed.
+	 *
+	 * @param evosuiteCommand the command line of EvoSuite
+	 * @param evosuiteLogFilePath the file where the output of EvoSuite is logged
+	 * @throws IOException if EvoSuite cannot be launched
+	 */
+	private static void runEvoSuite(List<String> evosuiteCommand, Path evosuiteLogFilePath) throws IOException {
+		try (Profiler.Timer timer = Profiler.start(Profiler.Phase.EVOSUITE)) {
+			runEvoSuite_(evosuiteCommand, evosuiteLogFilePath);
+		}
+	}
+
+	private static void runEvoSuite_(List<String> evosuiteCommand, Path evosuiteLogFilePath) throws IOException {
+		Process processEvosuite = launchProcess(evosuiteCommand, evosuiteLogFilePath);
+		log.info("Launched EvoSuite process, command line: " + evosuiteCommand.stream().reduce("", (s1, s2) -> {
+			return s1 + " " + s2;
+		}));
+		try {
+			processEvosuite.waitFor();
+		} catch (InterruptedException e) {
+			// the performer was shut down: kill the EvoSuite job
+			log.info("Unexpected InterruptedException while running EvoSuite: " + e);
+			processEvosuite.destroy();
+		}
+	}
+
+	/**
+	 * Moves the test cases generated by an EvoSuite run to the test output
+	 * directory.
+	 *
+	 * @param runTestsDir the test directory of the EvoSuite run
+	 * @param testsDir the test output directory
+	 */
+	private static void mergeTests(Path runTestsDir, Path testsDir) {
+		if (!Files.isDirectory(runTestsDir)) {
+			return; // EvoSuite did not generate any test case
+		}
+		try (Stream<Path> files = Files.walk(runTestsDir)) {
+			for (Path file : (Iterable<Path>) files.filter(Files::isRegularFile)::iterator) {
+				final Path target = testsDir.resolve(runTestsDir.relativize(file).toString());
+				Files.createDirectories(target.getParent());
+				Files.move(file, target, StandardCopyOption.REPLACE_EXISTING);
+			}
+		} catch (IOException e) {
+			log.error("Unable to move the test cases generated by EvoSuite from " + runTestsDir + " to " + testsDir, e);
+		}
+	}
+
+	/**
+	 * Merges the reports of an EvoSuite run into the report directory, as if
+	 * EvoSuite wrote them there directly: the rows of a CSV report are appended to
+	 * the report with the same name, whose header is written only once, and any
+	 * other file replaces the file with the same name.
+	 *
+	 * @param runReportDir the report directory of the EvoSuite run
+	 * @param reportDir the report directory
+	 */
+	private static void mergeReports(Path runReportDir, Path reportDir) {
+		if (!Files.isDirectory(runReportDir)) {
+			return; // EvoSuite did not write any report
+		}
+		try (Stream<Path> files = Files.walk(runReportDir)) {
+			for (Path file : (Iterable<Path>) files.filter(Files::isRegularFile)::iterator) {
+				final Path target = reportDir.resolve(runReportDir.relativize(file).toString());
+				Files.createDirectories(target.getParent());
+				if (file.toString().endsWith(".csv") && Files.exists(target)) {
+					final List<String> lines = Files.readAllLines(file);
+					if (lines.size() > 1) {
+						Files.write(target, lines.subList(1, lines.size()), StandardOpenOption.APPEND);
+					}
+				} else {
+					Files.move(file, target, StandardCopyOption.REPLACE_EXISTING);
+				}
+			}
+		} catch (IOException e) {
+			log.error("Unable to merge the reports of EvoSuite from " + runReportDir + " into " + reportDir, e);
+		}
+	}
+
 	/**
 	 * Creates and launches an external process.
 	 * 
@@ -948,13 +1156,14 @@ public class TestGenerator {
 	 * @param evaluatorDefsForEvoSuite
 	 * @param outputDir
 	 * @param testsDir
+	 * @param reportDir
 	 * 
 	 * @return a command line in the format of a
 	 *         {@link List}{@code <}{@link String}{@code >}, suitable to be passed
 	 *         to a {@link ProcessBuilder}.
 	 */
 	private static List<String> buildEvoSuiteCommand(String evaluatorDefsForEvoSuite, Path outputDir, Path testsDir,
-			int evosuiteBudget) {
+			Path reportDir, int evosuiteBudget) {
 		final String targetClass = configuration.getTargetClass();
 		final List<String> retVal = new ArrayList<String>();
 		String classpathTarget = outputDir.toString();
@@ -968,13 +1177,13 @@ public class TestGenerator {
 		retVal.add("-class");
 		retVal.add(targetClass);
 		retVal.add("-mem");
-		retVal.add("4096"); //16384
+		retVal.add(String.valueOf(EVOSUITE_MEMORY)); //16384
 		retVal.add("-DCP=" + classpathTarget);
 		retVal.add("-Dassertions=false");
 		// retVal.add("-Dglobal_timeout=" + configuration.getEvoSuiteBudget());
 		// retVal.add("-Dsearch_budget=" + configuration.getEvoSuiteBudget());
 		retVal.add("-Dsearch_budget=" + evosuiteBudget);
-		retVal.add("-Dreport_dir=" + outputDir);
+		retVal.add("-Dreport_dir=" + reportDir);
 		retVal.add("-Dtest_dir=" + testsDir);
 		retVal.add("-Dvirtual_fs=true"); //-Dvirtual_fs=false
 		//retVal.add("-Dselection_function=ROULETTEWHEEL"); // non-standard
@@ -1043,11 +1252,19 @@ public class TestGenerator {
 	 */
 	private static void createEvaluator(DocumentedExecutable method, String guards[], String excludingGuards[], String postConds[],
 			boolean isThrows, boolean lookForPostCondViolation, String evaluatorName, Path outputDir,
-			String classpathForCompilation) {
+			EvaluatorCompiler evaluatorCompiler) {
 		Checks.nonNullParameter(method, "method");
 		Checks.nonNullParameter(guards, "guardStrings");
 		Checks.nonNullParameter(evaluatorName, "evaluatorName");
+		try (Profiler.Timer timer = Profiler.start(Profiler.Phase.EVALUATOR_CREATION)) {
+			createEvaluator_(method, guards, excludingGuards, postConds, isThrows, lookForPostCondViolation,
+					evaluatorName, outputDir, evaluatorCompiler);
+		}
+	}
 
+	private static void createEvaluator_(DocumentedExecutable method, String guards[], String excludingGuards[],
+			String postConds[], boolean isThrows, boolean lookForPostCondViolation, String evaluatorName,
+			Path outputDir, EvaluatorCompiler evaluatorCompiler) {
 		final InputStream evaluatorTemplate = ClassLoader.getSystemResourceAsStream(EVALUATOR_TEMPLATE_NAME + ".template");
 		CompilationUnit cu = StaticJavaParser.parse(evaluatorTemplate);
 
@@ -1072,18 +1289,9 @@ public class TestGenerator {
 			log.error("Error while writing the evaluator to file: " + evaluatorPath, e);
 		}
 
-		// compile the evaluator
+		// compile the evaluator later, together with the other ones
 		final Path javacLogFilePath = evaluatorFolder.resolve("javac-log-" + evaluatorName + ".txt");
-		final String[] javacParameters = { "-cp", classpathForCompilation, "-d", outputDir.toString(),
-				evaluatorPath.toString() };
-		try (final OutputStream w = new BufferedOutputStream(Files.newOutputStream(javacLogFilePath))) {
-			compiler.run(null, w, w, javacParameters);
-		} catch (IOException e) {
-			log.error("[Test generator] Unexpected I/O error while creating evaluator compilation log file "
-					+ javacLogFilePath.toString() + ": " + e);
-			throw new RuntimeException(e);
-		}
-
+		evaluatorCompiler.add(evaluatorPath, javacLogFilePath);
 	}
 
 	private static String bytecodeStyleSignature(DocumentedExecutable method) {
@@ -31,11 +31,6 @@ import com.github.javaparser.ast.type.ClassOrInterfaceType;
 import com.github.javaparser.ast.type.PrimitiveType;
 import com.github.javaparser.ast.visitor.VoidVisitor;
 import com.github.javaparser.resolution.UnsolvedSymbolException;
-import com.github.javaparser.symbolsolver.JavaSymbolSolver;
-import com.github.javaparser.symbolsolver.resolution.typesolvers.CombinedTypeSolver;
-import com.github.javaparser.symbolsolver.resolution.typesolvers.JarTypeSolver;
-import com.github.javaparser.symbolsolver.resolution.typesolvers.JavaParserTypeSolver;
-import com.github.javaparser.symbolsolver.resolution.typesolvers.ReflectionTypeSolver;
 
 import java.io.File;
 import java.io.FileNotFoundException;
@@ -58,6 +53,7 @@ import org.apache.commons.lang3.StringEscapeUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.toradocu.extractor.DocumentedExecutable;
+import org.toradocu.extractor.SourceModel;
 import org.toradocu.util.Checks;
 import randoop.condition.specification.OperationSpecification;
 import randoop.condition.specification.PostSpecification;
@@ -121,7 +117,7 @@ public class TestGeneratorValidation {
 		File testedClax = new File(testedClaxDir);
 		CompilationUnit cu = null;
 		try {
-			cu = StaticJavaParser.parse(testedClax);
+			cu = SourceModel.compilationUnit(testedClax);
 		} catch (FileNotFoundException e) {
 			e.printStackTrace();
 		}
@@ -282,19 +278,9 @@ public class TestGeneratorValidation {
 			}
 		}
 
-		CombinedTypeSolver combinedTypeSolver = new CombinedTypeSolver();
-		combinedTypeSolver.add(new JavaParserTypeSolver(configuration.sourceDir));
-		combinedTypeSolver.add(new ReflectionTypeSolver());
-		try {
-			combinedTypeSolver.add(new JarTypeSolver(configuration.getEvoSuiteJar()));
-		} catch (IOException e) {
-			log.error("Wrong path to Evosuite lib.", e);
-		}
-		JavaSymbolSolver symbolSolver = new JavaSymbolSolver(combinedTypeSolver);
-		StaticJavaParser.getConfiguration().setSymbolResolver(symbolSolver);
 		CompilationUnit cu = null;
 		try {
-			cu = StaticJavaParser.parse(currentTestCase);
+			cu = TestCaseSymbolSolver.parse(currentTestCase);
 		} catch (FileNotFoundException e) {
 			e.printStackTrace();
 		}
@@ -0,0 +1,196 @@
+package org.toradocu.translator;
+
+import java.lang.reflect.Executable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import org.toradocu.conf.Configuration;
+import org.toradocu.extractor.DocumentedExecutable;
+import org.toradocu.util.Profiler;
+
+/**
+ * Catalog of the code elements of a class that can be used for the condition translation of any of
+ * its executable members: the class itself, its fields, and its methods. The catalog of a class is
+ * built once (reflection, identifiers, and the part of the parameters check that does not depend on
+ * the executable member) and then shared by all the executable members of the class.
+ *
+ * <p>Catalogs are kept until they are explicitly released with {@link #release(Collection)} or
+ * {@link #clear()}. This class is thread-safe.
+ */
+final class CodeElementCatalog {
+
+  /** Catalogs of the classes under analysis. */
+  private static final Map<Class<?>, CodeElementCatalog> catalogs = new ConcurrentHashMap<>();
+
+  /** Code element of the class. */
+  private final ClassCodeElement classElement;
+  /** Code elements of the public fields of the class. */
+  private final List<FieldCodeElement> fieldElements;
+  /** Public methods of the class, in the order returned by reflection. */
+  private final List<MethodEntry> methods;
+  /** Parameter code elements of each executable member of the class. */
+  private final Map<DocumentedExecutable, List<ParameterCodeElement>> parameterElements =
+      new ConcurrentHashMap<>();
+
+  private CodeElementCatalog(Class<?> aClass) {
+    classElement = new ClassCodeElement(aClass);
+
+    List<FieldCodeElement> fields = new ArrayList<>();
+    Set<Class<?>> classScopeTypes = new HashSet<>();
+    classScopeTypes.add(aClass);
+    for (Field field : aClass.getFields()) {
+      fields.add(new FieldCodeElement(Configuration.RECEIVER, field));
+      classScopeTypes.add(field.getType());
+    }
+    fieldElements = Collections.unmodifiableList(fields);
+
+    List<MethodEntry> methodEntries = new ArrayList<>();
+    for (Method method : aClass.getMethods()) {
+      methodEntries.add(new MethodEntry(method, classScopeTypes));
+    }
+    methods = Collections.unmodifiableList(methodEntries);
+  }
+
+  /**
+   * Returns the catalog of the given class, building it if needed.
+   *
+   * @param aClass the class whose catalog to return
+   * @return the catalog of {@code aClass}
+   */
+  static CodeElementCatalog of(Class<?> aClass) {
+    final CodeElementCatalog catalog = catalogs.get(aClass);
+    Profiler.cacheAccess(Profiler.Cache.CODE_ELEMENTS, catalog != null);
+    return catalog != null ? catalog : catalogs.computeIfAbsent(aClass, CodeElementCatalog::new);
+  }
+
+  /**
+   * Releases the catalogs of the given classes. Call this method once the translation of the
+   * comments of the classes is completed.
+   *
+   * @param classes the classes whose catalogs to release
+   */
+  static void release(Collection<Class<?>> classes) {
+    catalogs.keySet().removeAll(classes);
+  }
+
+  /** Releases all the catalogs. */
+  static void clear() {
+    catalogs.clear();
+  }
+
+  /**
+   * Returns the code element of the class.
+   *
+   * @return the code element of the class
+   */
+  ClassCodeElement getClassElement() {
+    return classElement;
+  }
+
+  /**
+   * Returns the code elements of the public fields of the class.
+   *
+   * @return the code elements of the fields of the class
+   */
+  List<FieldCodeElement> getFieldElements() {
+    return fieldElements;
+  }
+
+  /**
+   * Returns the parameter code elements of the given executable member, building them with {@code
+   * builder} the first time they are requested.
+   *
+   * @param executable an executable member of the class
+   * @param builder function that builds the parameter code elements of an executable member
+   * @return the parameter code elements of {@code executable}
+   */
+  List<ParameterCodeElement> getParameterElements(
+      DocumentedExecutable executable,
+      Function<DocumentedExecutable, List<ParameterCodeElement>> builder) {
+    List<ParameterCodeElement> parameters = parameterElements.get(executable);
+    if (parameters == null) {
+      // Built outside the map: building the elements parses the @param comments and can be slow.
+      parameters = Collections.unmodifiableList(builder.apply(executable));
+      final List<ParameterCodeElement> concurrentlyBuilt =
+          parameterElements.putIfAbsent(executable, parameters);
+      if (concurrentlyBuilt != null) {
+        parameters = concurrentlyBuilt;
+      }
+    }
+    return parameters;
+  }
+
+  /**
+   * Returns the code elements of the methods of the class that can be used in the specifications of
+   * the given executable member: all the methods but {@code documentedExecutable} itself whose
+   * parameter types are available in its scope. Instance methods are not available for
+   * constructors.
+   *
+   * @param documentedExecutable an executable member of the class
+   * @return the code elements of the methods that can be used for {@code documentedExecutable}
+   */
+  List<CodeElement<?>> getMethodElements(DocumentedExecutable documentedExecutable) {
+    final Executable executable = documentedExecutable.getExecutable();
+    final List<Class<?>> executableParameterTypes = Arrays.asList(executable.getParameterTypes());
+
+    List<CodeElement<?>> codeElements = new ArrayList<>();
+    for (MethodEntry entry : methods) {
+      if (entry.method.equals(executable)
+          || !executableParameterTypes.containsAll(entry.typesMissingInClassScope)) {
+        continue;
+      }
+      if (entry.isStatic || !documentedExecutable.isConstructor()) {
+        codeElements.add(entry.element());
+      }
+    }
+    return codeElements;
+  }
+
+  /** A public method of the class, with the data precomputed to build its code elements. */
+  private static final class MethodEntry {
+    /** The method. */
+    private final Method method;
+    /** Whether the method is static. */
+    private final boolean isStatic;
+    /**
+     * Parameter types of the method that are neither the class nor the type of a field. The method
+     * can be used for an executable member only if they are all parameter types of the member.
+     */
+    private final Set<Class<?>> typesMissingInClassScope;
+    /**
+     * Code element of the method shared by all the executable members of the class, or null if the
+     * method has parameters. Elements of methods with parameters are mutable (the parameters are
+     * instantiated while matching), and thus a new element is created for each request.
+     */
+    private final CodeElement<Method> sharedElement;
+
+    MethodEntry(Method method, Set<Class<?>> classScopeTypes) {
+      this.method = method;
+      this.isStatic = Modifier.isStatic(method.getModifiers());
+      Set<Class<?>> missingTypes = new HashSet<>(Arrays.asList(method.getParameterTypes()));
+      missingTypes.removeAll(classScopeTypes);
+      this.typesMissingInClassScope = missingTypes;
+      this.sharedElement = method.getParameterCount() == 0 ? newElement() : null;
+    }
+
+    CodeElement<Method> element() {
+      return sharedElement != null ? sharedElement : newElement();
+    }
+
+    private CodeElement<Method> newElement() {
+      return isStatic
+          ? new StaticMethodCodeElement(method)
+          : new MethodCodeElement(Configuration.RECEIVER, method);
+    }
+  }
+}
@@ -1,11 +1,18 @@
 package org.toradocu.translator;
 
 import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
 
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.toradocu.conf.Configuration;
@@ -15,7 +22,10 @@ import org.toradocu.extractor.ParamTag;
 import org.toradocu.extractor.ReturnTag;
 import org.toradocu.extractor.ThrowsTag;
 import org.toradocu.translator.preprocess.PreprocessorFactory;
+import org.toradocu.translator.semantic.SemanticMatcher;
 import org.toradocu.util.Checks;
+import org.toradocu.util.ComplianceBatch;
+import org.toradocu.util.Profiler;
 import randoop.condition.specification.Identifiers;
 import randoop.condition.specification.Operation;
 import randoop.condition.specification.OperationSpecification;
@@ -37,7 +47,7 @@ public class CommentTranslator {
    * @return a precondition specification (an empty specification if the translation fails)
    */
   public static PreSpecification translate(ParamTag tag, DocumentedExecutable excMember) {
-    PreprocessorFactory.create(tag.getKind()).preprocess(tag, excMember);
+    PreprocessorFactory.get(tag.getKind()).preprocess(tag, excMember);
     //    log.info("Translating " + tag + " of " + excMember.getSignature());
     return new ParamTranslator().translate(tag, excMember);
   }
@@ -51,7 +61,7 @@ public class CommentTranslator {
    *     translation failed)
    */
   public static List<PostSpecification> translate(ReturnTag tag, DocumentedExecutable excMember) {
-    PreprocessorFactory.create(tag.getKind()).preprocess(tag, excMember);
+    PreprocessorFactory.get(tag.getKind()).preprocess(tag, excMember);
     //    log.info("Translating " + tag + " of " + excMember.getSignature());
     return new ReturnTranslator().translate(tag, excMember);
   }
@@ -64,13 +74,14 @@ public class CommentTranslator {
    * @return a precondition specification (an empty specification if the translation fails)
    */
   public static ThrowsSpecification translate(ThrowsTag tag, DocumentedExecutable excMember) {
-    PreprocessorFactory.create(tag.getKind()).preprocess(tag, excMember);
+    PreprocessorFactory.get(tag.getKind()).preprocess(tag, excMember);
     //    log.info("Translating " + tag + " of " + excMember.getSignature());
     return new ThrowsTranslator().translate(tag, excMember);
   }
 
   /**
-   * Creates the specifications from the comments of the given executable members.
+   * Creates the specifications from the comments of the given executable members. Comments are
+   * translated using the number of threads specified in the configuration.
    *
    * @param members the executable members whose comments have to be translated into specifications
    * @return a map that associates each executable member (key) with its operation specification
@@ -78,37 +89,165 @@ public class CommentTranslator {
    */
   public static Map<DocumentedExecutable, OperationSpecification> createSpecifications(
       List<DocumentedExecutable> members) {
+    return createSpecifications(members, Configuration.INSTANCE.getTranslationThreads());
+  }
+
+  /**
+   * Creates the specifications from the comments of the given executable members, translating the
+   * comments of different members in parallel. The returned map is independent of the degree of
+   * parallelism: its entries follow the order of {@code members}. If the specification store is
+   * enabled, the specifications of members that did not change since a previous run are loaded from
+   * the store instead (see {@link SpecificationStore}).
+   *
+   * @param members the executable members whose comments have to be translated into specifications
+   * @param parallelism the maximum number of members translated concurrently
+   * @return a map that associates each executable member (key) with its operation specification
+   *     that includes pre-, post-, and exceptional specifications.
+   */
+  public static Map<DocumentedExecutable, OperationSpecification> createSpecifications(
+      List<DocumentedExecutable> members, int parallelism) {
+    final SpecificationStore store = members.isEmpty() ? null : SpecificationStore.getInstance();
+    try {
+      if (store == null) {
+        return translate(members, parallelism);
+      }
+      final String key = SpecificationStore.key(members);
+      Map<DocumentedExecutable, OperationSpecification> specs = store.load(key, members);
+      if (specs == null) {
+        specs = translate(members, parallelism);
+        store.store(key, members, specs);
+      }
+      return specs;
+    } finally {
+      // Code elements and semantic matching contexts of the members are not needed anymore.
+      final Set<Class<?>> classes =
+          members.stream().map(DocumentedExecutable::getDeclaringClass).collect(toSet());
+      JavaElementsCollector.release(classes);
+      SemanticMatcher.release(classes);
+    }
+  }
+
+  /**
+   * Translates the comments of the given executable members, up to {@code parallelism} members at
+   * a time. The compliance of the produced specifications is checked in a single batch, after the
+   * comments of all the members have been translated.
+   *
+   * @param members the executable members whose comments have to be translated into specifications
+   * @param parallelism the maximum number of members translated concurrently
+   * @return a map that associates each executable member with its operation specification, whose
+   *     entries follow the order of {@code members}
+   */
+  private static Map<DocumentedExecutable, OperationSpecification> translate(
+      List<DocumentedExecutable> members, int parallelism) {
+    final ComplianceBatch batch = new ComplianceBatch();
+    List<Supplier<OperationSpecification>> translations = new ArrayList<>(members.size());
+    final int threads = Math.min(parallelism, members.size());
+    if (threads <= 1) {
+      for (DocumentedExecutable member : members) {
+        translations.add(createSpecification(member, batch));
+      }
+    } else {
+      log.debug("Translating comments of {} members with {} threads", members.size(), threads);
+      final ExecutorService executor = Executors.newFixedThreadPool(threads);
+      try {
+        List<Future<Supplier<OperationSpecification>>> futures = new ArrayList<>(members.size());
+        for (DocumentedExecutable member : members) {
+          futures.add(executor.submit(() -> createSpecification(member, batch)));
+        }
+        for (Future<Supplier<OperationSpecification>> future : futures) {
+          translations.add(getTranslation(future));
+        }
+      } finally {
+        executor.shutdownNow();
+      }
+    }
+    batch.compile();
+
     Map<DocumentedExecutable, OperationSpecification> specs = new LinkedHashMap<>();
-    for (DocumentedExecutable member : members) {
+    for (int i = 0; i < members.size(); i++) {
+      specs.put(members.get(i), translations.get(i).get());
+    }
+    return specs;
+  }
+
+  /**
+   * Creates the specification of the given executable member translating all its comments. The
+   * compliance checks of the produced specifications are added to {@code batch}.
+   *
+   * @param member the executable member whose comments have to be translated into specifications
+   * @param batch the batch in which the compliance of the specifications is checked
+   * @return a supplier of the operation specification of {@code member}, which includes pre-,
+   *     post-, and exceptional specifications. The supplier must be invoked only after {@code
+   *     batch} is compiled.
+   */
+  private static Supplier<OperationSpecification> createSpecification(
+      DocumentedExecutable member, ComplianceBatch batch) {
+    // The translation time of a comment does not include its compliance check, done later.
+    List<Supplier<PreSpecification>> preSpecifications = new ArrayList<>();
+    for (ParamTag paramTag : member.paramTags()) {
+      final long start = System.nanoTime();
+      PreprocessorFactory.get(paramTag.getKind()).preprocess(paramTag, member);
+      preSpecifications.add(new ParamTranslator().translate(paramTag, member, batch));
+      Profiler.commentTranslated(member, paramTag, System.nanoTime() - start);
+    }
+
+    List<Supplier<ThrowsSpecification>> throwsSpecifications = new ArrayList<>();
+    for (ThrowsTag throwsTag : member.throwsTags()) {
+      final long start = System.nanoTime();
+      PreprocessorFactory.get(throwsTag.getKind()).preprocess(throwsTag, member);
+      throwsSpecifications.add(new ThrowsTranslator().translate(throwsTag, member, batch));
+      Profiler.commentTranslated(member, throwsTag, System.nanoTime() - start);
+    }
+
+    Supplier<List<PostSpecification>> postSpecifications = ArrayList::new;
+    ReturnTag returnTag = member.returnTag();
+    if (returnTag != null) {
+      final long start = System.nanoTime();
+      PreprocessorFactory.get(returnTag.getKind()).preprocess(returnTag, member);
+      postSpecifications = new ReturnTranslator().translate(returnTag, member, batch);
+      Profiler.commentTranslated(member, returnTag, System.nanoTime() - start);
+    }
+
+    final Supplier<List<PostSpecification>> returnSpecifications = postSpecifications;
+    return () -> {
       Operation operation = Operation.getOperation(member.getExecutable());
       List<String> paramNames =
           member.getParameters().stream().map(DocumentedParameter::getName).collect(toList());
       Identifiers identifiers =
           new Identifiers(paramNames, Configuration.RECEIVER, Configuration.RETURN_VALUE);
       OperationSpecification spec = new OperationSpecification(operation, identifiers);
+      spec.addParamSpecifications(
+          preSpecifications.stream().map(Supplier::get).collect(toList()));
+      spec.addThrowsSpecifications(
+          throwsSpecifications.stream().map(Supplier::get).collect(toList()));
+      spec.addReturnSpecifications(returnSpecifications.get());
+      return spec;
+    };
+  }
 
-      List<PreSpecification> preSpecifications = new ArrayList<>();
-      for (ParamTag paramTag : member.paramTags()) {
-        preSpecifications.add(CommentTranslator.translate(paramTag, member));
-      }
-      spec.addParamSpecifications(preSpecifications);
-
-      List<ThrowsSpecification> throwsSpecifications = new ArrayList<>();
-      for (ThrowsTag throwsTag : member.throwsTags()) {
-        throwsSpecifications.add(CommentTranslator.translate(throwsTag, member));
+  /**
+   * Waits for the given translation to complete and returns its result. Exceptions thrown during
+   * the translation are rethrown unwrapped.
+   *
+   * @param translation the pending translation
+   * @return the result of the translation
+   */
+  private static <T> T getTranslation(Future<T> translation) {
+    try {
+      return translation.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while translating comments", e);
+    } catch (ExecutionException e) {
+      final Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
       }
-      spec.addThrowsSpecifications(throwsSpecifications);
-
-      List<PostSpecification> postSpecifications = new ArrayList<>();
-      ReturnTag returnTag = member.returnTag();
-      if (returnTag != null) {
-        postSpecifications.addAll(CommentTranslator.translate(returnTag, member));
+      if (cause instanceof Error) {
+        throw (Error) cause;
       }
-      spec.addReturnSpecifications(postSpecifications);
-
-      specs.put(member, spec);
+      throw new IllegalStateException("Error while translating comments", cause);
     }
-    return specs;
   }
 
   /**
@@ -3,13 +3,8 @@ package org.toradocu.translator;
 import static java.util.stream.Collectors.toList;
 
 import edu.stanford.nlp.semgraph.SemanticGraph;
-import java.lang.reflect.Executable;
-import java.lang.reflect.Field;
-import java.lang.reflect.Method;
-import java.lang.reflect.Modifier;
 import java.lang.reflect.Parameter;
 import java.util.*;
-import org.toradocu.conf.Configuration;
 import org.toradocu.extractor.Comment;
 import org.toradocu.extractor.DocumentedExecutable;
 import org.toradocu.extractor.DocumentedParameter;
@@ -17,7 +12,9 @@ import org.toradocu.extractor.ParamTag;
 
 /**
  * Collects all the Java elements that can be used for the condition translation. Java elements are
- * collected through Java reflection.
+ * collected through Java reflection. The elements of a class are collected once and stored in a
+ * {@link CodeElementCatalog}: call {@link #release(Collection)} when the translation of the
+ * comments of a class is completed.
  */
 public class JavaElementsCollector {
 
@@ -30,72 +27,26 @@ public class JavaElementsCollector {
    */
   public static Set<CodeElement<?>> collect(DocumentedExecutable documentedExecutable) {
     Set<CodeElement<?>> collectedElements = new LinkedHashSet<>();
-    final Class<?> containingClass = documentedExecutable.getDeclaringClass();
+    final CodeElementCatalog catalog =
+        CodeElementCatalog.of(documentedExecutable.getDeclaringClass());
 
     // Add the containing class.
-    collectedElements.add(containingClassOf(documentedExecutable));
+    collectedElements.add(catalog.getClassElement());
 
     // Add the parameters of the executable member.
-    collectedElements.addAll(parametersOf(documentedExecutable));
+    collectedElements.addAll(
+        catalog.getParameterElements(documentedExecutable, JavaElementsCollector::parametersOf));
 
     // Add fields of the containing class.
-    collectedElements.addAll(fieldsOf(containingClass));
+    collectedElements.addAll(catalog.getFieldElements());
 
     // Add methods of the containing class (all but the method corresponding to
     // documentedExecutable).
-    collectedElements.addAll(methodsOf(containingClass, documentedExecutable));
+    collectedElements.addAll(catalog.getMethodElements(documentedExecutable));
 
     return collectedElements;
   }
 
-  // Executable member is ignored and not included in the returned list of methods.
-  private static List<CodeElement<?>> methodsOf(
-      Class<?> containingClass, DocumentedExecutable documentedExecutable) {
-    final List<Method> methods = new ArrayList<>();
-    Collections.addAll(methods, containingClass.getMethods());
-    final Executable executable = documentedExecutable.getExecutable();
-    if (executable instanceof Method) {
-      Method method = (Method) executable;
-      methods.remove(method);
-    }
-    List<Class<?>> inScopeTypes = collectInScopeTypes(documentedExecutable);
-    methods.removeIf(method -> !invokableWithParameters(method, inScopeTypes));
-
-    List<CodeElement<?>> codeElements = new ArrayList<>();
-    for (Method method : methods) {
-      if (Modifier.isStatic(method.getModifiers())) {
-        codeElements.add(new StaticMethodCodeElement(method));
-      } else if (!documentedExecutable.isConstructor()) {
-        codeElements.add(new MethodCodeElement(Configuration.RECEIVER, method));
-      }
-    }
-    return codeElements;
-  }
-
-  private static List<Class<?>> collectInScopeTypes(DocumentedExecutable documentedExecutable) {
-    final List<Class<?>> availableTypes = new ArrayList<>();
-    final Class<?> containingClass = documentedExecutable.getDeclaringClass();
-
-    // Add parameters of the executable member.
-    Collections.addAll(availableTypes, documentedExecutable.getExecutable().getParameterTypes());
-
-    // Add target class.
-    availableTypes.add(containingClass);
-
-    // Add target class' fields.
-    for (Field field : containingClass.getFields()) {
-      availableTypes.add(field.getType());
-    }
-
-    return availableTypes;
-  }
-
-  private static List<FieldCodeElement> fieldsOf(Class<?> aClass) {
-    return Arrays.stream(aClass.getFields())
-        .map(field -> new FieldCodeElement(Configuration.RECEIVER, field))
-        .collect(toList());
-  }
-
   private static List<ParameterCodeElement> parametersOf(
       DocumentedExecutable documentedExecutable) {
     List<ParameterCodeElement> paramCodeElements = new ArrayList<>();
@@ -142,8 +93,13 @@ public class JavaElementsCollector {
     return paramCodeElements;
   }
 
-  private static ClassCodeElement containingClassOf(DocumentedExecutable documentedExecutable) {
-    return new ClassCodeElement(documentedExecutable.getDeclaringClass());
+  /**
+   * Releases the code elements collected for the given classes.
+   *
+   * @param classes the classes whose comments have been translated
+   */
+  public static void release(Collection<Class<?>> classes) {
+    CodeElementCatalog.release(classes);
   }
 
   /**
@@ -180,10 +136,4 @@ public class JavaElementsCollector {
     }
     return ids;
   }
-
-  private static boolean invokableWithParameters(Method method, List<Class<?>> inScopeTypes) {
-    final List<? extends Class<?>> methodParamTypes =
-        Arrays.stream(method.getParameters()).map(Parameter::getType).collect(toList());
-    return inScopeTypes.containsAll(methodParamTypes);
-  }
 }
@@ -12,6 +12,7 @@ import java.util.stream.Collectors;
 import org.toradocu.conf.Configuration;
 import org.toradocu.extractor.DocumentedExecutable;
 import org.toradocu.translator.semantic.SemanticMatcher;
+import org.toradocu.util.Profiler;
 
 import edu.stanford.nlp.ling.IndexedWord;
 import edu.stanford.nlp.semgraph.SemanticGraph;
@@ -46,6 +47,13 @@ public class Matcher {
    * @return a set of {@code CodeElement}s that have a similar name to the subject
    */
   Set<CodeElement<?>> subjectMatch(String subject, DocumentedExecutable method, String... blackListedArgExpressions) {
+    try (Profiler.Timer timer = Profiler.start(Profiler.Phase.MATCHING)) {
+      return subjectMatch_(subject, method, blackListedArgExpressions);
+    }
+  }
+
+  private Set<CodeElement<?>> subjectMatch_(
+      String subject, DocumentedExecutable method, String... blackListedArgExpressions) {
     // Extract every CodeElement associated with the method and the containing class of the method.
     Set<CodeElement<?>> codeElements = JavaElementsCollector.collect(method);
 
@@ -151,6 +159,16 @@ public class Matcher {
       CodeElement<?> subject,
       Proposition proposition,
       String comment, SemanticGraph sg) {
+    try (Profiler.Timer timer = Profiler.start(Profiler.Phase.MATCHING)) {
+      return predicateMatch_(method, subject, proposition, comment, sg);
+    }
+  }
+
+  private String predicateMatch_(
+      DocumentedExecutable method,
+      CodeElement<?> subject,
+      Proposition proposition,
+      String comment, SemanticGraph sg) {
 
     String predicate = proposition.getPredicate();
     // Special case to handle predicates about arrays' length. We need a more general solution.
@@ -315,7 +333,7 @@ public class Matcher {
     if (match == null && SemanticMatcher.isEnabled()) {
       // When the syntactic match fails, try semantic if enabled
       try {
-        SemanticMatcher semanticMatcher = new SemanticMatcher(true, (float) 0.2, (float) 3.11);
+        SemanticMatcher semanticMatcher = SemanticMatcher.of(method.getDeclaringClass());
 
         // it is important to provide a fixed order since this point, to prevent method with same
         // score
@@ -1,27 +1,51 @@
 package org.toradocu.translator;
 
-import static org.toradocu.util.ComplianceChecks.isSpecCompilable;
+import static org.toradocu.util.ComplianceChecks.addSpec;
 
+import java.util.function.Supplier;
 import org.toradocu.extractor.DocumentedExecutable;
 import org.toradocu.extractor.ParamTag;
+import org.toradocu.util.ComplianceBatch;
+import org.toradocu.util.ComplianceBatch.Candidate;
 import randoop.condition.specification.Guard;
 import randoop.condition.specification.PreSpecification;
 
 public class ParamTranslator {
 
   public PreSpecification translate(ParamTag tag, DocumentedExecutable excMember) {
+    ComplianceBatch batch = new ComplianceBatch();
+    final Supplier<PreSpecification> spec = translate(tag, excMember, batch);
+    batch.compile();
+    return spec.get();
+  }
+
+  /**
+   * Translates the given @param comment, adding the compliance check of the produced specification
+   * to {@code batch}. The returned supplier must be invoked only after {@code batch} is compiled,
+   * and returns an empty specification if the translation is not compliant.
+   *
+   * @param tag the comment to be translated
+   * @param excMember the executable member commented with {@code tag}
+   * @param batch the batch in which the compliance of the specification is checked
+   * @return a supplier of the specification produced by the translation
+   */
+  Supplier<PreSpecification> translate(
+      ParamTag tag, DocumentedExecutable excMember, ComplianceBatch batch) {
     final String commentTranslation =
         isDescriptiveComment(tag.getComment().getText())
             ? ""
             : BasicTranslator.translate(tag, excMember);
 
     final Guard guard = new Guard(tag.getComment().getText(), commentTranslation);
+    final PreSpecification emptySpec =
+        new PreSpecification(tag.toString(), new Guard(tag.getComment().getText(), ""));
 
-    if (commentTranslation.isEmpty() || !isSpecCompilable(excMember, guard)) {
-      return new PreSpecification(tag.toString(), new Guard(tag.getComment().getText(), ""));
+    if (commentTranslation.isEmpty()) {
+      return () -> emptySpec;
     }
-
-    return new PreSpecification(tag.toString(), guard);
+    final PreSpecification spec = new PreSpecification(tag.toString(), guard);
+    final Candidate candidate = addSpec(batch, excMember, guard);
+    return () -> candidate.isCompilable() ? spec : emptySpec;
   }
 
   private boolean isDescriptiveComment(String text) {
@@ -0,0 +1,337 @@
+package org.toradocu.translator;
+
+import edu.stanford.nlp.ling.TaggedWord;
+import edu.stanford.nlp.parser.lexparser.LexicalizedParser;
+import edu.stanford.nlp.semgraph.SemanticGraph;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.toradocu.conf.Configuration;
+import org.toradocu.util.Profiler;
+
+/**
+ * Persistent, content-addressed cache of the semantic graphs produced by the Stanford parser.
+ *
+ * <p>The key of an entry is a sentence as given in input to the parser, i.e., its words (with
+ * inequalities already replaced by placeholders) together with the POS tags assigned in advance by
+ * {@link POSTagger}. Since the parser output depends only on this input and on the parser model,
+ * entries are stored in a sub-folder identified by the parser model version, and entries created
+ * with a different model are never read. When the cache exceeds its maximum size, the least
+ * recently used entries are evicted.
+ *
+ * <p>This class is thread-safe.
+ */
+class ParseCache {
+
+  private static final Logger log = LoggerFactory.getLogger(ParseCache.class);
+
+  /** Version of the format of the cache entries. Increment when the format changes. */
+  private static final int FORMAT_VERSION = 1;
+  /** Extension of the files containing cache entries. */
+  private static final String ENTRY_EXTENSION = ".graph";
+  /** After an eviction, the cache size is at most this fraction of the maximum size. */
+  private static final double EVICTION_TARGET = 0.9;
+
+  /**
+   * The parse cache configured with Toradocu's command line options (null if disabled or
+   * unusable), together with the options it was opened with. The cache is opened again when the
+   * options change, e.g., between the requests served by the daemon.
+   */
+  private static ParseCache instance;
+  /** The cache folder of {@link #instance} (null if the parse cache is disabled). */
+  private static Path instanceDirectory;
+  /** The maximum size of {@link #instance}. */
+  private static long instanceMaxSize;
+
+  /** Folder containing the entries created with the current parser model. */
+  private final Path directory;
+  /** Maximum size of the cache in bytes. */
+  private final long maxSize;
+  /** Current (approximate) size of the cache in bytes. */
+  private final AtomicLong size;
+
+  /**
+   * Creates a new parse cache that stores its entries in {@code baseDirectory}.
+   *
+   * @param baseDirectory the cache folder
+   * @param maxSize the maximum size of the cache in bytes
+   * @throws IOException if the cache folder cannot be created or read
+   */
+  ParseCache(Path baseDirectory, long maxSize) throws IOException {
+    this.directory = baseDirectory.resolve(modelVersion());
+    this.maxSize = maxSize;
+    Files.createDirectories(directory);
+    try (Stream<Path> entries = entries()) {
+      this.size = new AtomicLong(entries.mapToLong(ParseCache::fileSize).sum());
+    }
+  }
+
+  /**
+   * Returns the parse cache configured with Toradocu's current command line options. The cache is
+   * opened once for each cache folder and maximum size.
+   *
+   * @return the configured parse cache, or null if the parse cache is disabled or unusable
+   */
+  static synchronized ParseCache getInstance() {
+    final File cacheDir = Configuration.INSTANCE.getParseCacheDir();
+    final Path directory = cacheDir == null ? null : cacheDir.toPath().toAbsolutePath().normalize();
+    final long maxSize = Configuration.INSTANCE.getParseCacheSize();
+    if (!Objects.equals(directory, instanceDirectory) || maxSize != instanceMaxSize) {
+      instance = directory == null ? null : open(directory, maxSize);
+      instanceDirectory = directory;
+      instanceMaxSize = maxSize;
+    }
+    return instance;
+  }
+
+  /**
+   * Returns the semantic graph of the given sentence. The graph is loaded from the cache if
+   * available, otherwise the sentence is parsed with {@link StanfordParser} and the result is
+   * stored in the cache.
+   *
+   * @param words the words of the sentence to parse, possibly tagged
+   * @return the semantic graph of the sentence
+   */
+  SemanticGraph parse(List<TaggedWord> words) {
+    final String key = key(words);
+    final Path entry = entryPath(key);
+    final SemanticGraph cached = read(entry, key);
+    Profiler.cacheAccess(Profiler.Cache.PARSE_CACHE, cached != null);
+    if (cached != null) {
+      return cached;
+    }
+    final SemanticGraph semanticGraph = StanfordParser.parse(words);
+    write(entry, key, semanticGraph);
+    return semanticGraph;
+  }
+
+  /**
+   * Reads the cache entry stored in {@code entry}.
+   *
+   * @param entry the entry file
+   * @param key the key of the entry
+   * @return the cached semantic graph, or null if the entry is missing, invalid, or belongs to a
+   *     different key
+   */
+  private SemanticGraph read(Path entry, String key) {
+    if (!Files.isRegularFile(entry)) {
+      return null;
+    }
+    try (ObjectInputStream in =
+        new ObjectInputStream(
+            new InflaterInputStream(new BufferedInputStream(Files.newInputStream(entry))))) {
+      if (!key.equals(in.readUTF())) {
+        return null; // Hash collision.
+      }
+      final SemanticGraph semanticGraph = (SemanticGraph) in.readObject();
+      // The modification time of an entry is its last access time, used for the eviction.
+      Files.setLastModifiedTime(entry, FileTime.fromMillis(System.currentTimeMillis()));
+      return semanticGraph;
+    } catch (IOException | ClassNotFoundException | ClassCastException e) {
+      log.debug("Ignoring invalid parse cache entry " + entry, e);
+      return null;
+    }
+  }
+
+  /**
+   * Stores the given semantic graph in the cache, evicting old entries if the cache grows over its
+   * maximum size. Errors are logged and otherwise ignored, since the cache is not essential.
+   *
+   * @param entry the entry file
+   * @param key the key of the entry
+   * @param semanticGraph the semantic graph to store
+   */
+  private void write(Path entry, String key, SemanticGraph semanticGraph) {
+    try {
+      Files.createDirectories(entry.getParent());
+      // Write to a temporary file first, so that concurrent readers never see partial entries.
+      final Path tmp = Files.createTempFile(entry.getParent(), null, ".tmp");
+      try (ObjectOutputStream out =
+          new ObjectOutputStream(
+              new DeflaterOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp))))) {
+        out.writeUTF(key);
+        out.writeObject(semanticGraph);
+      }
+      final long entrySize = fileSize(tmp);
+      Files.move(tmp, entry, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      if (size.addAndGet(entrySize) > maxSize) {
+        evict();
+      }
+    } catch (IOException e) {
+      log.warn("Unable to write parse cache entry " + entry, e);
+    }
+  }
+
+  /** Removes the least recently used entries until the cache size is under the target size. */
+  private synchronized void evict() {
+    if (size.get() <= maxSize) {
+      return; // Another thread already evicted old entries.
+    }
+    final List<Path> entries;
+    try (Stream<Path> files = entries()) {
+      entries =
+          files
+              .sorted(Comparator.comparing(ParseCache::lastModified))
+              .collect(Collectors.toList());
+    } catch (IOException e) {
+      log.warn("Unable to evict parse cache entries from " + directory, e);
+      return;
+    }
+    final long targetSize = (long) (maxSize * EVICTION_TARGET);
+    long currentSize = entries.stream().mapToLong(ParseCache::fileSize).sum();
+    for (Path entry : entries) {
+      if (currentSize <= targetSize) {
+        break;
+      }
+      final long entrySize = fileSize(entry);
+      try {
+        Files.deleteIfExists(entry);
+        currentSize -= entrySize;
+      } catch (IOException e) {
+        log.debug("Unable to delete parse cache entry " + entry, e);
+      }
+    }
+    size.set(currentSize);
+  }
+
+  /**
+   * Returns the entry files currently in the cache.
+   *
+   * @return the entry files of the cache
+   * @throws IOException if the cache folder cannot be read
+   */
+  private Stream<Path> entries() throws IOException {
+    return Files.walk(directory)
+        .filter(f -> Files.isRegularFile(f) && f.toString().endsWith(ENTRY_EXTENSION));
+  }
+
+  /**
+   * Returns the path of the entry file for the given key. Entries are spread over sub-folders
+   * named after the first two characters of the key hash.
+   *
+   * @param key the key of the entry
+   * @return the path of the entry file
+   */
+  private Path entryPath(String key) {
+    final String hash = sha256(key);
+    return directory.resolve(hash.substring(0, 2)).resolve(hash + ENTRY_EXTENSION);
+  }
+
+  /**
+   * Returns the key of a sentence: its words, each followed by the POS tag assigned in advance (if
+   * any).
+   *
+   * @param words the words of the sentence
+   * @return the key of the sentence
+   */
+  static String key(List<TaggedWord> words) {
+    StringBuilder key = new StringBuilder();
+    for (TaggedWord word : words) {
+      if (key.length() > 0) {
+        key.append('\n');
+      }
+      key.append(word.word()).append('\t');
+      if (word.tag() != null) {
+        key.append(word.tag());
+      }
+    }
+    return key.toString();
+  }
+
+  /**
+   * Returns a string identifying the parser model in use, such that cached graphs produced by a
+   * different model are not reused.
+   *
+   * @return the version of the parser model
+   */
+  private static String modelVersion() {
+    StringBuilder version = new StringBuilder();
+    version.append(FORMAT_VERSION).append(LexicalizedParser.DEFAULT_PARSER_LOC);
+    version.append(LexicalizedParser.class.getPackage().getImplementationVersion());
+    final URL model =
+        StanfordParser.class.getClassLoader().getResource(LexicalizedParser.DEFAULT_PARSER_LOC);
+    if (model != null) {
+      try {
+        final URLConnection connection = model.openConnection();
+        version.append(connection.getContentLengthLong()).append(connection.getLastModified());
+      } catch (IOException e) {
+        log.debug("Unable to read the parser model " + model, e);
+      }
+    }
+    return sha256(version.toString()).substring(0, 16);
+  }
+
+  /**
+   * Returns the SHA-256 hash of the given string in hexadecimal format.
+   *
+   * @param text the string to hash
+   * @return the SHA-256 hash of {@code text}
+   */
+  private static String sha256(String text) {
+    try {
+      final byte[] hash =
+          MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+      StringBuilder hex = new StringBuilder(hash.length * 2);
+      for (byte b : hash) {
+        hex.append(String.format("%02x", b));
+      }
+      return hex.toString();
+    } catch (NoSuchAlgorithmException e) {
+      throw new AssertionError("SHA-256 is not available", e);
+    }
+  }
+
+  private static long fileSize(Path file) {
+    try {
+      return Files.size(file);
+    } catch (IOException e) {
+      return 0;
+    }
+  }
+
+  private static FileTime lastModified(Path file) {
+    try {
+      return Files.getLastModifiedTime(file);
+    } catch (IOException e) {
+      return FileTime.fromMillis(0);
+    }
+  }
+
+  /**
+   * Opens the parse cache in the given folder.
+   *
+   * @param cacheDir the cache folder
+   * @param maxSize the maximum size of the cache in bytes
+   * @return the parse cache, or null if the parse cache is unusable
+   */
+  private static ParseCache open(Path cacheDir, long maxSize) {
+    try {
+      return new ParseCache(cacheDir, maxSize);
+    } catch (IOException e) {
+      log.warn("Unable to use parse cache in " + cacheDir + ". Parse cache disabled.", e);
+      return null;
+    }
+  }
+}
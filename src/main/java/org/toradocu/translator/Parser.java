@@ -9,10 +9,13 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 import org.toradocu.extractor.Comment;
 import org.toradocu.extractor.DocumentedExecutable;
 import org.toradocu.extractor.DocumentedParameter;
+import org.toradocu.util.Profiler;
 
 /**
  * Created by arianna on 18/05/17.
@@ -20,52 +23,118 @@ import org.toradocu.extractor.DocumentedParameter;
  * <p>The Parser must extract the {@code PropositionSerie}s from a {@code BlockTag} comment. Thus,
  * it interacts with the Stanford Parser in order to produce the {@code SemanticGraph}. It holds a
  * {@code SemanticGraph}s cache which maps each comment to its {@code SemanticGraph}.
+ *
+ * <p>The Parser is thread-safe: the inequalities replaced by placeholders are local to each
+ * invocation of {@code parse}, and the cache can be accessed concurrently.
  */
 public class Parser {
 
   /** The regular expressions used to identify patterns in the comment */
-  private static final String INEQUALITY_NUMBER_REGEX =
-      " *(?!-)((([<>=]=?)|(!=)) ?)-?([0-9]+(?!/)(.[0-9]+)?|zero|one|two|three|four|five|six|seven|eight|nine)";
+  private static final Pattern INEQUALITY_NUMBER_REGEX =
+      Pattern.compile(
+          " *(?!-)((([<>=]=?)|(!=)) ?)-?([0-9]+(?!/)(.[0-9]+)?|zero|one|two|three|four|five|six|seven|eight|nine)");
 
-  private static final String INEQUALITY_NULL_REGEX = "([=]=?|!=) ?null";
+  private static final Pattern INEQUALITY_NULL_REGEX = Pattern.compile("([=]=?|!=) ?null");
 
-  private static final String GENERIC_TYPE_REGEX = " *(<T>)";
+  private static final Pattern GENERIC_TYPE_REGEX = Pattern.compile(" *(<T>)");
 
-  private static final String RANGE_VAR_REGEX =
-      " * ?([a-zA-Z0-9]+) ?([<>=]=?) ?([a-zA-Z]+) ?([<>=]=?) ?([a-zA-Z0-9]+)";
+  private static final Pattern RANGE_VAR_REGEX =
+      Pattern.compile(" * ?([a-zA-Z0-9]+) ?([<>=]=?) ?([a-zA-Z]+) ?([<>=]=?) ?([a-zA-Z0-9]+)");
 
-  private static final String INEQUALITY_VAR_REGEX =
-      " *(?<!-)(([<>=]=?|!=) ?)(?!this)((?![a-zA-Z]+\\()([a-zA-Z][a-zA-Z0-9_]*)|([_][a-zA-Z0-9_]+))(\\.[a-zA-Z0-9_]+(\\(*\\))?)?";
+  private static final Pattern INEQUALITY_VAR_REGEX =
+      Pattern.compile(
+          " *(?<!-)(([<>=]=?|!=) ?)(?!this)((?![a-zA-Z]+\\()([a-zA-Z][a-zA-Z0-9_]*)|([_][a-zA-Z0-9_]+))(\\.[a-zA-Z0-9_]+(\\(*\\))?)?");
   private static final String PLACEHOLDER_PREFIX = " INEQUALITY_";
-  private static final String INEQ_INSOF =
-      "(?<!has )(?<!have )an (instance of)"; // e.g "an instance of"
-  private static final String INEQ_INSOFPROCESSED =
-      " instanceof +[^ \\.]*"; // e.g. "instanceof BinaryMutation"
-  private static final String INEQ_THIS = "(?<!of) this\\."; // e.g "<object> is this."
+  private static final Pattern INEQ_INSOF =
+      Pattern.compile("(?<!has )(?<!have )an (instance of)"); // e.g "an instance of"
+  private static final Pattern INEQ_INSOFPROCESSED =
+      Pattern.compile(" instanceof +[^ \\.]*"); // e.g. "instanceof BinaryMutation"
+  private static final Pattern INEQ_THIS =
+      Pattern.compile("(?<!of) this\\."); // e.g "<object> is this."
+
+  /** Marks the content of the comment that must be preserved while adding placeholders. */
+  private static final String IGNORE_ME = "IGNORE_ME";
+
+  /**
+   * Verbs that could appear before (the inequality, or the keyword this, etc.). One of these must
+   * be present and will be added otherwise.
+   */
+  private static final String[] POSSIBLE_VERBS = {
+    "is", "is not", "isn't", "are", "are not", "aren't"
+  };
 
-  /** Stores the inequalities that are replaced by placeholders when addPlaceholders is called. */
-  private static List<String> inequalities = new ArrayList<>();
+  /**
+   * Comparatives written out in comments, in order of priority: when comparatives overlap, the
+   * first one is replaced (e.g., "greater than or equal to" rather than "greater than").
+   */
+  private static final String[][] COMPARATIVES_TO_SYMBOLS = {
+    {"greater than or equal to", ">="},
+    {"greater or equal to", ">="},
+    {"≥", ">="},
+    {"less than or equal to", "<="},
+    {"lesser than or equal to", "<="},
+    {"lesser or equal to", "<="},
+    {"smaller than or equal to", "<="},
+    {"lower than or equal to", "<="},
+    {"≤", "<="},
+    {"greater than", ">"},
+    {"smaller than", "<"},
+    {"less than", "<"},
+    {"lesser than", "<"},
+    {"lower than", "<"},
+    {"equal to", "=="}
+  };
+
+  /** Symbol corresponding to each comparative. */
+  private static final Map<String, String> COMPARATIVE_SYMBOLS = new HashMap<>();
+
+  /** Matches any of the comparatives, in order of priority. */
+  private static final Pattern COMPARATIVES;
+
+  static {
+    StringJoiner comparatives = new StringJoiner("|");
+    for (String[] comparative : COMPARATIVES_TO_SYMBOLS) {
+      COMPARATIVE_SYMBOLS.put(comparative[0], comparative[1]);
+      comparatives.add(Pattern.quote(comparative[0]));
+    }
+    COMPARATIVES = Pattern.compile(comparatives.toString());
+  }
 
   /** Stores the cache of semantic graphs for each pair method-comment. */
-  private static Map<MethodComment, List<SemanticGraph>> graphsCache = new HashMap<>();
+  private static final Map<MethodComment, ParsedComment> graphsCache = new ConcurrentHashMap<>();
 
   private Parser() {}
 
+  /**
+   * Clears the cache of semantic graphs, so that the next invocations parse comments again. Call
+   * this method between independent runs in the same process (e.g., requests of the daemon) to
+   * release the graphs and the documented members they refer to.
+   */
+  public static void clearCache() {
+    graphsCache.clear();
+  }
+
   /**
    * Store in cache the semantic graphs for a pair comment, method.
    *
    * @param comment the comment object
    * @param method the DocumentedExecutable
+   * @return the semantic graphs of the comment, together with the inequalities replaced by
+   *     placeholders in the graphs
    */
-  private static List<SemanticGraph> parse_(Comment comment, DocumentedExecutable method) {
+  private static ParsedComment parse_(Comment comment, DocumentedExecutable method) {
     // Check if cache contains a valid answer.
     MethodComment key = new MethodComment(comment, method);
-    if (graphsCache.containsKey(key)) {
-      return graphsCache.get(key);
+    final ParsedComment cached = graphsCache.get(key);
+    Profiler.cacheAccess(Profiler.Cache.SEMANTIC_GRAPHS, cached != null);
+    if (cached != null) {
+      return cached;
     }
 
+    final ParseCache parseCache = ParseCache.getInstance();
     List<SemanticGraph> graphs = new ArrayList<>();
-    Comment commentWithPlaceholders = addPlaceholders(comment);
+    List<String> inequalities = new ArrayList<>();
+    Comment commentWithPlaceholders = addPlaceholders(comment, inequalities);
     List<String> arguments = new ArrayList<>();
     if (method != null) {
       // Collect method arguments
@@ -79,11 +148,13 @@ public class Parser {
       final List<TaggedWord> taggedWords =
           POSTagger.tagWords(
               comment, commentWithPlaceholders.getText(), inequalities, sentence, arguments);
-      final SemanticGraph semanticGraph = StanfordParser.parse(taggedWords);
+      final SemanticGraph semanticGraph =
+          parseCache == null ? StanfordParser.parse(taggedWords) : parseCache.parse(taggedWords);
       graphs.add(semanticGraph);
     }
-    graphsCache.put(new MethodComment(comment, method), graphs);
-    return graphs;
+    final ParsedComment parsedComment = new ParsedComment(graphs, inequalities);
+    graphsCache.put(key, parsedComment);
+    return parsedComment;
   }
 
   /**
@@ -97,140 +168,148 @@ public class Parser {
   // TODO Move this to a new class PropositionIdentifier that handles Proposition.
   public static List<PropositionSeries> parse(Comment comment, DocumentedExecutable method) {
     List<PropositionSeries> result = new ArrayList<>();
-    List<SemanticGraph> semanticGraphs = parse_(comment, method);
-    for (SemanticGraph semanticGraph : semanticGraphs) {
+    ParsedComment parsedComment;
+    try (Profiler.Timer timer = Profiler.start(Profiler.Phase.PARSING)) {
+      parsedComment = parse_(comment, method);
+    }
+    for (SemanticGraph semanticGraph : parsedComment.getSemanticGraphs()) {
       result.add(new SentenceParser(semanticGraph).getPropositionSeries());
     }
-    return removePlaceholders(result);
+    return removePlaceholders(result, parsedComment.getInequalities());
   }
 
   /**
-   * Verifies if the comment contains a verb among the {@code possibleVerbs}. If it doesn't, the
-   * verb is assumed to be "is" and is added to the comment.
+   * Checks whether the comment text preceding a placeholder ends with a verb among {@code
+   * POSSIBLE_VERBS}. If it doesn't, the verb is assumed to be "is" and must be added before the
+   * placeholder.
    *
-   * @param placeholderText the comment text containing placeholders
-   * @param i counter of the placeholders in the text
-   * @return the placeholderText, updated with the added verb or as it was if it already had one
+   * @param text the comment text containing the placeholder
+   * @param placeholderStart the position of the placeholder in {@code text}
+   * @return true if the text preceding the placeholder ends with a verb
    */
-  private static String findVerb(String placeholderText, int i) {
-    // Verbs that could appear before (the inequality, or the keyword this, etc.).
-    // One of these most be present and will be added otherwise.
-    String[] possibleVerbs = {"is", "is not", "isn't", "are", "are not", "aren't"};
-    boolean containsVerb = false;
-    for (String possibleVerb : possibleVerbs) {
-      if (placeholderText.contains(possibleVerb + PLACEHOLDER_PREFIX + i)) {
-        containsVerb = true;
-        break;
+  private static boolean followsVerb(StringBuilder text, int placeholderStart) {
+    for (String possibleVerb : POSSIBLE_VERBS) {
+      final int verbStart = placeholderStart - possibleVerb.length();
+      if (verbStart >= 0 && text.substring(verbStart, placeholderStart).equals(possibleVerb)) {
+        return true;
       }
     }
-    if (!containsVerb) {
-      // The verb is assumed to be "is" and will be added to the text.
-      placeholderText =
-          placeholderText.replaceFirst(PLACEHOLDER_PREFIX + i, " is" + PLACEHOLDER_PREFIX + i);
-    }
-    return placeholderText;
+    return false;
   }
 
-  private static Comment addPlaceholders(Comment comment) {
-
-    ArrayList<String> contentToIgnore = new ArrayList<>();
-
-    String text =
-        comment
-            .getText()
-            .replace("greater than or equal to", ">=")
-            .replace("greater or equal to", ">=")
-            .replace("≥", ">=")
-            .replace("less than or equal to", "<=")
-            .replace("lesser than or equal to", "<=")
-            .replace("lesser or equal to", "<=")
-            .replace("smaller than or equal to", "<=")
-            .replace("lower than or equal to", "<=")
-            .replace("≤", "<=")
-            .replace("greater than", ">")
-            .replace("smaller than", "<")
-            .replace("less than", "<")
-            .replace("lesser than", "<")
-            .replace("lower than", "<")
-            .replace("equal to", "==");
-
-    java.util.regex.Matcher matcherInstanceOf = Pattern.compile(INEQ_INSOF).matcher(text);
-
-    java.util.regex.Matcher matcherThis = Pattern.compile(INEQ_THIS).matcher(text);
-
-    java.util.regex.Matcher matcherGeneric = Pattern.compile(GENERIC_TYPE_REGEX).matcher(text);
-
-    java.util.regex.Matcher matcherRangeVar = Pattern.compile(RANGE_VAR_REGEX).matcher(text);
-
-    java.util.regex.Matcher matcherVarComp = Pattern.compile(INEQUALITY_VAR_REGEX).matcher(text);
-
-    java.util.regex.Matcher matcherIneqNumber =
-        Pattern.compile(INEQUALITY_NUMBER_REGEX).matcher(text);
-
-    java.util.regex.Matcher matcherIneqNull = Pattern.compile(INEQUALITY_NULL_REGEX).matcher(text);
-
-    while (matcherInstanceOf.find()) {
-      // Instance of added to the comparator list
-      // Replace "[an] instance of" with "instanceof"
-      text = text.replaceFirst(INEQ_INSOF, " instanceof");
-    }
-
-    java.util.regex.Matcher matcherIOfProcessed =
-        Pattern.compile(INEQ_INSOFPROCESSED).matcher(text);
-    String placeholderText = text;
-    int i = 0;
-
-    while (matcherIOfProcessed.find()) {
-      // Specific case for the instance of placeholder. We put into inequalities the instanceof and
-      // the name of the class.
-      inequalities.add(text.substring(matcherIOfProcessed.start(), matcherIOfProcessed.end()));
-      placeholderText = placeholderText.replaceFirst(INEQ_INSOFPROCESSED, PLACEHOLDER_PREFIX + i++);
-    }
-
-    while (matcherThis.find()) {
-      inequalities.add(text.substring(matcherThis.start(), matcherThis.end()));
-      placeholderText = placeholderText.replaceFirst(INEQ_THIS, PLACEHOLDER_PREFIX + i);
-      placeholderText = findVerb(placeholderText, i);
-      i++;
-    }
-
-    while (matcherGeneric.find()) {
-      placeholderText = placeholderText.replaceFirst(GENERIC_TYPE_REGEX, "IGNORE_ME");
-      contentToIgnore.add(matcherGeneric.group(0));
-    }
-
-    while (matcherRangeVar.find()) {
-      placeholderText = placeholderText.replaceFirst(RANGE_VAR_REGEX, "IGNORE_ME");
-      contentToIgnore.add(matcherRangeVar.group(0));
+  /**
+   * Replaces inequalities (and other patterns that confuse the Stanford parser) in the given
+   * comment with placeholders.
+   *
+   * <p>Each kind of pattern is looked for in the comment text where only comparatives and "an
+   * instance of" have been normalized, and is replaced in the text containing the placeholders of
+   * the previous kinds. A pattern hidden by a placeholder of a previous kind is therefore added to
+   * {@code inequalities} (so that placeholder numbers follow the occurrences in the comment text)
+   * but not replaced.
+   *
+   * @param comment the comment in which to add placeholders
+   * @param inequalities list to which the inequalities replaced by placeholders are added, in
+   *     placeholder order
+   * @return a new comment containing placeholders
+   */
+  private static Comment addPlaceholders(Comment comment, List<String> inequalities) {
+    StringBuffer normalized = new StringBuffer();
+    java.util.regex.Matcher comparatives = COMPARATIVES.matcher(comment.getText());
+    while (comparatives.find()) {
+      comparatives.appendReplacement(normalized, COMPARATIVE_SYMBOLS.get(comparatives.group()));
     }
-
-    while (matcherIneqNumber.find()) {
-      inequalities.add(text.substring(matcherIneqNumber.start(), matcherIneqNumber.end()));
-      placeholderText =
-          placeholderText.replaceFirst(INEQUALITY_NUMBER_REGEX, PLACEHOLDER_PREFIX + i);
-      placeholderText = findVerb(placeholderText, i);
-      i++;
+    comparatives.appendTail(normalized);
+    // Replace "[an] instance of" with "instanceof".
+    final String text = INEQ_INSOF.matcher(normalized).replaceAll(" instanceof");
+
+    StringBuilder placeholderText = new StringBuilder(text);
+    int[] placeholders = {0};
+    // Specific case for the instance of placeholder. We put into inequalities the instanceof and
+    // the name of the class.
+    addPlaceholders(INEQ_INSOFPROCESSED, text, placeholderText, inequalities, placeholders, false);
+    addPlaceholders(INEQ_THIS, text, placeholderText, inequalities, placeholders, true);
+
+    List<String> contentToIgnore = new ArrayList<>();
+    ignore(GENERIC_TYPE_REGEX, text, placeholderText, contentToIgnore);
+    ignore(RANGE_VAR_REGEX, text, placeholderText, contentToIgnore);
+
+    addPlaceholders(
+        INEQUALITY_NUMBER_REGEX, text, placeholderText, inequalities, placeholders, true);
+    addPlaceholders(INEQUALITY_NULL_REGEX, text, placeholderText, inequalities, placeholders, true);
+    addPlaceholders(INEQUALITY_VAR_REGEX, text, placeholderText, inequalities, placeholders, true);
+
+    // Restore the ignored content, in order of occurrence.
+    int ignored = 0;
+    for (String ignoredString : contentToIgnore) {
+      ignored = placeholderText.indexOf(IGNORE_ME, ignored);
+      if (ignored == -1) {
+        break;
+      }
+      placeholderText.replace(ignored, ignored + IGNORE_ME.length(), ignoredString);
+      ignored += ignoredString.length();
     }
 
-    while (matcherIneqNull.find()) {
-      inequalities.add(text.substring(matcherIneqNull.start(), matcherIneqNull.end()));
-      placeholderText = placeholderText.replaceFirst(INEQUALITY_NULL_REGEX, PLACEHOLDER_PREFIX + i);
-      placeholderText = findVerb(placeholderText, i);
-      i++;
-    }
+    return new Comment(placeholderText.toString(), comment.getWordsMarkedAsCode());
+  }
 
-    while (matcherVarComp.find()) {
-      inequalities.add(text.substring(matcherVarComp.start(), matcherVarComp.end()));
-      placeholderText = placeholderText.replaceFirst(INEQUALITY_VAR_REGEX, PLACEHOLDER_PREFIX + i);
-      placeholderText = findVerb(placeholderText, i);
-      i++;
+  /**
+   * Replaces occurrences of {@code pattern} in {@code placeholderText} with placeholders. The
+   * occurrences of {@code pattern} in {@code text} are added to {@code inequalities}, and as many
+   * occurrences are replaced in {@code placeholderText}, one at a time: every replacement replaces
+   * the first occurrence in the text resulting from the previous replacements.
+   *
+   * @param pattern the pattern to replace
+   * @param text the comment text in which occurrences are looked for
+   * @param placeholderText the comment text in which occurrences are replaced
+   * @param inequalities list to which the occurrences in {@code text} are added
+   * @param placeholders the number of placeholders added so far, updated by this method
+   * @param addVerb true if the verb "is" has to be added before a placeholder not preceded by a
+   *     verb
+   */
+  private static void addPlaceholders(
+      Pattern pattern,
+      String text,
+      StringBuilder placeholderText,
+      List<String> inequalities,
+      int[] placeholders,
+      boolean addVerb) {
+    java.util.regex.Matcher occurrences = pattern.matcher(text);
+    java.util.regex.Matcher matcher = pattern.matcher(placeholderText);
+    while (occurrences.find()) {
+      inequalities.add(occurrences.group());
+      // Placeholders are numbered after the occurrences in text, even those hidden in
+      // placeholderText.
+      final int placeholder = placeholders[0]++;
+      if (matcher.find(0)) {
+        final int start = matcher.start();
+        final String verb = addVerb && !followsVerb(placeholderText, start) ? " is" : "";
+        placeholderText.replace(start, matcher.end(), verb + PLACEHOLDER_PREFIX + placeholder);
+      }
     }
+  }
 
-    for (String ignoredString : contentToIgnore) {
-      placeholderText = placeholderText.replaceFirst("IGNORE_ME", ignoredString);
+  /**
+   * Replaces occurrences of {@code pattern} in {@code placeholderText} with {@link #IGNORE_ME}, so
+   * that no placeholder is added for them. The occurrences of {@code pattern} in {@code text} are
+   * added to {@code contentToIgnore}, and as many occurrences are replaced in {@code
+   * placeholderText}, one at a time as in {@link #addPlaceholders(Pattern, String, StringBuilder,
+   * List, int[], boolean)}.
+   *
+   * @param pattern the pattern to ignore
+   * @param text the comment text in which occurrences are looked for
+   * @param placeholderText the comment text in which occurrences are replaced
+   * @param contentToIgnore list to which the occurrences in {@code text} are added
+   */
+  private static void ignore(
+      Pattern pattern, String text, StringBuilder placeholderText, List<String> contentToIgnore) {
+    java.util.regex.Matcher occurrences = pattern.matcher(text);
+    java.util.regex.Matcher matcher = pattern.matcher(placeholderText);
+    while (occurrences.find()) {
+      contentToIgnore.add(occurrences.group());
+      if (matcher.find(0)) {
+        placeholderText.replace(matcher.start(), matcher.end(), IGNORE_ME);
+      }
     }
-
-    return new Comment(placeholderText, comment.getWordsMarkedAsCode());
   }
 
   /**
@@ -239,9 +318,11 @@ public class Parser {
    * are replaced by their symbolic equivalent (e.g. "<").
    *
    * @param seriesList the list of {@code PropositionSeries} containing placeholder text
+   * @param inequalities the inequalities replaced by placeholders, in placeholder order
    * @return a new list of {@code PropositionSeries} with placeholders replaced by inequalities
    */
-  private static List<PropositionSeries> removePlaceholders(List<PropositionSeries> seriesList) {
+  private static List<PropositionSeries> removePlaceholders(
+      List<PropositionSeries> seriesList, List<String> inequalities) {
     List<PropositionSeries> result = new ArrayList<>();
 
     for (PropositionSeries series : seriesList) {
@@ -265,12 +346,32 @@ public class Parser {
           new PropositionSeries(semanticGraph, inequalityPropositions, series.getConjunctions());
       result.add(newSeries);
     }
-
-    inequalities.clear();
     return result;
   }
 }
 
+/**
+ * The semantic graphs of a comment, together with the inequalities that were replaced by
+ * placeholders before parsing the comment.
+ */
+class ParsedComment {
+  private final List<SemanticGraph> semanticGraphs;
+  private final List<String> inequalities;
+
+  ParsedComment(List<SemanticGraph> semanticGraphs, List<String> inequalities) {
+    this.semanticGraphs = semanticGraphs;
+    this.inequalities = inequalities;
+  }
+
+  List<SemanticGraph> getSemanticGraphs() {
+    return semanticGraphs;
+  }
+
+  List<String> getInequalities() {
+    return inequalities;
+  }
+}
+
 /** This class ties a String comment to its DocumentedMethod. */
 class MethodComment {
   private Comment comment;
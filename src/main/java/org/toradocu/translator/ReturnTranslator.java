@@ -1,7 +1,7 @@
 package org.toradocu.translator;
 
 import static java.util.stream.Collectors.toList;
-import static org.toradocu.util.ComplianceChecks.isPostSpecCompilable;
+import static org.toradocu.util.ComplianceChecks.addPostSpec;
 
 import edu.stanford.nlp.ling.IndexedWord;
 import edu.stanford.nlp.semgraph.SemanticGraph;
@@ -15,11 +15,14 @@ import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Supplier;
 import java.util.regex.Pattern;
 import org.toradocu.conf.Configuration;
 import org.toradocu.extractor.Comment;
 import org.toradocu.extractor.DocumentedExecutable;
 import org.toradocu.extractor.ReturnTag;
+import org.toradocu.util.ComplianceBatch;
+import org.toradocu.util.ComplianceBatch.Candidate;
 import org.toradocu.util.Reflection;
 import randoop.condition.specification.Guard;
 import randoop.condition.specification.PostSpecification;
@@ -28,24 +31,55 @@ import randoop.condition.specification.Property;
 public class ReturnTranslator {
 
   public List<PostSpecification> translate(ReturnTag tag, DocumentedExecutable excMember) {
+    ComplianceBatch batch = new ComplianceBatch();
+    final Supplier<List<PostSpecification>> specs = translate(tag, excMember, batch);
+    batch.compile();
+    return specs.get();
+  }
+
+  /**
+   * Translates the given @return comment, adding the compliance checks of the produced
+   * specifications to {@code batch}. The returned supplier must be invoked only after {@code
+   * batch} is compiled, and returns only the compliant specifications.
+   *
+   * @param tag the comment to be translated
+   * @param excMember the executable member commented with {@code tag}
+   * @param batch the batch in which the compliance of the specifications is checked
+   * @return a supplier of the specifications produced by the translation
+   */
+  Supplier<List<PostSpecification>> translate(
+      ReturnTag tag, DocumentedExecutable excMember, ComplianceBatch batch) {
     String commentText = tag.getComment().getText();
     // Manage translation of each sub-sentence linked by the Or conjunction separately
     String[] subSentences = manageOrConjunction(commentText);
-    List<List<PostSpecification>> conditions = new ArrayList<>();
+    List<List<CandidateSpecification>> candidates = new ArrayList<>();
 
     for (String subSentence : subSentences) {
       // Split the sentence in three parts: predicate + true case + false case.
       // TODO Naive splitting. Make the split more reliable.
       final int predicateSplitPoint = subSentence.indexOf(" if ");
       if (predicateSplitPoint != -1) {
-        conditions.add(
-            returnStandardPattern(excMember, subSentence, tag.getComment(), predicateSplitPoint));
+        candidates.add(
+            returnStandardPattern(
+                excMember, subSentence, tag.getComment(), predicateSplitPoint, batch));
       } else {
-        conditions.add(returnNotStandard(excMember, subSentence));
+        candidates.add(returnNotStandard(excMember, subSentence, batch));
       }
     }
 
-    return mergeOrConjunction(commentText, subSentences, conditions);
+    return () -> {
+      List<List<PostSpecification>> conditions = new ArrayList<>();
+      for (List<CandidateSpecification> subSentenceCandidates : candidates) {
+        List<PostSpecification> compliantSpecs = new ArrayList<>();
+        for (CandidateSpecification candidate : subSentenceCandidates) {
+          if (candidate.candidate.isCompilable()) {
+            compliantSpecs.add(candidate.specification);
+          }
+        }
+        conditions.add(compliantSpecs);
+      }
+      return mergeOrConjunction(commentText, subSentences, conditions);
+    };
   }
 
   /**
@@ -315,14 +349,16 @@ public class ReturnTranslator {
    * @param textToTranslate the String text to translate
    * @param comment original {@code Comment}
    * @param predicateSplitPoint index of the "if"
+   * @param batch the batch in which the compliance of the specifications is checked
    * @return the translation produced
    */
-  private static List<PostSpecification> returnStandardPattern(
+  private static List<CandidateSpecification> returnStandardPattern(
       DocumentedExecutable method,
       String textToTranslate,
       Comment comment,
-      int predicateSplitPoint) {
-    List<PostSpecification> specs = new ArrayList<>();
+      int predicateSplitPoint,
+      ComplianceBatch batch) {
+    List<CandidateSpecification> specs = new ArrayList<>();
 
     if (textToTranslate.contains(";")) {
       textToTranslate = textToTranslate.replace(";", ",");
@@ -351,17 +387,19 @@ public class ReturnTranslator {
         if (!conditionTranslation.isEmpty() && !predicateTranslation.isEmpty()) {
           Guard trueGuard = new Guard(textToTranslate, conditionTranslation);
           Property trueProperty = new Property(textToTranslate, predicateTranslation);
-          if (isPostSpecCompilable(method, trueGuard, trueProperty)) {
-            specs.add(new PostSpecification(textToTranslate, trueGuard, trueProperty));
-          }
+          specs.add(
+              new CandidateSpecification(
+                  new PostSpecification(textToTranslate, trueGuard, trueProperty),
+                  addPostSpec(batch, method, trueGuard, trueProperty)));
           String elsePredicate = translateLastPart(falseCase, method);
           if (elsePredicate != null) {
             String invertedGuard = "(" + conditionTranslation + ")==false";
             Guard falseGuard = new Guard(textToTranslate, invertedGuard);
             Property falseProperty = new Property(textToTranslate, elsePredicate);
-            if (isPostSpecCompilable(method, falseGuard, falseProperty)) {
-              specs.add(new PostSpecification(textToTranslate, falseGuard, falseProperty));
-            }
+            specs.add(
+                new CandidateSpecification(
+                    new PostSpecification(textToTranslate, falseGuard, falseProperty),
+                    addPostSpec(batch, method, falseGuard, falseProperty)));
           }
         }
       }
@@ -380,11 +418,12 @@ public class ReturnTranslator {
    *
    * @param method the DocumentedExecutable the tag belongs to
    * @param comment the String comment belonging to the tag
+   * @param batch the batch in which the compliance of the specifications is checked
    * @return a String translation if any, or an empty string
    */
-  private static List<PostSpecification> returnNotStandard(
-      DocumentedExecutable method, String comment) {
-    List<PostSpecification> specs = new ArrayList<>();
+  private static List<CandidateSpecification> returnNotStandard(
+      DocumentedExecutable method, String comment, ComplianceBatch batch) {
+    List<CandidateSpecification> specs = new ArrayList<>();
 
     String translation = null;
     final String[] truePatterns = {"true", "true always", "true, always", "always true"};
@@ -458,8 +497,11 @@ public class ReturnTranslator {
         }
       }
     }
-    if (property != null && isPostSpecCompilable(method, guard, property)) {
-      specs.add(new PostSpecification(comment, guard, property));
+    if (property != null) {
+      specs.add(
+          new CandidateSpecification(
+              new PostSpecification(comment, guard, property),
+              addPostSpec(batch, method, guard, property)));
     }
     return specs;
   }
@@ -649,4 +691,17 @@ public class ReturnTranslator {
     }
     return codeElementMatch;
   }
+
+  /** A specification produced by the translation, kept only if it compiles. */
+  private static class CandidateSpecification {
+    /** The specification. */
+    private final PostSpecification specification;
+    /** The compliance check of the specification. */
+    private final Candidate candidate;
+
+    CandidateSpecification(PostSpecification specification, Candidate candidate) {
+      this.specification = specification;
+      this.candidate = candidate;
+    }
+  }
 }
@@ -0,0 +1,579 @@
+package org.toradocu.translator;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.InstanceCreator;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.toradocu.conf.Configuration;
+import org.toradocu.extractor.BlockTag;
+import org.toradocu.extractor.Comment;
+import org.toradocu.extractor.DocumentedExecutable;
+import org.toradocu.util.Profiler;
+import org.toradocu.util.Reflection;
+import randoop.condition.specification.OperationSpecification;
+
+/**
+ * Persistent store of the specifications produced by {@link
+ * CommentTranslator#createSpecifications(List)}, so that the comments of classes that never change
+ * (e.g., third-party dependencies) are translated only once.
+ *
+ * <p>The key of an entry is made of the hashes of the class files of the documented classes and
+ * of their supertypes, the hash of the Javadoc comments of the documented members (class files do
+ * not contain comments), and the options that affect the translation. Entries are stored in a
+ * sub-folder identified by the Toradocu version; when the store is opened, the sub-folders of the
+ * other versions are deleted, since their entries are never read. When the store exceeds its
+ * maximum size, the least recently used entries are evicted. Changes to other classes (e.g., to the
+ * types of the parameters) are not tracked.
+ *
+ * <p>This class is thread-safe.
+ */
+class SpecificationStore {
+
+  private static final Logger log = LoggerFactory.getLogger(SpecificationStore.class);
+
+  /** Version of the format of the store entries. Increment when the format changes. */
+  private static final int FORMAT_VERSION = 1;
+  /** Extension of the files containing store entries. */
+  private static final String ENTRY_EXTENSION = ".specs";
+  /** Extension of the temporary files written before being moved to an entry file. */
+  private static final String TMP_EXTENSION = ".tmp";
+  /** After an eviction, the store size is at most this fraction of the maximum size. */
+  private static final double EVICTION_TARGET = 0.9;
+
+  /**
+   * Gson instance used for the entries. Words marked as code are read into hash maps, like in
+   * {@code Comment}, so that restored comments are exported exactly as the original ones.
+   */
+  private static final Gson gson =
+      new GsonBuilder()
+          .registerTypeAdapter(
+              new TypeToken<Map<String, List<Integer>>>() {}.getType(),
+              (InstanceCreator<Map<String, List<Integer>>>) type -> new HashMap<>())
+          .disableHtmlEscaping()
+          .create();
+
+  /**
+   * The specification store configured with Toradocu's command line options (null if disabled or
+   * unusable), together with the options it was opened with. The store is opened again when the
+   * options change, e.g., between the requests served by the daemon.
+   */
+  private static SpecificationStore instance;
+  /** The store folder of {@link #instance} (null if the store is disabled). */
+  private static Path instanceDirectory;
+  /** The maximum size of {@link #instance}. */
+  private static long instanceMaxSize;
+
+  /** Folder containing the entries created with the current Toradocu version. */
+  private final Path directory;
+  /** Maximum size of the store in bytes. */
+  private final long maxSize;
+  /** Current (approximate) size of the store in bytes. */
+  private final AtomicLong size;
+
+  /**
+   * Creates a new specification store that stores its entries in {@code baseDirectory}, deleting
+   * the entries created by other Toradocu versions.
+   *
+   * @param baseDirectory the store folder
+   * @param maxSize the maximum size of the store in bytes
+   * @throws IOException if the store folder cannot be created or read
+   */
+  SpecificationStore(Path baseDirectory, long maxSize) throws IOException {
+    this.directory = baseDirectory.resolve(toradocuVersion());
+    this.maxSize = maxSize;
+    Files.createDirectories(directory);
+    compact(baseDirectory);
+    try (Stream<Path> entries = entries()) {
+      this.size = new AtomicLong(entries.mapToLong(SpecificationStore::fileSize).sum());
+    }
+  }
+
+  /**
+   * Returns the specification store configured with Toradocu's current command line options. The
+   * store is opened once for each store folder and maximum size.
+   *
+   * @return the configured specification store, or null if the store is disabled or unusable
+   */
+  static synchronized SpecificationStore getInstance() {
+    final File storeDir = Configuration.INSTANCE.getSpecStoreDir();
+    final Path directory = storeDir == null ? null : storeDir.toPath().toAbsolutePath().normalize();
+    final long maxSize = Configuration.INSTANCE.getSpecStoreSize();
+    if (!Objects.equals(directory, instanceDirectory) || maxSize != instanceMaxSize) {
+      instance = directory == null ? null : open(directory, maxSize);
+      instanceDirectory = directory;
+      instanceMaxSize = maxSize;
+    }
+    return instance;
+  }
+
+  /**
+   * Returns the specifications of the given executable members stored by a previous run. The
+   * comments of the tags of the members are replaced with the preprocessed comments stored
+   * together with the specifications, exactly as if the comments were translated again.
+   *
+   * @param key the key of the specifications, as returned by {@link #key(List)}
+   * @param members the executable members whose comments have to be translated into specifications
+   * @return a map that associates each executable member with its operation specification, or null
+   *     if the specifications of {@code members} are not in the store
+   */
+  Map<DocumentedExecutable, OperationSpecification> load(
+      String key, List<DocumentedExecutable> members) {
+    final Entry entry = read(entryPath(key), key, members);
+    Profiler.cacheAccess(Profiler.Cache.SPEC_STORE, entry != null);
+    if (entry == null) {
+      return null;
+    }
+    Map<DocumentedExecutable, OperationSpecification> specs = new LinkedHashMap<>();
+    for (int i = 0; i < members.size(); i++) {
+      final DocumentedExecutable member = members.get(i);
+      final MemberEntry memberEntry = entry.members.get(i);
+      final List<BlockTag> tags = tags(member);
+      for (int j = 0; j < tags.size(); j++) {
+        tags.get(j).setComment(memberEntry.comments.get(j));
+      }
+      specs.put(member, memberEntry.specification);
+    }
+    return specs;
+  }
+
+  /**
+   * Stores the specifications of the given executable members, together with the preprocessed
+   * comments of their tags. Errors are logged and otherwise ignored, since the store is not
+   * essential.
+   *
+   * @param key the key of the specifications, as returned by {@link #key(List)} before the
+   *     translation of the comments
+   * @param members the executable members whose comments have been translated
+   * @param specs the specifications of {@code members}, as returned by {@link
+   *     CommentTranslator#createSpecifications(List)}
+   */
+  void store(
+      String key,
+      List<DocumentedExecutable> members,
+      Map<DocumentedExecutable, OperationSpecification> specs) {
+    Entry entry = new Entry();
+    entry.key = key;
+    entry.members = new ArrayList<>(members.size());
+    for (DocumentedExecutable member : members) {
+      MemberEntry memberEntry = new MemberEntry();
+      memberEntry.signature = member.toString();
+      memberEntry.comments =
+          tags(member).stream().map(BlockTag::getComment).collect(Collectors.toList());
+      memberEntry.specification = specs.get(member);
+      entry.members.add(memberEntry);
+    }
+    write(entryPath(key), entry);
+  }
+
+  /**
+   * Reads the store entry in {@code file}.
+   *
+   * @param file the entry file
+   * @param key the key of the entry
+   * @param members the executable members the entry must belong to
+   * @return the stored entry, or null if the entry is missing, invalid, or belongs to a different
+   *     key or to different members
+   */
+  private Entry read(Path file, String key, List<DocumentedExecutable> members) {
+    if (!Files.isRegularFile(file)) {
+      return null;
+    }
+    final Entry entry;
+    try (BufferedReader in =
+        new BufferedReader(
+            new InputStreamReader(
+                new InflaterInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+      entry = gson.fromJson(in, Entry.class);
+    } catch (IOException | JsonParseException e) {
+      log.debug("Ignoring invalid specification store entry " + file, e);
+      return null;
+    }
+    if (entry == null || !key.equals(entry.key) || !matches(entry, members)) {
+      return null; // Hash collision.
+    }
+    try {
+      // The modification time of an entry is its last access time, used for the eviction.
+      Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+    } catch (IOException e) {
+      log.debug("Unable to update the access time of " + file, e);
+    }
+    return entry;
+  }
+
+  /**
+   * Tells whether the given entry contains the specifications of the given members.
+   *
+   * @param entry a store entry
+   * @param members executable members
+   * @return true if {@code entry} has the signatures and the number of tags of {@code members}
+   */
+  private static boolean matches(Entry entry, List<DocumentedExecutable> members) {
+    if (entry.members == null || entry.members.size() != members.size()) {
+      return false;
+    }
+    for (int i = 0; i < members.size(); i++) {
+      final DocumentedExecutable member = members.get(i);
+      final MemberEntry memberEntry = entry.members.get(i);
+      if (memberEntry.specification == null
+          || memberEntry.comments == null
+          || memberEntry.comments.size() != tags(member).size()
+          || !member.toString().equals(memberEntry.signature)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Stores the given entry, evicting old entries if the store grows over its maximum size.
+   *
+   * @param file the entry file
+   * @param entry the entry to store
+   */
+  private void write(Path file, Entry entry) {
+    try {
+      Files.createDirectories(file.getParent());
+      // Write to a temporary file first, so that concurrent readers never see partial entries.
+      final Path tmp = Files.createTempFile(file.getParent(), null, TMP_EXTENSION);
+      try (BufferedWriter out =
+          new BufferedWriter(
+              new OutputStreamWriter(
+                  new DeflaterOutputStream(Files.newOutputStream(tmp)), StandardCharsets.UTF_8))) {
+        gson.toJson(entry, out);
+      }
+      final long entrySize = fileSize(tmp);
+      Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      if (size.addAndGet(entrySize) > maxSize) {
+        evict();
+      }
+    } catch (IOException e) {
+      log.warn("Unable to write specification store entry " + file, e);
+    }
+  }
+
+  /** Removes the least recently used entries until the store size is under the target size. */
+  private synchronized void evict() {
+    if (size.get() <= maxSize) {
+      return; // Another thread already evicted old entries.
+    }
+    final List<Path> entries;
+    try (Stream<Path> files = entries()) {
+      entries =
+          files
+              .sorted(Comparator.comparing(SpecificationStore::lastModified))
+              .collect(Collectors.toList());
+    } catch (IOException e) {
+      log.warn("Unable to evict specification store entries from " + directory, e);
+      return;
+    }
+    final long targetSize = (long) (maxSize * EVICTION_TARGET);
+    long currentSize = entries.stream().mapToLong(SpecificationStore::fileSize).sum();
+    for (Path entry : entries) {
+      if (currentSize <= targetSize) {
+        break;
+      }
+      final long entrySize = fileSize(entry);
+      try {
+        Files.deleteIfExists(entry);
+        currentSize -= entrySize;
+      } catch (IOException e) {
+        log.debug("Unable to delete specification store entry " + entry, e);
+      }
+    }
+    size.set(currentSize);
+  }
+
+  /**
+   * Deletes the files that can never be read: the entries of the other Toradocu versions, and the
+   * temporary files left by interrupted writes.
+   *
+   * @param baseDirectory the store folder
+   * @throws IOException if the store folder cannot be read
+   */
+  private void compact(Path baseDirectory) throws IOException {
+    final List<Path> stale;
+    // Entry files are in <base directory>/<version>/<hash prefix>/
+    try (Stream<Path> files = Files.walk(baseDirectory, 3)) {
+      stale =
+          files
+              .filter(
+                  f ->
+                      Files.isRegularFile(f)
+                          && (f.startsWith(directory)
+                              ? f.toString().endsWith(TMP_EXTENSION)
+                              : f.toString().endsWith(ENTRY_EXTENSION)))
+              .collect(Collectors.toList());
+    }
+    for (Path file : stale) {
+      try {
+        Files.deleteIfExists(file);
+      } catch (IOException e) {
+        log.debug("Unable to delete stale specification store file " + file, e);
+      }
+    }
+  }
+
+  /**
+   * Returns the entry files currently in the store.
+   *
+   * @return the entry files of the store
+   * @throws IOException if the store folder cannot be read
+   */
+  private Stream<Path> entries() throws IOException {
+    return Files.walk(directory)
+        .filter(f -> Files.isRegularFile(f) && f.toString().endsWith(ENTRY_EXTENSION));
+  }
+
+  /**
+   * Returns the path of the entry file for the given key. Entries are spread over sub-folders
+   * named after the first two characters of the key hash.
+   *
+   * @param key the key of the entry
+   * @return the path of the entry file
+   */
+  private Path entryPath(String key) {
+    final String hash = sha256(key.getBytes(StandardCharsets.UTF_8));
+    return directory.resolve(hash.substring(0, 2)).resolve(hash + ENTRY_EXTENSION);
+  }
+
+  /**
+   * Returns the key of the specifications of the given executable members: the options that
+   * affect the translation, the hashes of the class files of the declaring classes of the members
+   * and of their supertypes, and the hash of the Javadoc comments of the members. The key must be
+   * computed before the translation, which replaces the comments with the preprocessed ones.
+   *
+   * @param members the documented executable members
+   * @return the key of the specifications of {@code members}
+   */
+  static String key(List<DocumentedExecutable> members) {
+    final Configuration configuration = Configuration.INSTANCE;
+    StringBuilder key = new StringBuilder();
+    key.append("semantics=").append(configuration.isSemanticMatcherEnabled());
+    key.append(";distance-threshold=").append(configuration.getDistanceThreshold());
+    key.append(";word-removal-cost=").append(configuration.getWordRemovalCost());
+    key.append(";classpath=").append(configuration.classDirs).append('\n');
+
+    Set<String> classNames = new TreeSet<>();
+    for (DocumentedExecutable member : members) {
+      classNames.addAll(typeHierarchy(member.getDeclaringClass()));
+    }
+    for (String className : classNames) {
+      key.append(className).append('=').append(classFileHash(className)).append('\n');
+    }
+
+    StringBuilder javadoc = new StringBuilder();
+    for (DocumentedExecutable member : members) {
+      javadoc.append(member).append('\n');
+      for (BlockTag tag : tags(member)) {
+        javadoc.append(tag).append(' ').append(tag.getComment().getWordsMarkedAsCode());
+        javadoc.append('\n');
+      }
+    }
+    key.append("javadoc=").append(sha256(javadoc.toString().getBytes(StandardCharsets.UTF_8)));
+    return key.toString();
+  }
+
+  /**
+   * Returns the names of the given class and of all its supertypes, except the types of the Java
+   * platform.
+   *
+   * @param type a class
+   * @return the names of {@code type} and of its supertypes
+   */
+  private static Set<String> typeHierarchy(Class<?> type) {
+    Set<String> names = new LinkedHashSet<>();
+    Deque<Class<?>> toVisit = new ArrayDeque<>();
+    toVisit.add(type);
+    while (!toVisit.isEmpty()) {
+      final Class<?> current = toVisit.poll();
+      final String name = current.getName();
+      if (name.startsWith("java.") || name.startsWith("javax.") || !names.add(name)) {
+        continue;
+      }
+      if (current.getSuperclass() != null) {
+        toVisit.add(current.getSuperclass());
+      }
+      toVisit.addAll(Arrays.asList(current.getInterfaces()));
+    }
+    return names;
+  }
+
+  /**
+   * Returns the SHA-256 hash of the class file of the given class.
+   *
+   * @param className the fully-qualified name of a class
+   * @return the hash of the class file, or "missing" if the class file cannot be read
+   */
+  private static String classFileHash(String className) {
+    final URL classFile = Reflection.getClassFile(className);
+    if (classFile == null) {
+      return "missing";
+    }
+    try (InputStream in = classFile.openStream()) {
+      return sha256(readAll(in));
+    } catch (IOException e) {
+      log.debug("Unable to read the class file of " + className, e);
+      return "missing";
+    }
+  }
+
+  /**
+   * Returns the tags of the given member, in the order in which they are stored.
+   *
+   * @param member a documented executable member
+   * @return the @param, @throws, and @return tags of {@code member}
+   */
+  private static List<BlockTag> tags(DocumentedExecutable member) {
+    List<BlockTag> tags = new ArrayList<>();
+    tags.addAll(member.paramTags());
+    tags.addAll(member.throwsTags());
+    if (member.returnTag() != null) {
+      tags.add(member.returnTag());
+    }
+    return tags;
+  }
+
+  /**
+   * Returns a string identifying the Toradocu version in use, such that specifications produced by
+   * a different version are not reused. Development builds share the same version number, and are
+   * told apart by the size and the modification time of the Toradocu jar.
+   *
+   * @return the version of Toradocu
+   */
+  private static String toradocuVersion() {
+    StringBuilder version = new StringBuilder();
+    version.append(FORMAT_VERSION);
+    version.append(CommentTranslator.class.getPackage().getImplementationVersion());
+    final CodeSource codeSource = CommentTranslator.class.getProtectionDomain().getCodeSource();
+    if (codeSource != null && codeSource.getLocation() != null) {
+      try {
+        final File jar = Paths.get(codeSource.getLocation().toURI()).toFile();
+        if (jar.isFile()) {
+          version.append(jar.length()).append(jar.lastModified());
+        }
+      } catch (URISyntaxException | IllegalArgumentException e) {
+        log.debug("Unable to read the Toradocu jar " + codeSource.getLocation(), e);
+      }
+    }
+    return sha256(version.toString().getBytes(StandardCharsets.UTF_8)).substring(0, 16);
+  }
+
+  /**
+   * Returns the SHA-256 hash of the given bytes in hexadecimal format.
+   *
+   * @param content the bytes to hash
+   * @return the SHA-256 hash of {@code content}
+   */
+  private static String sha256(byte[] content) {
+    try {
+      final byte[] hash = MessageDigest.getInstance("SHA-256").digest(content);
+      StringBuilder hex = new StringBuilder(hash.length * 2);
+      for (byte b : hash) {
+        hex.append(String.format("%02x", b));
+      }
+      return hex.toString();
+    } catch (NoSuchAlgorithmException e) {
+      throw new AssertionError("SHA-256 is not available", e);
+    }
+  }
+
+  private static byte[] readAll(InputStream in) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    byte[] buffer = new byte[8192];
+    int read;
+    while ((read = in.read(buffer)) != -1) {
+      out.write(buffer, 0, read);
+    }
+    return out.toByteArray();
+  }
+
+  private static long fileSize(Path file) {
+    try {
+      return Files.size(file);
+    } catch (IOException e) {
+      return 0;
+    }
+  }
+
+  private static FileTime lastModified(Path file) {
+    try {
+      return Files.getLastModifiedTime(file);
+    } catch (IOException e) {
+      return FileTime.fromMillis(0);
+    }
+  }
+
+  /**
+   * Opens the specification store in the given folder.
+   *
+   * @param storeDir the store folder
+   * @param maxSize the maximum size of the store in bytes
+   * @return the specification store, or null if the store is unusable
+   */
+  private static SpecificationStore open(Path storeDir, long maxSize) {
+    try {
+      return new SpecificationStore(storeDir, maxSize);
+    } catch (IOException e) {
+      log.warn("Unable to use specification store in " + storeDir + ". Store disabled.", e);
+      return null;
+    }
+  }
+
+  /** Content of an entry file. */
+  private static class Entry {
+    /** The key of the entry, to detect hash collisions. */
+    String key;
+    /** The stored specifications of the members, in the order of the members. */
+    List<MemberEntry> members;
+  }
+
+  /** The stored specification of an executable member. */
+  private static class MemberEntry {
+    /** Signature of the member. */
+    String signature;
+    /** Preprocessed comments of the @param, @throws, and @return tags of the member, in order. */
+    List<Comment> comments;
+    /** Specification of the member. */
+    OperationSpecification specification;
+  }
+}
@@ -1,15 +1,36 @@
 package org.toradocu.translator;
 
-import static org.toradocu.util.ComplianceChecks.isSpecCompilable;
+import static org.toradocu.util.ComplianceChecks.addSpec;
 
+import java.util.function.Supplier;
 import org.toradocu.extractor.DocumentedExecutable;
 import org.toradocu.extractor.ThrowsTag;
+import org.toradocu.util.ComplianceBatch;
+import org.toradocu.util.ComplianceBatch.Candidate;
 import randoop.condition.specification.Guard;
 import randoop.condition.specification.ThrowsSpecification;
 
 public class ThrowsTranslator {
 
   public ThrowsSpecification translate(ThrowsTag tag, DocumentedExecutable excMember) {
+    ComplianceBatch batch = new ComplianceBatch();
+    final Supplier<ThrowsSpecification> spec = translate(tag, excMember, batch);
+    batch.compile();
+    return spec.get();
+  }
+
+  /**
+   * Translates the given @throws comment, adding the compliance check of the produced
+   * specification to {@code batch}. The returned supplier must be invoked only after {@code batch}
+   * is compiled, and returns an empty specification if the translation is not compliant.
+   *
+   * @param tag the comment to be translated
+   * @param excMember the executable member commented with {@code tag}
+   * @param batch the batch in which the compliance of the specification is checked
+   * @return a supplier of the specification produced by the translation
+   */
+  Supplier<ThrowsSpecification> translate(
+      ThrowsTag tag, DocumentedExecutable excMember, ComplianceBatch batch) {
     final String commentTranslation =
         alwaysThrowException(tag.getComment().getText())
             ? "true"
@@ -17,13 +38,16 @@ public class ThrowsTranslator {
 
     final Guard guard = new Guard(tag.getComment().getText(), commentTranslation);
     final String exceptionName = tag.getException().getName();
+    final ThrowsSpecification emptySpec =
+        new ThrowsSpecification(
+            tag.toString(), new Guard(tag.getComment().getText(), ""), exceptionName);
 
-    if (commentTranslation.isEmpty() || !isSpecCompilable(excMember, guard)) {
-      return new ThrowsSpecification(
-          tag.toString(), new Guard(tag.getComment().getText(), ""), exceptionName);
+    if (commentTranslation.isEmpty()) {
+      return () -> emptySpec;
     }
-
-    return new ThrowsSpecification(tag.toString(), guard, exceptionName);
+    final ThrowsSpecification spec = new ThrowsSpecification(tag.toString(), guard, exceptionName);
+    final Candidate candidate = addSpec(batch, excMember, guard);
+    return () -> candidate.isCompilable() ? spec : emptySpec;
   }
 
   /**
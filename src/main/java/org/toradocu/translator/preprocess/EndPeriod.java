@@ -1,13 +1,9 @@
 package org.toradocu.translator.preprocess;
 
-import org.toradocu.extractor.BlockTag;
-import org.toradocu.extractor.DocumentedExecutable;
-
-public class EndPeriod implements PreprocessingPhase {
+public class EndPeriod implements TextRewrite {
 
   @Override
-  public String run(BlockTag tag, DocumentedExecutable excMember) {
-    String comment = tag.getComment().getText();
+  public String rewrite(String comment) {
     if (!comment.endsWith(".")) {
       comment += ".";
     }
@@ -4,14 +4,12 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.StringJoiner;
 import java.util.regex.Pattern;
-import org.toradocu.extractor.BlockTag;
-import org.toradocu.extractor.DocumentedExecutable;
 
 /**
  * Preprocessing phase in which value ranges are replaced with standard inequalities using &lt; and
  * &gt; math operators.
  */
-public class ExpandRange implements PreprocessingPhase {
+public class ExpandRange implements TextRewrite {
 
   private static final List<String> inRangeWords = Arrays.asList("in", "inside");
   private static final List<String> outRangeWords = Arrays.asList("out", "outside");
@@ -28,16 +26,18 @@ public class ExpandRange implements PreprocessingPhase {
     inOutGroup = joiner.toString();
   }
 
-  private static final String SQUARE_BRACKETS_RANGE =
-      "(not )?(lie )?"
-          + inOutGroup
-          + " the ([\\w\\s]+)?(interval|range) (of )?\\[([0-9]+) ?,? ?([0-9]+)\\]";
+  private static final Pattern SQUARE_BRACKETS_RANGE =
+      Pattern.compile(
+          "(not )?(lie )?"
+              + inOutGroup
+              + " the ([\\w\\s]+)?(interval|range) (of )?\\[([0-9]+) ?,? ?([0-9]+)\\]");
 
   @Override
-  public String run(BlockTag tag, DocumentedExecutable excMember) {
-    String comment = tag.getComment().getText();
-    java.util.regex.Matcher squareBracketsRange =
-        Pattern.compile(SQUARE_BRACKETS_RANGE).matcher(comment);
+  public String rewrite(String comment) {
+    if (comment.indexOf('[') == -1) {
+      return comment;
+    }
+    java.util.regex.Matcher squareBracketsRange = SQUARE_BRACKETS_RANGE.matcher(comment);
 
     while (squareBracketsRange.find()) {
       int min = Integer.valueOf(squareBracketsRange.group(7));
@@ -48,10 +48,10 @@ public class ExpandRange implements PreprocessingPhase {
       boolean outsideRange = outRangeWords.contains(insideOrOutside);
       if (!negation && insideRange || negation && outsideRange) {
         // covers "inside/in range" and "not out/outside range"
-        comment = comment.replaceFirst(SQUARE_BRACKETS_RANGE, ">" + min + " and <" + max);
+        comment = SQUARE_BRACKETS_RANGE.matcher(comment).replaceFirst(">" + min + " and <" + max);
       } else {
         // covers "not in/inside range" and "out/outside range"
-        comment = comment.replaceFirst(SQUARE_BRACKETS_RANGE, "<" + min + " or >" + max);
+        comment = SQUARE_BRACKETS_RANGE.matcher(comment).replaceFirst("<" + min + " or >" + max);
       }
     }
     return comment;
@@ -17,43 +17,63 @@ import org.toradocu.translator.PropositionSeries;
 
 public class ImplicitParamSubjectPatterns implements PreprocessingPhase {
 
+  /** Phrases stating that the parameter must have a property. */
+  private static final String[] POSITIVE_PATTERNS = {"must be", "Must be", "will be", "Will be"};
+
+  /** Phrases stating that the parameter must not have a property. */
+  private static final String[] NEGATIVE_PATTERNS = {
+    "must not be",
+    "Must not be",
+    "must not return",
+    "Must not return",
+    "must never be",
+    "Must never be",
+    "must never return",
+    "Must never return",
+    "will not be",
+    "Will not be",
+    "will never be",
+    "Will never be",
+    "can't be",
+    "Can't be",
+    "cannot be",
+    "Cannot be",
+    "should not be",
+    "Should not be",
+    "shouldn't be",
+    "Shouldn't be",
+    "may not be",
+    "May not be",
+    "must'nt be",
+    "Must'nt be"
+  };
+
+  /** Compiled {@link #POSITIVE_PATTERNS}, each preceded by an optional comma and "It". */
+  private static final Pattern[] POSITIVE_REGEXES = compile(POSITIVE_PATTERNS);
+
+  /** Compiled {@link #NEGATIVE_PATTERNS}, each preceded by an optional comma and "It". */
+  private static final Pattern[] NEGATIVE_REGEXES = compile(NEGATIVE_PATTERNS);
+
+  /** Possible beginnings of a parameter comment. */
+  private static final String[] BEGINNINGS = {"the", "a", "an", "any"};
+
+  /**
+   * A parameter comment that contains a comma followed by a description (ignores non-mandatory
+   * conditions).
+   */
+  private static final Pattern COMMA_PATTERN =
+      Pattern.compile(".*(, (?!default)(?!may be)(?!can be)(?!could be)(?!possibly))(.*)");
+
   @Override
   public String run(BlockTag tag, DocumentedExecutable excMember) {
     String originalComment = tag.getComment().getText();
     String parameterName = ((ParamTag) tag).getParameter().getName();
-    String[] positivePatterns = {"must be", "Must be", "will be", "Will be"};
-
-    String[] negativePatterns = {
-      "must not be",
-      "Must not be",
-      "must not return",
-      "Must not return",
-      "must never be",
-      "Must never be",
-      "must never return",
-      "Must never return",
-      "will not be",
-      "Will not be",
-      "will never be",
-      "Will never be",
-      "can't be",
-      "Can't be",
-      "cannot be",
-      "Cannot be",
-      "should not be",
-      "Should not be",
-      "shouldn't be",
-      "Shouldn't be",
-      "may not be",
-      "May not be",
-      "must'nt be",
-      "Must'nt be"
-    };
 
     String preProcessedComment =
-        replacePatterns(originalComment, positivePatterns, parameterName, "");
+        replacePatterns(originalComment, POSITIVE_PATTERNS, POSITIVE_REGEXES, parameterName, "");
     preProcessedComment =
-        replacePatterns(preProcessedComment, negativePatterns, parameterName, "not");
+        replacePatterns(
+            preProcessedComment, NEGATIVE_PATTERNS, NEGATIVE_REGEXES, parameterName, "not");
 
     if (originalComment.equals(preProcessedComment)) {
       final List<PropositionSeries> extractedPropositions =
@@ -62,20 +82,15 @@ public class ImplicitParamSubjectPatterns implements PreprocessingPhase {
           extractedPropositions.stream().map(PropositionSeries::getSemanticGraph).collect(toList());
 
       preProcessedComment = originalComment.replace(";", ",");
-      String[] beginnings = {"the", "a", "an", "any"};
-
-      // param comment that contains a comma followed by a description (ignore non-mandatory
-      // conditions)
-      String commaPattern = ".*(, (?!default)(?!may be)(?!can be)(?!could be)(?!possibly))(.*)";
-      Matcher commaMatcher = Pattern.compile(commaPattern).matcher(preProcessedComment);
 
+      Matcher commaMatcher = COMMA_PATTERN.matcher(preProcessedComment);
       if (commaMatcher.find() && adjectivesFound(excMember, commaMatcher)) {
-        return replaceCommaPattern(preProcessedComment, parameterName, beginnings);
+        return replaceCommaPattern(preProcessedComment, parameterName, BEGINNINGS);
       }
 
       // Manage param comment starting with an adjective
       preProcessedComment =
-          manageFirstAdj(excMember, preProcessedComment, parameterName, beginnings);
+          manageFirstAdj(excMember, preProcessedComment, parameterName, BEGINNINGS);
     }
     return preProcessedComment;
   }
@@ -171,19 +186,29 @@ public class ImplicitParamSubjectPatterns implements PreprocessingPhase {
    *
    * @param comment comment text
    * @param patterns the patterns, could be positive or negative
+   * @param regexes the compiled patterns, see {@link #compile(String[])}
    * @param parameterName the parameter name necessary in the replacement
    * @param negation negation for the replacement or empty if patterns are positive
    * @return the comment with patterns correctly replaced
    */
   private String replacePatterns(
-      String comment, String[] patterns, String parameterName, String negation) {
-    for (String pattern : patterns) {
-      if (comment.contains(pattern)) {
+      String comment, String[] patterns, Pattern[] regexes, String parameterName, String negation) {
+    for (int i = 0; i < patterns.length; i++) {
+      if (comment.contains(patterns[i])) {
         comment =
-            comment.replaceAll(
-                "(, )?( It )?" + pattern, ". {@code " + parameterName + "} " + " is " + negation);
+            regexes[i]
+                .matcher(comment)
+                .replaceAll(". {@code " + parameterName + "} " + " is " + negation);
       }
     }
     return comment;
   }
+
+  private static Pattern[] compile(String[] patterns) {
+    Pattern[] regexes = new Pattern[patterns.length];
+    for (int i = 0; i < patterns.length; i++) {
+      regexes[i] = Pattern.compile("(, )?( It )?" + patterns[i]);
+    }
+    return regexes;
+  }
 }
@@ -1,11 +1,9 @@
 package org.toradocu.translator.preprocess;
 
-import org.toradocu.extractor.BlockTag;
-import org.toradocu.extractor.DocumentedExecutable;
+public class NormalizeWhether implements TextRewrite {
 
-public class NormalizeWhether implements PreprocessingPhase {
-
-  private static String normalizeComment(String comment, DocumentedExecutable method) {
+  @Override
+  public String rewrite(String comment) {
     if (comment.toLowerCase().startsWith("whether")) {
       String preComment = "True if";
       String postComment = ", false otherwise";
@@ -14,9 +12,4 @@ public class NormalizeWhether implements PreprocessingPhase {
 
     return comment;
   }
-
-  @Override
-  public String run(BlockTag tag, DocumentedExecutable excMember) {
-    return normalizeComment(tag.getComment().getText(), excMember);
-  }
 }
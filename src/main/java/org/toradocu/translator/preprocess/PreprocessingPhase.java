@@ -3,6 +3,10 @@ package org.toradocu.translator.preprocess;
 import org.toradocu.extractor.BlockTag;
 import org.toradocu.extractor.DocumentedExecutable;
 
+/**
+ * A phase of the preprocessing of a comment. Phases must be stateless: the same instance is used
+ * to preprocess all the comments, possibly concurrently.
+ */
 public interface PreprocessingPhase {
   String run(BlockTag tag, DocumentedExecutable excMember);
 }
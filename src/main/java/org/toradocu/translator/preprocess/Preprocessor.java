@@ -1,23 +1,134 @@
 package org.toradocu.translator.preprocess;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.regex.Pattern;
 import org.toradocu.extractor.BlockTag;
 import org.toradocu.extractor.Comment;
 import org.toradocu.extractor.DocumentedExecutable;
+import org.toradocu.util.Profiler;
 
+/**
+ * Applies a sequence of preprocessing phases to the comment of a tag. Consecutive {@link
+ * TextRewrite}s are fused into a single run, at the end of which the comment of the tag is rebuilt;
+ * any other phase is run on its own. Instances of this class are immutable and thread-safe.
+ */
 public class Preprocessor {
 
-  private List<PreprocessingPhase> phases;
+  /** Sequences of white spaces, replaced by a single space by {@code Comment}. */
+  private static final Pattern WHITE_SPACES = Pattern.compile("\\s+");
+
+  /**
+   * The phases of this preprocessor, grouped in runs: each run is either a single phase that is
+   * not a text rewrite, or a sequence of text rewrites.
+   */
+  private final List<List<PreprocessingPhase>> runs;
 
   Preprocessor(List<PreprocessingPhase> phases) {
-    this.phases = phases;
+    List<List<PreprocessingPhase>> runs = new ArrayList<>();
+    List<PreprocessingPhase> rewrites = new ArrayList<>();
+    for (PreprocessingPhase phase : phases) {
+      if (phase instanceof TextRewrite) {
+        rewrites.add(phase);
+        continue;
+      }
+      if (!rewrites.isEmpty()) {
+        runs.add(Collections.unmodifiableList(rewrites));
+        rewrites = new ArrayList<>();
+      }
+      runs.add(Collections.singletonList(phase));
+    }
+    if (!rewrites.isEmpty()) {
+      runs.add(Collections.unmodifiableList(rewrites));
+    }
+    this.runs = Collections.unmodifiableList(runs);
   }
 
   public BlockTag preprocess(BlockTag tag, DocumentedExecutable excMember) {
-    for (PreprocessingPhase phase : phases) {
-      String preprocessedText = phase.run(tag, excMember);
-      tag.setComment(new Comment(preprocessedText, tag.getComment().getWordsMarkedAsCode()));
+    try (Profiler.Timer timer = Profiler.start(Profiler.Phase.PREPROCESSING)) {
+      for (List<PreprocessingPhase> run : runs) {
+        if (run.get(0) instanceof TextRewrite) {
+          tag.setComment(rewrite(run, tag.getComment()));
+        } else {
+          final PreprocessingPhase phase = run.get(0);
+          final long start = System.nanoTime();
+          String preprocessedText = phase.run(tag, excMember);
+          Profiler.preprocessingStep(name(phase), System.nanoTime() - start);
+          tag.setComment(new Comment(preprocessedText, tag.getComment().getWordsMarkedAsCode()));
+        }
+      }
     }
     return tag;
   }
+
+  /**
+   * Applies the given text rewrites to {@code comment}. The comment is rebuilt after a rewrite only
+   * if the rewritten text contains characters that {@code Comment} could interpret as tags or HTML
+   * entities. Otherwise, building the comment would only normalize the white spaces, which is done
+   * on the text itself after the rewrites that do not preserve them.
+   *
+   * @param rewrites the text rewrites to apply, in order
+   * @param comment the comment to rewrite
+   * @return the rewritten comment
+   */
+  private static Comment rewrite(List<PreprocessingPhase> rewrites, Comment comment) {
+    // The text of a comment can contain runs of spaces where tags were removed
+    String text = normalizeWhiteSpaces(comment.getText());
+    boolean rebuilt = false;
+    for (PreprocessingPhase phase : rewrites) {
+      final TextRewrite rewrite = (TextRewrite) phase;
+      final long start = System.nanoTime();
+      text = rewrite.rewrite(text);
+      rebuilt = containsMarkup(text);
+      if (rebuilt) {
+        comment = new Comment(text, comment.getWordsMarkedAsCode());
+        text = comment.getText();
+      } else if (!rewrite.preservesWhiteSpaces()) {
+        text = normalizeWhiteSpaces(text);
+      }
+      Profiler.preprocessingStep(name(phase), System.nanoTime() - start);
+    }
+    return rebuilt ? comment : new Comment(text, comment.getWordsMarkedAsCode());
+  }
+
+  /**
+   * Returns true if {@code text} contains characters that start a tag or an HTML entity.
+   *
+   * @param text a comment text
+   * @return true if {@code text} contains '&lt;', '&amp;', or '{'
+   */
+  private static boolean containsMarkup(String text) {
+    for (int i = 0; i < text.length(); i++) {
+      final char c = text.charAt(i);
+      if (c == '<' || c == '&' || c == '{') {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Replaces the runs of white spaces in {@code text} with a single space and removes leading and
+   * trailing white spaces.
+   *
+   * @param text a comment text
+   * @return {@code text} with normalized white spaces
+   */
+  private static String normalizeWhiteSpaces(String text) {
+    boolean previousIsSpace = true;
+    for (int i = 0; i < text.length(); i++) {
+      final char c = text.charAt(i);
+      final boolean isSpace = Character.isWhitespace(c);
+      if (isSpace && (previousIsSpace || c != ' ')) {
+        return WHITE_SPACES.matcher(text).replaceAll(" ").trim();
+      }
+      previousIsSpace = isSpace;
+    }
+    return previousIsSpace ? text.trim() : text;
+  }
+
+  private static String name(PreprocessingPhase phase) {
+    return phase.getClass().getSimpleName();
+  }
 }
@@ -1,14 +1,46 @@
 package org.toradocu.translator.preprocess;
 
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import org.toradocu.extractor.BlockTag;
 
+/**
+ * Provides the preprocessor of each kind of tag. Preprocessors are built once and shared by all the
+ * translations, since both preprocessors and phases are stateless.
+ */
 public class PreprocessorFactory {
 
+  /** The preprocessor of each kind of tag. */
+  private static final Map<BlockTag.Kind, Preprocessor> preprocessors =
+      new EnumMap<>(BlockTag.Kind.class);
+
+  static {
+    for (BlockTag.Kind tagKind : BlockTag.Kind.values()) {
+      preprocessors.put(tagKind, new Preprocessor(phases(tagKind)));
+    }
+  }
+
   private PreprocessorFactory() {}
 
-  public static Preprocessor create(BlockTag.Kind tagKind) {
+  /**
+   * Returns the preprocessor of the tags of the given kind.
+   *
+   * @param tagKind the kind of tag
+   * @return the shared preprocessor of the tags of kind {@code tagKind}
+   */
+  public static Preprocessor get(BlockTag.Kind tagKind) {
+    return preprocessors.get(tagKind);
+  }
+
+  /**
+   * Returns the phases of the preprocessor of the tags of the given kind, in order.
+   *
+   * @param tagKind the kind of tag
+   * @return the preprocessing phases of the tags of kind {@code tagKind}
+   */
+  static List<PreprocessingPhase> phases(BlockTag.Kind tagKind) {
     List<PreprocessingPhase> phases = new ArrayList<>();
 
     phases.add(new EndPeriod());
@@ -18,7 +50,7 @@ public class PreprocessorFactory {
       case PARAM:
         phases.add(new ImplicitParamSubjectPatterns());
         phases.add(new ExpandRange());
-        phases.add(new RemoveCommas()); // TODO Make RemoveCommas a singleton?
+        phases.add(new RemoveCommas());
         phases.add(new RemoveMayBe());
         phases.add(new NormalizeNonNullNonEmpty());
         phases.add(new NormalizeIt());
@@ -43,6 +75,6 @@ public class PreprocessorFactory {
         break;
     }
 
-    return new Preprocessor(phases);
+    return phases;
   }
 }
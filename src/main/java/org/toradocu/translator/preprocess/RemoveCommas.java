@@ -1,12 +1,14 @@
 package org.toradocu.translator.preprocess;
 
-import org.toradocu.extractor.BlockTag;
-import org.toradocu.extractor.DocumentedExecutable;
+public class RemoveCommas implements TextRewrite {
 
-public class RemoveCommas implements PreprocessingPhase {
+  @Override
+  public String rewrite(String comment) {
+    return comment.replace(',', ' ');
+  }
 
   @Override
-  public String run(BlockTag tag, DocumentedExecutable excMember) {
-    return tag.getComment().getText().replaceAll(",", " ");
+  public boolean preservesWhiteSpaces() {
+    return false;
   }
 }
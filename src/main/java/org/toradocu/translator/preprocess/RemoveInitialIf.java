@@ -1,9 +1,6 @@
 package org.toradocu.translator.preprocess;
 
-import org.toradocu.extractor.BlockTag;
-import org.toradocu.extractor.DocumentedExecutable;
-
-public class RemoveInitialIf implements PreprocessingPhase {
+public class RemoveInitialIf implements TextRewrite {
 
   /**
    * Removes one or more occurrences of {@code wordToRemove} at the beginning of {@code text}. This
@@ -25,8 +22,7 @@ public class RemoveInitialIf implements PreprocessingPhase {
   }
 
   @Override
-  public String run(BlockTag tag, DocumentedExecutable excMember) {
-    // TODO Auto-generated method stub
-    return removeInitial(tag.getComment().getText(), "if");
+  public String rewrite(String comment) {
+    return removeInitial(comment, "if");
   }
 }
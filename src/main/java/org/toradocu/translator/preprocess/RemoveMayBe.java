@@ -1,20 +1,20 @@
 package org.toradocu.translator.preprocess;
 
-import org.toradocu.extractor.BlockTag;
-import org.toradocu.extractor.DocumentedExecutable;
-
-public class RemoveMayBe implements PreprocessingPhase {
+public class RemoveMayBe implements TextRewrite {
 
   @Override
-  public String run(BlockTag tag, DocumentedExecutable excMember) {
-    String comment = tag.getComment().getText();
-
+  public String rewrite(String comment) {
     if (comment.contains("may be")) {
-      comment = comment.replaceAll("may be", "");
+      comment = comment.replace("may be", "");
     }
     if (comment.contains("can be")) {
-      comment = comment.replaceAll("can be", "");
+      comment = comment.replace("can be", "");
     }
     return comment;
   }
+
+  @Override
+  public boolean preservesWhiteSpaces() {
+    return false;
+  }
 }
@@ -0,0 +1,40 @@
+package org.toradocu.translator.preprocess;
+
+import org.toradocu.extractor.BlockTag;
+import org.toradocu.extractor.DocumentedExecutable;
+
+/**
+ * A preprocessing phase that rewrites the comment text regardless of the tag and of the executable
+ * member the comment belongs to. {@link Preprocessor} fuses consecutive text rewrites: they are
+ * applied one after the other to the same string, and the comment of the tag is usually rebuilt
+ * only once at the end of the run.
+ *
+ * <p>Implementations must be stateless, because preprocessors are shared by all the threads.
+ */
+public interface TextRewrite extends PreprocessingPhase {
+
+  /**
+   * Rewrites the given comment text.
+   *
+   * @param text the comment text, as returned by {@code Comment.getText()}
+   * @return the rewritten text
+   */
+  String rewrite(String text);
+
+  /**
+   * Returns true if the text produced by this rewrite never contains runs of white spaces or
+   * leading and trailing white spaces, provided that the rewritten text did not contain any. Such
+   * white spaces would be normalized by the {@code Comment} built after the phase: when this method
+   * returns false, {@link Preprocessor} normalizes them before the next rewrite of a fused run.
+   *
+   * @return true if the text produced by this rewrite is already normalized
+   */
+  default boolean preservesWhiteSpaces() {
+    return true;
+  }
+
+  @Override
+  default String run(BlockTag tag, DocumentedExecutable excMember) {
+    return rewrite(tag.getComment().getText());
+  }
+}
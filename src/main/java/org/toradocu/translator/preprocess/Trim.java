@@ -1,13 +1,10 @@
 package org.toradocu.translator.preprocess;
 
-import org.toradocu.extractor.BlockTag;
-import org.toradocu.extractor.DocumentedExecutable;
-
-public class Trim implements PreprocessingPhase {
+public class Trim implements TextRewrite {
 
   @Override
-  public String run(BlockTag tag, DocumentedExecutable excMember) {
+  public String rewrite(String comment) {
 
-    return tag.getComment().getText().trim();
+    return comment.trim();
   }
 }
@@ -0,0 +1,134 @@
+package org.toradocu.translator.semantic;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.toradocu.conf.Configuration;
+
+/**
+ * Trace of the Word Mover's Distances computed by the semantic matcher, written in CSV format to
+ * the file specified with the option {@code --wmd-trace-file}. Lines are appended to a buffered
+ * writer by a background thread, so that the semantic matcher never waits for file I/O. The trace
+ * is flushed and closed when the trace file is changed (e.g., by a request served by the daemon)
+ * or when the JVM shuts down.
+ *
+ * <p>This class is thread-safe.
+ */
+final class DistanceTrace {
+
+  private static final Logger log = LoggerFactory.getLogger(DistanceTrace.class);
+
+  /** Maximum time to wait for pending lines to be written when the JVM shuts down. */
+  private static final long SHUTDOWN_TIMEOUT_SECONDS = 10;
+
+  /**
+   * The distance trace configured with Toradocu's command line options (null if disabled or if the
+   * trace file cannot be opened), together with its trace file.
+   */
+  private static DistanceTrace instance;
+  /** The trace file of {@link #instance} (null if tracing is disabled). */
+  private static File instanceFile;
+
+  /** The trace file. */
+  private final File file;
+  /** Writer of the trace file, used only by the thread of {@code executor}. */
+  private final BufferedWriter writer;
+  /** Single thread that writes the trace. */
+  private final ExecutorService executor;
+  /** Closes the trace when the JVM shuts down. */
+  private final Thread shutdownHook = new Thread(this::close);
+
+  private DistanceTrace(File file) throws IOException {
+    this.file = file;
+    this.writer =
+        new BufferedWriter(
+            new OutputStreamWriter(new FileOutputStream(file, true), StandardCharsets.UTF_8));
+    this.executor =
+        Executors.newSingleThreadExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "wmd-trace-writer");
+              thread.setDaemon(true);
+              return thread;
+            });
+    Runtime.getRuntime().addShutdownHook(shutdownHook);
+  }
+
+  /**
+   * Returns the distance trace configured with Toradocu's current command line options. When the
+   * trace file changes, the previous trace is closed and the new one is opened.
+   *
+   * @return the configured distance trace, or null if tracing is disabled
+   */
+  static synchronized DistanceTrace getInstance() {
+    final File traceFile = Configuration.INSTANCE.getWmdTraceFile();
+    final File file = traceFile == null ? null : traceFile.getAbsoluteFile();
+    if (!Objects.equals(file, instanceFile)) {
+      if (instance != null) {
+        Runtime.getRuntime().removeShutdownHook(instance.shutdownHook);
+        instance.close();
+      }
+      instance = file == null ? null : open(file);
+      instanceFile = file;
+    }
+    return instance;
+  }
+
+  /**
+   * Appends the given lines to the trace. The lines are written asynchronously.
+   *
+   * @param lines the lines to append, each terminated by a line separator
+   */
+  void append(String lines) {
+    try {
+      executor.execute(() -> write(lines));
+    } catch (RejectedExecutionException e) {
+      // The JVM is shutting down: lines computed from now on are not traced.
+    }
+  }
+
+  private void write(String lines) {
+    try {
+      writer.write(lines);
+    } catch (IOException e) {
+      log.warn("Unable to write distance trace " + file, e);
+    }
+  }
+
+  /** Writes the pending lines and closes the trace file. */
+  private void close() {
+    executor.shutdown();
+    try {
+      if (!executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+        log.warn("Distance trace " + file + " incomplete: timeout while writing pending lines");
+      }
+      writer.close();
+    } catch (IOException | InterruptedException e) {
+      log.warn("Unable to close distance trace " + file, e);
+    }
+  }
+
+  /**
+   * Opens the distance trace written to the given file.
+   *
+   * @param traceFile the trace file
+   * @return the distance trace, or null if the trace file cannot be opened
+   */
+  private static DistanceTrace open(File traceFile) {
+    try {
+      return new DistanceTrace(traceFile);
+    } catch (IOException e) {
+      log.warn("Unable to open distance trace " + traceFile + ". Distance trace disabled.", e);
+      return null;
+    }
+  }
+}
@@ -0,0 +1,310 @@
+package org.toradocu.translator.semantic;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Read-only store of word embeddings, memory-mapped from a compact binary file. Vectors are read
+ * directly from the mapped file, so that the model does not occupy heap memory and can be shared
+ * among processes through the OS page cache.
+ *
+ * <p>The binary file (created with {@link #convert}) has the following layout, in big-endian
+ * order:
+ *
+ * <ol>
+ *   <li>header: magic number, format version, vector dimension, number of words, size of the hash
+ *       table (a power of two);
+ *   <li>hash table: for each slot, the index of a word plus one, or zero if the slot is empty
+ *       (open addressing with linear probing on {@code String#hashCode});
+ *   <li>word offsets: for each word, the offset of its entry in the words section;
+ *   <li>vectors: for each word, {@code dimension} floats;
+ *   <li>words: for each word, its length in bytes followed by its UTF-8 encoding.
+ * </ol>
+ *
+ * <p>This class is thread-safe.
+ */
+public final class EmbeddingStore {
+
+  /** Magic number identifying the binary embedding format ("TDEM"). */
+  private static final int MAGIC = 0x5444454d;
+  /** Version of the binary embedding format. */
+  static final int FORMAT_VERSION = 1;
+  /** Size in bytes of the header. */
+  private static final int HEADER_SIZE = 5 * Integer.BYTES;
+
+  /** The mapped file. Accessed only with absolute reads, which do not modify the buffer. */
+  private final ByteBuffer buffer;
+  /** The dimension of the vectors. */
+  private final int dimension;
+  /** The number of words in the store. */
+  private final int size;
+  /** The number of slots of the hash table. */
+  private final int tableSize;
+  /** Offset of the word offsets section. */
+  private final int offsetsStart;
+  /** Offset of the vectors section. */
+  private final int vectorsStart;
+
+  private EmbeddingStore(ByteBuffer buffer) throws IOException {
+    this.buffer = buffer;
+    if (buffer.capacity() < HEADER_SIZE
+        || buffer.getInt(0) != MAGIC
+        || buffer.getInt(Integer.BYTES) != FORMAT_VERSION) {
+      throw new IOException("Not an embedding store, or unsupported format version");
+    }
+    dimension = buffer.getInt(2 * Integer.BYTES);
+    size = buffer.getInt(3 * Integer.BYTES);
+    tableSize = buffer.getInt(4 * Integer.BYTES);
+    offsetsStart = HEADER_SIZE + tableSize * Integer.BYTES;
+    vectorsStart = offsetsStart + size * Integer.BYTES;
+  }
+
+  /**
+   * Opens the embedding store contained in the given binary file.
+   *
+   * @param file the binary file created with {@link #convert}
+   * @return the embedding store
+   * @throws IOException if the file cannot be read or is not a valid embedding store
+   */
+  public static EmbeddingStore open(Path file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      // The mapping remains valid after the channel is closed.
+      final MappedByteBuffer buffer =
+          channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      return new EmbeddingStore(buffer);
+    }
+  }
+
+  /**
+   * Returns the dimension of the vectors in this store.
+   *
+   * @return the dimension of the vectors
+   */
+  public int dimension() {
+    return dimension;
+  }
+
+  /**
+   * Returns the number of words in this store.
+   *
+   * @return the number of words
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns the index of the given word in this store.
+   *
+   * @param word the word to look up
+   * @return the index of {@code word}, or -1 if the store does not contain {@code word}
+   */
+  public int indexOf(String word) {
+    final byte[] wordBytes = word.getBytes(StandardCharsets.UTF_8);
+    for (int slot = slot(word); ; slot = (slot + 1) & (tableSize - 1)) {
+      final int entry = buffer.getInt(HEADER_SIZE + slot * Integer.BYTES);
+      if (entry == 0) {
+        return -1;
+      }
+      final int index = entry - 1;
+      if (wordEquals(index, wordBytes)) {
+        return index;
+      }
+    }
+  }
+
+  /**
+   * Tells whether this store contains the given word.
+   *
+   * @param word the word to look up
+   * @return true if the store contains {@code word}, false otherwise
+   */
+  public boolean contains(String word) {
+    return indexOf(word) != -1;
+  }
+
+  /**
+   * Returns the vector of the given word.
+   *
+   * @param word the word to look up
+   * @return a copy of the vector of {@code word}, or null if the store does not contain {@code
+   *     word}
+   */
+  public float[] vector(String word) {
+    final int index = indexOf(word);
+    if (index == -1) {
+      return null;
+    }
+    final float[] vector = new float[dimension];
+    final int start = vectorsStart + index * dimension * Float.BYTES;
+    for (int i = 0; i < dimension; i++) {
+      vector[i] = buffer.getFloat(start + i * Float.BYTES);
+    }
+    return vector;
+  }
+
+  /**
+   * Checks whether the word with the given index is encoded with the given bytes.
+   *
+   * @param index the index of a word in the store
+   * @param wordBytes the UTF-8 encoding of a word
+   * @return true if the word with index {@code index} is encoded with {@code wordBytes}
+   */
+  private boolean wordEquals(int index, byte[] wordBytes) {
+    final int offset = buffer.getInt(offsetsStart + index * Integer.BYTES);
+    final int length = buffer.getShort(offset) & 0xffff;
+    if (length != wordBytes.length) {
+      return false;
+    }
+    for (int i = 0; i < length; i++) {
+      if (buffer.get(offset + Short.BYTES + i) != wordBytes[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private int slot(String word) {
+    // Spread the hash bits, as HashMap does, since the table size is a power of two.
+    final int hash = word.hashCode();
+    return (hash ^ (hash >>> 16)) & (tableSize - 1);
+  }
+
+  /**
+   * Converts word embeddings in the GloVe text format (a word per line, followed by the components
+   * of its vector separated by spaces) into the binary format of this class. The file is written
+   * atomically: concurrent readers either see the complete file or no file. When a word appears
+   * multiple times, its first vector is kept.
+   *
+   * @param textVectors the embeddings in text format
+   * @param destination the binary file to create
+   * @throws IOException if the embeddings cannot be read or the binary file cannot be written
+   */
+  public static void convert(InputStream textVectors, Path destination) throws IOException {
+    List<byte[]> words = new ArrayList<>();
+    List<float[]> vectors = new ArrayList<>();
+    int dimension = -1;
+    try (BufferedReader reader =
+        new BufferedReader(new InputStreamReader(textVectors, StandardCharsets.UTF_8))) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        final String[] tokens = line.trim().split(" ");
+        if (tokens.length < 2 || (words.isEmpty() && tokens.length == 2 && isHeader(tokens))) {
+          continue; // Empty line, or header of the word2vec text format.
+        }
+        if (dimension == -1) {
+          dimension = tokens.length - 1;
+        } else if (tokens.length - 1 != dimension) {
+          throw new IOException("Inconsistent vector dimension for word " + tokens[0]);
+        }
+        final byte[] word = tokens[0].getBytes(StandardCharsets.UTF_8);
+        if (word.length > 0xffff) {
+          throw new IOException("Word too long: " + tokens[0]);
+        }
+        final float[] vector = new float[dimension];
+        for (int i = 0; i < dimension; i++) {
+          vector[i] = Float.parseFloat(tokens[i + 1]);
+        }
+        words.add(word);
+        vectors.add(vector);
+      }
+    }
+    write(words, vectors, Math.max(dimension, 0), destination);
+  }
+
+  private static boolean isHeader(String[] tokens) {
+    return tokens[0].matches("[0-9]+") && tokens[1].matches("[0-9]+");
+  }
+
+  /**
+   * Writes the given words and vectors in the binary format of this class.
+   *
+   * @param words the UTF-8 encoding of the words
+   * @param vectors the vectors of the words
+   * @param dimension the dimension of the vectors
+   * @param destination the binary file to create
+   * @throws IOException if the binary file cannot be written
+   */
+  private static void write(
+      List<byte[]> words, List<float[]> vectors, int dimension, Path destination)
+      throws IOException {
+    int tableSize = Integer.highestOneBit(Math.max(words.size(), 1) * 2 - 1) << 1;
+    int[] table = new int[tableSize];
+    int[] offsets = new int[words.size()];
+    long wordsStart =
+        HEADER_SIZE
+            + (long) tableSize * Integer.BYTES
+            + (long) words.size() * Integer.BYTES
+            + (long) words.size() * dimension * Float.BYTES;
+    long wordOffset = wordsStart;
+    for (int index = 0; index < words.size(); index++) {
+      final String word = new String(words.get(index), StandardCharsets.UTF_8);
+      final int hash = word.hashCode();
+      int slot = (hash ^ (hash >>> 16)) & (tableSize - 1);
+      boolean duplicate = false;
+      while (table[slot] != 0) {
+        if (Arrays.equals(words.get(table[slot] - 1), words.get(index))) {
+          duplicate = true;
+          break;
+        }
+        slot = (slot + 1) & (tableSize - 1);
+      }
+      if (!duplicate) {
+        table[slot] = index + 1;
+      }
+      offsets[index] = (int) wordOffset;
+      wordOffset += Short.BYTES + words.get(index).length;
+      if (wordOffset > Integer.MAX_VALUE) {
+        throw new IOException("Too many embeddings: the binary file would exceed 2 GB");
+      }
+    }
+
+    Files.createDirectories(destination.toAbsolutePath().getParent());
+    final Path tmp =
+        Files.createTempFile(destination.toAbsolutePath().getParent(), "embeddings", ".tmp");
+    try {
+      try (DataOutputStream out =
+          new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 16))) {
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeInt(dimension);
+        out.writeInt(words.size());
+        out.writeInt(tableSize);
+        for (int entry : table) {
+          out.writeInt(entry);
+        }
+        for (int offset : offsets) {
+          out.writeInt(offset);
+        }
+        for (float[] vector : vectors) {
+          for (float component : vector) {
+            out.writeFloat(component);
+          }
+        }
+        for (byte[] word : words) {
+          out.writeShort(word.length);
+          out.write(word);
+        }
+      }
+      Files.move(
+          tmp, destination, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(tmp);
+    }
+  }
+}
@@ -0,0 +1,175 @@
+package org.toradocu.translator.semantic;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import org.deeplearning4j.models.embeddings.WeightLookupTable;
+import org.deeplearning4j.models.embeddings.reader.ModelUtils;
+import org.deeplearning4j.models.embeddings.wordvectors.WordVectors;
+import org.deeplearning4j.models.word2vec.wordstore.VocabCache;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.ops.transforms.Transforms;
+
+/**
+ * Adapter that exposes an {@link EmbeddingStore} as {@link WordVectors}, so that it can be used by
+ * {@code WordMovers}. Vectors are read from the store on demand and only the vectors of the words
+ * actually looked up are materialized on the heap.
+ *
+ * <p>Only word lookups are supported. Operations that need the whole vocabulary on the heap (e.g.,
+ * nearest words queries) throw {@link UnsupportedOperationException}.
+ */
+public class EmbeddingStoreWordVectors implements WordVectors {
+
+  private static final long serialVersionUID = 1L;
+
+  /** The store containing the embeddings. */
+  private final transient EmbeddingStore store;
+  /** The label of unknown words. */
+  private String unk = "UNK";
+
+  /**
+   * Creates a new adapter for the given embedding store.
+   *
+   * @param store the store containing the embeddings
+   */
+  public EmbeddingStoreWordVectors(EmbeddingStore store) {
+    this.store = store;
+  }
+
+  @Override
+  public String getUNK() {
+    return unk;
+  }
+
+  @Override
+  public void setUNK(String newUNK) {
+    unk = newUNK;
+  }
+
+  @Override
+  public boolean hasWord(String word) {
+    return store.contains(word);
+  }
+
+  @Override
+  public int indexOf(String word) {
+    return store.indexOf(word);
+  }
+
+  @Override
+  public double[] getWordVector(String word) {
+    final float[] vector = store.vector(word);
+    if (vector == null) {
+      return null;
+    }
+    double[] result = new double[vector.length];
+    for (int i = 0; i < vector.length; i++) {
+      result[i] = vector[i];
+    }
+    return result;
+  }
+
+  @Override
+  public INDArray getWordVectorMatrix(String word) {
+    final float[] vector = store.vector(word);
+    return vector == null ? null : Nd4j.create(vector);
+  }
+
+  @Override
+  public INDArray getWordVectorMatrixNormalized(String word) {
+    final INDArray vector = getWordVectorMatrix(word);
+    return vector == null ? null : Transforms.unitVec(vector);
+  }
+
+  @Override
+  public INDArray getWordVectors(Collection<String> labels) {
+    List<INDArray> rows = new ArrayList<>();
+    for (String label : labels) {
+      final INDArray vector = getWordVectorMatrix(label);
+      if (vector != null) {
+        rows.add(vector);
+      }
+    }
+    return rows.isEmpty() ? null : Nd4j.vstack(rows);
+  }
+
+  @Override
+  public INDArray getWordVectorsMean(Collection<String> labels) {
+    final INDArray vectors = getWordVectors(labels);
+    return vectors == null ? null : vectors.mean(0);
+  }
+
+  @Override
+  public double similarity(String word1, String word2) {
+    final INDArray vector1 = getWordVectorMatrix(word1);
+    final INDArray vector2 = getWordVectorMatrix(word2);
+    if (vector1 == null || vector2 == null) {
+      return Double.NaN;
+    }
+    return word1.equals(word2) ? 1.0 : Transforms.cosineSim(vector1, vector2);
+  }
+
+  @Override
+  public Collection<String> wordsNearest(INDArray words, int top) {
+    throw unsupported();
+  }
+
+  @Override
+  public Collection<String> wordsNearestSum(INDArray words, int top) {
+    throw unsupported();
+  }
+
+  @Override
+  public Collection<String> wordsNearestSum(String word, int n) {
+    throw unsupported();
+  }
+
+  @Override
+  public Collection<String> wordsNearestSum(
+      Collection<String> positive, Collection<String> negative, int top) {
+    throw unsupported();
+  }
+
+  @Override
+  public Map<String, Double> accuracy(List<String> questions) {
+    throw unsupported();
+  }
+
+  @Override
+  public List<String> similarWordsInVocabTo(String word, double accuracy) {
+    throw unsupported();
+  }
+
+  @Override
+  public Collection<String> wordsNearest(
+      Collection<String> positive, Collection<String> negative, int top) {
+    throw unsupported();
+  }
+
+  @Override
+  public Collection<String> wordsNearest(String word, int n) {
+    throw unsupported();
+  }
+
+  @Override
+  public VocabCache vocab() {
+    throw unsupported();
+  }
+
+  @Override
+  public WeightLookupTable lookupTable() {
+    throw unsupported();
+  }
+
+  @Override
+  public void setModelUtils(ModelUtils utils) {
+    throw unsupported();
+  }
+
+  private static UnsupportedOperationException unsupported() {
+    return new UnsupportedOperationException(
+        "Operation not supported by memory-mapped word embeddings");
+  }
+}
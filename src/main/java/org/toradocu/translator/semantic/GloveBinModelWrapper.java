@@ -26,7 +26,7 @@ public class GloveBinModelWrapper {
     }
   }
 
-  public static GloveBinModelWrapper getInstance() throws URISyntaxException {
+  public static synchronized GloveBinModelWrapper getInstance() throws URISyntaxException {
     if (instance == null) {
       instance = new GloveBinModelWrapper();
     }
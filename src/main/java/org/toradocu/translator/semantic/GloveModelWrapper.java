@@ -1,13 +1,12 @@
 package org.toradocu.translator.semantic;
 
-import java.io.File;
+import java.io.FileNotFoundException;
 import java.io.InputStream;
 import java.net.URISyntaxException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
-import org.deeplearning4j.models.embeddings.loader.WordVectorSerializer;
 import org.deeplearning4j.models.embeddings.wordvectors.WordVectors;
+import org.toradocu.conf.Configuration;
 
 /** Created by arianna on 31/07/17. */
 public class GloveModelWrapper {
@@ -20,7 +19,7 @@ public class GloveModelWrapper {
     // Exists only to defeat instantiation.
   }
 
-  public static GloveModelWrapper getInstance() throws URISyntaxException {
+  public static synchronized GloveModelWrapper getInstance() throws URISyntaxException {
     if (instance == null) {
       instance = new GloveModelWrapper();
       try {
@@ -33,30 +32,22 @@ public class GloveModelWrapper {
   }
 
   private static WordVectors setUpGloveTxtVectors() throws Exception {
-    String gloveTxtFolder = "glove-txt";
     String gloveTxtFile = "glove.6B.300d.txt";
-
-    // Copy GloVe models in Toradocu jar to glove-txt folder and use them.
-    String filePath = "/" + gloveTxtFile;
-    InputStream gloveInputStream = GloveModelWrapper.class.getResourceAsStream(filePath);
-    Path destinationFile = Paths.get(gloveTxtFolder, gloveTxtFile);
-
-    Path folderPath = Paths.get(gloveTxtFolder);
-    if (!Files.exists(folderPath)) {
-      Files.createDirectory(folderPath);
-    }
-    if (Files.list(folderPath).count() == 0) {
-      Files.copy(gloveInputStream, destinationFile);
-    }
-    WordVectors gloveVectors = null;
-    try {
-      File gloveFinalFile = destinationFile.toFile();
-      gloveVectors = WordVectorSerializer.loadTxtVectors(gloveFinalFile);
-      gloveFinalFile.deleteOnExit();
-    } catch (Exception e) {
-      e.printStackTrace();
+    String gloveBinaryFile = "glove.6B.300d.v" + EmbeddingStore.FORMAT_VERSION + ".emb";
+
+    // Convert GloVe models in Toradocu jar to the binary format once, and memory-map them.
+    Path destinationFile =
+        Configuration.INSTANCE.getEmbeddingsCacheDir().toPath().resolve(gloveBinaryFile);
+    if (!Files.exists(destinationFile)) {
+      String filePath = "/" + gloveTxtFile;
+      try (InputStream gloveInputStream = GloveModelWrapper.class.getResourceAsStream(filePath)) {
+        if (gloveInputStream == null) {
+          throw new FileNotFoundException("GloVe model " + filePath + " not found");
+        }
+        EmbeddingStore.convert(gloveInputStream, destinationFile);
+      }
     }
-    return gloveVectors;
+    return new EmbeddingStoreWordVectors(EmbeddingStore.open(destinationFile));
   }
 
   public WordVectors getGloveTxtVectors() {
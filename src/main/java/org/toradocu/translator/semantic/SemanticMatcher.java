@@ -2,70 +2,136 @@ package org.toradocu.translator.semantic;
 
 import com.crtomirmajer.wmd4j.WordMovers;
 import edu.stanford.nlp.ling.CoreLabel;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.net.URISyntaxException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import org.toradocu.conf.Configuration;
 import org.toradocu.extractor.DocumentedExecutable;
 import org.toradocu.translator.*;
+import org.toradocu.util.Profiler;
 
 /**
  * Main component. Contains all the methods to compute the {@code SemantichMatch}es for a given
  * class. This implements the "basic" semantic semantic, i.e. the one that uses plain vector sums.
  * Other kinds of matcher will extend this class.
+ *
+ * <p>A {@code SemanticMatcher} is the semantic matching context of a class: it is created once per
+ * class with {@link #of(Class)}, shared by all the translations of the comments of the class (also
+ * concurrent ones), and released with {@link #release(Collection)} when the class is done.
  */
 public class SemanticMatcher {
 
+  /**
+   * Threshold up to which a similarity distance is considered acceptable. Zero is perfect
+   * similarity.
+   */
+  private static final float WMD_THRESHOLD = 3.11f;
+
+  /** Threshold used in place of {@code WMD_THRESHOLD} for comments longer than 8 words. */
+  private static final float LONG_COMMENT_WMD_THRESHOLD = 5.96f;
+
+  /**
+   * Words to be ignored in the comment and code element name when performing semantic matching,
+   * for any class.
+   */
+  // TODO can this naive list be improved?
+  private static final Set<String> COMMON_STOPWORDS =
+      Collections.unmodifiableSet(
+          new HashSet<>(
+              Arrays.asList(
+                  "true",
+                  "false",
+                  "the",
+                  "a",
+                  "and",
+                  "or",
+                  "to",
+                  "if",
+                  "either",
+                  "whether",
+                  "else",
+                  "otherwise",
+                  "for",
+                  "be",
+                  "have",
+                  "this",
+                  "do",
+                  "not",
+                  "of",
+                  "in",
+                  "null",
+                  "only",
+                  "already",
+                  "specify")));
+
+  /** Semantic matching contexts of the classes under analysis. */
+  private static final Map<Class<?>, SemanticMatcher> matchers = new ConcurrentHashMap<>();
+
+  /**
+   * Word Mover's Distance engine shared by all the contexts. It is stateless, and thus can be used
+   * concurrently.
+   */
+  private static WordMovers wordMovers;
+
   /**
    * Tells whether the semantic matching is enabled or not according to configuration parameters.
    */
   private static boolean enabled;
 
   /**
-   * List of words to be ignored in the comment and code element name when performing semantic
-   * matching.
+   * Words to be ignored in the comment and code element name when performing semantic matching:
+   * the common stopwords and the name of the class.
    */
-  private final ArrayList<String> stopwords;
+  private final Set<String> stopwords;
+
+  /** Lemmatized words of the code element names, indexed by name. */
+  private final Map<String, List<String>> codeElementNameLemmas = new ConcurrentHashMap<>();
+
+  private SemanticMatcher(Class<?> documentedClass) {
+    Set<String> words = new HashSet<>(COMMON_STOPWORDS);
+    words.add(documentedClass.getSimpleName().toLowerCase());
+    stopwords = Collections.unmodifiableSet(words);
+  }
 
   /**
-   * Threshold up to which a similarity distance is considered acceptable. Zero is perfect
-   * similarity.
+   * Returns the semantic matching context of the given class, creating it if needed.
+   *
+   * @param documentedClass the class whose comments are being translated
+   * @return the semantic matcher of {@code documentedClass}
+   */
+  public static SemanticMatcher of(Class<?> documentedClass) {
+    return matchers.computeIfAbsent(documentedClass, SemanticMatcher::new);
+  }
+
+  /**
+   * Releases the semantic matching contexts of the given classes. Call this method once the
+   * translation of the comments of the classes is completed.
+   *
+   * @param classes the classes whose contexts to release
+   */
+  public static void release(Collection<Class<?>> classes) {
+    matchers.keySet().removeAll(classes);
+  }
+
+  /**
+   * Returns the Word Mover's Distance engine, creating it on first use.
+   *
+   * @return the Word Mover's Distance engine, or null if the word vectors cannot be loaded
    */
-  private float wmdThreshold;
-
-  public SemanticMatcher(boolean stopWordsRemoval, float distanceThreshold, float wmdThreshold) {
-    this.wmdThreshold = wmdThreshold;
-
-    // TODO can this naive list be improved?
-    stopwords =
-        new ArrayList<>(
-            Arrays.asList(
-                "true",
-                "false",
-                "the",
-                "a",
-                "and",
-                "or",
-                "to",
-                "if",
-                "either",
-                "whether",
-                "else",
-                "otherwise",
-                "for",
-                "be",
-                "have",
-                "this",
-                "do",
-                "not",
-                "of",
-                "in",
-                "null",
-                "only",
-                "already",
-                "specify"));
+  private static synchronized WordMovers getWordMovers() {
+    if (wordMovers == null) {
+      try {
+        wordMovers =
+            WordMovers.Builder()
+                .wordVectors(GloveModelWrapper.getInstance().getGloveTxtVectors())
+                .build();
+      } catch (URISyntaxException e) {
+        e.printStackTrace();
+      }
+    }
+    return wordMovers;
   }
 
   public static boolean isEnabled() {
@@ -97,9 +163,9 @@ public class SemanticMatcher {
       Proposition proposition,
       String comment)
       throws IOException {
-
-    stopwords.add(method.getDeclaringClass().getSimpleName().toLowerCase());
-    return wmdMatch(comment, proposition, subject, method, codeElements);
+    try (Profiler.Timer timer = Profiler.start(Profiler.Phase.SEMANTIC_MATCHING)) {
+      return wmdMatch(comment, proposition, subject, method, codeElements);
+    }
   }
 
   /**
@@ -164,17 +230,11 @@ public class SemanticMatcher {
       throws IOException {
     Map<CodeElement<?>, Double> distances = new LinkedHashMap<>();
 
-    FileWriter writer = new FileWriter("wmd-glove-distances.csv", true);
+    // Distances are traced all at once, so that lines of concurrent translations do not interleave.
+    final DistanceTrace distanceTrace = DistanceTrace.getInstance();
+    StringBuilder trace = distanceTrace == null ? null : new StringBuilder();
 
-    WordMovers wm = null;
-    try {
-      wm =
-          WordMovers.Builder()
-              .wordVectors(GloveModelWrapper.getInstance().getGloveTxtVectors())
-              .build();
-    } catch (URISyntaxException e) {
-      e.printStackTrace();
-    }
+    WordMovers wm = getWordMovers();
 
     //    String subject = proposition.getSubject().getSubject();
     List<String> commentWordSet = parseComment(comment);
@@ -191,7 +251,7 @@ public class SemanticMatcher {
           continue;
         }
         double dist = 10;
-        List<String> camelId = parseCodeElementName(name);
+        List<String> camelId = new ArrayList<>(parseCodeElementName(name));
         List<String> codeElementWordSet = removeStopWords(camelId);
         //        Set<String> codeElementWordSet = new HashSet<>(camelId);
 
@@ -200,9 +260,11 @@ public class SemanticMatcher {
         String parsedCodeElement =
             String.join(" ", codeElementWordSet).replaceAll("\\s+", " ").trim().toLowerCase();
 
-        writer.append(parsedComment + ";");
-        writer.append(parsedCodeElement + ";");
-        writer.append(String.valueOf(commentWordSet.size()) + ";");
+        if (trace != null) {
+          trace.append(parsedComment + ";");
+          trace.append(parsedCodeElement + ";");
+          trace.append(String.valueOf(commentWordSet.size()) + ";");
+        }
 
         if (codeElement instanceof MethodCodeElement
             && !((MethodCodeElement) codeElement).getReceiver().equals(Configuration.RECEIVER)
@@ -226,21 +288,30 @@ public class SemanticMatcher {
             distances.put(codeElement, dist);
           }
         }
-        writer.append(String.valueOf(dist) + "\n");
+        if (trace != null) {
+          trace.append(String.valueOf(dist) + "\n");
+        }
       }
     }
-    writer.flush();
-    writer.close();
+    if (trace != null) {
+      distanceTrace.append(trace.toString());
+    }
     return retainMatches(commentWordSet, method.getSignature(), distances);
   }
 
   /**
-   * Split code element name according to camel case
+   * Split code element name according to camel case. The words are lemmatized only the first time
+   * a name is parsed.
    *
    * @param name code element name
-   * @return list of words composing the code element name
+   * @return unmodifiable list of words composing the code element name
    */
   private List<String> parseCodeElementName(String name) {
+    return codeElementNameLemmas.computeIfAbsent(
+        name, n -> Collections.unmodifiableList(lemmatizeCodeElementName(n)));
+  }
+
+  private static List<String> lemmatizeCodeElementName(String name) {
     ArrayList<String> camelId = new ArrayList<>(Arrays.asList(name.split("(?<!^)(?=[A-Z])")));
     String joinedId = String.join(" ", camelId).replaceAll("\\s+", " ").trim().toLowerCase();
     int index = 0;
@@ -265,9 +336,8 @@ public class SemanticMatcher {
    */
   private LinkedHashMap<CodeElement<?>, Double> retainMatches(
       List<String> commentWords, String methodName, Map<CodeElement<?>, Double> distances) {
-    if (commentWords.size() > 8) {
-      wmdThreshold = 5.96f;
-    }
+    final float wmdThreshold =
+        commentWords.size() > 8 ? LONG_COMMENT_WMD_THRESHOLD : WMD_THRESHOLD;
 
     // Select as candidates only code elements that have a semantic distance below the chosen
     // threshold.
@@ -0,0 +1,371 @@
+package org.toradocu.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.toradocu.conf.Configuration;
+
+/**
+ * Collects the specifications whose compliance must be checked and compiles all of them with a
+ * single invocation of the Java compiler. Each specification is compiled in its own synthetic
+ * compilation unit, so that the errors of a specification do not affect the others, and the
+ * compiler diagnostics are mapped back to the specification they refer to. A specification is
+ * compliant if and only if its compilation unit has no errors, exactly as if it were compiled on
+ * its own.
+ *
+ * <p>Specifications are added with {@link #add}, which returns a {@link Candidate} whose result is
+ * available after {@link #compile()}. Candidates can be added concurrently.
+ */
+public class ComplianceBatch {
+
+  /** Logger of this class. */
+  private static final Logger log = LoggerFactory.getLogger(ComplianceBatch.class);
+
+  /** Prefix of the names of the synthetic classes containing the specifications. */
+  private static final String CLASS_NAME_PREFIX = "GeneratedSpecs";
+
+  /**
+   * Compiler options that make the compiler report all the errors of all the compilation units,
+   * even when some compilation unit has errors. The option name changed in JDK 9; the compiler
+   * ignores the one it does not know.
+   */
+  private static final List<String> REPORT_ALL_ERRORS_OPTIONS =
+      Arrays.asList(
+          "-Xmaxerrs",
+          String.valueOf(Integer.MAX_VALUE),
+          "-XDshouldStopPolicyIfError=FLOW",
+          "-XDshould-stop.ifError=FLOW");
+
+  /**
+   * The file manager shared by the compilations with the same classpath (it caches the classpath
+   * index).
+   */
+  private static StandardJavaFileManager fileManager;
+  /** The classpath of the compilations that share {@link #fileManager}. */
+  private static String fileManagerClasspath;
+
+  /** Candidates added to this batch. */
+  private final List<Candidate> candidates = new ArrayList<>();
+  /**
+   * Candidates added to this batch by their source code placed in a class named {@link
+   * #CLASS_NAME_PREFIX}, to check the compliance of identical specifications only once.
+   */
+  private final Map<String, Candidate> candidatesBySource = new HashMap<>();
+  /** Whether this batch has been compiled. */
+  private boolean compiled;
+
+  /**
+   * Adds to this batch a candidate specification with the given source code. If a candidate with
+   * the same source code has already been added, that candidate is returned instead.
+   *
+   * @param sourceCode function that returns the source code of the specification, given the name
+   *     of the class in which the specification must be placed
+   * @param specification description of the specification, used for logging
+   * @return the added candidate, or the candidate with the same source code already in this batch
+   */
+  public synchronized Candidate add(ClassSourceCode sourceCode, String specification) {
+    if (compiled) {
+      throw new IllegalStateException("Batch already compiled");
+    }
+    final String canonicalSource = sourceCode.buildSource(CLASS_NAME_PREFIX);
+    Candidate candidate = candidatesBySource.get(canonicalSource);
+    if (candidate == null) {
+      final String className = CLASS_NAME_PREFIX + candidates.size();
+      candidate = new Candidate(className, sourceCode.buildSource(className), specification);
+      candidates.add(candidate);
+      candidatesBySource.put(canonicalSource, candidate);
+    }
+    return candidate;
+  }
+
+  /**
+   * Returns a candidate that is compliant without compilation (e.g., because the compliance of the
+   * specification cannot be checked).
+   *
+   * @return a compliant candidate
+   */
+  public static Candidate compliant() {
+    Candidate candidate = new Candidate(null, null, null);
+    candidate.compilable = true;
+    return candidate;
+  }
+
+  /**
+   * Compiles all the candidates of this batch with a single invocation of the Java compiler. After
+   * this method returns, {@link Candidate#isCompilable()} can be invoked on the candidates.
+   */
+  public synchronized void compile() {
+    if (compiled) {
+      return;
+    }
+    compiled = true;
+    if (candidates.isEmpty()) {
+      return;
+    }
+    try (Profiler.Timer timer = Profiler.start(Profiler.Phase.COMPLIANCE)) {
+      if (!compile(candidates)) {
+        // Some error cannot be attributed to a candidate: compile the candidates one at a time.
+        for (Candidate candidate : candidates) {
+          compile(Collections.singletonList(candidate));
+        }
+      }
+    }
+    for (Candidate candidate : candidates) {
+      if (!candidate.isCompilable()) {
+        log.info(
+            "The following specification was generated but discarded:\n"
+                + candidate.specification
+                + "\n"
+                + candidate.errors
+                + "\n");
+      }
+    }
+  }
+
+  /**
+   * Compiles the given candidates in a single compilation task and records the errors of each of
+   * them.
+   *
+   * @param candidates the candidates to compile
+   * @return false if the compiler reported errors that cannot be attributed to a candidate, true
+   *     otherwise
+   */
+  private static boolean compile(List<Candidate> candidates) {
+    Map<URI, Candidate> sources = new HashMap<>();
+    List<JavaFileObject> sourceFiles = new ArrayList<>();
+    for (Candidate candidate : candidates) {
+      final SourceFile sourceFile = new SourceFile(candidate.className, candidate.sourceCode);
+      sources.put(sourceFile.toUri(), candidate);
+      sourceFiles.add(sourceFile);
+      candidate.errors = null;
+      candidate.compilable = true;
+    }
+
+    List<String> options = new ArrayList<>();
+    List<String> classpath = new ArrayList<>();
+    for (URL url : Configuration.INSTANCE.classDirs) {
+      classpath.add(url.getPath());
+    }
+    final String classpathOption = String.join(":", classpath);
+    options.add("-cp");
+    options.add(classpathOption);
+    if (candidates.size() > 1) {
+      options.addAll(REPORT_ALL_ERRORS_OPTIONS);
+    }
+
+    DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+    final boolean success;
+    try {
+      synchronized (ComplianceBatch.class) {
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        success =
+            compiler
+                .getTask(
+                    null,
+                    new DiscardOutputFileManager(fileManager(compiler, classpathOption)),
+                    diagnostics,
+                    options,
+                    null,
+                    sourceFiles)
+                .call();
+      }
+    } catch (RuntimeException e) {
+      if (candidates.size() > 1) {
+        return false;
+      }
+      // Problems of the compiler itself never cause the rejection of a specification.
+      e.printStackTrace();
+      return true;
+    }
+
+    boolean allErrorsAttributed = true;
+    boolean someCandidateRejected = false;
+    for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+      if (!isError(diagnostic)) {
+        continue;
+      }
+      final Candidate candidate =
+          diagnostic.getSource() == null ? null : sources.get(diagnostic.getSource().toUri());
+      if (candidate == null) {
+        allErrorsAttributed = false;
+        if (candidates.size() == 1) {
+          candidates.get(0).reject(diagnostic);
+        }
+      } else {
+        candidate.reject(diagnostic);
+        someCandidateRejected = true;
+      }
+    }
+    if (!success && !someCandidateRejected) {
+      // The compilation failed without any error of a candidate.
+      if (candidates.size() > 1) {
+        return false;
+      }
+      candidates.get(0).reject("The compiler failed without reporting errors");
+    }
+    return allErrorsAttributed || candidates.size() == 1;
+  }
+
+  /**
+   * Returns the file manager for compilations with the given classpath. The file manager is
+   * replaced, and the previous one closed, when the classpath changes (e.g., between the requests
+   * served by the daemon). Must be invoked while holding the lock on this class.
+   *
+   * @param compiler the system Java compiler
+   * @param classpath the classpath of the compilation
+   * @return the file manager
+   */
+  private static StandardJavaFileManager fileManager(JavaCompiler compiler, String classpath) {
+    if (fileManager != null && !classpath.equals(fileManagerClasspath)) {
+      try {
+        fileManager.close();
+      } catch (IOException e) {
+        log.warn("Unable to close the file manager of the compliance checks", e);
+      }
+      fileManager = null;
+    }
+    if (fileManager == null) {
+      fileManager = compiler.getStandardFileManager(null, null, null);
+      fileManagerClasspath = classpath;
+    }
+    return fileManager;
+  }
+
+  /**
+   * Tells whether the given diagnostic is an error, i.e., neither a warning nor a note.
+   *
+   * @param diagnostic a compiler diagnostic
+   * @return true if {@code diagnostic} is an error, false otherwise
+   */
+  private static boolean isError(Diagnostic<?> diagnostic) {
+    switch (diagnostic.getKind()) {
+      case NOTE:
+      case WARNING:
+      case MANDATORY_WARNING:
+        return false;
+      default:
+        return true;
+    }
+  }
+
+  /** Builds the source code of a specification placed in a class with a given name. */
+  public interface ClassSourceCode {
+    /**
+     * Returns the source code of the specification placed in a class named {@code className}.
+     *
+     * @param className the simple name of the class containing the specification
+     * @return the source code of the specification
+     */
+    String buildSource(String className);
+  }
+
+  /** A specification whose compliance is checked by a {@code ComplianceBatch}. */
+  public static class Candidate {
+    /** Name of the class containing the specification. */
+    private final String className;
+    /** Source code of the class containing the specification. */
+    private final String sourceCode;
+    /** Description of the specification, used for logging. */
+    private final String specification;
+    /** Errors reported by the compiler, null if there are no errors. */
+    private String errors;
+    /** Whether the specification is compilable; null until the batch is compiled. */
+    private Boolean compilable;
+
+    private Candidate(String className, String sourceCode, String specification) {
+      this.className = className;
+      this.sourceCode = sourceCode;
+      this.specification = specification;
+    }
+
+    /**
+     * Tells whether the specification compiles.
+     *
+     * @return true if the specification compiles, false otherwise
+     * @throws IllegalStateException if the batch of this candidate has not been compiled yet
+     */
+    public boolean isCompilable() {
+      if (compilable == null) {
+        throw new IllegalStateException("Compliance batch not compiled yet");
+      }
+      return compilable;
+    }
+
+    private void reject(Diagnostic<?> diagnostic) {
+      reject(
+          "[kind="
+              + diagnostic.getKind()
+              + ", line="
+              + diagnostic.getLineNumber()
+              + ", message="
+              + diagnostic.getMessage(Locale.US)
+              + "]");
+    }
+
+    private void reject(String error) {
+      if (errors == null) {
+        errors = "Unable to compile the source";
+      }
+      errors += "\n" + error;
+      compilable = false;
+    }
+  }
+
+  /** In-memory source file of a synthetic class. */
+  private static class SourceFile extends SimpleJavaFileObject {
+    private final String sourceCode;
+
+    SourceFile(String className, String sourceCode) {
+      super(URI.create("string:///" + className + Kind.SOURCE.extension), Kind.SOURCE);
+      this.sourceCode = sourceCode;
+    }
+
+    @Override
+    public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+      return sourceCode;
+    }
+  }
+
+  /** File manager that discards the class files produced by the compiler. */
+  private static class DiscardOutputFileManager extends ForwardingJavaFileManager<JavaFileManager> {
+    DiscardOutputFileManager(JavaFileManager fileManager) {
+      super(fileManager);
+    }
+
+    @Override
+    public JavaFileObject getJavaFileForOutput(
+        Location location, String className, JavaFileObject.Kind kind, FileObject sibling) {
+      return new SimpleJavaFileObject(URI.create("mem:///" + className + kind.extension), kind) {
+        @Override
+        public OutputStream openOutputStream() {
+          return new NullOutputStream();
+        }
+      };
+    }
+
+    @Override
+    public void close() throws IOException {
+      // The wrapped file manager is shared among compilations and must not be closed.
+    }
+  }
+}
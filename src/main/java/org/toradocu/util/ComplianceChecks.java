@@ -2,27 +2,19 @@ package org.toradocu.util;
 
 import java.io.File;
 import java.lang.reflect.Modifier;
-import java.net.URL;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import org.mdkt.compiler.CompilationException;
-import org.mdkt.compiler.InMemoryJavaCompiler;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.toradocu.conf.Configuration;
 import org.toradocu.extractor.DocumentedExecutable;
 import org.toradocu.extractor.DocumentedParameter;
 import org.toradocu.extractor.JavadocExtractor;
+import org.toradocu.util.ComplianceBatch.Candidate;
 import randoop.condition.specification.Guard;
 import randoop.condition.specification.Property;
 
 public class ComplianceChecks {
 
-  /** Logger of this class. */
-  private static final Logger log = LoggerFactory.getLogger(ComplianceChecks.class);
-
   /**
    * Tries to compile the boolean condition in the given {@code Guard} and tells whether the
    * compilation was successful.
@@ -32,29 +24,10 @@ public class ComplianceChecks {
    * @return true if the condition was compilable, false otherwise
    */
   public static boolean isSpecCompilable(DocumentedExecutable method, Guard guard) {
-    if (Modifier.isPrivate(method.getDeclaringClass().getModifiers())) {
-      // if the target class is private we cannot apply compliance check.
-      return true;
-    }
-    SourceCodeBuilder sourceCodeBuilder = addCommonInfo(method);
-    addConditionCodeInformation(method, guard.getConditionText(), sourceCodeBuilder);
-    String sourceCode = sourceCodeBuilder.buildSource();
-    try {
-      compileSource(sourceCode);
-    } catch (CompilationException e) {
-      log.info(
-          "The following specification was generated but discarded:\n"
-              + guard.getConditionText()
-              + "\n"
-              + e.getLocalizedMessage()
-              + "\n");
-      return false;
-    } catch (ClassNotFoundException e) {
-      // ignore
-    } catch (Exception e) {
-      e.printStackTrace();
-    }
-    return true;
+    ComplianceBatch batch = new ComplianceBatch();
+    final Candidate candidate = addSpec(batch, method, guard);
+    batch.compile();
+    return candidate.isCompilable();
   }
 
   /**
@@ -68,53 +41,58 @@ public class ComplianceChecks {
    */
   public static boolean isPostSpecCompilable(
       DocumentedExecutable method, Guard guard, Property property) {
+    ComplianceBatch batch = new ComplianceBatch();
+    final Candidate candidate = addPostSpec(batch, method, guard, property);
+    batch.compile();
+    return candidate.isCompilable();
+  }
+
+  /**
+   * Adds to the given batch the compliance check of the boolean condition in the given {@code
+   * Guard}. The result of the check is available once the batch is compiled.
+   *
+   * @param batch the batch in which the condition is compiled
+   * @param method documented executable the guard belongs to
+   * @param guard the guard which condition must be checked for compliance
+   * @return the candidate that tells whether the condition is compilable
+   */
+  public static Candidate addSpec(
+      ComplianceBatch batch, DocumentedExecutable method, Guard guard) {
     if (Modifier.isPrivate(method.getDeclaringClass().getModifiers())) {
       // if the target class is private we cannot apply compliance check.
-      return true;
+      return ComplianceBatch.compliant();
     }
     SourceCodeBuilder sourceCodeBuilder = addCommonInfo(method);
-    String methodReturnType = method.getReturnType().getType().getTypeName();
-    if (!methodReturnType.equals("void")) {
-      sourceCodeBuilder.addArgument(methodReturnType, Configuration.RETURN_VALUE);
-    }
     addConditionCodeInformation(method, guard.getConditionText(), sourceCodeBuilder);
-    addConditionCodeInformation(method, property.getConditionText(), sourceCodeBuilder);
-    String sourceCode = sourceCodeBuilder.buildSource();
-    try {
-      compileSource(sourceCode);
-    } catch (CompilationException e) {
-      log.info(
-          "The following specification was generated but discarded:\n"
-              + guard.getConditionText()
-              + " ? "
-              + property.getConditionText()
-              + "\n"
-              + e.getLocalizedMessage()
-              + "\n");
-      return false;
-    } catch (ClassNotFoundException e) {
-      // ignore
-    } catch (Exception e) {
-      e.printStackTrace();
-    }
-    return true;
+    return batch.add(sourceCodeBuilder::buildSource, guard.getConditionText());
   }
 
   /**
-   * Invokes the in-memory compiler on the given source code.
+   * Adds to the given batch the compliance check of the boolean conditions in the given {@code
+   * Guard} and {@code Property}. The result of the check is available once the batch is compiled.
    *
-   * @param sourceCode source code to be compiled
-   * @throws Exception if the compiler encounters problems
+   * @param batch the batch in which the conditions are compiled
+   * @param method documented executable the guard belongs to
+   * @param guard the guard which condition must be checked for compliance
+   * @param property the property which condition must be checked for compliance
+   * @return the candidate that tells whether the conditions are compilable
    */
-  private static void compileSource(String sourceCode) throws Exception {
-    InMemoryJavaCompiler compiler = InMemoryJavaCompiler.newInstance();
-    compiler.ignoreWarnings();
-    List<String> classpath = new ArrayList<>();
-    for (URL url : Configuration.INSTANCE.classDirs) {
-      classpath.add(url.getPath());
+  public static Candidate addPostSpec(
+      ComplianceBatch batch, DocumentedExecutable method, Guard guard, Property property) {
+    if (Modifier.isPrivate(method.getDeclaringClass().getModifiers())) {
+      // if the target class is private we cannot apply compliance check.
+      return ComplianceBatch.compliant();
+    }
+    SourceCodeBuilder sourceCodeBuilder = addCommonInfo(method);
+    String methodReturnType = method.getReturnType().getType().getTypeName();
+    if (!methodReturnType.equals("void")) {
+      sourceCodeBuilder.addArgument(methodReturnType, Configuration.RETURN_VALUE);
     }
-    compiler.useOptions("-cp", String.join(":", classpath));
-    compiler.compile("GeneratedSpecs", sourceCode);
+    addConditionCodeInformation(method, guard.getConditionText(), sourceCodeBuilder);
+    addConditionCodeInformation(method, property.getConditionText(), sourceCodeBuilder);
+    return batch.add(
+        sourceCodeBuilder::buildSource,
+        guard.getConditionText() + " ? " + property.getConditionText());
   }
 
   /**
@@ -1,8 +1,5 @@
 package org.toradocu.util;
 
-import java.util.Arrays;
-import java.util.LinkedList;
-import java.util.List;
 import org.toradocu.conf.Configuration;
 
 /**
@@ -41,23 +38,62 @@ public class Distance {
    *     deletions
    */
   static int editDistance(String s0, String s1, int wordDeletionCost) {
-    String[] words = s1.split(" ");
-    return editDistanceRecursive(wordDeletionCost, s0, new LinkedList<>(Arrays.asList(words)));
+    // The result is the minimum, over all the non-empty subsequences of the words of s1, of the
+    // Levenshtein distance between s0 and the words of the subsequence joined with spaces, plus
+    // the cost of the deleted words. Since the Levenshtein recurrence is a (min, +)-linear function
+    // of its initial column, the minimum can be computed one word at a time, keeping only two
+    // columns: the best cost when no word has been kept so far, and when at least one has.
+    final String target = s0.toLowerCase();
+    final int n = target.length();
+    int[] kept = null; // Best costs when at least one word has been kept (null if impossible).
+    int deletedCost = 0; // Cost of deleting all the words processed so far.
+    for (String word : s1.split(" ")) {
+      word = word.toLowerCase();
+      // Keep this word as the first one.
+      int[] newKept = new int[n + 1];
+      for (int i = 0; i <= n; i++) {
+        newKept[i] = deletedCost + i;
+      }
+      newKept = extend(newKept, target, word);
+      if (kept != null) {
+        // Keep this word after the ones already kept.
+        final int[] appended = extend(kept, target, " " + word);
+        for (int i = 0; i <= n; i++) {
+          // Delete this word, or keep it after the ones already kept.
+          newKept[i] = Math.min(newKept[i], Math.min(kept[i] + wordDeletionCost, appended[i]));
+        }
+      }
+      kept = newKept;
+      deletedCost += wordDeletionCost;
+    }
+    // If s1 contains only spaces there are no words, and s0 is compared with the empty string.
+    return kept == null ? n : kept[n];
   }
 
-  private static int editDistanceRecursive(int wordDeletionCost, String s0, List<String> s1) {
-    int minDistance = levenshteinDistance(s0, String.join(" ", s1));
-    for (int i = 0; i < s1.size(); i++) {
-      String word = s1.remove(i);
-      if (!s1.isEmpty()) {
-        int distance = wordDeletionCost + editDistanceRecursive(wordDeletionCost, s0, s1);
-        if (distance < minDistance) {
-          minDistance = distance;
-        }
+  /**
+   * Extends a column of the Levenshtein dynamic programming table with the characters of {@code
+   * suffix}. Given the distances between each prefix of {@code target} and a string {@code x},
+   * returns the distances between each prefix of {@code target} and {@code x + suffix}.
+   *
+   * @param column the distances between each prefix of {@code target} and a string {@code x}
+   * @param target the string whose prefixes are compared
+   * @param suffix the string appended to {@code x}
+   * @return the distances between each prefix of {@code target} and {@code x + suffix}
+   */
+  private static int[] extend(int[] column, String target, String suffix) {
+    int[] previous = column;
+    for (int j = 0; j < suffix.length(); j++) {
+      final char c = suffix.charAt(j);
+      final int[] current = new int[previous.length];
+      current[0] = previous[0] + 1;
+      for (int i = 1; i < current.length; i++) {
+        final int cost = target.charAt(i - 1) == c ? 0 : 1;
+        current[i] =
+            Math.min(Math.min(current[i - 1] + 1, previous[i] + 1), previous[i - 1] + cost);
       }
-      s1.add(i, word);
+      previous = current;
     }
-    return minDistance;
+    return previous;
   }
 
   /**
@@ -67,7 +103,7 @@ public class Distance {
    * @param s1 the second string to use in calculating distance
    * @return the Levenshtein distance between the two strings
    */
-  private static int levenshteinDistance(String s0, String s1) {
+  static int levenshteinDistance(String s0, String s1) {
     return levenshteinDistance(s0, s1, false);
   }
 
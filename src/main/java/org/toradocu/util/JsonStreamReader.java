@@ -0,0 +1,107 @@
+package org.toradocu.util;
+
+import com.google.gson.JsonIOException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads a sequence of objects written in JSON format one at a time. The reader accepts all the
+ * layouts produced by {@link JsonStreamWriter}: a JSON array (indented or compact) and
+ * newline-delimited JSON. Objects are deserialized with {@link GsonInstance#gson()}.
+ *
+ * @param <T> the type of the objects to read
+ */
+public final class JsonStreamReader<T> implements Iterator<T>, Closeable {
+
+  /** The JSON reader. */
+  private final JsonReader reader;
+  /** The type of the objects to read. */
+  private final Type elementType;
+  /** Whether the objects are enclosed in a JSON array. */
+  private final boolean array;
+  /** Whether the input is empty. */
+  private final boolean empty;
+
+  /**
+   * Creates a new reader of the objects in JSON format read from {@code in}.
+   *
+   * @param in the reader from which the JSON is read, closed when this reader is closed
+   * @param elementType the type of the objects to read
+   * @throws IOException if an error occurs while reading the beginning of the JSON
+   */
+  public JsonStreamReader(Reader in, Type elementType) throws IOException {
+    this.reader = new JsonReader(in);
+    this.elementType = elementType;
+    // Multiple top-level values (newline-delimited JSON) are allowed only in lenient mode.
+    reader.setLenient(true);
+    JsonToken first;
+    try {
+      first = reader.peek();
+    } catch (EOFException e) {
+      first = JsonToken.END_DOCUMENT;
+    }
+    this.empty = first == JsonToken.END_DOCUMENT;
+    this.array = first == JsonToken.BEGIN_ARRAY;
+    if (array) {
+      reader.beginArray();
+    }
+  }
+
+  /**
+   * Reads all the objects contained in the given file (in UTF-8).
+   *
+   * @param file the file containing the objects in JSON format
+   * @param elementType the type of the objects to read
+   * @param <T> the type of the objects to read
+   * @return the objects contained in {@code file}
+   * @throws IOException if the file cannot be read
+   */
+  public static <T> List<T> readAll(Path file, Type elementType) throws IOException {
+    List<T> elements = new ArrayList<>();
+    try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+        JsonStreamReader<T> reader = new JsonStreamReader<>(in, elementType)) {
+      while (reader.hasNext()) {
+        elements.add(reader.next());
+      }
+    }
+    return elements;
+  }
+
+  @Override
+  public boolean hasNext() {
+    if (empty) {
+      return false;
+    }
+    try {
+      return array ? reader.hasNext() : reader.peek() != JsonToken.END_DOCUMENT;
+    } catch (IOException e) {
+      throw new JsonIOException(e);
+    }
+  }
+
+  @Override
+  public T next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    return GsonInstance.gson().fromJson(reader, elementType);
+  }
+
+  @Override
+  public void close() throws IOException {
+    reader.close();
+  }
+}
@@ -0,0 +1,145 @@
+package org.toradocu.util;
+
+import com.google.gson.JsonElement;
+import com.google.gson.stream.JsonWriter;
+import java.io.Closeable;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Writes a sequence of objects (e.g., {@code JsonOutput}s or Randoop specifications) in JSON format
+ * one at a time, so that the whole sequence never has to be kept in memory, neither as objects nor
+ * as a JSON string. Objects are serialized with {@link GsonInstance#gson()}, and with the {@link
+ * Layout#PRETTY} layout the written file is exactly the one produced by serializing a list
+ * containing all the objects.
+ */
+public final class JsonStreamWriter implements Closeable {
+
+  /** Layout of the JSON files written by this class. */
+  public enum Layout {
+    /** A JSON array, indented as Toradocu always did. */
+    PRETTY,
+    /** A JSON array without white spaces. */
+    COMPACT,
+    /** Newline-delimited JSON: one compact JSON object per line, without an enclosing array. */
+    NDJSON
+  }
+
+  /** The underlying writer. */
+  private final Writer out;
+  /** The JSON writer wrapping {@code out}. */
+  private final JsonWriter writer;
+  /** The layout of the written JSON. */
+  private final Layout layout;
+
+  /**
+   * Creates a new writer that writes on {@code out} with the given layout.
+   *
+   * @param out the writer where the JSON is written, closed when this writer is closed
+   * @param layout the layout of the written JSON
+   * @throws IOException if an error occurs while writing the beginning of the JSON array
+   */
+  public JsonStreamWriter(Writer out, Layout layout) throws IOException {
+    this.out = out;
+    this.layout = layout;
+    this.writer = new JsonWriter(out);
+    writer.setHtmlSafe(false);
+    if (layout == Layout.PRETTY) {
+      writer.setIndent("  ");
+    } else if (layout == Layout.NDJSON) {
+      // Multiple top-level values are allowed only in lenient mode.
+      writer.setLenient(true);
+    }
+    if (layout != Layout.NDJSON) {
+      writer.beginArray();
+    }
+  }
+
+  /**
+   * Creates a new writer that writes on the given file (in UTF-8) with the given layout. The file
+   * is created if it does not exist and overwritten otherwise.
+   *
+   * @param file the file where the JSON is written
+   * @param layout the layout of the written JSON
+   * @return a writer for {@code file}
+   * @throws IOException if the file cannot be opened
+   */
+  public static JsonStreamWriter open(Path file, Layout layout) throws IOException {
+    return new JsonStreamWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8), layout);
+  }
+
+  /**
+   * Creates a new writer that writes on the given stream with the given layout. Closing the
+   * returned writer flushes {@code out} but does not close it, so that this method can be used with
+   * the standard output.
+   *
+   * @param out the stream where the JSON is written
+   * @param layout the layout of the written JSON
+   * @return a writer for {@code out}
+   * @throws IOException if an error occurs while writing on {@code out}
+   */
+  public static JsonStreamWriter toStream(OutputStream out, Layout layout) throws IOException {
+    return new JsonStreamWriter(new OutputStreamWriter(new FlushOnCloseOutputStream(out)), layout);
+  }
+
+  /**
+   * Writes the given object in JSON format.
+   *
+   * @param element the object to write, either a {@code JsonElement} or an object serializable by
+   *     {@link GsonInstance#gson()}
+   * @throws IOException if an error occurs while writing
+   */
+  public void write(Object element) throws IOException {
+    if (element instanceof JsonElement) {
+      GsonInstance.gson().toJson((JsonElement) element, writer);
+    } else {
+      GsonInstance.gson().toJson(element, element.getClass(), writer);
+    }
+    if (layout == Layout.NDJSON) {
+      writer.flush();
+      out.write('\n');
+    }
+  }
+
+  /**
+   * Terminates the JSON array (if any) and closes the underlying writer.
+   *
+   * @throws IOException if an error occurs while writing or closing
+   */
+  @Override
+  public void close() throws IOException {
+    try {
+      if (layout != Layout.NDJSON) {
+        writer.endArray();
+      }
+      writer.flush();
+    } finally {
+      // JsonWriter#close rejects an empty sequence of top-level values (i.e., empty NDJSON).
+      out.close();
+    }
+  }
+
+  /** An output stream that flushes, but does not close, the wrapped stream when closed. */
+  private static final class FlushOnCloseOutputStream extends FilterOutputStream {
+
+    FlushOnCloseOutputStream(OutputStream out) {
+      super(out);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      out.write(b, off, len);
+    }
+
+    @Override
+    public void close() throws IOException {
+      flush();
+    }
+  }
+}
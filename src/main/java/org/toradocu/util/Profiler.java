@@ -0,0 +1,404 @@
+package org.toradocu.util;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.toradocu.extractor.BlockTag;
+import org.toradocu.extractor.DocumentedExecutable;
+
+/**
+ * Collects, for every run of Toradocu, the wall time, the number of invocations, and the bytes
+ * allocated by each phase of the analysis, the hit rate of the caches, and the comments whose
+ * translation took longest. The collected data is written next to the statistics file with {@link
+ * #writeReport(File)}.
+ *
+ * <p>A phase is timed with {@code try (Profiler.Timer timer = Profiler.start(phase)) {...}}. Phases
+ * can be nested: the time of a phase includes the time of the phases it invokes (e.g., matching
+ * includes semantic matching), while recursive invocations of the same phase are counted but timed
+ * only once. The times of invocations running concurrently on different threads add up. The time of
+ * the preprocessing phase is further broken down by preprocessing step ({@link
+ * #preprocessingStep(String, long)}). This class is thread-safe.
+ */
+public final class Profiler {
+
+  /** A phase of the analysis. */
+  public enum Phase {
+    /** Extraction of the Javadoc comments ({@code JavadocExtractor}). */
+    EXTRACTION,
+    /** Preprocessing of the comments ({@code Preprocessor}). */
+    PREPROCESSING,
+    /** Parsing of the comments with the Stanford parser ({@code Parser}). */
+    PARSING,
+    /** Matching of the subjects and predicates of the comments ({@code Matcher}). */
+    MATCHING,
+    /** Semantic matching with word embeddings ({@code SemanticMatcher}). */
+    SEMANTIC_MATCHING,
+    /** Compilation of the specifications to check their compliance ({@code ComplianceBatch}). */
+    COMPLIANCE,
+    /** Creation and compilation of the EvoSuite evaluators ({@code TestGenerator}). */
+    EVALUATOR_CREATION,
+    /** Runs of EvoSuite ({@code TestGenerator}). */
+    EVOSUITE,
+    /** Addition of the oracles to the generated test cases ({@code TestGenerator}). */
+    ENRICHMENT;
+
+    /** Number of invocations of this phase. */
+    private final LongAdder calls = new LongAdder();
+    /** Wall time spent in this phase, in nanoseconds. */
+    private final LongAdder nanos = new LongAdder();
+    /** Bytes allocated in this phase. */
+    private final LongAdder allocatedBytes = new LongAdder();
+
+    private String label() {
+      return name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+  }
+
+  /** A cache used during the analysis. */
+  public enum Cache {
+    /** In-memory cache of the semantic graphs of the comments ({@code Parser}). */
+    SEMANTIC_GRAPHS,
+    /** Persistent cache of the parsed sentences ({@code ParseCache}). */
+    PARSE_CACHE,
+    /** Catalog of the code elements of the analyzed classes ({@code CodeElementCatalog}). */
+    CODE_ELEMENTS,
+    /** Compilation units of the analyzed source files ({@code SourceModel}). */
+    SOURCE_FILES,
+    /** Persistent store of the specifications of the classes ({@code SpecificationStore}). */
+    SPEC_STORE;
+
+    /** Number of hits. */
+    private final LongAdder hits = new LongAdder();
+    /** Number of misses. */
+    private final LongAdder misses = new LongAdder();
+
+    private String label() {
+      return name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+  }
+
+  /** Number of slowest comments included in the report. */
+  private static final int SLOWEST_COMMENTS = 20;
+
+  /** Suffix of the name of the report files, which replaces the extension of the stats file. */
+  private static final String REPORT_SUFFIX = "_profile";
+
+  /** Bean used to get the bytes allocated by the current thread. */
+  private static final com.sun.management.ThreadMXBean threadBean = allocationBean();
+
+  /** For each thread, the number of active invocations of each phase. */
+  private static final ThreadLocal<int[]> activePhases =
+      ThreadLocal.withInitial(() -> new int[Phase.values().length]);
+
+  /** Number of invocations and time in nanoseconds of each preprocessing step, by step name. */
+  private static final ConcurrentMap<String, StepTime> preprocessingSteps =
+      new ConcurrentHashMap<>();
+
+  /** The slowest comments translated so far, the fastest first. */
+  private static final PriorityQueue<CommentTime> slowestComments =
+      new PriorityQueue<>(Comparator.comparingLong(c -> c.nanos));
+
+  private Profiler() {}
+
+  /**
+   * Starts timing an invocation of the given phase. The returned timer must be closed when the
+   * invocation completes.
+   *
+   * @param phase the phase being invoked
+   * @return the timer of the invocation
+   */
+  public static Timer start(Phase phase) {
+    phase.calls.increment();
+    return new Timer(phase, activePhases.get());
+  }
+
+  /**
+   * Records an access to the given cache.
+   *
+   * @param cache the accessed cache
+   * @param hit true if the requested entry was in the cache
+   */
+  public static void cacheAccess(Cache cache, boolean hit) {
+    (hit ? cache.hits : cache.misses).increment();
+  }
+
+  /**
+   * Records an invocation of a step of the preprocessing of the comments (e.g., {@code
+   * RemoveCommas}).
+   *
+   * @param step the name of the step
+   * @param nanos the time spent in the step, in nanoseconds
+   */
+  public static void preprocessingStep(String step, long nanos) {
+    final StepTime time = preprocessingSteps.computeIfAbsent(step, s -> new StepTime());
+    time.calls.increment();
+    time.nanos.add(nanos);
+  }
+
+  /**
+   * Records the time needed to preprocess and translate a comment.
+   *
+   * @param member the member the comment belongs to
+   * @param tag the tag containing the comment
+   * @param nanos the translation time in nanoseconds
+   */
+  public static void commentTranslated(DocumentedExecutable member, BlockTag tag, long nanos) {
+    synchronized (slowestComments) {
+      if (slowestComments.size() < SLOWEST_COMMENTS) {
+        slowestComments.add(new CommentTime(member, tag, nanos));
+      } else if (slowestComments.peek().nanos < nanos) {
+        slowestComments.poll();
+        slowestComments.add(new CommentTime(member, tag, nanos));
+      }
+    }
+  }
+
+  /** Discards all the collected data. Invoked at the beginning of every run of Toradocu. */
+  public static void reset() {
+    for (Phase phase : Phase.values()) {
+      phase.calls.reset();
+      phase.nanos.reset();
+      phase.allocatedBytes.reset();
+    }
+    for (Cache cache : Cache.values()) {
+      cache.hits.reset();
+      cache.misses.reset();
+    }
+    preprocessingSteps.clear();
+    synchronized (slowestComments) {
+      slowestComments.clear();
+    }
+  }
+
+  /**
+   * Writes the collected data next to the given statistics file, in JSON format (file {@code
+   * <stats>_profile.json}) and in CSV format (file {@code <stats>_profile.csv}, without the slowest
+   * comments). Preprocessing steps are listed after the caches.
+   *
+   * @param statsFile the statistics file of Toradocu
+   * @return the paths of the written JSON and CSV files
+   * @throws IOException if the report cannot be written
+   */
+  public static List<Path> writeReport(File statsFile) throws IOException {
+    String baseName = statsFile.getName();
+    final int extension = baseName.lastIndexOf('.');
+    if (extension > 0) {
+      baseName = baseName.substring(0, extension);
+    }
+    final Path directory = statsFile.getAbsoluteFile().toPath().getParent();
+    Files.createDirectories(directory);
+    final Path jsonFile = directory.resolve(baseName + REPORT_SUFFIX + ".json");
+    final Path csvFile = directory.resolve(baseName + REPORT_SUFFIX + ".csv");
+
+    final Map<String, Object> report = report();
+    try (BufferedWriter writer = Files.newBufferedWriter(jsonFile, StandardCharsets.UTF_8)) {
+      writer.write(GsonInstance.gson().toJson(report));
+      writer.newLine();
+    }
+    try (BufferedWriter writer = Files.newBufferedWriter(csvFile, StandardCharsets.UTF_8)) {
+      writer.write("kind,name,calls,time_ms,allocated_bytes,hits,misses,hit_rate");
+      writer.newLine();
+      for (Phase phase : Phase.values()) {
+        writer.write(
+            String.join(
+                ",",
+                "phase",
+                phase.label(),
+                String.valueOf(phase.calls.sum()),
+                String.valueOf(TimeUnit.NANOSECONDS.toMillis(phase.nanos.sum())),
+                String.valueOf(phase.allocatedBytes.sum()),
+                "",
+                "",
+                ""));
+        writer.newLine();
+      }
+      for (Cache cache : Cache.values()) {
+        writer.write(
+            String.join(
+                ",",
+                "cache",
+                cache.label(),
+                "",
+                "",
+                "",
+                String.valueOf(cache.hits.sum()),
+                String.valueOf(cache.misses.sum()),
+                String.format(Locale.ROOT, "%.3f", hitRate(cache))));
+        writer.newLine();
+      }
+      for (Map.Entry<String, StepTime> step : new TreeMap<>(preprocessingSteps).entrySet()) {
+        writer.write(
+            String.join(
+                ",",
+                "preprocessing-step",
+                step.getKey(),
+                String.valueOf(step.getValue().calls.sum()),
+                String.valueOf(TimeUnit.NANOSECONDS.toMillis(step.getValue().nanos.sum())),
+                "",
+                "",
+                "",
+                ""));
+        writer.newLine();
+      }
+    }
+    List<Path> files = new ArrayList<>();
+    files.add(jsonFile);
+    files.add(csvFile);
+    return files;
+  }
+
+  /**
+   * Returns the collected data as a map that can be serialized with Gson.
+   *
+   * @return the collected data
+   */
+  private static Map<String, Object> report() {
+    List<Map<String, Object>> phases = new ArrayList<>();
+    for (Phase phase : Phase.values()) {
+      Map<String, Object> entry = new LinkedHashMap<>();
+      entry.put("phase", phase.label());
+      entry.put("calls", phase.calls.sum());
+      entry.put("timeMillis", TimeUnit.NANOSECONDS.toMillis(phase.nanos.sum()));
+      entry.put("allocatedBytes", phase.allocatedBytes.sum());
+      phases.add(entry);
+    }
+    List<Map<String, Object>> caches = new ArrayList<>();
+    for (Cache cache : Cache.values()) {
+      Map<String, Object> entry = new LinkedHashMap<>();
+      entry.put("cache", cache.label());
+      entry.put("hits", cache.hits.sum());
+      entry.put("misses", cache.misses.sum());
+      entry.put("hitRate", hitRate(cache));
+      caches.add(entry);
+    }
+    List<Map<String, Object>> steps = new ArrayList<>();
+    for (Map.Entry<String, StepTime> step : new TreeMap<>(preprocessingSteps).entrySet()) {
+      Map<String, Object> entry = new LinkedHashMap<>();
+      entry.put("step", step.getKey());
+      entry.put("calls", step.getValue().calls.sum());
+      entry.put("timeMillis", TimeUnit.NANOSECONDS.toMillis(step.getValue().nanos.sum()));
+      steps.add(entry);
+    }
+    List<CommentTime> slowest;
+    synchronized (slowestComments) {
+      slowest = new ArrayList<>(slowestComments);
+    }
+    slowest.sort(Comparator.comparingLong((CommentTime c) -> c.nanos).reversed());
+    List<Map<String, Object>> comments = new ArrayList<>();
+    for (CommentTime comment : slowest) {
+      Map<String, Object> entry = new LinkedHashMap<>();
+      entry.put("signature", comment.signature);
+      entry.put("tag", comment.tag);
+      entry.put("comment", comment.comment);
+      entry.put("timeMillis", TimeUnit.NANOSECONDS.toMillis(comment.nanos));
+      comments.add(entry);
+    }
+
+    Map<String, Object> report = new LinkedHashMap<>();
+    report.put("phases", phases);
+    report.put("caches", caches);
+    report.put("preprocessingSteps", steps);
+    report.put("slowestComments", comments);
+    return report;
+  }
+
+  private static double hitRate(Cache cache) {
+    final long hits = cache.hits.sum();
+    final long accesses = hits + cache.misses.sum();
+    return accesses == 0 ? 0 : (double) hits / accesses;
+  }
+
+  /**
+   * Returns the bytes allocated so far by the current thread.
+   *
+   * @return the bytes allocated by the current thread, or 0 if the JVM does not support it
+   */
+  private static long allocatedBytes() {
+    return threadBean == null
+        ? 0
+        : threadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+  }
+
+  private static com.sun.management.ThreadMXBean allocationBean() {
+    final ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+    if (bean instanceof com.sun.management.ThreadMXBean) {
+      final com.sun.management.ThreadMXBean allocationBean =
+          (com.sun.management.ThreadMXBean) bean;
+      if (allocationBean.isThreadAllocatedMemorySupported()) {
+        allocationBean.setThreadAllocatedMemoryEnabled(true);
+        return allocationBean;
+      }
+    }
+    return null;
+  }
+
+  /** Timer of an invocation of a phase. */
+  public static final class Timer implements AutoCloseable {
+    /** The timed phase. */
+    private final Phase phase;
+    /** The active invocations of the phases on the thread that started this timer. */
+    private final int[] active;
+    /** Whether the invocation is not nested in another invocation of the same phase. */
+    private final boolean outermost;
+    /** Start time of the invocation, in nanoseconds. */
+    private final long startNanos;
+    /** Bytes allocated by the thread when the invocation started. */
+    private final long startBytes;
+
+    private Timer(Phase phase, int[] active) {
+      this.phase = phase;
+      this.active = active;
+      this.outermost = active[phase.ordinal()]++ == 0;
+      this.startNanos = outermost ? System.nanoTime() : 0;
+      this.startBytes = outermost ? allocatedBytes() : 0;
+    }
+
+    /** Stops this timer, recording the time and the bytes allocated by the invocation. */
+    @Override
+    public void close() {
+      active[phase.ordinal()]--;
+      if (outermost) {
+        phase.nanos.add(System.nanoTime() - startNanos);
+        phase.allocatedBytes.add(allocatedBytes() - startBytes);
+      }
+    }
+  }
+
+  /** The number of invocations and the time of a preprocessing step. */
+  private static final class StepTime {
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder nanos = new LongAdder();
+  }
+
+  /** The translation time of a comment. */
+  private static final class CommentTime {
+    private final String signature;
+    private final String tag;
+    private final String comment;
+    private final long nanos;
+
+    CommentTime(DocumentedExecutable member, BlockTag tag, long nanos) {
+      this.signature = member.getSignature();
+      this.tag = tag.getKind().toString();
+      this.comment = tag.getComment().getText();
+      this.nanos = nanos;
+    }
+  }
+}
@@ -1,11 +1,15 @@
 package org.toradocu.util;
 
+import java.io.IOException;
 import java.lang.reflect.Type;
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.toradocu.conf.Configuration;
@@ -17,6 +21,15 @@ public class Reflection {
 
   private static final Map<String, Class> primitiveClasses = initializePrimitivesMap();
 
+  /** Class loader of the system under analysis, created on first use and shared by all calls. */
+  private static URLClassLoader loader;
+  /** The classpath {@code loader} was created for. */
+  private static List<URL> loaderClasspath;
+  /** Classes already loaded, indexed by name. */
+  private static final Map<String, Class<?>> loadedClasses = new ConcurrentHashMap<>();
+  /** Names of the classes that could not be loaded. */
+  private static final Set<String> missingClasses = ConcurrentHashMap.newKeySet();
+
   private static Map<String, Class> initializePrimitivesMap() {
     Map<String, Class> map = new HashMap<>(9);
     map.put("int", Integer.TYPE);
@@ -36,7 +49,9 @@ public class Reflection {
 
   /**
    * Returns the {@code Class} object for the class with the given name or null if the class could
-   * not be retrieved.
+   * not be retrieved. Classes are loaded by a single class loader (one for each configured
+   * classpath), and both loaded classes and names that cannot be loaded are cached: repeated calls
+   * with the same name return the same {@code Class} object, without accessing the classpath.
    *
    * @param className the fully qualified name of a class
    * @return the {@code Class} object for the given class
@@ -47,15 +62,76 @@ public class Reflection {
       return primitiveClasses.get(className);
     }
 
-    // The order here is important. We have to first look in the paths specified by the user and
-    // then in the default class path. The default classpath contains the dependencies of Toradocu
-    // that could clash with the system under analysis.
-    final List<URL> urls = Configuration.INSTANCE.classDirs;
-    final URLClassLoader loader = new URLClassLoader(urls.toArray(new URL[urls.size()]), null);
+    final URLClassLoader classLoader = getLoader();
+    final Class<?> loadedClass = loadedClasses.get(className);
+    if (loadedClass != null) {
+      return loadedClass;
+    }
+    if (missingClasses.contains(className)) {
+      throw new ClassNotFoundException(className);
+    }
+
+    Class<?> aClass;
     try {
-      return loader.loadClass(className);
+      // The order here is important. We have to first look in the paths specified by the user and
+      // then in the default class path. The default classpath contains the dependencies of
+      // Toradocu that could clash with the system under analysis.
+      try {
+        aClass = classLoader.loadClass(className);
+      } catch (ClassNotFoundException e) {
+        aClass = Class.forName(className);
+      }
     } catch (ClassNotFoundException e) {
-      return Class.forName(className);
+      missingClasses.add(className);
+      throw e;
+    }
+    final Class<?> concurrentlyLoaded = loadedClasses.putIfAbsent(className, aClass);
+    return concurrentlyLoaded == null ? aClass : concurrentlyLoaded;
+  }
+
+  /**
+   * Returns the location of the class file of the class with the given name in the classpath of
+   * the system under analysis.
+   *
+   * @param className the fully qualified name of a class
+   * @return the location of the class file, or null if the class file is not found
+   */
+  public static URL getClassFile(String className) {
+    return getLoader().getResource(className.replace('.', '/') + ".class");
+  }
+
+  /**
+   * Returns the class loader of the system under analysis. A new class loader is created (and the
+   * caches are cleared) whenever the configured classpath changes.
+   *
+   * @return the class loader for the configured classpath
+   */
+  private static synchronized URLClassLoader getLoader() {
+    final List<URL> urls = Configuration.INSTANCE.classDirs;
+    if (loader == null || !loaderClasspath.equals(urls)) {
+      close();
+      loaderClasspath = new ArrayList<>(urls);
+      loader = new URLClassLoader(urls.toArray(new URL[urls.size()]), null);
+    }
+    return loader;
+  }
+
+  /**
+   * Closes the class loader of the system under analysis and clears the caches of loaded classes.
+   * Call this method at the end of a run: classes loaded so far remain usable, while classes
+   * requested later are loaded by a new class loader.
+   */
+  public static synchronized void close() {
+    loadedClasses.clear();
+    missingClasses.clear();
+    if (loader != null) {
+      try {
+        loader.close();
+      } catch (IOException e) {
+        log.warn("Unable to close the class loader of " + loaderClasspath, e);
+      }
+      loader = null;
+      loaderClasspath = null;
     }
   }
 
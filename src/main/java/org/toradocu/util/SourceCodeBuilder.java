@@ -42,6 +42,17 @@ public class SourceCodeBuilder {
    * @return the source code to be compiled
    */
   public String buildSource() {
+    return buildSource("GeneratedSpecs");
+  }
+
+  /**
+   * Method to be invoked after all the field (source code elements) have been prepared. Composes
+   * the source code of a class with the given name.
+   *
+   * @param className the simple name of the generated class
+   * @return the source code to be compiled
+   */
+  public String buildSource(String className) {
     StringBuilder fakeSource = new StringBuilder();
 
     if (!packageDeclaration.isEmpty()) {
@@ -55,7 +66,9 @@ public class SourceCodeBuilder {
       fakeSource.append(";");
       fakeSource.append("\n");
     }
-    fakeSource.append("public class GeneratedSpecs ");
+    fakeSource.append("public class ");
+    fakeSource.append(className);
+    fakeSource.append(" ");
     if (!classTypeParameters.isEmpty()) {
       fakeSource.append("<");
       fakeSource.append(String.join(",", classTypeParameters));
@@ -1,13 +1,9 @@
 package org.toradocu.util;
 
-import com.google.gson.reflect.TypeToken;
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.lang.reflect.Type;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.Collection;
 import java.util.List;
 import org.toradocu.output.util.JsonOutput;
 import org.toradocu.output.util.ReturnTagOutput;
@@ -35,10 +31,7 @@ public class SpecsCount {
       path = Files.readSymbolicLink(path);
     }
 
-    try (BufferedReader file = Files.newBufferedReader(path)) {
-      Type collectionType = new TypeToken<Collection<JsonOutput>>() {}.getType();
-      specs = GsonInstance.gson().fromJson(file, collectionType);
-    }
+    specs = JsonStreamReader.readAll(path, JsonOutput.class);
 
     int pre = 0, post = 0, exc = 0;
 
@@ -0,0 +1,239 @@
+package org.toradocu.util;
+
+import com.github.javaparser.ParseProblemException;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.body.BodyDeclaration;
+import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
+import com.github.javaparser.ast.body.TypeDeclaration;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.toradocu.extractor.SourceModel;
+
+/**
+ * Collects the fully-qualified names of the classes to analyze when Toradocu runs in batch mode.
+ * Classes can be collected from a package in a source directory, from a whole source directory,
+ * from a JAR file, or from a file listing the class names.
+ */
+public final class TargetClasses {
+
+  /** Makes constructor private to prevent the instantiation of this class objects. */
+  private TargetClasses() {}
+
+  /**
+   * Returns the names of the top-level classes of the given package whose source files are in
+   * {@code sourceDir}. Sub-packages are not considered.
+   *
+   * @param sourceDir the source root folder
+   * @param packageName the fully-qualified name of the package
+   * @return the names of the classes in the package, sorted alphabetically
+   * @throws IOException if the package folder cannot be read
+   */
+  public static List<String> fromPackage(Path sourceDir, String packageName) throws IOException {
+    Checks.nonNullParameter(sourceDir, "sourceDir");
+    Checks.nonNullParameter(packageName, "packageName");
+
+    final Path packageDir = sourceDir.resolve(packageName.replace(".", File.separator));
+    if (!Files.isDirectory(packageDir)) {
+      throw new IOException("Unable to find package " + packageName + " in " + sourceDir);
+    }
+    try (Stream<Path> files = Files.list(packageDir)) {
+      return files
+          .filter(TargetClasses::isClassSourceFile)
+          .map(file -> toClassName(sourceDir, file))
+          .sorted()
+          .collect(Collectors.toList());
+    }
+  }
+
+  /**
+   * Returns the names of the top-level classes whose source files are in {@code sourceDir} (or in
+   * any of its sub-folders).
+   *
+   * @param sourceDir the source root folder
+   * @return the names of the classes in the source folder, sorted alphabetically
+   * @throws IOException if the source folder cannot be read
+   */
+  public static List<String> fromSourceRoot(Path sourceDir) throws IOException {
+    Checks.nonNullParameter(sourceDir, "sourceDir");
+
+    try (Stream<Path> files = Files.walk(sourceDir)) {
+      return files
+          .filter(TargetClasses::isClassSourceFile)
+          .map(file -> toClassName(sourceDir, file))
+          .sorted()
+          .collect(Collectors.toList());
+    }
+  }
+
+  /**
+   * Returns the names of the classes contained in the given JAR file. Anonymous and local classes
+   * are ignored.
+   *
+   * @param jar the JAR file
+   * @return the names of the classes in the JAR file, in the order they appear in the JAR
+   * @throws IOException if the JAR file cannot be read
+   */
+  public static List<String> fromJar(File jar) throws IOException {
+    Checks.nonNullParameter(jar, "jar");
+
+    List<String> classes = new ArrayList<>();
+    try (JarFile jarFile = new JarFile(jar)) {
+      final Enumeration<JarEntry> entries = jarFile.entries();
+      while (entries.hasMoreElements()) {
+        final String entryName = entries.nextElement().getName();
+        if (!entryName.endsWith(".class")) {
+          continue;
+        }
+        final String className =
+            entryName.substring(0, entryName.length() - ".class".length()).replace('/', '.');
+        if (isNamedClass(className)) {
+          classes.add(className);
+        }
+      }
+    }
+    return classes;
+  }
+
+  /**
+   * Returns the class names listed in the given file. The file must contain a fully-qualified class
+   * name per line. Empty lines and lines starting with {@code #} are ignored.
+   *
+   * @param classList the file listing the class names
+   * @return the class names listed in the file, in the order they appear in the file
+   * @throws IOException if the file cannot be read
+   */
+  public static List<String> fromClassList(File classList) throws IOException {
+    Checks.nonNullParameter(classList, "classList");
+
+    Set<String> classes = new LinkedHashSet<>();
+    for (String line : Files.readAllLines(classList.toPath(), StandardCharsets.UTF_8)) {
+      line = line.trim();
+      if (!line.isEmpty() && !line.startsWith("#")) {
+        classes.add(line);
+      }
+    }
+    return new ArrayList<>(classes);
+  }
+
+  /**
+   * Returns the given classes, each one followed by its non-private static nested classes and
+   * interfaces (only those declared directly in its body). The source files of the classes, which
+   * are in {@code sourceDir}, are parsed in parallel. Classes whose source file cannot be parsed
+   * are returned without nested classes.
+   *
+   * @param sourceDir the source root folder
+   * @param classes the fully-qualified names of the classes
+   * @return the names of the classes and of their nested classes, without duplicates
+   */
+  public static List<String> withNestedClasses(Path sourceDir, List<String> classes) {
+    Checks.nonNullParameter(sourceDir, "sourceDir");
+    Checks.nonNullParameter(classes, "classes");
+
+    final List<List<String>> expanded =
+        classes
+            .parallelStream()
+            .map(className -> withNestedClasses(sourceDir, className))
+            .collect(Collectors.toList());
+    Set<String> allClasses = new LinkedHashSet<>();
+    expanded.forEach(allClasses::addAll);
+    return new ArrayList<>(allClasses);
+  }
+
+  private static List<String> withNestedClasses(Path sourceDir, String className) {
+    List<String> classes = new ArrayList<>();
+    classes.add(className);
+    if (className.contains("$")) {
+      return classes;
+    }
+    final File sourceFile =
+        sourceDir.resolve(className.replace('.', File.separatorChar) + ".java").toFile();
+    final String simpleName = className.substring(className.lastIndexOf('.') + 1);
+    final CompilationUnit cu;
+    try {
+      cu = SourceModel.compilationUnit(sourceFile);
+    } catch (FileNotFoundException | ParseProblemException e) {
+      return classes;
+    }
+    for (TypeDeclaration<?> type : cu.getTypes()) {
+      if (!type.getNameAsString().equals(simpleName)) {
+        continue;
+      }
+      for (BodyDeclaration<?> member : type.getMembers()) {
+        if (member.isClassOrInterfaceDeclaration()) {
+          final ClassOrInterfaceDeclaration nested = member.asClassOrInterfaceDeclaration();
+          // Inner (non-static) classes are not supported by the extractor.
+          final boolean isStatic =
+              nested.isStatic()
+                  || nested.isInterface()
+                  || (type.isClassOrInterfaceDeclaration()
+                      && type.asClassOrInterfaceDeclaration().isInterface());
+          if (isStatic && !nested.isPrivate()) {
+            classes.add(className + "$" + nested.getNameAsString());
+          }
+        }
+      }
+    }
+    return classes;
+  }
+
+  /**
+   * Checks whether the given file is the source file of a class (i.e., it is not a package-info or
+   * module-info file).
+   *
+   * @param file the file to check
+   * @return true if {@code file} is the source file of a class, false otherwise
+   */
+  private static boolean isClassSourceFile(Path file) {
+    final String fileName = file.getFileName().toString();
+    return Files.isRegularFile(file)
+        && fileName.endsWith(".java")
+        && !fileName.equals("package-info.java")
+        && !fileName.equals("module-info.java");
+  }
+
+  /**
+   * Returns the fully-qualified name of the class defined in {@code sourceFile}.
+   *
+   * @param sourceDir the source root folder
+   * @param sourceFile a source file in {@code sourceDir}
+   * @return the fully-qualified name of the class defined in {@code sourceFile}
+   */
+  private static String toClassName(Path sourceDir, Path sourceFile) {
+    final String relativePath = sourceDir.relativize(sourceFile).toString();
+    return relativePath
+        .substring(0, relativePath.length() - ".java".length())
+        .replace(File.separatorChar, '.');
+  }
+
+  /**
+   * Checks whether the given binary class name refers to a named class, i.e., neither an anonymous
+   * nor a local class, nor a package-info or module-info class.
+   *
+   * @param className the binary name of a class
+   * @return true if {@code className} is the name of a named class, false otherwise
+   */
+  private static boolean isNamedClass(String className) {
+    if (className.endsWith("package-info") || className.endsWith("module-info")) {
+      return false;
+    }
+    for (String part : className.split("\\$", -1)) {
+      if (part.isEmpty() || Character.isDigit(part.charAt(0))) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -0,0 +1,123 @@
+package org.toradocu;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.toradocu.output.util.JsonOutput;
+import org.toradocu.util.JsonStreamReader;
+
+public class DaemonTest {
+
+  private static final Path exampleDir = Paths.get("src", "test", "resources");
+  private static final Path expectedOutput =
+      Paths.get(
+          "src/test/resources/expected-output/example.nulldereference.ResourceManager_goal.json");
+
+  @BeforeClass
+  public static void setUp() {
+    final Path sources = exampleDir.resolve("example/nulldereference");
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    final int exitCode =
+        compiler.run(
+            null,
+            null,
+            null,
+            sources.resolve("Resource.java").toString(),
+            sources.resolve("ResourceManager.java").toString());
+    assertThat(exitCode, is(0));
+  }
+
+  @Test
+  public void translatesClassesOnRequest() throws Exception {
+    final List<JsonOutput> expected = JsonStreamReader.readAll(expectedOutput, JsonOutput.class);
+    try (Daemon daemon = new Daemon(0, 2)) {
+      final Thread server = new Thread(daemon::serve);
+      server.start();
+      try (Client client = new Client(daemon.getPort())) {
+        assertThat(client.status("{\"id\": \"1\", \"command\": \"ping\"}"), is("ok"));
+
+        final String request =
+            "{\"id\": \"2\", \"targetClass\": \"example.nulldereference.ResourceManager\","
+                + " \"sourceDir\": \"" + exampleDir + "\", \"classDirs\": [\"" + exampleDir + "\"],"
+                + " \"options\": [\"--disable-semantics\", \"true\"]}";
+        for (int i = 0; i < 2; i++) {
+          final JsonObject response = client.send(request);
+          assertThat(response.get("id").getAsString(), is("2"));
+          assertThat(response.get("status").getAsString(), is("ok"));
+          assertThat(response.getAsJsonArray("output").size(), is(expected.size()));
+        }
+
+        final JsonObject missingClass =
+            client.send("{\"targetClass\": \"example.Missing\", \"sourceDir\": \"" + exampleDir
+                + "\", \"classDirs\": [\"" + exampleDir + "\"]}");
+        assertThat(missingClass.get("status").getAsString(), is("error"));
+        assertThat(client.status("not json"), is("error"));
+
+        assertThat(client.status("{\"command\": \"shutdown\"}"), is("ok"));
+      }
+      server.join();
+    }
+  }
+
+  @Test
+  public void rejectsRequestsOverTheLimit() throws Exception {
+    try (Daemon daemon = new Daemon(0, 1)) {
+      final Thread server = new Thread(daemon::serve);
+      server.start();
+      try (Client first = new Client(daemon.getPort());
+          Client second = new Client(daemon.getPort())) {
+        assertThat(first.status("{\"command\": \"ping\"}"), is("ok"));
+        final JsonObject rejected = second.send("{\"command\": \"ping\"}");
+        assertThat(rejected.get("status").getAsString(), is("error"));
+        assertThat(rejected.get("error").getAsString(), containsString("Too many requests"));
+        assertThat(first.status("{\"command\": \"shutdown\"}"), is("ok"));
+      }
+      server.join();
+    }
+  }
+
+  /** Client of the daemon that sends one request at a time. */
+  private static class Client implements AutoCloseable {
+    private final Socket socket;
+    private final PrintWriter out;
+    private final BufferedReader in;
+
+    Client(int port) throws Exception {
+      socket = new Socket(InetAddress.getLoopbackAddress(), port);
+      out = new PrintWriter(socket.getOutputStream(), true);
+      in =
+          new BufferedReader(
+              new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+    }
+
+    String status(String request) throws Exception {
+      return send(request).get("status").getAsString();
+    }
+
+    JsonObject send(String request) throws Exception {
+      out.println(request);
+      return new JsonParser().parse(in.readLine()).getAsJsonObject();
+    }
+
+    @Override
+    public void close() throws Exception {
+      socket.close();
+    }
+  }
+}
@@ -0,0 +1,171 @@
+package org.toradocu;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import com.beust.jcommander.JCommander;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonPrimitive;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.toradocu.IncrementalAnalysis.Fingerprint;
+import org.toradocu.IncrementalAnalysis.Output;
+import org.toradocu.conf.Configuration;
+
+public class IncrementalAnalysisTest {
+
+  private static final String CLASS_NAME = "p.C";
+  private static final String BYTECODE = "bytecode";
+  private static final String JAVADOC = "javadoc";
+
+  private Path dir;
+  private Path sourceDir;
+
+  @Before
+  public void setUp() throws Exception {
+    dir = Files.createTempDirectory("incremental");
+    sourceDir = dir.resolve("src");
+    configure("--target-package", "p");
+    writeSource("package p; /** A class. */ class C {}");
+    // First run: the class is analyzed and its output stored.
+    IncrementalAnalysis incremental = open();
+    Fingerprint fingerprint = fingerprint(BYTECODE, JAVADOC);
+    assertThat(incremental.isUnchanged(CLASS_NAME, fingerprint), is(false));
+    assertThat(incremental.reuse(CLASS_NAME, fingerprint), is(nullValue()));
+    incremental.store(CLASS_NAME, fingerprint, output());
+    incremental.save();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    Configuration.INSTANCE.reset();
+    FileUtils.deleteDirectory(dir.toFile());
+  }
+
+  @Test
+  public void unchangedClassIsReused() throws Exception {
+    IncrementalAnalysis incremental = open();
+    Fingerprint fingerprint = fingerprint(BYTECODE, null);
+    assertThat(incremental.isUnchanged(CLASS_NAME, fingerprint), is(true));
+    Output output = incremental.reuse(CLASS_NAME, fingerprint);
+    assertThat(output, is(notNullValue()));
+    assertThat(output.translatorOutput, is(output().translatorOutput));
+    incremental.save();
+    assertThat(report().get(1), is(CLASS_NAME + ";reused;unchanged"));
+  }
+
+  @Test
+  public void changedSourceIsReusedIfTheJavadocIsUnchanged() throws Exception {
+    writeSource("package p; /** A class. */ class C { int field; }");
+    IncrementalAnalysis incremental = open();
+    Fingerprint fingerprint = fingerprint(BYTECODE, null);
+    assertThat(incremental.isUnchanged(CLASS_NAME, fingerprint), is(false));
+    assertThat(incremental.reuse(CLASS_NAME, fingerprint), is(nullValue()));
+
+    fingerprint.javadoc = JAVADOC;
+    assertThat(incremental.reuse(CLASS_NAME, fingerprint), is(notNullValue()));
+    incremental.save();
+    assertThat(report().get(1), is(CLASS_NAME + ";reused;javadoc unchanged"));
+  }
+
+  @Test
+  public void changedJavadocIsRecomputed() throws Exception {
+    writeSource("package p; /** Another class. */ class C {}");
+    IncrementalAnalysis incremental = open();
+    Fingerprint fingerprint = fingerprint(BYTECODE, "another javadoc");
+    assertThat(incremental.reuse(CLASS_NAME, fingerprint), is(nullValue()));
+    incremental.store(CLASS_NAME, fingerprint, output());
+    incremental.save();
+    assertThat(report().get(1), is(CLASS_NAME + ";recomputed;javadoc changed"));
+  }
+
+  @Test
+  public void changedClassFileIsRecomputed() throws Exception {
+    IncrementalAnalysis incremental = open();
+    Fingerprint fingerprint = fingerprint("another bytecode", JAVADOC);
+    assertThat(incremental.isUnchanged(CLASS_NAME, fingerprint), is(false));
+    assertThat(incremental.reuse(CLASS_NAME, fingerprint), is(nullValue()));
+    incremental.store(CLASS_NAME, fingerprint, output());
+    incremental.save();
+    assertThat(report().get(1), is(CLASS_NAME + ";recomputed;bytecode changed"));
+  }
+
+  @Test
+  public void changedConfigurationIsRecomputed() throws Exception {
+    final String[][] options = {
+      {"--disable-semantics", "true"},
+      {"--distance-threshold", "1"},
+      {"--oracle-generation", "true"},
+      {"--test-generation", "true"}
+    };
+    for (String[] option : options) {
+      configure("--target-package", "p", option[0], option[1]);
+      IncrementalAnalysis incremental = open();
+      Fingerprint fingerprint = fingerprint(BYTECODE, JAVADOC);
+      assertThat(option[0], incremental.isUnchanged(CLASS_NAME, fingerprint), is(false));
+      assertThat(option[0], incremental.reuse(CLASS_NAME, fingerprint), is(nullValue()));
+      incremental.store(CLASS_NAME, fingerprint, output());
+      // The manifest of this run is not saved, so that each option is compared with the first run.
+    }
+    configure("--target-package", "p", "--disable-semantics", "true");
+    IncrementalAnalysis incremental = open();
+    incremental.store(CLASS_NAME, fingerprint(BYTECODE, JAVADOC), output());
+    incremental.save();
+    assertThat(report().get(1), is(CLASS_NAME + ";recomputed;configuration changed"));
+  }
+
+  private void configure(String... options) {
+    final List<String> args = new ArrayList<>(options.length + 4);
+    args.addAll(Arrays.asList("--source-dir", sourceDir.toString()));
+    args.addAll(Arrays.asList("--class-dir", dir.resolve("bin").toString()));
+    args.addAll(Arrays.asList(options));
+    Configuration.INSTANCE.reset();
+    JCommander.newBuilder()
+        .addObject(Configuration.INSTANCE)
+        .build()
+        .parse(args.toArray(new String[0]));
+  }
+
+  private IncrementalAnalysis open() throws Exception {
+    return IncrementalAnalysis.open(dir.resolve("state").toFile(), Configuration.INSTANCE);
+  }
+
+  private void writeSource(String source) throws Exception {
+    final File sourceFile = sourceDir.resolve("p").resolve("C.java").toFile();
+    FileUtils.writeStringToFile(sourceFile, source, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Returns the fingerprint of the test class, with the given hashes of the class file (which is
+   * not compiled) and of the Javadoc comments.
+   */
+  private Fingerprint fingerprint(String bytecode, String javadoc) {
+    Fingerprint fingerprint = IncrementalAnalysis.fingerprint(CLASS_NAME, sourceDir);
+    assertThat(fingerprint.source, is(not(nullValue())));
+    fingerprint.bytecode = bytecode;
+    fingerprint.javadoc = javadoc;
+    return fingerprint;
+  }
+
+  private static Output output() {
+    JsonArray translatorOutput = new JsonArray();
+    translatorOutput.add(new JsonPrimitive("output"));
+    return new Output(translatorOutput, null);
+  }
+
+  private List<String> report() throws Exception {
+    return Files.readAllLines(dir.resolve("state").resolve("report.csv"), StandardCharsets.UTF_8);
+  }
+}
@@ -75,4 +75,10 @@ public class CommentTest {
     Comment mixedHTMLComment = new Comment(mixedHTMLTags);
     assertThat(mixedHTMLComment.getText(), is("This comment contains bold text and a break"));
   }
+
+  @Test
+  public void htmlEntitiesAreDecoded() {
+    Comment comment = new Comment("if index &ge; 0 &amp;&amp; index &lt; size, &amp;lt; is kept &");
+    assertThat(comment.getText(), is("if index >= 0 && index < size, &lt; is kept &"));
+  }
 }
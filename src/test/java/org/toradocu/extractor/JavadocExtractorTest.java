@@ -16,6 +16,7 @@ import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import org.junit.BeforeClass;
@@ -206,6 +207,31 @@ public class JavadocExtractorTest {
     assertThat(member.getReturnType().getType().getTypeName(), is("void"));
   }
 
+  @Test
+  public void extractionPipelineReturnsClassesInOrder() throws Exception {
+    final List<String> classes = Arrays.asList(TARGET_CLASS, "example.Missing", "example.AnEnum");
+    try (ExtractionPipeline pipeline =
+        new ExtractionPipeline(classes, EXAMPLE_SRC, 2, c -> !c.equals("example.AnEnum"))) {
+      ExtractionPipeline.Extraction extraction = pipeline.next();
+      assertThat(extraction.getClassName(), is(TARGET_CLASS));
+      assertThat(extraction.get().getDocumentedExecutables().size(), is(members.size()));
+
+      extraction = pipeline.next();
+      assertThat(extraction.getClassName(), is("example.Missing"));
+      try {
+        extraction.get();
+        fail("The extraction of a missing class must fail");
+      } catch (ClassNotFoundException e) {
+        // Expected.
+      }
+
+      extraction = pipeline.next();
+      assertThat(extraction.getClassName(), is("example.AnEnum"));
+      assertThat(extraction.isExtracted(), is(false));
+      assertThat(pipeline.hasNext(), is(false));
+    }
+  }
+
   private static DocumentedType runJavadocExtractor()
       throws ClassNotFoundException, FileNotFoundException, MalformedURLException {
     final URL url = Paths.get(EXAMPLE_SRC).toUri().toURL();
@@ -0,0 +1,56 @@
+package org.toradocu.extractor;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import com.github.javaparser.ast.CompilationUnit;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class SourceModelTest {
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  @After
+  public void tearDown() {
+    SourceModel.clear();
+  }
+
+  @Test
+  public void sourceFilesAreParsedOnceUntilModified() throws Exception {
+    final File source = folder.newFile("Foo.java");
+    write(source, "class Foo {}");
+    final CompilationUnit first = SourceModel.compilationUnit(source);
+    assertThat(SourceModel.compilationUnit(source), is(sameInstance(first)));
+
+    write(source, "class Foo { void bar() {} }");
+    source.setLastModified(source.lastModified() + 2000);
+    final CompilationUnit second = SourceModel.compilationUnit(source);
+    assertThat(second, is(not(sameInstance(first))));
+    assertThat(second.getClassByName("Foo").get().getMethods().size(), is(1));
+  }
+
+  @Test
+  public void packageListingIsRefreshedWhenFilesAreAdded() throws Exception {
+    final File packageDir = folder.newFolder("pkg");
+    write(new File(packageDir, "Foo.java"), "class Foo {}");
+    write(new File(packageDir, "notes.txt"), "");
+    assertThat(SourceModel.sourceFileNames(packageDir), is(Arrays.asList("Foo")));
+
+    write(new File(packageDir, "Bar.java"), "class Bar {}");
+    packageDir.setLastModified(packageDir.lastModified() + 2000);
+    assertThat(SourceModel.sourceFileNames(packageDir).size(), is(2));
+  }
+
+  private static void write(File file, String content) throws Exception {
+    Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,159 @@
+package org.toradocu.generator;
+
+import static org.hamcrest.CoreMatchers.hasItems;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import com.beust.jcommander.JCommander;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.expr.ObjectCreationExpr;
+import com.github.javaparser.resolution.UnsolvedSymbolException;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import javax.tools.ToolProvider;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.toradocu.Toradocu;
+import org.toradocu.conf.Configuration;
+
+public class TestCaseSymbolSolverTest {
+
+  private static final String INDEXED_CLASS = "org.evosuite.runtime.ViolatedAssumptionAnswer";
+  private static final String UNINDEXED_CLASS = "org.evosuite.runtime.Unindexed";
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  private Configuration configuration;
+  private Path indexDir;
+  private File testCase;
+
+  @Before
+  public void setUp() throws Exception {
+    configuration = Toradocu.configuration;
+    indexDir = folder.getRoot().toPath().resolve("index");
+    testCase = folder.newFile("ATest.java");
+    final String source =
+        "public class ATest {\n"
+            + "  void test() {\n"
+            + "    Object a = new "
+            + INDEXED_CLASS
+            + "();\n"
+            + "    Object b = new "
+            + UNINDEXED_CLASS
+            + "();\n"
+            + "  }\n"
+            + "}\n";
+    Files.write(testCase.toPath(), source.getBytes(StandardCharsets.UTF_8));
+  }
+
+  @After
+  public void tearDown() {
+    Toradocu.configuration = configuration;
+    Configuration.INSTANCE.reset();
+  }
+
+  @Test
+  public void evoSuiteTypesAreResolvedThroughThePersistedIndex() throws Exception {
+    final Path jar = evoSuiteJar("evosuite-persisted.jar");
+    // The persisted index lists only one of the classes of the jar.
+    Files.createDirectories(indexDir);
+    Files.write(
+        indexDir.resolve(TestCaseSymbolSolver.indexName(jar)),
+        Collections.singletonList(INDEXED_CLASS),
+        StandardCharsets.UTF_8);
+
+    final List<ObjectCreationExpr> creations =
+        TestCaseSymbolSolver.parse(testCase).findAll(ObjectCreationExpr.class);
+    assertThat(creations.get(0).calculateResolvedType().describe(), is(INDEXED_CLASS));
+    try {
+      creations.get(1).calculateResolvedType();
+      fail(UNINDEXED_CLASS + " is not in the index, but it has been resolved");
+    } catch (UnsolvedSymbolException e) {
+      // Expected: the jar has not been scanned again.
+    }
+  }
+
+  @Test
+  public void missingIndexIsPersisted() throws Exception {
+    final Path jar = evoSuiteJar("evosuite-scanned.jar");
+    final Path staleIndex = indexDir.resolve("evosuite-scanned.jar-0-0.v1.idx");
+    Files.createDirectories(indexDir);
+    Files.write(staleIndex, Collections.singletonList(INDEXED_CLASS), StandardCharsets.UTF_8);
+
+    final CompilationUnit cu = TestCaseSymbolSolver.parse(testCase);
+    for (ObjectCreationExpr creation : cu.findAll(ObjectCreationExpr.class)) {
+      assertThat(creation.calculateResolvedType().describe(), is(creation.getTypeAsString()));
+    }
+    final Path index = indexDir.resolve(TestCaseSymbolSolver.indexName(jar));
+    assertThat(
+        Files.readAllLines(index, StandardCharsets.UTF_8),
+        hasItems(INDEXED_CLASS, UNINDEXED_CLASS));
+    assertThat(Files.exists(staleIndex), is(false));
+  }
+
+  /**
+   * Builds a jar containing the EvoSuite runtime classes used by the test case, and configures
+   * Toradocu to resolve the test case against it, with an empty source directory.
+   *
+   * @param name the file name of the jar, different for each test since the indexes are shared
+   * @return the path of the jar
+   */
+  private Path evoSuiteJar(String name) throws IOException {
+    final File sourceDir = folder.newFolder("evosuite");
+    final File classDir = folder.newFolder("classes");
+    final Path jar = folder.getRoot().toPath().resolve(name);
+    final List<String> compilerArgs = new ArrayList<>();
+    compilerArgs.addAll(Arrays.asList("-d", classDir.toString()));
+    for (String className : Arrays.asList(INDEXED_CLASS, UNINDEXED_CLASS)) {
+      final int dot = className.lastIndexOf('.');
+      final Path sourceFile = sourceDir.toPath().resolve(className.replace('.', '/') + ".java");
+      Files.createDirectories(sourceFile.getParent());
+      final String source =
+          "package "
+              + className.substring(0, dot)
+              + "; public class "
+              + className.substring(dot + 1)
+              + " {}";
+      Files.write(sourceFile, source.getBytes(StandardCharsets.UTF_8));
+      compilerArgs.add(sourceFile.toString());
+    }
+    final int result =
+        ToolProvider.getSystemJavaCompiler()
+            .run(null, null, null, compilerArgs.toArray(new String[0]));
+    assertThat(result, is(0));
+
+    try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar))) {
+      for (String className : Arrays.asList(INDEXED_CLASS, UNINDEXED_CLASS)) {
+        final String entry = className.replace('.', '/') + ".class";
+        out.putNextEntry(new JarEntry(entry));
+        Files.copy(classDir.toPath().resolve(entry), (OutputStream) out);
+        out.closeEntry();
+      }
+    }
+
+    final String[] args = {
+      "--source-dir", folder.newFolder("library").toString(),
+      "--class-dir", classDir.toString(),
+      "--evosuite-jar", jar.toString(),
+      "--type-index-dir", indexDir.toString()
+    };
+    Configuration.INSTANCE.reset();
+    JCommander.newBuilder().addObject(Configuration.INSTANCE).build().parse(args);
+    Toradocu.configuration = Configuration.INSTANCE;
+    return jar;
+  }
+}
@@ -22,6 +22,10 @@ import org.toradocu.util.Stats;
  * of the execution of Toradocu on a given class. You probably want to add assertions on the
  * precision/recall values obtained. The existing test suites have examples of assertions on the
  * precision/recall values.
+ *
+ * <p>To evaluate the classes concurrently, set the system property {@code
+ * org.toradocu.accuracy.workers} to the number of worker JVMs (see {@link
+ * ParallelPrecisionRecall}).
  */
 public abstract class AbstractPrecisionRecallTestSuite {
 
@@ -36,6 +40,8 @@ public abstract class AbstractPrecisionRecallTestSuite {
 
   /** Keeps track of statistics on currently run tests. */
   private static final TestSuiteStats testSuiteStats = new TestSuiteStats();
+  /** Time at which the test suite started. */
+  private static long startTime;
   /** The directory containing the source files on which to run tests. */
   private final String sourceDirPath;
   /** The directory containing the binaries on which to run tests. */
@@ -62,6 +68,7 @@ public abstract class AbstractPrecisionRecallTestSuite {
   @BeforeClass
   public static void setUp() throws IOException {
     new File(OUTPUT_DIR).mkdir();
+    startTime = System.nanoTime();
   }
 
   /** Prints the results (i.e. statistics) of the test suite. */
@@ -82,7 +89,8 @@ public abstract class AbstractPrecisionRecallTestSuite {
             + "\nAverage precision on @throws: "
             + String.format("%.2f", testSuiteStats.getPrecision(BlockTag.Kind.THROWS))
             + "\nAverage recall on @throws: "
-            + String.format("%.2f", testSuiteStats.getRecall(BlockTag.Kind.THROWS)));
+            + String.format("%.2f", testSuiteStats.getRecall(BlockTag.Kind.THROWS))
+            + String.format("\nWall-clock time: %.1f s", (System.nanoTime() - startTime) / 1e9));
   }
 
   /**
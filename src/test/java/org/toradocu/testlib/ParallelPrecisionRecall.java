@@ -0,0 +1,271 @@
+package org.toradocu.testlib;
+
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.toradocu.Toradocu;
+import org.toradocu.util.Stats;
+
+/**
+ * Evaluates the precision and recall of Toradocu on all the classes of a library concurrently. The
+ * configuration of Toradocu is shared by a whole JVM, so each class cannot have its own
+ * configuration in the JVM running the tests: the classes that have a goal output are split among
+ * worker JVMs, each analyzing its share of classes in batch mode with its own configuration. The
+ * outputs are then compared with the goal outputs in parallel.
+ *
+ * <p>The evaluation is enabled by setting the system property {@code org.toradocu.accuracy.workers}
+ * to the number of worker JVMs, and runs the first time the statistics of a class of the library
+ * are requested. Statistics are the same as those of the sequential evaluation, class by class.
+ */
+final class ParallelPrecisionRecall {
+
+  /** System property specifying the number of worker JVMs. */
+  private static final String WORKERS_PROPERTY = "org.toradocu.accuracy.workers";
+
+  /** Suffix of the goal output files. */
+  private static final String GOAL_SUFFIX = "_goal.json";
+
+  /** Suffix of the output files written by Toradocu in batch mode. */
+  private static final String OUTPUT_SUFFIX = "_out.json";
+
+  /** Statistics of the classes of each evaluated library, indexed by goal output directory. */
+  private static final Map<String, Map<String, Stats>> libraries = new ConcurrentHashMap<>();
+
+  private ParallelPrecisionRecall() {}
+
+  /**
+   * Tells whether the concurrent evaluation is enabled. The evaluation is disabled if the oracle
+   * generation is enabled, since aspects are generated class by class.
+   *
+   * @return true if the concurrent evaluation is enabled
+   */
+  static boolean isEnabled() {
+    return workers() > 1 && !"true".equals(System.getProperty("org.toradocu.generator"));
+  }
+
+  /**
+   * Returns the statistics of the given class, evaluating all the classes of its library if they
+   * have not been evaluated yet.
+   *
+   * @param targetClass the fully qualified name of the class
+   * @param srcPath the source path of the library
+   * @param binPath the path to the binaries of the library
+   * @param goalOutputDir the path of the directory containing the goal outputs of the library
+   * @return the statistics of {@code targetClass}, or null if the class has no goal output in
+   *     {@code goalOutputDir}
+   */
+  static Stats getStats(String targetClass, String srcPath, String binPath, String goalOutputDir) {
+    final String library = Paths.get(goalOutputDir).toAbsolutePath().normalize().toString();
+    return libraries
+        .computeIfAbsent(library, l -> evaluate(srcPath, binPath, goalOutputDir))
+        .get(targetClass);
+  }
+
+  /**
+   * Evaluates all the classes of a library that have a goal output, and prints the wall-clock time
+   * of the evaluation compared to the total running time of the workers. The speedup over the
+   * sequential evaluation is the ratio between the wall-clock times of the test suite (see {@link
+   * AbstractPrecisionRecallTestSuite}) without and with the workers.
+   *
+   * @param srcPath the source path of the library
+   * @param binPath the path to the binaries of the library
+   * @param goalOutputDir the path of the directory containing the goal outputs of the library
+   * @return the statistics of each class, indexed by class name
+   */
+  private static Map<String, Stats> evaluate(String srcPath, String binPath, String goalOutputDir) {
+    final long start = System.nanoTime();
+    final List<String> classes = classes(goalOutputDir);
+    if (classes.isEmpty()) {
+      return Collections.emptyMap();
+    }
+    final int workers = Math.min(workers(), classes.size());
+    final Path outputDir =
+        Paths.get(
+            AbstractPrecisionRecallTestSuite.OUTPUT_DIR,
+            "parallel",
+            Paths.get(goalOutputDir).getFileName().toString());
+
+    List<Worker> running = new ArrayList<>();
+    for (int i = 0; i < workers; i++) {
+      List<String> share = new ArrayList<>();
+      // Classes are assigned round-robin, so that each worker gets classes of all sizes.
+      for (int j = i; j < classes.size(); j += workers) {
+        share.add(classes.get(j));
+      }
+      running.add(new Worker(outputDir.resolve("worker" + i), share, srcPath, binPath));
+    }
+    final ExecutorService executor = Executors.newFixedThreadPool(workers);
+    try {
+      // The outputs of a previous evaluation must not be mistaken for the outputs of the workers.
+      for (String targetClass : classes) {
+        Files.deleteIfExists(outputDir.resolve(targetClass + OUTPUT_SUFFIX));
+      }
+      long workersTime = 0;
+      for (Future<Long> workerTime : executor.invokeAll(running)) {
+        workersTime += workerTime.get();
+      }
+
+      Map<String, Stats> stats = new ConcurrentHashMap<>();
+      classes
+          .parallelStream()
+          .forEach(
+              targetClass -> {
+                final Path output = outputDir.resolve(targetClass + OUTPUT_SUFFIX);
+                if (Files.exists(output)) {
+                  final Path goal = Paths.get(goalOutputDir, targetClass + GOAL_SUFFIX);
+                  final String message = "=== Test " + targetClass + " ===";
+                  stats.put(
+                      targetClass,
+                      PrecisionRecallTest.compare(
+                          targetClass, output.toString(), goal.toString(), message));
+                }
+              });
+
+      final double wallClock = (System.nanoTime() - start) / 1e9;
+      final double workersSeconds = workersTime / 1e9;
+      System.out.println(
+          "=== Parallel evaluation of "
+              + goalOutputDir
+              + " ===\nClasses: "
+              + classes.size()
+              + " ("
+              + stats.size()
+              + " evaluated), workers: "
+              + workers
+              + String.format("\nWall-clock time: %.1f s", wallClock)
+              + String.format("\nTime of the workers: %.1f s", workersSeconds)
+              + String.format("\nParallelism: %.2f", workersSeconds / wallClock));
+      return stats;
+    } catch (IOException | ExecutionException e) {
+      fail("Unable to evaluate the classes of " + goalOutputDir + ": " + e);
+      return Collections.emptyMap();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      fail("Interrupted while evaluating the classes of " + goalOutputDir);
+      return Collections.emptyMap();
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Returns the classes that have a goal output in the given directory.
+   *
+   * @param goalOutputDir the directory containing the goal outputs
+   * @return the fully qualified names of the classes, sorted
+   */
+  private static List<String> classes(String goalOutputDir) {
+    try (Stream<Path> files = Files.list(Paths.get(goalOutputDir))) {
+      return files
+          .map(file -> file.getFileName().toString())
+          .filter(name -> name.endsWith(GOAL_SUFFIX))
+          .map(name -> name.substring(0, name.length() - GOAL_SUFFIX.length()))
+          .sorted()
+          .collect(Collectors.toList());
+    } catch (IOException e) {
+      fail("Unable to list the goal outputs in " + goalOutputDir + ": " + e.getMessage());
+      return Collections.emptyList();
+    }
+  }
+
+  private static int workers() {
+    return Integer.getInteger(WORKERS_PROPERTY, 1);
+  }
+
+  /**
+   * A JVM running Toradocu in batch mode on a share of the classes of a library. Classes whose
+   * output is not written by the worker (e.g., because the worker fails) are evaluated again
+   * sequentially.
+   */
+  private static class Worker implements Callable<Long> {
+    /** The directory of the class list, the log, and the statistics of the worker. */
+    private final Path workDir;
+    /** The classes to analyze. */
+    private final List<String> classes;
+    /** The source path of the classes. */
+    private final String srcPath;
+    /** The path to the binaries of the classes. */
+    private final String binPath;
+
+    Worker(Path workDir, List<String> classes, String srcPath, String binPath) {
+      this.workDir = workDir;
+      this.classes = classes;
+      this.srcPath = srcPath;
+      this.binPath = binPath;
+    }
+
+    /**
+     * Runs the worker JVM, which writes the output of each class in the parent of {@code workDir},
+     * and waits for its completion.
+     *
+     * @return the running time of the worker in nanoseconds
+     * @throws IOException if the worker cannot be started
+     * @throws InterruptedException if interrupted while waiting for the worker
+     */
+    @Override
+    public Long call() throws IOException, InterruptedException {
+      Files.createDirectories(workDir);
+      final Path classList = workDir.resolve("classes.txt");
+      Files.write(classList, classes, StandardCharsets.UTF_8);
+
+      List<String> command = new ArrayList<>();
+      command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+      // Memory settings and module options of the tests apply to the workers too.
+      for (String jvmArgument : ManagementFactory.getRuntimeMXBean().getInputArguments()) {
+        if (jvmArgument.startsWith("-Xm")
+            || jvmArgument.startsWith("-Xss")
+            || jvmArgument.startsWith("--add-opens")
+            || jvmArgument.startsWith("--add-exports")) {
+          command.add(jvmArgument);
+        }
+      }
+      command.add("-cp");
+      command.add(System.getProperty("java.class.path"));
+      command.add(Toradocu.class.getName());
+      command.add("--target-class-list");
+      command.add(classList.toString());
+      command.add("--batch-output-dir");
+      command.add(workDir.getParent().toString());
+      command.add("--class-dir");
+      command.add(binPath);
+      command.add("--source-dir");
+      command.add(srcPath);
+      command.add("--oracle-generation");
+      command.add("false");
+      command.addAll(PrecisionRecallTest.translatorOptions(workDir.toFile()));
+
+      final long start = System.nanoTime();
+      final Process process =
+          new ProcessBuilder(command)
+              .redirectErrorStream(true)
+              .redirectOutput(workDir.resolve("worker.log").toFile())
+              .start();
+      try {
+        final int exitCode = process.waitFor();
+        if (exitCode != 0) {
+          System.err.println("Worker " + workDir + " exited with code " + exitCode);
+        }
+        return System.nanoTime() - start;
+      } finally {
+        process.destroyForcibly();
+      }
+    }
+  }
+}
@@ -2,20 +2,15 @@ package org.toradocu.testlib;
 
 import static org.junit.Assert.fail;
 
-import com.google.gson.reflect.TypeToken;
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
-import java.lang.reflect.Type;
-import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collection;
 import java.util.List;
 import org.toradocu.Toradocu;
 import org.toradocu.output.util.JsonOutput;
-import org.toradocu.util.GsonInstance;
+import org.toradocu.util.JsonStreamReader;
 import org.toradocu.util.Stats;
 
 /**
@@ -24,7 +19,9 @@ import org.toradocu.util.Stats;
 class PrecisionRecallTest {
 
   /**
-   * Runs Toradocu on the given class and collects data on its precision and recall.
+   * Runs Toradocu on the given class and collects data on its precision and recall. If {@link
+   * ParallelPrecisionRecall} is enabled, the statistics are taken from the concurrent evaluation of
+   * all the classes of the library.
    *
    * @param targetClass the fully qualified name of the class on which to run the test
    * @param srcPath the source path for the given targetClass
@@ -34,6 +31,14 @@ class PrecisionRecallTest {
    */
   static Stats computePrecisionAndRecall(
       String targetClass, String srcPath, String binPath, String goalOutputDir) {
+    if (ParallelPrecisionRecall.isEnabled()) {
+      final Stats stats =
+          ParallelPrecisionRecall.getStats(targetClass, srcPath, binPath, goalOutputDir);
+      if (stats != null) {
+        return stats;
+      }
+    }
+
     String actualOutputFile =
         AbstractPrecisionRecallTestSuite.OUTPUT_DIR + File.separator + targetClass + "_out.json";
     String goalOutputFile = Paths.get(goalOutputDir, targetClass + "_goal.json").toString();
@@ -64,24 +69,37 @@ class PrecisionRecallTest {
       argsList.add("false");
     }
 
+    argsList.addAll(translatorOptions(null));
+
+    Toradocu.main(argsList.toArray(new String[0]));
+    return compare(targetClass, actualOutputFile, goalOutputFile, message);
+  }
+
+  /**
+   * Returns the options that select the condition translator specified with the system property
+   * {@code org.toradocu.translator}, together with the statistics file of the translator.
+   *
+   * @param statsDir the directory of the statistics file, null for the working directory
+   * @return the options that select the condition translator
+   */
+  static List<String> translatorOptions(File statsDir) {
+    List<String> options = new ArrayList<>();
     final String translator = System.getProperty("org.toradocu.translator");
+    final String statsFile;
     if (translator != null && translator.equals("tcomment")) {
-      argsList.add("--tcomment");
-      argsList.add("--stats-file");
-      argsList.add("results_tcomment_.csv");
+      options.add("--tcomment");
+      statsFile = "results_tcomment_.csv";
     } else if (translator != null && translator.equals("nosemantics")) {
-      argsList.add("--disable-semantics");
-      argsList.add("true");
-      argsList.add("--stats-file");
-      argsList.add("results_.csv");
+      options.add("--disable-semantics");
+      options.add("true");
+      statsFile = "results_.csv";
     } else {
       // Semantic-based translator enabled by default.
-      argsList.add("--stats-file");
-      argsList.add("results_semantics_.csv");
+      statsFile = "results_semantics_.csv";
     }
-
-    Toradocu.main(argsList.toArray(new String[0]));
-    return compare(targetClass, actualOutputFile, goalOutputFile, message);
+    options.add("--stats-file");
+    options.add(statsDir == null ? statsFile : new File(statsDir, statsFile).getPath());
+    return options;
   }
 
   /**
@@ -94,16 +112,15 @@ class PrecisionRecallTest {
    * @param message a message to print before all other output
    * @return statistics on precision and recall for the test
    */
-  private static Stats compare(
+  static Stats compare(
       String targetClass, String outputFile, String goalOutputFile, String message) {
     StringBuilder report = new StringBuilder(message + "\n");
 
-    try (BufferedReader outFile = Files.newBufferedReader(Paths.get(outputFile));
-        BufferedReader goalFile = Files.newBufferedReader(Paths.get(goalOutputFile))) {
-
-      Type collectionType = new TypeToken<Collection<JsonOutput>>() {}.getType();
-      List<JsonOutput> actualResult = GsonInstance.gson().fromJson(outFile, collectionType);
-      List<JsonOutput> goalResult = GsonInstance.gson().fromJson(goalFile, collectionType);
+    try {
+      List<JsonOutput> actualResult =
+          JsonStreamReader.readAll(Paths.get(outputFile), JsonOutput.class);
+      List<JsonOutput> goalResult =
+          JsonStreamReader.readAll(Paths.get(goalOutputFile), JsonOutput.class);
       final Stats stats = Stats.getStats(targetClass, actualResult, goalResult, report);
       System.out.println(report);
       return stats;
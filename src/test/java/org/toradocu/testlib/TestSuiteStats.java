@@ -1,19 +1,18 @@
 package org.toradocu.testlib;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import org.toradocu.extractor.BlockTag;
 import org.toradocu.util.Stats;
 
 /**
  * TestSuiteStats computes the mean and standard deviation of the precision and recall of a
- * collection of testStats.
+ * collection of testStats. Statistics can be added and read concurrently.
  */
 class TestSuiteStats {
 
   /** A list of statistics for individual test cases in a test suite. */
-  private final List<Stats> testStats = Collections.synchronizedList(new ArrayList<>());
+  private final List<Stats> testStats = new ArrayList<>();
 
   /**
    * Adds a test case to the list of test cases used to compute statistics for the test suite. Added
@@ -21,7 +20,7 @@ class TestSuiteStats {
    *
    * @param stats the statistics for the test case
    */
-  void addStats(Stats stats) {
+  synchronized void addStats(Stats stats) {
     testStats.add(stats);
   }
 
@@ -30,7 +29,7 @@ class TestSuiteStats {
    *
    * @return the average precision of the testStats
    */
-  double getPrecision(BlockTag.Kind kind) {
+  synchronized double getPrecision(BlockTag.Kind kind) {
     final double sum = testStats.stream().mapToDouble(stats -> stats.getPrecision(kind)).sum();
     return sum / testStats.size();
   }
@@ -40,7 +39,7 @@ class TestSuiteStats {
    *
    * @return the average recall of the testStats
    */
-  double getRecall(BlockTag.Kind kind) {
+  synchronized double getRecall(BlockTag.Kind kind) {
     final double sum = testStats.stream().mapToDouble(stats -> stats.getRecall(kind)).sum();
     return sum / testStats.size();
   }
@@ -50,7 +49,7 @@ class TestSuiteStats {
    *
    * @return the total number of conditions in the testStats
    */
-  int getTotalNumConditions() {
+  synchronized int getTotalNumConditions() {
     return testStats.stream().mapToInt(Stats::numberOfConditions).sum();
   }
 }
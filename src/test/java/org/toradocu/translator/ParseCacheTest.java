@@ -0,0 +1,138 @@
+package org.toradocu.translator;
+
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import com.beust.jcommander.JCommander;
+import edu.stanford.nlp.ling.TaggedWord;
+import edu.stanford.nlp.semgraph.SemanticGraph;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.toradocu.conf.Configuration;
+
+public class ParseCacheTest {
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  @After
+  public void tearDown() {
+    Configuration.INSTANCE.reset();
+  }
+
+  @Test
+  public void storedGraphsAreReloaded() throws Exception {
+    final Path cacheDir = folder.getRoot().toPath();
+    final List<TaggedWord> sentence = sentence("The value is null .");
+    final SemanticGraph parsed = new ParseCache(cacheDir, 1 << 20).parse(sentence);
+    final Path entry = entries(cacheDir).get(0);
+    final Object entryFile = fileKey(entry);
+
+    // A new cache in the same folder, as in a later run, reads the graph instead of parsing again.
+    final SemanticGraph reloaded = new ParseCache(cacheDir, 1 << 20).parse(sentence);
+    assertThat(reloaded.toCompactString(), is(parsed.toCompactString()));
+    assertThat(entries(cacheDir), is(Arrays.asList(entry)));
+    assertThat(fileKey(entry), is(entryFile));
+  }
+
+  @Test
+  public void leastRecentlyUsedGraphsAreEvicted() throws Exception {
+    final List<TaggedWord> first = sentence("The value is null .");
+    final List<TaggedWord> second = sentence("The array is empty .");
+    final List<TaggedWord> third = sentence("The index is negative .");
+    final long thirdSize = entrySize(folder.newFolder("third").toPath(), third);
+
+    final Path cacheDir = folder.newFolder("cache").toPath();
+    final long firstSize = entrySize(cacheDir, first);
+    entrySize(cacheDir, second);
+    final long now = System.currentTimeMillis();
+    for (Path entry : entries(cacheDir)) {
+      Files.setLastModifiedTime(entry, FileTime.fromMillis(now - 60_000));
+    }
+
+    // The three entries do not fit in the cache: the second, least recently used, is evicted.
+    final ParseCache cache = new ParseCache(cacheDir, (long) ((firstSize + thirdSize) / 0.9) + 1);
+    cache.parse(first);
+    final Path firstEntry = entries(cacheDir).stream().filter(this::isRecent).findFirst().get();
+    cache.parse(third);
+    final List<Path> entries = entries(cacheDir);
+    assertThat(entries.size(), is(2));
+    assertThat(entries.contains(firstEntry), is(true));
+    assertThat(entries.stream().allMatch(this::isRecent), is(true));
+  }
+
+  @Test
+  public void cacheFollowsTheConfiguration() throws Exception {
+    configure("--parse-cache-dir", folder.newFolder("first").toString());
+    final ParseCache cache = ParseCache.getInstance();
+    assertThat(cache, is(notNullValue()));
+    assertThat(ParseCache.getInstance(), is(sameInstance(cache)));
+
+    // As between the requests served by the daemon.
+    configure("--parse-cache-dir", folder.newFolder("second").toString());
+    final ParseCache secondCache = ParseCache.getInstance();
+    assertThat(secondCache, is(not(sameInstance(cache))));
+    final String secondDir = folder.getRoot().toPath().resolve("second").toString();
+    configure("--parse-cache-dir", secondDir, "--parse-cache-size", "1");
+    assertThat(ParseCache.getInstance(), is(not(sameInstance(secondCache))));
+    configure();
+    assertThat(ParseCache.getInstance(), is(nullValue()));
+  }
+
+  private static void configure(String... options) {
+    final List<String> args = new ArrayList<>();
+    args.addAll(Arrays.asList("--source-dir", ".", "--class-dir", "."));
+    args.addAll(Arrays.asList(options));
+    Configuration.INSTANCE.reset();
+    JCommander.newBuilder()
+        .addObject(Configuration.INSTANCE)
+        .build()
+        .parse(args.toArray(new String[0]));
+  }
+
+  private static List<TaggedWord> sentence(String text) {
+    return Arrays.stream(text.split(" ")).map(TaggedWord::new).collect(toList());
+  }
+
+  /** Parses the given sentence in a new cache in {@code cacheDir}, returning the entry size. */
+  private static long entrySize(Path cacheDir, List<TaggedWord> sentence) throws IOException {
+    final List<Path> before = entries(cacheDir);
+    new ParseCache(cacheDir, 1 << 20).parse(sentence);
+    final List<Path> after = entries(cacheDir);
+    after.removeAll(before);
+    return Files.size(after.get(0));
+  }
+
+  private boolean isRecent(Path entry) {
+    try {
+      return Files.getLastModifiedTime(entry).toMillis() > System.currentTimeMillis() - 30_000;
+    } catch (IOException e) {
+      throw new AssertionError(e);
+    }
+  }
+
+  private static List<Path> entries(Path cacheDir) throws IOException {
+    try (Stream<Path> files = Files.walk(cacheDir)) {
+      return files.filter(f -> f.toString().endsWith(".graph")).collect(toList());
+    }
+  }
+
+  private static Object fileKey(Path file) throws IOException {
+    return Files.readAttributes(file, BasicFileAttributes.class).fileKey();
+  }
+}
@@ -0,0 +1,238 @@
+package org.toradocu.translator;
+
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import com.beust.jcommander.JCommander;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.junit.After;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.toradocu.conf.Configuration;
+import org.toradocu.extractor.Comment;
+import org.toradocu.extractor.DocumentedExecutable;
+import org.toradocu.extractor.DocumentedParameter;
+import org.toradocu.extractor.JavadocExtractor;
+import org.toradocu.extractor.ParamTag;
+import org.toradocu.output.util.JsonOutput;
+import org.toradocu.testlib.ToradocuJavaCompiler;
+import org.toradocu.util.GsonInstance;
+import randoop.condition.specification.Identifiers;
+import randoop.condition.specification.Operation;
+import randoop.condition.specification.OperationSpecification;
+
+/** Tests {@code SpecificationStore} on the example class example.AClass in src/test/resources. */
+public class SpecificationStoreTest {
+
+  private static final String EXAMPLE_SRC = "src/test/resources";
+  private static final String TARGET_CLASS = "example.AClass";
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  @BeforeClass
+  public static void compileSources() throws IOException {
+    List<String> sourceFiles =
+        Files.walk(Paths.get(EXAMPLE_SRC, "example"))
+            .filter(p -> p.getFileName().toString().endsWith(".java"))
+            .map(Path::toString)
+            .collect(toList());
+    if (!ToradocuJavaCompiler.run(sourceFiles)) {
+      fail("Error(s) during compilation of test source files.");
+    }
+  }
+
+  @After
+  public void tearDown() {
+    Configuration.INSTANCE.reset();
+  }
+
+  @Test
+  public void keyChangesWithTheJavadocAndTheOptions() throws Exception {
+    configure();
+    final String key = SpecificationStore.key(members());
+    assertThat(SpecificationStore.key(members()), is(key));
+
+    List<DocumentedExecutable> members = members();
+    final ParamTag tag = members.stream().flatMap(m -> m.paramTags().stream()).findFirst().get();
+    tag.setComment(new Comment("another comment"));
+    assertThat(SpecificationStore.key(members), is(not(key)));
+
+    configure("--distance-threshold", "1");
+    assertThat(SpecificationStore.key(members()), is(not(key)));
+    configure("--disable-semantics", "true");
+    assertThat(SpecificationStore.key(members()), is(not(key)));
+  }
+
+  @Test
+  public void entriesOfOtherKeysOrMembersAreRejected() throws Exception {
+    configure();
+    final List<DocumentedExecutable> members = members();
+    final SpecificationStore store = new SpecificationStore(folder.getRoot().toPath(), 1 << 20);
+    store.store("key", members, emptySpecifications(members));
+    assertThat(store.load("key", members), is(notNullValue()));
+    assertThat(store.load("key", members.subList(1, members.size())), is(nullValue()));
+
+    // An entry found at the path of another key, as after a hash collision, is not loaded.
+    final Path entry = entries().get(0);
+    final String otherHash = sha256("other key");
+    final Path otherEntry =
+        entry.getParent().resolveSibling(otherHash.substring(0, 2)).resolve(otherHash + ".specs");
+    Files.createDirectories(otherEntry.getParent());
+    Files.move(entry, otherEntry);
+    assertThat(store.load("other key", members), is(nullValue()));
+  }
+
+  @Test
+  public void leastRecentlyUsedEntriesAreEvicted() throws Exception {
+    configure();
+    final List<DocumentedExecutable> members = members();
+    final Map<DocumentedExecutable, OperationSpecification> specs = emptySpecifications(members);
+    SpecificationStore store = new SpecificationStore(folder.getRoot().toPath(), 1 << 20);
+    store.store("a", members, specs);
+    store.store("b", members, specs);
+    final long entrySize = Files.size(entries().get(0));
+    final long now = System.currentTimeMillis();
+    for (Path entry : entries()) {
+      Files.setLastModifiedTime(entry, FileTime.fromMillis(now - 60_000));
+    }
+
+    // Two entries fit in the store, three do not.
+    store = new SpecificationStore(folder.getRoot().toPath(), entrySize * 26 / 10);
+    assertThat(store.load("a", members), is(notNullValue()));
+    store.store("c", members, specs);
+    assertThat(entries().size(), is(2));
+    assertThat(store.load("a", members), is(notNullValue()));
+    assertThat(store.load("b", members), is(nullValue()));
+    assertThat(store.load("c", members), is(notNullValue()));
+  }
+
+  @Test
+  public void filesOfOtherVersionsAndTemporaryFilesAreDeleted() throws Exception {
+    final Path baseDirectory = folder.getRoot().toPath();
+    new SpecificationStore(baseDirectory, 1 << 20);
+    final Path versionDirectory;
+    try (Stream<Path> versions = Files.list(baseDirectory)) {
+      versionDirectory = versions.findFirst().get();
+    }
+    final Path entry = createFile(versionDirectory.resolve("ab").resolve("ab01.specs"));
+    final Path tmp = createFile(versionDirectory.resolve("ab").resolve("123.tmp"));
+    final Path otherEntry =
+        createFile(baseDirectory.resolve("other").resolve("ab").resolve("ab01.specs"));
+
+    new SpecificationStore(baseDirectory, 1 << 20);
+    assertThat(Files.exists(entry), is(true));
+    assertThat(Files.exists(tmp), is(false));
+    assertThat(Files.exists(otherEntry), is(false));
+  }
+
+  @Test
+  public void storeFollowsTheConfiguration() throws Exception {
+    final File first = folder.newFolder("first");
+    final File second = folder.newFolder("second");
+    configure("--spec-store-dir", first.toString());
+    final SpecificationStore store = SpecificationStore.getInstance();
+    assertThat(store, is(notNullValue()));
+    assertThat(SpecificationStore.getInstance(), is(sameInstance(store)));
+
+    // As between the requests served by the daemon.
+    configure("--spec-store-dir", second.toString());
+    final SpecificationStore secondStore = SpecificationStore.getInstance();
+    assertThat(secondStore, is(not(sameInstance(store))));
+    configure("--spec-store-dir", second.toString(), "--spec-store-size", "1");
+    assertThat(SpecificationStore.getInstance(), is(not(sameInstance(secondStore))));
+    configure();
+    assertThat(SpecificationStore.getInstance(), is(nullValue()));
+  }
+
+  @Test
+  public void loadedSpecificationsAreTheTranslatedOnes() throws Exception {
+    configure("--spec-store-dir", folder.getRoot().toString());
+    final List<String> translated = toJson(CommentTranslator.createSpecifications(members()));
+    assertThat(entries().size(), is(1));
+    // The members are extracted again, since the translation preprocesses their comments.
+    final List<String> loaded = toJson(CommentTranslator.createSpecifications(members()));
+    assertThat(loaded, is(translated));
+  }
+
+  private void configure(String... options) {
+    final List<String> args = new ArrayList<>();
+    args.add("--source-dir");
+    args.add(EXAMPLE_SRC);
+    args.add("--class-dir");
+    args.add(EXAMPLE_SRC);
+    for (String option : options) {
+      args.add(option);
+    }
+    Configuration.INSTANCE.reset();
+    JCommander.newBuilder()
+        .addObject(Configuration.INSTANCE)
+        .build()
+        .parse(args.toArray(new String[0]));
+  }
+
+  private static List<DocumentedExecutable> members() throws Exception {
+    return new JavadocExtractor().extract(TARGET_CLASS, EXAMPLE_SRC).getDocumentedExecutables();
+  }
+
+  private static Map<DocumentedExecutable, OperationSpecification> emptySpecifications(
+      List<DocumentedExecutable> members) {
+    Map<DocumentedExecutable, OperationSpecification> specs = new LinkedHashMap<>();
+    for (DocumentedExecutable member : members) {
+      List<String> paramNames =
+          member.getParameters().stream().map(DocumentedParameter::getName).collect(toList());
+      specs.put(
+          member,
+          new OperationSpecification(
+              Operation.getOperation(member.getExecutable()),
+              new Identifiers(paramNames, Configuration.RECEIVER, Configuration.RETURN_VALUE)));
+    }
+    return specs;
+  }
+
+  private static List<String> toJson(Map<DocumentedExecutable, OperationSpecification> specs) {
+    List<String> json = new ArrayList<>();
+    specs.forEach(
+        (member, spec) -> json.add(GsonInstance.gson().toJson(new JsonOutput(member, spec))));
+    return json;
+  }
+
+  private List<Path> entries() throws IOException {
+    try (Stream<Path> files = Files.walk(folder.getRoot().toPath())) {
+      return files.filter(f -> f.toString().endsWith(".specs")).collect(toList());
+    }
+  }
+
+  private static Path createFile(Path file) throws IOException {
+    Files.createDirectories(file.getParent());
+    return Files.write(file, new byte[] {1});
+  }
+
+  private static String sha256(String text) throws Exception {
+    final byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+    StringBuilder hex = new StringBuilder();
+    for (byte b : MessageDigest.getInstance("SHA-256").digest(bytes)) {
+      hex.append(String.format("%02x", b));
+    }
+    return hex.toString();
+  }
+}
@@ -0,0 +1,136 @@
+package org.toradocu.translator.preprocess;
+
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.toradocu.conf.Configuration;
+import org.toradocu.extractor.BlockTag;
+import org.toradocu.extractor.Comment;
+import org.toradocu.extractor.DocumentedExecutable;
+import org.toradocu.extractor.DocumentedType;
+import org.toradocu.extractor.JavadocExtractor;
+import org.toradocu.testlib.ToradocuJavaCompiler;
+
+/**
+ * Tests that {@code Preprocessor}, which fuses consecutive text rewrites, produces the same
+ * comments as running each phase on its own and rebuilding the comment after each of them.
+ */
+public class PreprocessorTest {
+
+  private static final String EXAMPLE_SRC = "src/test/resources";
+  private static final String TARGET_CLASS = "example.AClass";
+
+  /** Comments without markup, with irregular white spaces, and with tags and HTML entities. */
+  private static final List<String> COMMENTS =
+      Arrays.asList(
+          "must be >= v2",
+          "the value is null",
+          "if v2 > v1",
+          "if and only if v1 is negative",
+          "true iff the array is empty.",
+          "v1 may be null, or empty",
+          "it must not be null",
+          "whether v1 is in the range [0, 10]",
+          "",
+          "   ",
+          " \t\n ",
+          "  v1   may be \n null ,  or\tempty  ",
+          "if  v2 ,  is negative",
+          ", if v2 > v1",
+          ", iff v1 is negative",
+          "{@code v1} is null",
+          "<code>v1</code> &lt; 0 if and only if {@code v2} may be empty",
+          "if {@code v2} &gt;= 0, it is non-null",
+          "<b>iff</b>   {@code v1} < v2",
+          "v1 &amp;lt; v2 , may be true",
+          "&amp;lt;b&amp;gt;v1&amp;lt;/b&amp;gt; may be null",
+          "&amp;lt;b&amp;gt;if&amp;lt;/b&amp;gt; v2 &amp;gt; v1",
+          "{@link java.util.List} may be &amp; null");
+
+  private static DocumentedType documentedType;
+
+  @BeforeClass
+  public static void setUp() throws Exception {
+    List<String> sourceFiles =
+        Files.walk(Paths.get(EXAMPLE_SRC, "example"))
+            .filter(p -> p.getFileName().toString().endsWith(".java"))
+            .map(Path::toString)
+            .collect(toList());
+    if (!ToradocuJavaCompiler.run(sourceFiles)) {
+      fail("Error(s) during compilation of test source files.");
+    }
+    Configuration.INSTANCE.classDirs =
+        Collections.singletonList(Paths.get(EXAMPLE_SRC).toUri().toURL());
+    documentedType = new JavadocExtractor().extract(TARGET_CLASS, EXAMPLE_SRC);
+  }
+
+  @AfterClass
+  public static void tearDown() {
+    Configuration.INSTANCE.reset();
+  }
+
+  @Test
+  public void paramCommentsMatchThePerPhasePipeline() {
+    final DocumentedExecutable member = member("paramGELettersNumbers");
+    assertSamePreprocessing(member.paramTags().get(0), member);
+  }
+
+  @Test
+  public void throwsCommentsMatchThePerPhasePipeline() {
+    final DocumentedExecutable member = member("throwsGTLettersNumbers");
+    assertSamePreprocessing(member.throwsTags().get(0), member);
+  }
+
+  @Test
+  public void returnCommentsMatchThePerPhasePipeline() {
+    final DocumentedExecutable member = member("returnEqLettersNumbers");
+    assertSamePreprocessing(member.returnTag(), member);
+  }
+
+  /**
+   * Preprocesses each comment in {@link #COMMENTS} as the comment of {@code tag}, both with the
+   * shared preprocessor and phase by phase, and checks that the results are the same.
+   *
+   * @param tag the tag whose comment is replaced
+   * @param member the member documented by {@code tag}
+   */
+  private static void assertSamePreprocessing(BlockTag tag, DocumentedExecutable member) {
+    for (String text : COMMENTS) {
+      tag.setComment(new Comment(text));
+      final Comment expected = preprocessPhaseByPhase(tag, member);
+      tag.setComment(new Comment(text));
+      final Preprocessor preprocessor = PreprocessorFactory.get(tag.getKind());
+      final Comment actual = preprocessor.preprocess(tag, member).getComment();
+      assertThat(text, actual.getText(), is(expected.getText()));
+      assertThat(text, actual.getWordsMarkedAsCode(), is(expected.getWordsMarkedAsCode()));
+    }
+  }
+
+  private static Comment preprocessPhaseByPhase(BlockTag tag, DocumentedExecutable member) {
+    for (PreprocessingPhase phase : PreprocessorFactory.phases(tag.getKind())) {
+      final String text = phase.run(tag, member);
+      tag.setComment(new Comment(text, tag.getComment().getWordsMarkedAsCode()));
+    }
+    return tag.getComment();
+  }
+
+  private static DocumentedExecutable member(String name) {
+    for (DocumentedExecutable member : documentedType.getDocumentedExecutables()) {
+      if (member.getName().equals(name)) {
+        return member;
+      }
+    }
+    throw new AssertionError("Member " + name + " not found in " + TARGET_CLASS);
+  }
+}
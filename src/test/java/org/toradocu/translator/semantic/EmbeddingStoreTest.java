@@ -0,0 +1,54 @@
+package org.toradocu.translator.semantic;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import org.junit.Test;
+
+public class EmbeddingStoreTest {
+
+  @Test
+  public void convertedStoreContainsAllTheVectors() throws Exception {
+    final int words = 1000;
+    final int dimension = 5;
+    Random random = new Random(42);
+    float[][] vectors = new float[words][dimension];
+    StringBuilder text = new StringBuilder();
+    for (int i = 0; i < words; i++) {
+      text.append("wörd").append(i);
+      for (int j = 0; j < dimension; j++) {
+        vectors[i][j] = random.nextFloat() - 0.5f;
+        text.append(' ').append(vectors[i][j]);
+      }
+      text.append('\n');
+    }
+    // A duplicated word keeps its first vector.
+    text.append("wörd0 1 1 1 1 1\n");
+
+    Path directory = Files.createTempDirectory("embeddings");
+    Path file = directory.resolve("test.emb");
+    try {
+      EmbeddingStore.convert(
+          new ByteArrayInputStream(text.toString().getBytes(StandardCharsets.UTF_8)), file);
+      EmbeddingStore store = EmbeddingStore.open(file);
+
+      assertThat(store.dimension(), is(dimension));
+      for (int i = 0; i < words; i++) {
+        assertThat(store.indexOf("wörd" + i), is(i));
+        assertArrayEquals(vectors[i], store.vector("wörd" + i), 0f);
+      }
+      assertThat(store.contains("word0"), is(false));
+      assertThat(store.vector("missing"), is(nullValue()));
+    } finally {
+      Files.deleteIfExists(file);
+      Files.deleteIfExists(directory);
+    }
+  }
+}
@@ -0,0 +1,113 @@
+package org.toradocu.util;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.net.URI;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import javax.tools.JavaCompiler;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.toradocu.conf.Configuration;
+import org.toradocu.util.ComplianceBatch.Candidate;
+
+public class ComplianceBatchTest {
+
+  /** Bodies of the guards, compilable or not, placed in a method with a String parameter. */
+  private static final List<String> GUARDS =
+      Arrays.asList(
+          "s.isEmpty()",
+          "s.isEmpty(",
+          "s.undefinedMethod()",
+          "s.length() > 0",
+          "s.length()",
+          "s == null || s.contains(\"x\")",
+          "undefinedVariable == null",
+          "s.isEmpty()");
+
+  private List<URL> classDirs;
+  private Path outputDir;
+
+  @Before
+  public void setUp() throws Exception {
+    classDirs = Configuration.INSTANCE.classDirs;
+    outputDir = Files.createTempDirectory("compliance");
+    Configuration.INSTANCE.classDirs = Collections.singletonList(outputDir.toUri().toURL());
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    Configuration.INSTANCE.classDirs = classDirs;
+    FileUtils.deleteDirectory(outputDir.toFile());
+  }
+
+  @Test
+  public void batchDecisionsAreTheSameAsPerGuardCompilation() {
+    ComplianceBatch batch = new ComplianceBatch();
+    List<Candidate> candidates = new ArrayList<>();
+    for (String guard : GUARDS) {
+      candidates.add(batch.add(className -> source(className, guard), guard));
+    }
+    batch.compile();
+
+    for (int i = 0; i < GUARDS.size(); i++) {
+      final String guard = GUARDS.get(i);
+      assertThat(guard, candidates.get(i).isCompilable(), is(compilesAlone(guard)));
+    }
+    // Identical guards are compiled once.
+    assertThat(candidates.get(GUARDS.size() - 1), is(candidates.get(0)));
+  }
+
+  @Test
+  public void fileManagerFollowsTheClasspath() throws Exception {
+    for (int i = 0; i < 2; i++) {
+      Configuration.INSTANCE.classDirs =
+          Collections.singletonList(
+              new File(outputDir.toFile(), "classes" + i).toURI().toURL());
+      ComplianceBatch batch = new ComplianceBatch();
+      Candidate valid = batch.add(className -> source(className, "s.isEmpty()"), "valid");
+      Candidate invalid = batch.add(className -> source(className, "s.isEmpty("), "invalid");
+      batch.compile();
+      assertThat(valid.isCompilable(), is(true));
+      assertThat(invalid.isCompilable(), is(false));
+    }
+  }
+
+  private static String source(String className, String guard) {
+    return "public class " + className + " { boolean guard(String s) { return " + guard + "; } }";
+  }
+
+  /** Compiles a guard on its own with the system compiler, as the compliance checks used to. */
+  private boolean compilesAlone(String guard) {
+    final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    final String source = source("GeneratedSpecs", guard);
+    final SimpleJavaFileObject sourceFile =
+        new SimpleJavaFileObject(
+            URI.create("string:///GeneratedSpecs.java"), SimpleJavaFileObject.Kind.SOURCE) {
+          @Override
+          public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return source;
+          }
+        };
+    return compiler
+        .getTask(
+            null,
+            null,
+            diagnostic -> {},
+            Arrays.asList("-d", outputDir.toString()),
+            null,
+            Collections.singletonList(sourceFile))
+        .call();
+  }
+}
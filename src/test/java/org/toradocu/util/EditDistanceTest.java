@@ -3,6 +3,10 @@ package org.toradocu.util;
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
 
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
 import org.junit.Test;
 
 public class EditDistanceTest {
@@ -78,4 +82,68 @@ public class EditDistanceTest {
     distance = Distance.editDistance("map", "the specified myMap", WORD_DELETION_COST);
     assertThat(distance, is(6));
   }
+
+  @Test
+  public void distanceMatchesExhaustiveSearchTest() throws Exception {
+    final Random random = new Random(42);
+    for (int iteration = 0; iteration < 5000; iteration++) {
+      final String s0 = randomPhrase(random, 1 + random.nextInt(2));
+      final String s1 = randomPhrase(random, 1 + random.nextInt(6));
+      final int wordDeletionCost = random.nextInt(4);
+      assertThat(
+          s0 + " / " + s1 + " / " + wordDeletionCost,
+          Distance.editDistance(s0, s1, wordDeletionCost),
+          is(exhaustiveEditDistance(s0, s1, wordDeletionCost)));
+    }
+  }
+
+  /**
+   * Returns a random phrase made of {@code words} words, possibly empty, separated by spaces.
+   *
+   * @param random the random number generator
+   * @param words the number of words in the phrase
+   * @return a random phrase
+   */
+  private static String randomPhrase(Random random, int words) {
+    final String alphabet = "abcAB";
+    StringBuilder phrase = new StringBuilder();
+    for (int i = 0; i < words; i++) {
+      if (i > 0) {
+        phrase.append(' ');
+      }
+      final int length = random.nextInt(5);
+      for (int j = 0; j < length; j++) {
+        phrase.append(alphabet.charAt(random.nextInt(alphabet.length())));
+      }
+    }
+    return phrase.toString();
+  }
+
+  /**
+   * Reference implementation of the edit distance that tries every sequence of word deletions.
+   *
+   * @param s0 the first string, in which word deletions are not considered
+   * @param s1 the second string, in which word deletions are considered
+   * @param wordDeletionCost the cost of a single word deletion
+   * @return the edit distance between the two strings
+   */
+  private static int exhaustiveEditDistance(String s0, String s1, int wordDeletionCost) {
+    return exhaustiveEditDistance(
+        wordDeletionCost, s0, new LinkedList<>(Arrays.asList(s1.split(" "))));
+  }
+
+  private static int exhaustiveEditDistance(int wordDeletionCost, String s0, List<String> s1) {
+    int minDistance = Distance.levenshteinDistance(s0, String.join(" ", s1));
+    for (int i = 0; i < s1.size(); i++) {
+      String word = s1.remove(i);
+      if (!s1.isEmpty()) {
+        int distance = wordDeletionCost + exhaustiveEditDistance(wordDeletionCost, s0, s1);
+        if (distance < minDistance) {
+          minDistance = distance;
+        }
+      }
+      s1.add(i, word);
+    }
+    return minDistance;
+  }
 }
@@ -0,0 +1,100 @@
+package org.toradocu.util;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+
+public class JsonStreamWriterTest {
+
+  private static final List<Item> ITEMS =
+      Arrays.asList(new Item("first", 1), new Item("<second>", 2), new Item("third\n", 3));
+
+  @Test
+  public void prettyLayoutIsTheSameAsGson() throws Exception {
+    assertThat(write(ITEMS, JsonStreamWriter.Layout.PRETTY), is(GsonInstance.gson().toJson(ITEMS)));
+    assertThat(
+        write(new ArrayList<>(), JsonStreamWriter.Layout.PRETTY),
+        is(GsonInstance.gson().toJson(new ArrayList<>())));
+  }
+
+  @Test
+  public void compactLayouts() throws Exception {
+    assertThat(
+        write(ITEMS.subList(0, 2), JsonStreamWriter.Layout.COMPACT),
+        is("[{\"name\":\"first\",\"value\":1},{\"name\":\"<second>\",\"value\":2}]"));
+    assertThat(
+        write(ITEMS.subList(0, 2), JsonStreamWriter.Layout.NDJSON),
+        is("{\"name\":\"first\",\"value\":1}\n{\"name\":\"<second>\",\"value\":2}\n"));
+  }
+
+  @Test
+  public void readerAcceptsAllLayouts() throws Exception {
+    for (JsonStreamWriter.Layout layout : JsonStreamWriter.Layout.values()) {
+      assertThat(read(write(ITEMS, layout)), is(ITEMS));
+      assertThat(read(write(new ArrayList<>(), layout)), is(new ArrayList<>()));
+    }
+  }
+
+  @Test
+  public void streamIsFlushedButNotClosed() throws Exception {
+    final boolean[] closed = {false};
+    ByteArrayOutputStream out =
+        new ByteArrayOutputStream() {
+          @Override
+          public void close() {
+            closed[0] = true;
+          }
+        };
+    try (JsonStreamWriter writer = JsonStreamWriter.toStream(out, JsonStreamWriter.Layout.NDJSON)) {
+      writer.write(ITEMS.get(0));
+    }
+    assertThat(out.toString("UTF-8"), is("{\"name\":\"first\",\"value\":1}\n"));
+    assertThat(closed[0], is(false));
+  }
+
+  private static String write(List<?> elements, JsonStreamWriter.Layout layout) throws Exception {
+    StringWriter out = new StringWriter();
+    try (JsonStreamWriter writer = new JsonStreamWriter(out, layout)) {
+      for (Object element : elements) {
+        writer.write(element);
+      }
+    }
+    return out.toString();
+  }
+
+  private static List<Item> read(String json) throws Exception {
+    List<Item> elements = new ArrayList<>();
+    try (JsonStreamReader<Item> reader =
+        new JsonStreamReader<>(new StringReader(json), Item.class)) {
+      reader.forEachRemaining(elements::add);
+    }
+    return elements;
+  }
+
+  private static class Item {
+    private final String name;
+    private final int value;
+
+    Item(String name, int value) {
+      this.name = name;
+      this.value = value;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      return obj instanceof Item && ((Item) obj).name.equals(name) && ((Item) obj).value == value;
+    }
+
+    @Override
+    public int hashCode() {
+      return name.hashCode() + value;
+    }
+  }
+}
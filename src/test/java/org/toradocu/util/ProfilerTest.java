@@ -0,0 +1,81 @@
+package org.toradocu.util;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.startsWith;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ProfilerTest {
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  @After
+  public void tearDown() {
+    Profiler.reset();
+  }
+
+  @Test
+  public void reportContainsPhasesAndCaches() throws Exception {
+    Profiler.reset();
+    try (Profiler.Timer outer = Profiler.start(Profiler.Phase.MATCHING)) {
+      try (Profiler.Timer nested = Profiler.start(Profiler.Phase.MATCHING)) {
+        try (Profiler.Timer inner = Profiler.start(Profiler.Phase.SEMANTIC_MATCHING)) {
+          Thread.sleep(1);
+        }
+      }
+    }
+    // Test cases are enriched on the threads of an executor.
+    final Thread enrichment =
+        new Thread(
+            () -> {
+              try (Profiler.Timer timer = Profiler.start(Profiler.Phase.ENRICHMENT)) {
+                Thread.yield();
+              }
+            });
+    enrichment.start();
+    enrichment.join();
+    Profiler.cacheAccess(Profiler.Cache.CODE_ELEMENTS, true);
+    Profiler.cacheAccess(Profiler.Cache.CODE_ELEMENTS, true);
+    Profiler.cacheAccess(Profiler.Cache.CODE_ELEMENTS, true);
+    Profiler.cacheAccess(Profiler.Cache.CODE_ELEMENTS, false);
+
+    final List<Path> report = Profiler.writeReport(new File(folder.getRoot(), "stats.csv"));
+    assertThat(report.get(0).getFileName().toString(), is("stats_profile.json"));
+    assertThat(report.get(1).getFileName().toString(), is("stats_profile.csv"));
+
+    final List<String> csv = Files.readAllLines(report.get(1), StandardCharsets.UTF_8);
+    assertThat(row(csv, "phase", "matching"), startsWith("phase,matching,2,"));
+    assertThat(row(csv, "phase", "semantic-matching"), startsWith("phase,semantic-matching,1,"));
+    assertThat(row(csv, "phase", "enrichment"), startsWith("phase,enrichment,1,"));
+    assertThat(row(csv, "phase", "evosuite"), startsWith("phase,evosuite,0,"));
+    assertThat(row(csv, "cache", "code-elements"), is("cache,code-elements,,,,3,1,0.750"));
+    final String json = new String(Files.readAllBytes(report.get(0)), StandardCharsets.UTF_8);
+    assertThat(json, containsString("\"slowestComments\": []"));
+  }
+
+  /**
+   * Returns the row of the CSV report with the given kind and name.
+   *
+   * @param csv the lines of the CSV report
+   * @param kind the kind of the row (phase, cache, or preprocessing-step)
+   * @param name the name of the phase, cache, or preprocessing step
+   * @return the row with {@code kind} and {@code name}
+   */
+  private static String row(List<String> csv, String kind, String name) {
+    final String prefix = kind + "," + name + ",";
+    return csv.stream()
+        .filter(line -> line.startsWith(prefix))
+        .findFirst()
+        .orElseThrow(() -> new AssertionError("No row " + kind + "," + name + " in " + csv));
+  }
+}